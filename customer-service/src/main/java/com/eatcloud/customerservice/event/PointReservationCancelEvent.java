@@ -13,4 +13,6 @@ public class PointReservationCancelEvent {
     private UUID orderId;
     private UUID customerId;
     private String sagaId;
+    private String replyTo;
+    private String correlationId;
 }
@@ -14,4 +14,6 @@ public class PointReservationRequestEvent {
     private UUID customerId;
     private Integer points;
     private String sagaId;
+    private String replyTo;
+    private String correlationId;
 }
@@ -13,6 +13,7 @@ public class PointReservationResponseEvent {
     private UUID orderId;
     private UUID customerId;
     private String sagaId;
+    private String correlationId;
     private String reservationId;
     private boolean success;
     private String errorMessage;
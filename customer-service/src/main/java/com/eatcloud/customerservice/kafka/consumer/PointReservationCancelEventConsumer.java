@@ -35,11 +35,12 @@ public class PointReservationCancelEventConsumer {
                     .orderId(event.getOrderId())
                     .customerId(event.getCustomerId())
                     .sagaId(event.getSagaId())
+                    .correlationId(event.getCorrelationId())
                     .success(true)
                     .errorMessage(null)
                     .build();
             
-            customerEventProducer.publishPointReservationCancelResponse(responseEvent);
+            customerEventProducer.publishPointReservationCancelResponse(event.getReplyTo(), responseEvent);
             log.info("포인트 예약 취소 성공 응답 발행: orderId={}, sagaId={}", event.getOrderId(), event.getSagaId());
             
         } catch (Exception e) {
@@ -50,11 +51,12 @@ public class PointReservationCancelEventConsumer {
                     .orderId(event.getOrderId())
                     .customerId(event.getCustomerId())
                     .sagaId(event.getSagaId())
+                    .correlationId(event.getCorrelationId())
                     .success(false)
                     .errorMessage(e.getMessage())
                     .build();
             
-            customerEventProducer.publishPointReservationCancelResponse(responseEvent);
+            customerEventProducer.publishPointReservationCancelResponse(event.getReplyTo(), responseEvent);
             log.info("포인트 예약 취소 실패 응답 발행: orderId={}, sagaId={}", event.getOrderId(), event.getSagaId());
         }
     }
@@ -32,12 +32,13 @@ public class PointReservationEventConsumer {
                     .orderId(event.getOrderId())
                     .customerId(event.getCustomerId())
                     .sagaId(event.getSagaId())
+                    .correlationId(event.getCorrelationId())
                     .reservationId(UUID.randomUUID().toString())
                     .success(true)
                     .errorMessage(null)
                     .build();
 
-            customerEventProducer.publishPointReservationResponse(responseEvent);
+            customerEventProducer.publishPointReservationResponse(event.getReplyTo(), responseEvent);
 
         } catch (Exception e) {
             log.error("포인트 예약 처리 중 오류 발생: orderId={}, customerId={}, sagaId={}",
@@ -47,12 +48,13 @@ public class PointReservationEventConsumer {
                     .orderId(event.getOrderId())
                     .customerId(event.getCustomerId())
                     .sagaId(event.getSagaId())
+                    .correlationId(event.getCorrelationId())
                     .reservationId(null)
                     .success(false)
                     .errorMessage(e.getMessage())
                     .build();
 
-            customerEventProducer.publishPointReservationResponse(responseEvent);
+            customerEventProducer.publishPointReservationResponse(event.getReplyTo(), responseEvent);
         }
     }
 }
@@ -15,9 +15,9 @@ public class CustomerEventProducer {
     
     private final KafkaTemplate<String, Object> kafkaTemplate;
     
-    public void publishPointReservationResponse(PointReservationResponseEvent event) {
+    public void publishPointReservationResponse(String replyTo, PointReservationResponseEvent event) {
         try {
-            kafkaTemplate.send("point.reservation.response", event.getOrderId().toString(), event);
+            kafkaTemplate.send(replyTopic(replyTo, "point.reservation.response"), event.getOrderId().toString(), event);
             log.info("포인트 예약 응답 이벤트 발행: orderId={}, success={}", 
                     event.getOrderId(), event.isSuccess());
         } catch (Exception e) {
@@ -26,9 +26,9 @@ public class CustomerEventProducer {
         }
     }
     
-    public void publishPointReservationCancelResponse(PointReservationCancelResponseEvent event) {
+    public void publishPointReservationCancelResponse(String replyTo, PointReservationCancelResponseEvent event) {
         try {
-            kafkaTemplate.send("point.reservation.cancel.response", event.getOrderId().toString(), event);
+            kafkaTemplate.send(replyTopic(replyTo, "point.reservation.cancel.response"), event.getOrderId().toString(), event);
             log.info("포인트 예약 취소 응답 이벤트 발행: orderId={}, success={}", 
                     event.getOrderId(), event.isSuccess());
         } catch (Exception e) {
@@ -47,4 +47,9 @@ public class CustomerEventProducer {
             throw new RuntimeException("포인트 차감 응답 이벤트 발행 실패: " + e.getMessage(), e);
         }
     }
+
+    // 요청자가 응답 토픽(replyTo)을 지정했으면 그 토픽으로, 아니면 공용 응답 토픽으로 보낸다
+    private String replyTopic(String replyTo, String defaultTopic) {
+        return replyTo != null && !replyTo.isBlank() ? replyTo : defaultTopic;
+    }
 }
@@ -211,8 +211,10 @@ CREATE INDEX IF NOT EXISTS idx_inv_res_order
 /* =========================
    Outbox for ES/CQRS (store-service)
    ========================= */
+-- 일 단위 RANGE 파티션 (created_at). 파티션 생성/만료 drop 은 앱의 DailyPartitionMaintainer 가 맡는다
+-- PK 는 파티션 키를 포함해야 하므로 (id, created_at). DEFAULT 파티션은 미리 만들지 못한 날짜의 안전망
 CREATE TABLE IF NOT EXISTS p_outbox (
-                                        id               UUID PRIMARY KEY,                 -- 앱에서 UUID 생성
+                                        id               UUID NOT NULL,                    -- 앱에서 UUID 생성
                                         event_type       VARCHAR(150) NOT NULL,           -- 예: stock.reserved / stock.released / stock.committed / stock.insufficient
                                         aggregate_type   VARCHAR(100) NOT NULL,           -- 예: INVENTORY_ITEM / MENU / ORDER_LINE 등
                                         aggregate_id     UUID NOT NULL,
@@ -224,10 +226,16 @@ CREATE TABLE IF NOT EXISTS p_outbox (
                                         retry_count      INT           NOT NULL DEFAULT 0,
                                         next_attempt_at  TIMESTAMPTZ,
                                         published_at     TIMESTAMPTZ,
+                                        claimed_by       VARCHAR(100),                    -- 릴레이 lease 소유자
+                                        claim_expires_at TIMESTAMPTZ,                     -- lease 만료 (지나면 다른 인스턴스가 회수)
 
     -- 레거시 호환(점진 폐기 가능)
-                                        sent             BOOLEAN       NOT NULL DEFAULT FALSE
-);
+                                        sent             BOOLEAN       NOT NULL DEFAULT FALSE,
+
+                                        PRIMARY KEY (id, created_at)
+) PARTITION BY RANGE (created_at);
+
+CREATE TABLE IF NOT EXISTS p_outbox_default PARTITION OF p_outbox DEFAULT;
 
 -- 인덱스
 CREATE INDEX IF NOT EXISTS idx_outbox_status
@@ -239,6 +247,27 @@ CREATE INDEX IF NOT EXISTS idx_outbox_next_attempt_at
 CREATE INDEX IF NOT EXISTS idx_outbox_aggregate
     ON p_outbox(aggregate_type, aggregate_id);
 
+-- 릴레이 claim 용 미발행 부분 인덱스 (SENT 로 채워진 지난 파티션은 거의 비어 있음)
+CREATE INDEX IF NOT EXISTS idx_outbox_unsent
+    ON p_outbox(created_at) WHERE status <> 'SENT';
+
+-- claim 시 같은 aggregate 의 앞선 미발행 행 확인용
+CREATE INDEX IF NOT EXISTS idx_outbox_unsent_aggregate
+    ON p_outbox(aggregate_id, created_at) WHERE status <> 'SENT';
+
+CREATE INDEX IF NOT EXISTS idx_outbox_claim_expires
+    ON p_outbox(claim_expires_at);
+
+-- INSERT 시 릴레이를 깨우는 NOTIFY (채널명 = 테이블명, 문장 단위로 한 번)
+-- 함수 본문은 spring.sql.init 의 ';' 분리에 걸리지 않도록 $$ 대신 작은따옴표로 감싼다
+CREATE OR REPLACE FUNCTION notify_p_outbox() RETURNS trigger LANGUAGE plpgsql AS
+'BEGIN PERFORM pg_notify(''p_outbox'', ''''); RETURN NULL; END';
+
+DROP TRIGGER IF EXISTS trg_p_outbox_notify ON p_outbox;
+CREATE TRIGGER trg_p_outbox_notify
+    AFTER INSERT ON p_outbox
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_p_outbox();
+
 -- (레거시 쿼리 호환 유지)
 CREATE INDEX IF NOT EXISTS idx_outbox_sent_created
     ON p_outbox(sent, created_at);
@@ -266,12 +295,15 @@ CREATE TABLE IF NOT EXISTS stock_projection (
                                                 updated_at  TIMESTAMP NOT NULL DEFAULT now()
 );
 
--- projector의 멱등처리(이벤트 1회만 반영)
+-- projector의 멱등처리(이벤트 1회만 반영). event_id 유일성이 중복 판정이라 파티션하지 않고,
+-- processed-retention-days 가 지난 행은 ExpiredRowCleaner 가 나눠 지운다
 CREATE TABLE IF NOT EXISTS stock_proj_processed (
                                                     event_id    UUID PRIMARY KEY,
                                                     processed_at TIMESTAMP NOT NULL DEFAULT now()
 );
 
+CREATE INDEX IF NOT EXISTS idx_stock_proj_processed_at ON stock_proj_processed(processed_at);
+
 CREATE INDEX IF NOT EXISTS idx_stock_projection_updated ON stock_projection(updated_at);
 
 
@@ -0,0 +1,95 @@
+package com.eatcloud.eventcodec;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+import org.springframework.util.ClassUtils;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * JSON / Smile 을 모두 읽는 value deserializer.
+ *
+ * value 가 Smile 매직 헤더로 시작하면 {@link JsonDeserializer#VALUE_DEFAULT_TYPE} 클래스로 Smile 을 읽고,
+ * 아니면 같은 설정의 Spring {@link JsonDeserializer} 에 넘긴다. 그래서 생산자가 토픽을 언제 바꾸든
+ * (섞여 있는 구간 포함) 소비자 설정은 그대로 둔다.
+ *
+ * eventSchema 헤더가 있으면 {@link EventSchemaRegistry} 와 비교한다:
+ *  - 이름이 다르면 기본 타입과 다른 이벤트가 들어온 것이다. 기존 JSON 과 같이 관대하게 읽되 경고를 남긴다
+ *  - 버전이 더 높으면 모르는 필드는 무시하고 읽는다
+ * (로그는 토픽/스키마 조합마다 한 번만)
+ */
+@Slf4j
+public class CompactEventDeserializer implements Deserializer<Object> {
+
+    private final JsonDeserializer<Object> json = new JsonDeserializer<>();
+    private final Set<String> reportedSchemas = ConcurrentHashMap.newKeySet();
+    private Class<?> targetType;
+    private EventSchemaRegistry schemas = new EventSchemaRegistry(Map.of());
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        json.configure(configs, isKey);
+        Object type = configs.get(isKey ? JsonDeserializer.KEY_DEFAULT_TYPE : JsonDeserializer.VALUE_DEFAULT_TYPE);
+        try {
+            targetType = type instanceof Class<?> c ? c
+                    : type == null ? null : ClassUtils.forName(type.toString().trim(), ClassUtils.getDefaultClassLoader());
+        } catch (ClassNotFoundException | LinkageError e) {
+            throw new IllegalStateException("이벤트 기본 타입을 찾을 수 없음: " + type, e);
+        }
+        Object location = configs.get(CompactEventSerializer.SCHEMA_LOCATION);
+        schemas = EventSchemaRegistry.load(location == null ? EventSchemaRegistry.DEFAULT_LOCATION : location.toString());
+    }
+
+    @Override
+    public Object deserialize(String topic, byte[] data) {
+        return deserialize(topic, new RecordHeaders(), data);
+    }
+
+    @Override
+    public Object deserialize(String topic, Headers headers, byte[] data) {
+        if (data == null) {
+            return null;
+        }
+        checkSchema(topic, headers);
+        if (!EventEncoding.isSmile(data)) {
+            return json.deserialize(topic, headers, data);
+        }
+        if (targetType == null) {
+            throw new SerializationException("Smile 이벤트의 대상 타입 미설정: topic=" + topic);
+        }
+        try {
+            return EventEncoding.smileMapper().readValue(data, targetType);
+        } catch (Exception e) {
+            throw new SerializationException("Smile 역직렬화 실패: topic=" + topic + ", type=" + targetType.getName(), e);
+        }
+    }
+
+    private void checkSchema(String topic, Headers headers) {
+        String header = EventEncoding.readHeader(headers, EventEncoding.SCHEMA_HEADER);
+        EventSchemaRegistry.Schema expected = schemas.schemaOf(targetType);
+        if (header == null || expected == null) {
+            return;
+        }
+        EventSchemaRegistry.Schema actual = EventSchemaRegistry.Schema.parse(header);
+        if (!actual.name().equals(expected.name())) {
+            if (reportedSchemas.add(topic + "/" + actual)) {
+                log.warn("이벤트 스키마 불일치: topic={}, expected={}, actual={}", topic, expected, actual);
+            }
+            return;
+        }
+        if (actual.version() > expected.version() && reportedSchemas.add(topic + "/" + actual)) {
+            log.warn("상위 스키마 버전 수신 → 모르는 필드는 무시: topic={}, local={}, remote={}", topic, expected, actual);
+        }
+    }
+
+    @Override
+    public void close() {
+        json.close();
+    }
+}
@@ -0,0 +1,73 @@
+package com.eatcloud.eventcodec;
+
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.serialization.Serializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * 토픽별로 JSON / Smile 을 고르는 value serializer.
+ *
+ * {@link #BINARY_TOPICS} 에 있는 토픽만 Smile 로 쓰고 나머지는 Spring {@link JsonSerializer} 그대로다
+ * (기본값 비어 있음 = 전부 JSON). 두 경우 모두 contentType/eventSchema 헤더를 붙인다.
+ * 소비 측을 {@link CompactEventDeserializer} 로 먼저 배포한 뒤 토픽을 하나씩 켜면 된다.
+ */
+@Slf4j
+public class CompactEventSerializer implements Serializer<Object> {
+
+    /** Smile 로 보낼 토픽 목록 (콤마 구분) */
+    public static final String BINARY_TOPICS = "eatcloud.codec.binary-topics";
+    /** 스키마 파일 위치 (기본 {@link EventSchemaRegistry#DEFAULT_LOCATION}) */
+    public static final String SCHEMA_LOCATION = "eatcloud.codec.schema-location";
+
+    private final JsonSerializer<Object> json = new JsonSerializer<>();
+    private Set<String> binaryTopics = Set.of();
+    private EventSchemaRegistry schemas = new EventSchemaRegistry(Map.of());
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        json.configure(configs, isKey);
+        binaryTopics = EventEncoding.parseTopics(configs.get(BINARY_TOPICS));
+        Object location = configs.get(SCHEMA_LOCATION);
+        schemas = EventSchemaRegistry.load(location == null ? EventSchemaRegistry.DEFAULT_LOCATION : location.toString());
+        if (!binaryTopics.isEmpty()) {
+            log.info("Kafka 이벤트 Smile 인코딩 토픽: {}", binaryTopics);
+        }
+    }
+
+    @Override
+    public byte[] serialize(String topic, Object data) {
+        return serialize(topic, new RecordHeaders(), data);
+    }
+
+    @Override
+    public byte[] serialize(String topic, Headers headers, Object data) {
+        if (data == null) {
+            return null;
+        }
+        EventSchemaRegistry.Schema schema = schemas.schemaOf(data.getClass());
+        if (schema != null) {
+            EventEncoding.setHeader(headers, EventEncoding.SCHEMA_HEADER, schema.toString());
+        }
+        if (!binaryTopics.contains(topic)) {
+            EventEncoding.setHeader(headers, EventEncoding.CONTENT_TYPE_HEADER, EventEncoding.JSON);
+            return json.serialize(topic, headers, data);
+        }
+        try {
+            EventEncoding.setHeader(headers, EventEncoding.CONTENT_TYPE_HEADER, EventEncoding.SMILE);
+            return EventEncoding.smileMapper().writeValueAsBytes(data);
+        } catch (Exception e) {
+            throw new SerializationException("Smile 직렬화 실패: topic=" + topic + ", type=" + data.getClass().getName(), e);
+        }
+    }
+
+    @Override
+    public void close() {
+        json.close();
+    }
+}
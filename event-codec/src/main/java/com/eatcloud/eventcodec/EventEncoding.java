@@ -0,0 +1,98 @@
+package com.eatcloud.eventcodec;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileGenerator;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Kafka 이벤트 value 인코딩 (JSON / Smile).
+ *
+ * Smile 은 JSON 과 같은 데이터 모델의 바이너리 포맷이라 이벤트 클래스/JsonNode 를 그대로 쓸 수 있고,
+ * 반복되는 필드명·짧은 문자열을 back-reference 로 줄여 payload 와 파싱 비용이 작다.
+ * 모든 Smile 문서는 ":)\n" 매직 헤더로 시작하므로 소비 측은 헤더 없이도 포맷을 판별한다
+ * (JSON 문서는 '{' '[' '"' 등으로 시작하므로 겹치지 않는다).
+ */
+public final class EventEncoding {
+
+    private EventEncoding() {}
+
+    /** value 포맷 헤더 (outbox 릴레이의 contentType 과 같은 이름) */
+    public static final String CONTENT_TYPE_HEADER = "contentType";
+    /** 스키마 헤더: "{name}:{version}" ({@link EventSchemaRegistry}) */
+    public static final String SCHEMA_HEADER = "eventSchema";
+
+    public static final String JSON = "application/json";
+    public static final String SMILE = "application/x-jackson-smile";
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+    private static final SmileFactory SMILE_FACTORY = SmileFactory.builder()
+            .enable(SmileGenerator.Feature.CHECK_SHARED_STRING_VALUES) // enum/상태 문자열 반복 압축
+            .build();
+    private static final ObjectMapper SMILE_MAPPER = new ObjectMapper(SMILE_FACTORY)
+            .findAndRegisterModules()
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES); // 상위 버전 필드는 무시 (tolerant reader)
+
+    /** 이벤트 클래스/JsonNode 용 Smile 매퍼 (thread-safe, 공유) */
+    public static ObjectMapper smileMapper() {
+        return SMILE_MAPPER;
+    }
+
+    public static boolean isSmile(byte[] data) {
+        return data != null && data.length >= 3
+                && data[0] == ':' && data[1] == ')' && data[2] == '\n';
+    }
+
+    /** 저장된 JSON 을 객체로 만들지 않고 토큰 단위로 Smile 로 옮긴다 (outbox 릴레이용). */
+    public static byte[] jsonToSmile(byte[] json) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(Math.max(32, json.length / 2));
+        try (JsonParser parser = JSON_FACTORY.createParser(json);
+             JsonGenerator generator = SMILE_FACTORY.createGenerator(out)) {
+            parser.nextToken();
+            generator.copyCurrentStructure(parser);
+        }
+        return out.toByteArray();
+    }
+
+    /** value 를 포맷에 맞게 트리로 읽는다. JSON 은 주어진 매퍼로 읽는다. */
+    public static JsonNode readTree(ObjectMapper jsonMapper, byte[] data) throws IOException {
+        return isSmile(data) ? SMILE_MAPPER.readTree(data) : jsonMapper.readTree(data);
+    }
+
+    /** 설정값("a, b,c" 또는 컬렉션)을 토픽 집합으로 */
+    public static Set<String> parseTopics(Object value) {
+        if (value == null) {
+            return Set.of();
+        }
+        var items = value instanceof Collection<?> c
+                ? c.stream().map(String::valueOf)
+                : Arrays.stream(String.valueOf(value).split(","));
+        return items.map(String::trim).filter(s -> !s.isEmpty()).collect(Collectors.toUnmodifiableSet());
+    }
+
+    static void setHeader(Headers headers, String name, String value) {
+        headers.remove(name);
+        headers.add(name, value.getBytes(StandardCharsets.UTF_8));
+    }
+
+    static String readHeader(Headers headers, String name) {
+        Header header = headers == null ? null : headers.lastHeader(name);
+        return header == null || header.value() == null
+                ? null
+                : new String(header.value(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,75 @@
+package com.eatcloud.eventcodec;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 파일 기반 이벤트 스키마 등록부 (외부 schema registry 대용).
+ *
+ * 클래스패스의 event-schemas.properties 한 줄 = 이벤트 클래스 하나:
+ * <pre>
+ * com.eatcloud.orderservice.event.OrderCreatedEvent=OrderCreatedEvent:1
+ * </pre>
+ * 이름은 서비스 간 공유 계약(서비스마다 클래스 패키지가 달라도 같은 이름)이고,
+ * 필드를 추가/의미 변경하면 버전을 올린다. 생산자는 "{name}:{version}" 을 헤더로 붙이고
+ * 소비자({@link CompactEventDeserializer})는 이름이 다르면 거부하지 않고 읽되 경고를 남기고,
+ * 버전이 더 높으면 모르는 필드를 무시하고 읽는다.
+ */
+public class EventSchemaRegistry {
+
+    public static final String DEFAULT_LOCATION = "event-schemas.properties";
+
+    private static final Map<String, EventSchemaRegistry> CACHE = new ConcurrentHashMap<>();
+
+    private final Map<String, Schema> byClassName;
+
+    EventSchemaRegistry(Map<String, Schema> byClassName) {
+        this.byClassName = Map.copyOf(byClassName);
+    }
+
+    /** 클래스패스 파일을 읽는다 (없으면 빈 등록부). 같은 위치는 한 번만 읽는다. */
+    public static EventSchemaRegistry load(String location) {
+        return CACHE.computeIfAbsent(location, EventSchemaRegistry::read);
+    }
+
+    private static EventSchemaRegistry read(String location) {
+        Properties props = new Properties();
+        ClassLoader cl = Thread.currentThread().getContextClassLoader();
+        try (InputStream in = (cl != null ? cl : EventSchemaRegistry.class.getClassLoader()).getResourceAsStream(location)) {
+            if (in != null) {
+                props.load(in);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("이벤트 스키마 파일 읽기 실패: " + location, e);
+        }
+        Map<String, Schema> schemas = new ConcurrentHashMap<>();
+        props.forEach((k, v) -> schemas.put(k.toString().trim(), Schema.parse(v.toString())));
+        return new EventSchemaRegistry(schemas);
+    }
+
+    /** 등록되지 않은 클래스면 null */
+    public Schema schemaOf(Class<?> type) {
+        return type == null ? null : byClassName.get(type.getName());
+    }
+
+    public record Schema(String name, int version) {
+
+        public static Schema parse(String value) {
+            String v = value.trim();
+            int sep = v.lastIndexOf(':');
+            if (sep <= 0 || sep == v.length() - 1) {
+                throw new IllegalArgumentException("이벤트 스키마 형식 오류 (name:version): " + value);
+            }
+            return new Schema(v.substring(0, sep), Integer.parseInt(v.substring(sep + 1)));
+        }
+
+        @Override
+        public String toString() {
+            return name + ":" + version;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package com.eatcloud.eventcodec;
+
+import com.eatcloud.eventcodec.EventCodecTest.SampleOrderCreatedEvent;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import static com.eatcloud.eventcodec.EventCodecTest.TOPIC;
+
+/**
+ * JSON vs Smile 직렬화 ns/op 비교 (참고용, 단언하지 않음).
+ * 장비 편차가 커서 기본 test 에서는 빠지고 ./gradlew :event-codec:perfTest 로만 돈다.
+ */
+@Tag("perf")
+class EventCodecBenchmarkTest {
+
+    private static final Logger log = LoggerFactory.getLogger(EventCodecBenchmarkTest.class);
+
+    private static final int WARMUP = 20_000;
+    private static final int ITERATIONS = 100_000;
+
+    @Test
+    void compareJsonAndSmile() {
+        SampleOrderCreatedEvent event = EventCodecTest.sample();
+        CompactEventSerializer jsonSerializer = EventCodecTest.serializer("");
+        CompactEventSerializer smileSerializer = EventCodecTest.serializer(TOPIC);
+        CompactEventDeserializer deserializer = EventCodecTest.deserializer();
+
+        byte[] json = jsonSerializer.serialize(TOPIC, new RecordHeaders(), event);
+        byte[] smile = smileSerializer.serialize(TOPIC, new RecordHeaders(), event);
+
+        long jsonSer = nanosPerOp(() -> jsonSerializer.serialize(TOPIC, new RecordHeaders(), event));
+        long smileSer = nanosPerOp(() -> smileSerializer.serialize(TOPIC, new RecordHeaders(), event));
+        long jsonDe = nanosPerOp(() -> deserializer.deserialize(TOPIC, new RecordHeaders(), json));
+        long smileDe = nanosPerOp(() -> deserializer.deserialize(TOPIC, new RecordHeaders(), smile));
+
+        log.info("[event-codec] size json={}B smile={}B ({}%)", json.length, smile.length, 100 * smile.length / json.length);
+        log.info("[event-codec] serialize   json={}ns/op smile={}ns/op", jsonSer, smileSer);
+        log.info("[event-codec] deserialize json={}ns/op smile={}ns/op", jsonDe, smileDe);
+    }
+
+    private static long nanosPerOp(Runnable op) {
+        for (int i = 0; i < WARMUP; i++) {
+            op.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            op.run();
+        }
+        return (System.nanoTime() - start) / ITERATIONS;
+    }
+}
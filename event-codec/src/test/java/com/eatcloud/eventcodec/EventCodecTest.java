@@ -0,0 +1,119 @@
+package com.eatcloud.eventcodec;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * JSON(Spring JsonSerializer) / Smile 왕복과 크기 검증. 속도 비교는 {@link EventCodecBenchmarkTest} (perf 태그).
+ */
+class EventCodecTest {
+
+    static final String TOPIC = "order.created";
+
+    @Test
+    void smileIsSmallerAndRoundTrips() {
+        SampleOrderCreatedEvent event = sample();
+
+        CompactEventSerializer jsonSerializer = serializer("");
+        CompactEventSerializer smileSerializer = serializer(TOPIC);
+        CompactEventDeserializer deserializer = deserializer();
+
+        byte[] json = jsonSerializer.serialize(TOPIC, new RecordHeaders(), event);
+        byte[] smile = smileSerializer.serialize(TOPIC, new RecordHeaders(), event);
+
+        assertThat(EventEncoding.isSmile(json)).isFalse();
+        assertThat(EventEncoding.isSmile(smile)).isTrue();
+        assertThat(smile.length).isLessThan(json.length);
+
+        SampleOrderCreatedEvent fromJson = (SampleOrderCreatedEvent) deserializer.deserialize(TOPIC, new RecordHeaders(), json);
+        SampleOrderCreatedEvent fromSmile = (SampleOrderCreatedEvent) deserializer.deserialize(TOPIC, new RecordHeaders(), smile);
+        assertThat(fromSmile).usingRecursiveComparison().isEqualTo(event);
+        assertThat(fromJson).usingRecursiveComparison().isEqualTo(fromSmile);
+    }
+
+    @Test
+    void storedJsonIsTranscodedWithoutBinding() throws Exception {
+        byte[] stored = """
+                {"orderId":"%s","orderLineId":"%s","qty":3,"reason":"ORDER"}
+                """.formatted(UUID.randomUUID(), UUID.randomUUID()).getBytes();
+
+        byte[] smile = EventEncoding.jsonToSmile(stored);
+
+        assertThat(EventEncoding.isSmile(smile)).isTrue();
+        ObjectMapper om = new ObjectMapper();
+        assertThat(EventEncoding.readTree(om, smile)).isEqualTo(om.readTree(stored));
+    }
+
+    static CompactEventSerializer serializer(String binaryTopics) {
+        CompactEventSerializer serializer = new CompactEventSerializer();
+        serializer.configure(Map.of(CompactEventSerializer.BINARY_TOPICS, binaryTopics), false);
+        return serializer;
+    }
+
+    static CompactEventDeserializer deserializer() {
+        CompactEventDeserializer deserializer = new CompactEventDeserializer();
+        deserializer.configure(Map.of(
+                JsonDeserializer.TRUSTED_PACKAGES, "*",
+                JsonDeserializer.USE_TYPE_INFO_HEADERS, false,
+                JsonDeserializer.VALUE_DEFAULT_TYPE, SampleOrderCreatedEvent.class.getName()), false);
+        return deserializer;
+    }
+
+    static SampleOrderCreatedEvent sample() {
+        SampleOrderCreatedEvent event = new SampleOrderCreatedEvent();
+        event.orderId = UUID.randomUUID();
+        event.customerId = UUID.randomUUID();
+        event.storeId = UUID.randomUUID();
+        event.totalAmount = 42_000;
+        event.finalAmount = 39_000;
+        event.pointsToUse = 3_000;
+        event.orderStatus = "PENDING";
+        event.orderType = "DELIVERY";
+        event.orderDate = LocalDateTime.of(2025, 1, 1, 12, 30);
+        event.createdAt = event.orderDate;
+        event.orderItems = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            SampleOrderCreatedEvent.Item item = new SampleOrderCreatedEvent.Item();
+            item.menuId = UUID.randomUUID();
+            item.menuName = "메뉴" + i;
+            item.quantity = i + 1;
+            item.unitPrice = 8_000;
+            item.options = "{\"spicy\":\"MEDIUM\"}";
+            event.orderItems.add(item);
+        }
+        return event;
+    }
+
+    /** order-service OrderCreatedEvent 와 같은 모양 */
+    public static class SampleOrderCreatedEvent {
+        public UUID orderId;
+        public UUID customerId;
+        public UUID storeId;
+        public Integer totalAmount;
+        public Integer finalAmount;
+        public Integer pointsToUse;
+        public String orderStatus;
+        public String orderType;
+        public LocalDateTime orderDate;
+        public LocalDateTime createdAt;
+        public List<Item> orderItems;
+
+        public static class Item {
+            public UUID menuId;
+            public String menuName;
+            public Integer quantity;
+            public Integer unitPrice;
+            public String options;
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.eatcloud.locktelemetry;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.util.Map;
+
+/** GET /actuator/lockcontention : 최근 윈도우에서 경합이 가장 심한 락 키 top-N (서비스에서 @Bean 으로 등록) */
+@Endpoint(id = "lockcontention")
+@RequiredArgsConstructor
+public class LockContentionEndpoint {
+
+    private final LockContentionTracker tracker;
+
+    @ReadOperation
+    public Map<String, Object> contention() {
+        return tracker.topContended();
+    }
+}
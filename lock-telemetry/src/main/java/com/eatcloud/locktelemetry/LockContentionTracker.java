@@ -0,0 +1,212 @@
+package com.eatcloud.locktelemetry;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 분산 락 경합 계측.
+ *
+ * 키 prefix(마지막 ':' 구간을 뗀 값, 예: order:create, lock:menu) 태그로
+ *  - lock.wait{prefix,outcome}   : 획득 대기 시간 (acquired / timeout)
+ *  - lock.hold{prefix}           : 보유 시간
+ *  - lock.failures{prefix,reason}: 획득 실패 (timeout / interrupted / error)
+ *  - lock.lease.expired{prefix}  : 작업 중 lease 만료 (해제 시점에 이미 락을 잃음)
+ * 를 남기고, 키 단위 통계는 최근 두 윈도우만 메모리에 유지해 가장 경합이 심한 키 top-N 을 보여준다.
+ * 키별 대기 시간은 {@link LockWaitListener} 빈(예: 핫 메뉴 감지기)에도 그대로 넘긴다.
+ *
+ * 서비스에서 @Bean 으로 등록하고, 윈도우 교체({@link #rotate()})는 서비스 스케줄러가 window-ms 주기로 호출한다.
+ */
+public class LockContentionTracker {
+
+    private final MeterRegistry meterRegistry;
+    private final ObjectProvider<LockWaitListener> waitListeners;
+    private final int topN;
+    private final int maxKeys;
+    private final long windowMs;
+
+    private volatile Map<String, KeyStats> current = new ConcurrentHashMap<>();
+    private volatile Map<String, KeyStats> previous = new ConcurrentHashMap<>();
+    // maxKeys 를 넘어 top-N 집계에서 빠진 기록 수. 키 통계와 같이 윈도우마다 교체한다
+    private volatile LongAdder untrackedKeys = new LongAdder();
+    private volatile long previousUntrackedKeys;
+    private volatile List<LockWaitListener> listeners;
+
+    public LockContentionTracker(MeterRegistry meterRegistry,
+                                 ObjectProvider<LockWaitListener> waitListeners,
+                                 LockTelemetryProperties properties) {
+        this.meterRegistry = meterRegistry;
+        this.waitListeners = waitListeners;
+        this.topN = properties.getTopN();
+        this.maxKeys = properties.getMaxKeys();
+        this.windowMs = properties.getWindowMs();
+    }
+
+    public void acquired(String key, long waitNanos) {
+        waitTimer(prefixOf(key), "acquired").record(waitNanos, TimeUnit.NANOSECONDS);
+        KeyStats stats = stats(key);
+        if (stats != null) {
+            stats.acquisitions.increment();
+            stats.recordWait(waitNanos);
+        }
+        notifyWait(key, waitNanos);
+    }
+
+    public void failed(String key, long waitNanos, String reason) {
+        String prefix = prefixOf(key);
+        if ("timeout".equals(reason)) {
+            waitTimer(prefix, "timeout").record(waitNanos, TimeUnit.NANOSECONDS);
+        }
+        Counter.builder("lock.failures")
+                .tag("prefix", prefix)
+                .tag("reason", reason)
+                .register(meterRegistry)
+                .increment();
+        KeyStats stats = stats(key);
+        if (stats != null) {
+            stats.failures.increment();
+            stats.recordWait(waitNanos);
+        }
+        notifyWait(key, waitNanos);
+    }
+
+    /**
+     * @param stillHeld 해제 직전 현재 스레드가 아직 락을 갖고 있었는지. false 면 lease 가 먼저 만료된 것
+     */
+    public void released(String key, long holdNanos, boolean stillHeld) {
+        String prefix = prefixOf(key);
+        Timer.builder("lock.hold")
+                .tag("prefix", prefix)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(holdNanos, TimeUnit.NANOSECONDS);
+        KeyStats stats = stats(key);
+        if (stats != null) {
+            stats.totalHoldNanos.add(holdNanos);
+        }
+        if (!stillHeld) {
+            Counter.builder("lock.lease.expired")
+                    .tag("prefix", prefix)
+                    .register(meterRegistry)
+                    .increment();
+            if (stats != null) {
+                stats.leaseExpiries.increment();
+            }
+        }
+    }
+
+    /** 최근 두 윈도우 기준, 누적 대기 시간이 큰 순(동률이면 실패 수) */
+    public Map<String, Object> topContended() {
+        Map<String, Totals> merged = new HashMap<>();
+        previous.forEach((k, s) -> merged.computeIfAbsent(k, x -> new Totals()).add(s));
+        current.forEach((k, s) -> merged.computeIfAbsent(k, x -> new Totals()).add(s));
+
+        List<KeyContention> top = new ArrayList<>();
+        merged.forEach((k, t) -> top.add(t.toView(k)));
+        top.sort(Comparator.comparingDouble(KeyContention::totalWaitMs).reversed()
+                .thenComparing(Comparator.comparingLong(KeyContention::failures).reversed()));
+
+        return Map.of(
+                "windowMs", windowMs,
+                "trackedKeys", merged.size(),
+                "untrackedKeys", previousUntrackedKeys + untrackedKeys.sum(),
+                "top", top.subList(0, Math.min(topN, top.size())));
+    }
+
+    public void rotate() {
+        previous = current;
+        current = new ConcurrentHashMap<>();
+        previousUntrackedKeys = untrackedKeys.sum();
+        untrackedKeys = new LongAdder();
+    }
+
+    static String prefixOf(String key) {
+        int idx = key.lastIndexOf(':');
+        return idx > 0 ? key.substring(0, idx) : key;
+    }
+
+    // 리스너는 빈 생성 순환(RedisLockExecutor ↔ 감지기)을 피하려고 첫 호출 때 조회해 둔다
+    private void notifyWait(String key, long waitNanos) {
+        List<LockWaitListener> resolved = listeners;
+        if (resolved == null) {
+            resolved = listeners = waitListeners.orderedStream().toList();
+        }
+        for (LockWaitListener l : resolved) {
+            l.onLockWait(key, waitNanos);
+        }
+    }
+
+    private Timer waitTimer(String prefix, String outcome) {
+        return Timer.builder("lock.wait")
+                .tag("prefix", prefix)
+                .tag("outcome", outcome)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+
+    // 키 수가 상한을 넘으면 새 키는 메트릭에만 반영하고 top-N 집계에서는 뺀다
+    private KeyStats stats(String key) {
+        Map<String, KeyStats> window = current;
+        KeyStats stats = window.get(key);
+        if (stats != null) {
+            return stats;
+        }
+        if (window.size() >= maxKeys) {
+            untrackedKeys.increment();
+            return null;
+        }
+        return window.computeIfAbsent(key, k -> new KeyStats());
+    }
+
+    private static final class KeyStats {
+        private final LongAdder acquisitions = new LongAdder();
+        private final LongAdder failures = new LongAdder();
+        private final LongAdder leaseExpiries = new LongAdder();
+        private final LongAdder totalWaitNanos = new LongAdder();
+        private final LongAdder totalHoldNanos = new LongAdder();
+        private final AtomicLong maxWaitNanos = new AtomicLong();
+
+        private void recordWait(long waitNanos) {
+            totalWaitNanos.add(waitNanos);
+            maxWaitNanos.accumulateAndGet(waitNanos, Math::max);
+        }
+    }
+
+    private static final class Totals {
+        private long acquisitions;
+        private long failures;
+        private long leaseExpiries;
+        private long totalWaitNanos;
+        private long totalHoldNanos;
+        private long maxWaitNanos;
+
+        private void add(KeyStats s) {
+            acquisitions += s.acquisitions.sum();
+            failures += s.failures.sum();
+            leaseExpiries += s.leaseExpiries.sum();
+            totalWaitNanos += s.totalWaitNanos.sum();
+            totalHoldNanos += s.totalHoldNanos.sum();
+            maxWaitNanos = Math.max(maxWaitNanos, s.maxWaitNanos.get());
+        }
+
+        private KeyContention toView(String key) {
+            return new KeyContention(key, prefixOf(key), acquisitions, failures, leaseExpiries,
+                    totalWaitNanos / 1_000_000.0, maxWaitNanos / 1_000_000.0,
+                    acquisitions > 0 ? totalHoldNanos / 1_000_000.0 / acquisitions : 0);
+        }
+    }
+
+    public record KeyContention(String key, String prefix, long acquisitions, long failures, long leaseExpiries,
+                                double totalWaitMs, double maxWaitMs, double avgHoldMs) {}
+}
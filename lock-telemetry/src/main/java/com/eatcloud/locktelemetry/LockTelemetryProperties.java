@@ -0,0 +1,21 @@
+package com.eatcloud.locktelemetry;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * 락 경합 계측 설정. 서비스에서 @ConfigurationProperties("lock.telemetry") 로 바인딩해 넘긴다.
+ */
+@Getter
+@Setter
+public class LockTelemetryProperties {
+
+    /** topContended 에 보여줄 키 수 */
+    private int topN = 20;
+
+    /** 윈도우당 키 단위 통계를 유지할 최대 키 수. 넘으면 새 키는 메트릭에만 반영 */
+    private int maxKeys = 10_000;
+
+    /** 키 단위 통계 윈도우 길이 (최근 두 윈도우를 합쳐 보여준다) */
+    private long windowMs = 60_000;
+}
@@ -0,0 +1,10 @@
+package com.eatcloud.locktelemetry;
+
+/**
+ * 락 획득 대기 시간을 키 단위로 받아보고 싶은 컴포넌트용 훅.
+ * {@link LockContentionTracker} 가 획득/실패 시점마다 호출하므로 구현은 가볍고 블로킹 없이 끝나야 한다.
+ */
+public interface LockWaitListener {
+
+    void onLockWait(String key, long waitNanos);
+}
@@ -0,0 +1,122 @@
+package com.eatcloud.locktelemetry;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class LockContentionTrackerTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private LockContentionTracker tracker(int topN, int maxKeys) {
+        LockTelemetryProperties properties = new LockTelemetryProperties();
+        properties.setTopN(topN);
+        properties.setMaxKeys(maxKeys);
+        return new LockContentionTracker(meterRegistry,
+                new StaticListableBeanFactory().getBeanProvider(LockWaitListener.class), properties);
+    }
+
+    @Test
+    void prefixOf_dropsLastSegment() {
+        assertEquals("order:create", LockContentionTracker.prefixOf("order:create:123"));
+        assertEquals("lock:menu", LockContentionTracker.prefixOf("lock:menu:abc"));
+        assertEquals("plain", LockContentionTracker.prefixOf("plain"));
+        assertEquals(":leading", LockContentionTracker.prefixOf(":leading"));
+    }
+
+    @Test
+    void topContended_ordersByTotalWaitThenFailures() {
+        LockContentionTracker tracker = tracker(3, 100);
+        tracker.acquired("menu:a", ms(5));
+        tracker.acquired("menu:b", ms(30));
+        tracker.failed("menu:c", ms(10), "timeout");
+        tracker.failed("menu:c", ms(10), "timeout");
+        tracker.acquired("menu:d", ms(20));
+        tracker.failed("menu:e", ms(20), "timeout");
+
+        List<LockContentionTracker.KeyContention> top = top(tracker);
+
+        assertEquals(3, top.size());
+        assertEquals("menu:b", top.get(0).key());
+        // menu:c, menu:d, menu:e 모두 20ms → 실패 수가 많은 순
+        assertEquals("menu:c", top.get(1).key());
+        assertEquals(2, top.get(1).failures());
+        assertEquals("menu:e", top.get(2).key());
+        assertEquals("menu", top.get(0).prefix());
+    }
+
+    @Test
+    void rotate_keepsPreviousWindowThenDropsIt() {
+        LockContentionTracker tracker = tracker(10, 100);
+        tracker.acquired("menu:a", ms(5));
+        tracker.released("menu:a", ms(40), true);
+
+        tracker.rotate();
+        tracker.acquired("menu:a", ms(15));
+        tracker.released("menu:a", ms(20), false);
+
+        LockContentionTracker.KeyContention merged = top(tracker).get(0);
+        assertEquals(2, merged.acquisitions());
+        assertEquals(20.0, merged.totalWaitMs(), 0.001);
+        assertEquals(15.0, merged.maxWaitMs(), 0.001);
+        assertEquals(30.0, merged.avgHoldMs(), 0.001);
+        assertEquals(1, merged.leaseExpiries());
+
+        tracker.rotate();
+        assertEquals(1, top(tracker).get(0).acquisitions());
+
+        tracker.rotate();
+        assertTrue(top(tracker).isEmpty());
+    }
+
+    @Test
+    void untrackedKeys_resetWithWindows() {
+        LockContentionTracker tracker = tracker(10, 1);
+        tracker.acquired("menu:a", ms(1));
+        tracker.acquired("menu:b", ms(1));
+        tracker.acquired("menu:c", ms(1));
+        assertEquals(2L, tracker.topContended().get("untrackedKeys"));
+
+        tracker.rotate();
+        assertEquals(2L, tracker.topContended().get("untrackedKeys"));
+
+        tracker.acquired("menu:b", ms(1));
+        tracker.acquired("menu:c", ms(1));
+        assertEquals(3L, tracker.topContended().get("untrackedKeys"));
+
+        tracker.rotate();
+        tracker.rotate();
+        assertEquals(0L, tracker.topContended().get("untrackedKeys"));
+    }
+
+    @Test
+    void failures_areCountedByReason() {
+        LockContentionTracker tracker = tracker(10, 100);
+        tracker.failed("order:create:1", ms(3), "timeout");
+        tracker.failed("order:create:2", 0, "error");
+
+        assertEquals(1.0, meterRegistry.get("lock.failures")
+                .tag("prefix", "order:create").tag("reason", "timeout").counter().count());
+        assertEquals(1.0, meterRegistry.get("lock.failures")
+                .tag("prefix", "order:create").tag("reason", "error").counter().count());
+        assertEquals(1L, meterRegistry.get("lock.wait")
+                .tag("prefix", "order:create").tag("outcome", "timeout").timer().count());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static List<LockContentionTracker.KeyContention> top(LockContentionTracker tracker) {
+        Map<String, Object> view = tracker.topContended();
+        return (List<LockContentionTracker.KeyContention>) view.get("top");
+    }
+
+    private static long ms(long millis) {
+        return TimeUnit.MILLISECONDS.toNanos(millis);
+    }
+}
@@ -0,0 +1,232 @@
+package com.eatcloud.orderservice.alert;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 비동기 집계 알림 디스패처.
+ *
+ * 호출 스레드(Kafka 리스너 등)는 {@link #dispatch} 로 bounded 큐에 넣기만 하고 바로 돌아온다.
+ * 큐가 가득 차면 drop-policy 에 따라 새 알림 또는 가장 오래된 알림을 버리고 건수만 센다.
+ * 웹훅 호출은 전용 스레드 하나가 한다:
+ *  - 그룹 키(예: dlt:{topic})별로 윈도우 안의 첫 건은 바로 보내고, 나머지는 세기만 한다
+ *  - 윈도우가 끝나면 추가분을 "최근 60초 동안 N건" 요약 한 건으로 보낸다
+ *  - 분당 전송 수 상한(토큰 버킷)을 넘으면 다음 윈도우 요약으로 넘긴다.
+ *    이때 건수는 계속 누적되므로 요약의 "최근 N초" 는 그룹이 처음 열린 윈도우부터 실제로 지난 시간이다
+ */
+@Slf4j
+@Component
+public class AlertDispatcher {
+
+    public enum DropPolicy { DROP_NEWEST, DROP_OLDEST }
+
+    private static final String OVERFLOW_GROUP = "overflow";
+
+    private final DiscordNotifier discordNotifier;
+    private final BlockingQueue<Alert> queue;
+    private final DropPolicy dropPolicy;
+    private final long windowMs;
+    private final int maxPerMinute;
+    private final int maxGroups;
+    private final Clock clock;
+
+    private final AtomicLong droppedSinceReport = new AtomicLong();
+    private final Counter droppedCounter;
+    private final Counter sentCounter;
+    private final Thread worker;
+    private volatile boolean running = true;
+
+    // 아래는 worker 스레드 전용
+    private final Map<String, Group> groups = new LinkedHashMap<>();
+    private long windowEndsAt;
+    private double tokens;
+    private long lastRefillAt;
+
+    @Autowired
+    public AlertDispatcher(DiscordNotifier discordNotifier,
+                           MeterRegistry meterRegistry,
+                           @Value("${alert.dispatcher.queue-capacity:1000}") int queueCapacity,
+                           @Value("${alert.dispatcher.drop-policy:DROP_NEWEST}") DropPolicy dropPolicy,
+                           @Value("${alert.dispatcher.window-ms:60000}") long windowMs,
+                           @Value("${alert.dispatcher.max-per-minute:20}") int maxPerMinute,
+                           @Value("${alert.dispatcher.max-groups:200}") int maxGroups) {
+        this(discordNotifier, meterRegistry, queueCapacity, dropPolicy, windowMs, maxPerMinute, maxGroups,
+                Clock.systemUTC(), true);
+    }
+
+    // 테스트는 가짜 시계를 넣고 워커 없이 runOnce() 로 직접 돌린다
+    AlertDispatcher(DiscordNotifier discordNotifier, MeterRegistry meterRegistry, int queueCapacity,
+                    DropPolicy dropPolicy, long windowMs, int maxPerMinute, int maxGroups,
+                    Clock clock, boolean startWorker) {
+        this.discordNotifier = discordNotifier;
+        this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        this.dropPolicy = dropPolicy;
+        this.windowMs = windowMs;
+        this.maxPerMinute = maxPerMinute;
+        this.maxGroups = maxGroups;
+        this.clock = clock;
+        this.tokens = maxPerMinute;
+        this.lastRefillAt = clock.millis();
+        this.windowEndsAt = lastRefillAt + windowMs;
+
+        this.droppedCounter = Counter.builder("alert.dispatcher.dropped").register(meterRegistry);
+        this.sentCounter = Counter.builder("alert.dispatcher.sent").register(meterRegistry);
+        Gauge.builder("alert.dispatcher.queue.size", queue, BlockingQueue::size).register(meterRegistry);
+
+        this.worker = new Thread(this::runLoop, "alert-dispatcher");
+        this.worker.setDaemon(true);
+        if (startWorker) {
+            this.worker.start();
+        }
+    }
+
+    /**
+     * 알림을 큐에 넣는다. 절대 블로킹하지 않는다.
+     *
+     * @param groupKey 집계 단위 (같은 키는 윈도우당 첫 건 + 요약 한 건)
+     * @param label    요약 문구에 쓰일 짧은 설명 (예: "DLT point.reservation.request.dlt")
+     * @param message  첫 건에 그대로 보낼 본문
+     */
+    public void dispatch(String groupKey, String label, String message) {
+        Alert alert = new Alert(groupKey, label, message);
+        if (queue.offer(alert)) {
+            return;
+        }
+        if (dropPolicy == DropPolicy.DROP_OLDEST) {
+            queue.poll();
+            queue.offer(alert);
+        }
+        droppedCounter.increment();
+        droppedSinceReport.incrementAndGet();
+    }
+
+    private void runLoop() {
+        while (running || !queue.isEmpty()) {
+            try {
+                long waitMs = Math.max(0, windowEndsAt - clock.millis());
+                Alert alert = queue.poll(waitMs, TimeUnit.MILLISECONDS);
+                if (alert != null) {
+                    accept(alert);
+                }
+                flushIfWindowEnded();
+            } catch (InterruptedException e) {
+                running = false;
+            } catch (Exception e) {
+                log.warn("알림 디스패처 처리 실패: {}", e.toString());
+            }
+        }
+        flushWindow();
+    }
+
+    /** 큐에 쌓인 알림을 모두 처리하고, 윈도우가 끝났으면 요약을 보낸다 (워커 루프 한 바퀴와 같다) */
+    void runOnce() {
+        Alert alert;
+        while ((alert = queue.poll()) != null) {
+            accept(alert);
+        }
+        flushIfWindowEnded();
+    }
+
+    private void flushIfWindowEnded() {
+        if (clock.millis() >= windowEndsAt) {
+            flushWindow();
+        }
+    }
+
+    private void accept(Alert alert) {
+        String key = groups.containsKey(alert.groupKey()) || groups.size() < maxGroups ? alert.groupKey() : OVERFLOW_GROUP;
+        Group group = groups.computeIfAbsent(key, k -> new Group(OVERFLOW_GROUP.equals(k) ? "기타 알림" : alert.label(),
+                windowEndsAt - windowMs));
+        group.total++;
+        if (group.total == 1 && tryAcquire()) {
+            send(alert.message());
+            group.reported = 1;
+        }
+    }
+
+    private void flushWindow() {
+        long now = clock.millis();
+        Iterator<Map.Entry<String, Group>> it = groups.entrySet().iterator();
+        while (it.hasNext()) {
+            Group group = it.next().getValue();
+            long unreported = group.total - group.reported;
+            if (unreported <= 0) {
+                it.remove();
+                continue;
+            }
+            if (!tryAcquire()) {
+                // 다음 윈도우 요약에 합쳐서 보낸다
+                continue;
+            }
+            long elapsedSec = TimeUnit.MILLISECONDS.toSeconds(now - group.since);
+            send(":rotating_light: " + group.label + ": 최근 " + elapsedSec + "초 동안 " + group.total + "건"
+                    + (group.reported > 0 ? " (첫 건 알림 후 " + unreported + "건 추가)" : ""));
+            it.remove();
+        }
+
+        long dropped = droppedSinceReport.get();
+        if (dropped > 0 && tryAcquire()) {
+            droppedSinceReport.addAndGet(-dropped);
+            send(":warning: 알림 큐 포화로 " + dropped + "건의 알림이 누락되었습니다");
+        }
+        windowEndsAt = now + windowMs;
+    }
+
+    private boolean tryAcquire() {
+        long now = clock.millis();
+        tokens = Math.min(maxPerMinute, tokens + (now - lastRefillAt) * maxPerMinute / (double) TimeUnit.MINUTES.toMillis(1));
+        lastRefillAt = now;
+        if (tokens < 1) {
+            return false;
+        }
+        tokens -= 1;
+        return true;
+    }
+
+    private void send(String text) {
+        discordNotifier.sendText(text);
+        sentCounter.increment();
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        running = false;
+        worker.interrupt();
+        try {
+            worker.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private record Alert(String groupKey, String label, String message) {
+    }
+
+    private static final class Group {
+        private final String label;
+        // 그룹이 처음 열린 윈도우의 시작 시각(ms). 요약이 다음 윈도우로 밀려도 건수는 여기서부터 센다
+        private final long since;
+        private long total;
+        private long reported;
+
+        private Group(String label, long since) {
+            this.label = label;
+            this.since = since;
+        }
+    }
+}
@@ -6,6 +6,7 @@ import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpEntity;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.http.client.SimpleClientHttpRequestFactory;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.RestTemplate;
 
@@ -23,7 +24,15 @@ public class DiscordNotifier {
     @Value("${alert.discord.webhook-url:}")
     private String webhookUrl;
 
-    private final RestTemplate restTemplate = new RestTemplate();
+    // AlertDispatcher 워커 스레드에서만 호출되지만, 웹훅이 멈춰도 디스패처가 묶이지 않도록 타임아웃을 둔다
+    private final RestTemplate restTemplate = createRestTemplate();
+
+    private static RestTemplate createRestTemplate() {
+        SimpleClientHttpRequestFactory factory = new SimpleClientHttpRequestFactory();
+        factory.setConnectTimeout(3000);
+        factory.setReadTimeout(5000);
+        return new RestTemplate(factory);
+    }
 
     public void sendText(String text) {
         if (!enabled || webhookUrl == null || webhookUrl.isBlank()) {
@@ -0,0 +1,25 @@
+package com.eatcloud.orderservice.cart;
+
+import com.eatcloud.orderservice.dto.CartItem;
+
+import java.util.List;
+
+/**
+ * 장바구니 내용과 변경 버전.
+ * 버전은 애플리케이션 시각(ms)과 직전 버전+1 중 큰 값이라 키 단위로 단조 증가한다.
+ * Redis 스크립트와 DB 폴백이 모두 이 시계와 규칙을 쓴다(Redis 는 {@link #clockMillis()} 값을 인자로 받는다).
+ */
+public record CartSnapshot(List<CartItem> items, long version) {
+
+    public static CartSnapshot empty() {
+        return new CartSnapshot(List.of(), 0L);
+    }
+
+    public static long clockMillis() {
+        return System.currentTimeMillis();
+    }
+
+    public static long nextVersion(long current) {
+        return Math.max(current + 1, clockMillis());
+    }
+}
@@ -0,0 +1,340 @@
+package com.eatcloud.orderservice.cart;
+
+import com.eatcloud.orderservice.service.RedisHealthTracker;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RStream;
+import org.redisson.api.RedissonClient;
+import org.redisson.api.StreamMessageId;
+import org.redisson.api.stream.StreamCreateGroupArgs;
+import org.redisson.api.stream.StreamReadGroupArgs;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 장바구니 write-behind 워커.
+ *
+ * RedisCartStore 스크립트가 변경 시 적재한 cart:write-behind 스트림을 컨슈머 그룹으로 읽어
+ * 배치 단위로 p_cart 에 다중 행 upsert 한다.
+ *  - 한 배치 안의 같은 고객은 하나로 병합하고, 값은 적재 시점이 아닌 Redis 최신 상태를 쓴다.
+ *    그 사이 캐시 키가 만료·삭제됐으면 항목에 실린 상태 중 가장 최신 버전을 쓴다.
+ *  - upsert 는 cart_version 이 더 클 때만 갱신하므로 여러 인스턴스가 동시에 흘려도 역행하지 않는다.
+ *  - DB 반영 후에만 ACK/XDEL 하고, 죽은 컨슈머의 미처리 항목은 XAUTOCLAIM 으로 회수한다.
+ */
+@Slf4j
+@Component
+public class CartWriteBehindWorker {
+
+    private static final String GROUP = "cart-writer";
+
+    private static final String UPSERT_PREFIX = """
+        INSERT INTO p_cart (cart_id, customer_id, cart_items, cart_version,
+                            created_at, created_by, updated_at, updated_by)
+        VALUES\s""";
+    private static final String UPSERT_ROW = "(?, ?, ?::jsonb, ?, ?, 'cart-write-behind', ?, 'cart-write-behind')";
+    private static final String UPSERT_SUFFIX = """
+         ON CONFLICT (customer_id) DO UPDATE
+           SET cart_items   = EXCLUDED.cart_items,
+               cart_version = EXCLUDED.cart_version,
+               updated_at   = EXCLUDED.updated_at,
+               updated_by   = EXCLUDED.updated_by,
+               deleted_at   = NULL,
+               deleted_by   = NULL
+         WHERE p_cart.cart_version < EXCLUDED.cart_version
+        """;
+
+    private final RedissonClient redissonClient;
+    private final RedisCartStore redisCartStore;
+    private final RedisHealthTracker redisHealthTracker;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    private final int workerCount;
+    private final int batchSize;
+    private final Duration blockTimeout;
+    private final Duration claimIdle;
+    private final String consumerPrefix;
+
+    private final Timer flushTimer;
+    private final Timer lagTimer;
+    private final Counter flushedCounter;
+    private final Counter staleCounter;
+    private final Counter failureCounter;
+    private final Counter lostCounter;
+    private final AtomicLong backlog = new AtomicLong();
+
+    private ExecutorService workers;
+    private volatile boolean running;
+
+    public CartWriteBehindWorker(RedissonClient redissonClient,
+                                 RedisCartStore redisCartStore,
+                                 RedisHealthTracker redisHealthTracker,
+                                 JdbcTemplate jdbcTemplate,
+                                 ObjectMapper objectMapper,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${cart.write-behind.workers:2}") int workerCount,
+                                 @Value("${cart.write-behind.batch-size:200}") int batchSize,
+                                 @Value("${cart.write-behind.block-ms:2000}") long blockMs,
+                                 @Value("${cart.write-behind.claim-idle-ms:30000}") long claimIdleMs,
+                                 @Value("${spring.application.name:order-service}") String applicationName) {
+        this.redissonClient = redissonClient;
+        this.redisCartStore = redisCartStore;
+        this.redisHealthTracker = redisHealthTracker;
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.workerCount = workerCount;
+        this.batchSize = batchSize;
+        this.blockTimeout = Duration.ofMillis(blockMs);
+        this.claimIdle = Duration.ofMillis(claimIdleMs);
+        this.consumerPrefix = applicationName + "-" + UUID.randomUUID().toString().substring(0, 8);
+
+        this.flushTimer = Timer.builder("cart.writebehind.flush")
+                .description("배치 upsert 소요 시간")
+                .register(meterRegistry);
+        this.lagTimer = Timer.builder("cart.writebehind.lag")
+                .description("스트림 적재부터 DB 반영까지 지연")
+                .publishPercentiles(0.5, 0.99)
+                .register(meterRegistry);
+        this.flushedCounter = Counter.builder("cart.writebehind.rows")
+                .tag("result", "written")
+                .register(meterRegistry);
+        this.staleCounter = Counter.builder("cart.writebehind.rows")
+                .tag("result", "stale")
+                .register(meterRegistry);
+        this.failureCounter = Counter.builder("cart.writebehind.failures")
+                .register(meterRegistry);
+        this.lostCounter = Counter.builder("cart.writebehind.rows")
+                .tag("result", "lost")
+                .register(meterRegistry);
+        Gauge.builder("cart.writebehind.backlog", backlog, AtomicLong::get)
+                .description("스트림에 남은 미처리 항목 수")
+                .register(meterRegistry);
+    }
+
+    @PostConstruct
+    public void start() {
+        running = true;
+        workers = Executors.newFixedThreadPool(workerCount, r -> {
+            Thread t = new Thread(r);
+            t.setName("cart-write-behind-" + t.getId());
+            t.setDaemon(true);
+            return t;
+        });
+        for (int i = 0; i < workerCount; i++) {
+            String consumer = consumerPrefix + "-" + i;
+            workers.submit(() -> runLoop(consumer));
+        }
+        log.info("Cart write-behind started: workers={}, batchSize={}, consumer={}",
+                workerCount, batchSize, consumerPrefix);
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (workers != null) {
+            workers.shutdown();
+            try {
+                if (!workers.awaitTermination(blockTimeout.toMillis() + 5000, TimeUnit.MILLISECONDS)) {
+                    workers.shutdownNow();
+                }
+            } catch (InterruptedException e) {
+                workers.shutdownNow();
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void runLoop(String consumer) {
+        boolean groupReady = false;
+        while (running && !Thread.currentThread().isInterrupted()) {
+            try {
+                if (!redisHealthTracker.isAvailable()) {
+                    Thread.sleep(blockTimeout.toMillis());
+                    continue;
+                }
+                if (!groupReady) {
+                    ensureGroup();
+                    groupReady = true;
+                }
+                int processed = claimStale(consumer);
+                processed += drainOnce(consumer, blockTimeout);
+                if (processed == 0) {
+                    backlog.set(stream().size());
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                failureCounter.increment();
+                redisHealthTracker.recordFailure(e);
+                log.error("Cart write-behind loop error: consumer={}", consumer, e);
+                sleepQuietly(blockTimeout.toMillis());
+            }
+        }
+    }
+
+    /** 새 항목 한 배치를 읽어 반영. @return 처리한 스트림 항목 수 */
+    private int drainOnce(String consumer, Duration timeout) {
+        StreamReadGroupArgs args = StreamReadGroupArgs.neverDelivered().count(batchSize);
+        if (timeout != null) {
+            args = args.timeout(timeout);
+        }
+        return flush(stream().readGroup(GROUP, consumer, args));
+    }
+
+    /** 다른(죽은) 컨슈머가 오래 붙잡고 있는 항목을 가져와 반영. */
+    private int claimStale(String consumer) {
+        Map<StreamMessageId, Map<String, String>> claimed = stream().autoClaim(GROUP, consumer,
+                claimIdle.toMillis(), TimeUnit.MILLISECONDS, StreamMessageId.MIN, batchSize).getMessages();
+        if (!claimed.isEmpty()) {
+            log.warn("Reclaimed {} idle cart write-behind entries", claimed.size());
+        }
+        return flush(claimed);
+    }
+
+    private int flush(Map<StreamMessageId, Map<String, String>> messages) {
+        if (messages == null || messages.isEmpty()) {
+            return 0;
+        }
+
+        Set<UUID> customerIds = new LinkedHashSet<>();
+        Map<UUID, Long> oldestEnqueuedAt = new HashMap<>();
+        Map<UUID, CartSnapshot> enqueued = new HashMap<>();
+        for (Map.Entry<StreamMessageId, Map<String, String>> entry : messages.entrySet()) {
+            String raw = entry.getValue().get(RedisCartStore.STREAM_FIELD_CUSTOMER);
+            if (raw == null) {
+                continue;
+            }
+            UUID customerId = UUID.fromString(raw);
+            customerIds.add(customerId);
+            oldestEnqueuedAt.merge(customerId, entry.getKey().getId0(), Math::min);
+            redisCartStore.streamSnapshot(entry.getValue())
+                    .ifPresent(s -> enqueued.merge(customerId, s, CartWriteBehindWorker::newer));
+        }
+
+        // Redis 최신 상태 우선, 키가 만료·삭제됐으면 항목에 실린 상태. 둘 다 있으면 버전이 큰 쪽
+        Map<UUID, CartSnapshot> snapshots = new LinkedHashMap<>(redisCartStore.snapshots(customerIds));
+        enqueued.forEach((customerId, s) -> snapshots.merge(customerId, s, CartWriteBehindWorker::newer));
+        if (snapshots.size() < customerIds.size()) {
+            // 상태가 실리기 전 형식의 항목인데 캐시도 만료된 경우뿐. 되살릴 수 있는 상태가 없다
+            int lost = customerIds.size() - snapshots.size();
+            lostCounter.increment(lost);
+            log.error("Cart cache expired before write-behind flush and entries carry no state: {} customers lost", lost);
+        }
+
+        if (!snapshots.isEmpty()) {
+            flushTimer.record(() -> upsert(snapshots));
+        }
+
+        StreamMessageId[] ids = messages.keySet().toArray(new StreamMessageId[0]);
+        stream().ack(GROUP, ids);
+        stream().remove(ids);
+
+        long now = System.currentTimeMillis();
+        oldestEnqueuedAt.values().forEach(t -> lagTimer.record(Duration.ofMillis(Math.max(0, now - t))));
+        log.debug("Cart write-behind flushed: entries={}, customers={}", ids.length, snapshots.size());
+        return ids.length;
+    }
+
+    private static CartSnapshot newer(CartSnapshot a, CartSnapshot b) {
+        return a.version() >= b.version() ? a : b;
+    }
+
+    private void upsert(Map<UUID, CartSnapshot> snapshots) {
+        StringBuilder sql = new StringBuilder(UPSERT_PREFIX);
+        List<Object> params = new ArrayList<>(snapshots.size() * 6);
+        Timestamp now = Timestamp.from(Instant.now());
+
+        int i = 0;
+        for (Map.Entry<UUID, CartSnapshot> entry : snapshots.entrySet()) {
+            if (i++ > 0) {
+                sql.append(", ");
+            }
+            sql.append(UPSERT_ROW);
+            params.add(UUID.randomUUID());
+            params.add(entry.getKey());
+            params.add(writeItems(entry.getValue()));
+            params.add(entry.getValue().version());
+            params.add(now);
+            params.add(now);
+        }
+        sql.append(UPSERT_SUFFIX);
+
+        int written = jdbcTemplate.update(sql.toString(), params.toArray());
+        flushedCounter.increment(written);
+        staleCounter.increment(snapshots.size() - written);
+    }
+
+    public Map<String, Object> status() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        long size = stream().size();
+        backlog.set(size);
+        status.put("stream", RedisCartStore.WRITE_BEHIND_STREAM);
+        status.put("backlog", size);
+        status.put("workers", workerCount);
+        status.put("batchSize", batchSize);
+        status.put("consumer", consumerPrefix);
+        return status;
+    }
+
+    /** 관리용 즉시 반영: 호출 스레드에서 대기 없이 한 배치를 처리한다. */
+    public int forceFlush() {
+        ensureGroup();
+        return drainOnce(consumerPrefix + "-manual", null);
+    }
+
+    private void ensureGroup() {
+        try {
+            stream().createGroup(StreamCreateGroupArgs.name(GROUP).id(StreamMessageId.ALL).makeStream());
+            log.info("Created cart write-behind consumer group: {}", GROUP);
+        } catch (Exception e) {
+            if (e.getMessage() == null || !e.getMessage().contains("BUSYGROUP")) {
+                throw e;
+            }
+        }
+    }
+
+    private RStream<String, String> stream() {
+        return redissonClient.getStream(RedisCartStore.WRITE_BEHIND_STREAM, StringCodec.INSTANCE);
+    }
+
+    private String writeItems(CartSnapshot snapshot) {
+        try {
+            return objectMapper.writeValueAsString(snapshot.items());
+        } catch (Exception e) {
+            throw new IllegalStateException("장바구니 직렬화 실패", e);
+        }
+    }
+
+    private void sleepQuietly(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,375 @@
+package com.eatcloud.orderservice.cart;
+
+import com.eatcloud.orderservice.dto.CartItem;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.GenericToStringSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+
+/**
+ * 장바구니 Redis 저장소.
+ * cart:{customerId} 를 Hash 로 보관하고(field = menuId, value = CartItem JSON),
+ * 모든 변경은 Lua 스크립트 한 번으로 원자 처리한다.
+ * 변경이 일어나면 같은 스크립트 안에서 write-behind 스트림(cart:write-behind)에 고객 ID와 변경 후 상태(버전, 상품 JSON)를 적재한다.
+ * 워커는 Redis 최신 상태를 우선 쓰고, 그 사이 키가 만료·삭제됐으면 항목에 실린 상태로 반영한다.
+ *
+ * 읽기·변경 때 호출 측이 DB 의 cart_version 을 minVersion 으로 넘긴다. 캐시 버전이 그보다 낮으면
+ * Redis 장애 중 DB 폴백으로 고친 장바구니이므로 캐시를 버리고 DB에서 다시 적재하게 한다(NOT_LOADED).
+ * 버전 시각은 DB 폴백과 같은 애플리케이션 시계({@link CartSnapshot#nextVersion})를 ARGV 로 넘겨 쓴다.
+ *
+ * 메타 필드:
+ *  - __v       : 변경 버전(키가 로드되었음을 나타내는 마커 겸용, 빈 장바구니도 키 유지)
+ *  - __storeId : 단일 매장 규칙 검사용 매장 ID (상품이 없으면 제거)
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RedisCartStore {
+
+    public static final long NOT_LOADED = -2L;
+    public static final long STORE_MISMATCH = -1L;
+    public static final long ITEM_NOT_FOUND = -3L;
+
+    public static final String WRITE_BEHIND_STREAM = "cart:write-behind";
+    public static final String STREAM_FIELD_CUSTOMER = "customerId";
+    public static final String STREAM_FIELD_VERSION = "v";
+    public static final String STREAM_FIELD_ITEMS = "items";
+
+    private static final String CART_KEY_PREFIX = "cart:";
+    private static final String META_PREFIX = "__";
+    private static final String VERSION_FIELD = "__v";
+    // write-behind 적체(DB 장애 등)보다 충분히 길게 잡는다. 만료돼도 스트림 항목의 상태로 반영되지만 재적재 비용이 든다
+    private static final Duration CART_TTL = Duration.ofHours(24);
+
+    private static final RedisSerializer<String> STRING = RedisSerializer.string();
+    private static final RedisSerializer<Long> LONG = new GenericToStringSerializer<>(Long.class);
+
+    // 공통 ARGV: [1]=customerId, [2]=애플리케이션 시각 ms, [3]=minVersion(DB cart_version)
+    // loadedAndFresh: 키가 없거나 DB 버전보다 낮으면(폴백 이전 캐시) 지우고 false
+    // 버전 = max(현재+1, 시각) → DB 폴백과 같은 시계·같은 규칙이라 폴백 버전과 역행하지 않는다
+    // 변경 후 write-behind 스트림에 고객 ID, 버전, 상품 JSON 배열 적재 (KEYS[2]=stream)
+    private static final String LUA_COMMON = """
+        local function loadedAndFresh(cartKey)
+          local cur = redis.call('HGET', cartKey, '__v')
+          if not cur then
+            return false
+          end
+          if tonumber(cur) < tonumber(ARGV[3]) then
+            redis.call('DEL', cartKey)
+            return false
+          end
+          return true
+        end
+
+        local function bumpAndEnqueue(cartKey)
+          local cur = tonumber(redis.call('HGET', cartKey, '__v') or '0')
+          local v = math.max(cur + 1, tonumber(ARGV[2]))
+          local vs = string.format('%d', v)
+          redis.call('HSET', cartKey, '__v', vs)
+          local flat = redis.call('HGETALL', cartKey)
+          local items = {}
+          for i = 1, #flat, 2 do
+            if string.sub(flat[i], 1, 2) ~= '__' then
+              items[#items + 1] = flat[i + 1]
+            end
+          end
+          redis.call('XADD', KEYS[2], '*', 'customerId', ARGV[1], 'v', vs, 'items', '[' .. table.concat(items, ',') .. ']')
+          return v
+        end
+        """;
+
+    // KEYS[1]=cart, KEYS[2]=stream
+    // ARGV[4]=menuId, ARGV[5]=storeId, ARGV[6]=itemJson, ARGV[7]=qty, ARGV[8]=ttlSeconds
+    private static final RedisScript<Long> LUA_ADD = new DefaultRedisScript<>(LUA_COMMON + """
+        local cartKey = KEYS[1]
+        if not loadedAndFresh(cartKey) then
+          return -2    -- not loaded
+        end
+
+        local store = redis.call('HGET', cartKey, '__storeId')
+        if store and store ~= ARGV[5] then
+          return -1    -- store mismatch
+        end
+
+        local cur = redis.call('HGET', cartKey, ARGV[4])
+        local item
+        if cur then
+          item = cjson.decode(cur)
+          item['quantity'] = tonumber(item['quantity']) + tonumber(ARGV[7])
+        else
+          item = cjson.decode(ARGV[6])
+        end
+
+        redis.call('HSET', cartKey, ARGV[4], cjson.encode(item), '__storeId', ARGV[5])
+        bumpAndEnqueue(cartKey)
+        redis.call('EXPIRE', cartKey, tonumber(ARGV[8]))
+        return item['quantity']
+        """, Long.class);
+
+    // KEYS[1]=cart, KEYS[2]=stream
+    // ARGV[4]=menuId, ARGV[5]=qty (<= 0 이면 삭제), ARGV[6]=ttlSeconds
+    private static final RedisScript<Long> LUA_SET_QTY = new DefaultRedisScript<>(LUA_COMMON + """
+        local cartKey = KEYS[1]
+        if not loadedAndFresh(cartKey) then
+          return -2    -- not loaded
+        end
+
+        local cur = redis.call('HGET', cartKey, ARGV[4])
+        if not cur then
+          return -3    -- item not found
+        end
+
+        local qty = tonumber(ARGV[5])
+        if qty <= 0 then
+          redis.call('HDEL', cartKey, ARGV[4])
+          -- 남은 필드가 메타(__v, __storeId)뿐이면 매장 고정 해제
+          if redis.call('HLEN', cartKey) <= 2 then
+            redis.call('HDEL', cartKey, '__storeId')
+          end
+          qty = 0
+        else
+          local item = cjson.decode(cur)
+          item['quantity'] = qty
+          redis.call('HSET', cartKey, ARGV[4], cjson.encode(item))
+        end
+
+        bumpAndEnqueue(cartKey)
+        redis.call('EXPIRE', cartKey, tonumber(ARGV[6]))
+        return qty
+        """, Long.class);
+
+    // KEYS[1]=cart, KEYS[2]=stream, ARGV[4]=ttlSeconds
+    // 키를 지우지 않고 빈 장바구니(__v만 존재)로 남겨 DB 재적재로 옛 상품이 되살아나지 않게 한다.
+    // 시작 버전은 캐시와 DB 중 큰 값이라 폴백으로 쓴 버전보다 뒤에 온다.
+    private static final RedisScript<Long> LUA_CLEAR = new DefaultRedisScript<>(LUA_COMMON + """
+        local cartKey = KEYS[1]
+        local v = math.max(tonumber(redis.call('HGET', cartKey, '__v') or '0'), tonumber(ARGV[3]))
+        redis.call('DEL', cartKey)
+        redis.call('HSET', cartKey, '__v', string.format('%d', v))
+        local nv = bumpAndEnqueue(cartKey)
+        redis.call('EXPIRE', cartKey, tonumber(ARGV[4]))
+        return nv
+        """, Long.class);
+
+    // KEYS[1]=cart
+    // ARGV[1]=ttlSeconds, ARGV[2]=version, ARGV[3]=storeId('' 이면 없음), ARGV[4..]=menuId, itemJson 쌍
+    // 이미 로드된 키가 있으면 덮어쓰지 않는다(동시 적재 경합 방지). DB 상태 그대로이므로 스트림 적재 없음.
+    private static final RedisScript<Long> LUA_HYDRATE = new DefaultRedisScript<>("""
+        local cartKey = KEYS[1]
+        if redis.call('EXISTS', cartKey) == 1 then
+          return 0
+        end
+
+        redis.call('HSET', cartKey, '__v', ARGV[2])
+        if ARGV[3] ~= '' then
+          redis.call('HSET', cartKey, '__storeId', ARGV[3])
+        end
+        for i = 4, #ARGV, 2 do
+          redis.call('HSET', cartKey, ARGV[i], ARGV[i + 1])
+        end
+        redis.call('EXPIRE', cartKey, tonumber(ARGV[1]))
+        return 1
+        """, Long.class);
+
+    // KEYS[1]=cart, ARGV[1]=minVersion. 캐시 버전이 DB보다 낮을 때만 지운다(그 사이 새로 적재·변경된 키는 보존)
+    private static final RedisScript<Long> LUA_EVICT_STALE = new DefaultRedisScript<>("""
+        local cur = redis.call('HGET', KEYS[1], '__v')
+        if cur and tonumber(cur) < tonumber(ARGV[1]) then
+          return redis.call('DEL', KEYS[1])
+        end
+        return 0
+        """, Long.class);
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * HGETALL 한 번으로 장바구니를 읽는다.
+     *
+     * @param minVersion DB 의 cart_version. 캐시 버전이 이보다 낮으면 지우고 미적재로 본다
+     * @return 키가 없으면 Optional.empty() (캐시 미적재), 있으면 상품 목록(빈 목록 가능)
+     */
+    public Optional<List<CartItem>> load(UUID customerId, long minVersion) {
+        Optional<CartSnapshot> cached = snapshot(customerId);
+        if (cached.isPresent() && cached.get().version() < minVersion) {
+            Long evicted = redisTemplate.execute(LUA_EVICT_STALE, STRING, LONG,
+                    List.of(cartKey(customerId)), String.valueOf(minVersion));
+            log.debug("Stale cart cache: customerId={}, cached={}, db={}, evicted={}",
+                    customerId, cached.get().version(), minVersion, evicted);
+            return Optional.empty();
+        }
+        return cached.map(CartSnapshot::items);
+    }
+
+    public Optional<CartSnapshot> snapshot(UUID customerId) {
+        byte[] rawKey = STRING.serialize(cartKey(customerId));
+        Map<byte[], byte[]> entries = redisTemplate.execute(
+                (RedisCallback<Map<byte[], byte[]>>) connection -> hGetAll(connection, rawKey));
+
+        if (entries == null || entries.isEmpty()) {
+            return Optional.empty();
+        }
+
+        Map<String, String> fields = new LinkedHashMap<>();
+        entries.forEach((field, value) -> fields.put(STRING.deserialize(field), STRING.deserialize(value)));
+        return Optional.of(toSnapshot(fields));
+    }
+
+    /**
+     * 여러 고객의 장바구니를 파이프라인 한 번으로 읽는다(write-behind 배치용).
+     * 캐시가 만료된 고객은 결과에서 빠진다.
+     */
+    @SuppressWarnings("unchecked")
+    public Map<UUID, CartSnapshot> snapshots(Collection<UUID> customerIds) {
+        List<UUID> ids = new ArrayList<>(customerIds);
+        List<Object> results = redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+            for (UUID customerId : ids) {
+                connection.hashCommands().hGetAll(STRING.serialize(cartKey(customerId)));
+            }
+            return null;
+        }, STRING);
+
+        Map<UUID, CartSnapshot> snapshots = new LinkedHashMap<>();
+        for (int i = 0; i < ids.size(); i++) {
+            Map<String, String> fields = (Map<String, String>) results.get(i);
+            if (fields != null && !fields.isEmpty()) {
+                snapshots.put(ids.get(i), toSnapshot(fields));
+            }
+        }
+        return snapshots;
+    }
+
+    /**
+     * write-behind 스트림 항목에 실린 변경 후 상태.
+     * 상태 필드가 없는 항목(이전 형식)은 Optional.empty()
+     */
+    public Optional<CartSnapshot> streamSnapshot(Map<String, String> entry) {
+        String version = entry.get(STREAM_FIELD_VERSION);
+        String items = entry.get(STREAM_FIELD_ITEMS);
+        if (version == null || items == null) {
+            return Optional.empty();
+        }
+        try {
+            List<CartItem> list = objectMapper.readValue(items,
+                    objectMapper.getTypeFactory().constructCollectionType(List.class, CartItem.class));
+            return Optional.of(new CartSnapshot(list, Long.parseLong(version)));
+        } catch (Exception e) {
+            throw new IllegalStateException("write-behind 항목 역직렬화 실패", e);
+        }
+    }
+
+    /** 상품 추가(있으면 수량 증가). @return 변경 후 수량 또는 NOT_LOADED / STORE_MISMATCH */
+    public long addItem(UUID customerId, CartItem item, long minVersion) {
+        return evalWithStream(LUA_ADD, customerId, minVersion,
+                item.getMenuId().toString(),
+                item.getStoreId().toString(),
+                writeItem(item),
+                String.valueOf(item.getQuantity()),
+                ttlSeconds());
+    }
+
+    /** 수량 변경(0 이하면 삭제). @return 변경 후 수량 또는 NOT_LOADED / ITEM_NOT_FOUND */
+    public long setQuantity(UUID customerId, UUID menuId, int quantity, long minVersion) {
+        return evalWithStream(LUA_SET_QTY, customerId, minVersion,
+                menuId.toString(),
+                String.valueOf(quantity),
+                ttlSeconds());
+    }
+
+    /** 상품 삭제. @return 0 또는 NOT_LOADED / ITEM_NOT_FOUND */
+    public long removeItem(UUID customerId, UUID menuId, long minVersion) {
+        return setQuantity(customerId, menuId, 0, minVersion);
+    }
+
+    public void clear(UUID customerId, long minVersion) {
+        evalWithStream(LUA_CLEAR, customerId, minVersion, ttlSeconds());
+    }
+
+    /** 캐시 키를 지운다. 다음 접근 때 DB에서 다시 적재된다. */
+    public void evict(UUID customerId) {
+        redisTemplate.delete(cartKey(customerId));
+    }
+
+    /** DB에서 읽은 장바구니로 캐시를 채운다. 이미 적재되어 있으면 아무것도 하지 않는다. */
+    public void hydrate(UUID customerId, CartSnapshot snapshot) {
+        List<CartItem> items = snapshot.items();
+        List<String> args = new ArrayList<>();
+        args.add(ttlSeconds());
+        args.add(String.valueOf(snapshot.version()));
+        args.add(items.isEmpty() ? "" : items.getFirst().getStoreId().toString());
+        for (CartItem item : items) {
+            args.add(item.getMenuId().toString());
+            args.add(writeItem(item));
+        }
+        Long result = redisTemplate.execute(LUA_HYDRATE, STRING, LONG, List.of(cartKey(customerId)), args.toArray());
+        log.debug("Cart hydrate: customerId={}, applied={}", customerId, result);
+    }
+
+    private long evalWithStream(RedisScript<Long> script, UUID customerId, long minVersion, String... args) {
+        Object[] argv = new Object[args.length + 3];
+        argv[0] = customerId.toString();
+        argv[1] = String.valueOf(CartSnapshot.clockMillis());
+        argv[2] = String.valueOf(minVersion);
+        System.arraycopy(args, 0, argv, 3, args.length);
+
+        Long result = redisTemplate.execute(script, STRING, LONG,
+                List.of(cartKey(customerId), WRITE_BEHIND_STREAM), argv);
+        return result != null ? result : NOT_LOADED;
+    }
+
+    private Map<byte[], byte[]> hGetAll(RedisConnection connection, byte[] rawKey) {
+        return connection.hashCommands().hGetAll(rawKey);
+    }
+
+    private CartSnapshot toSnapshot(Map<String, String> fields) {
+        List<CartItem> items = new ArrayList<>();
+        fields.forEach((field, value) -> {
+            if (!field.startsWith(META_PREFIX)) {
+                items.add(readItem(value));
+            }
+        });
+        long version = Long.parseLong(fields.getOrDefault(VERSION_FIELD, "0"));
+        return new CartSnapshot(items, version);
+    }
+
+    private String cartKey(UUID customerId) {
+        return CART_KEY_PREFIX + customerId;
+    }
+
+    private String ttlSeconds() {
+        return String.valueOf(CART_TTL.toSeconds());
+    }
+
+    private String writeItem(CartItem item) {
+        try {
+            return objectMapper.writeValueAsString(item);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("CartItem 직렬화 실패: menuId=" + item.getMenuId(), e);
+        }
+    }
+
+    private CartItem readItem(String raw) {
+        try {
+            return objectMapper.readValue(raw, CartItem.class);
+        } catch (Exception e) {
+            throw new IllegalStateException("CartItem 역직렬화 실패", e);
+        }
+    }
+}
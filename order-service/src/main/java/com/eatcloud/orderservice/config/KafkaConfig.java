@@ -1,13 +1,21 @@
 package com.eatcloud.orderservice.config;
 
+import com.eatcloud.eventcodec.CompactEventDeserializer;
+import com.eatcloud.eventcodec.CompactEventSerializer;
+import com.eatcloud.orderservice.kafka.reply.SagaReplyTopic;
+import com.eatcloud.outboxrelay.KeyOrderedDispatcher;
+import org.apache.kafka.clients.admin.NewTopic;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.common.config.TopicConfig;
 import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
 import org.apache.kafka.common.serialization.StringDeserializer;
 import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
+import org.springframework.kafka.config.TopicBuilder;
 import org.springframework.kafka.core.*;
 import org.springframework.kafka.listener.DefaultErrorHandler;
 import org.springframework.kafka.listener.ContainerProperties;
@@ -15,7 +23,6 @@ import org.springframework.context.annotation.Primary;
 import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
 import org.springframework.util.backoff.FixedBackOff;
 import org.springframework.kafka.support.serializer.JsonDeserializer;
-import org.springframework.kafka.support.serializer.JsonSerializer;
 
 import java.util.HashMap;
 import java.util.Map;
@@ -28,13 +35,18 @@ public class KafkaConfig {
     @Value("${spring.kafka.bootstrap-servers}")
     private String bootstrapServers;
 
+    // 이 목록의 토픽만 Smile(바이너리)로 발행한다. 소비 측은 포맷을 자동 판별하므로 토픽 단위로 켜면 된다
+    @Value("${kafka.codec.binary-topics:}")
+    private String binaryTopics;
+
     @Bean
     @Primary
     public ProducerFactory<String, Object> producerFactory() {
         Map<String, Object> configProps = new HashMap<>();
         configProps.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         configProps.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
-        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, JsonSerializer.class);
+        configProps.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, CompactEventSerializer.class);
+        configProps.put(CompactEventSerializer.BINARY_TOPICS, binaryTopics);
         
         configProps.put(ProducerConfig.ACKS_CONFIG, "all");
         configProps.put(ProducerConfig.RETRIES_CONFIG, 3);
@@ -94,7 +106,7 @@ public class KafkaConfig {
         configProps.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         configProps.put(ConsumerConfig.GROUP_ID_CONFIG, "order-service-completion");
         configProps.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
-        configProps.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, JsonDeserializer.class);
+        configProps.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, CompactEventDeserializer.class);
         configProps.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
         
         configProps.put(JsonDeserializer.TRUSTED_PACKAGES, "*");
@@ -121,7 +133,7 @@ public class KafkaConfig {
         configProps.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         configProps.put(ConsumerConfig.GROUP_ID_CONFIG, "order-service-point");
         configProps.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
-        configProps.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, JsonDeserializer.class);
+        configProps.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, CompactEventDeserializer.class);
         configProps.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
 
         configProps.put(JsonDeserializer.TRUSTED_PACKAGES, "*");
@@ -145,7 +157,7 @@ public class KafkaConfig {
         configProps.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         configProps.put(ConsumerConfig.GROUP_ID_CONFIG, "order-service-payment");
         configProps.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
-        configProps.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, JsonDeserializer.class);
+        configProps.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, CompactEventDeserializer.class);
         configProps.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
 
         configProps.put(JsonDeserializer.TRUSTED_PACKAGES, "*");
@@ -169,7 +181,7 @@ public class KafkaConfig {
         configProps.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         configProps.put(ConsumerConfig.GROUP_ID_CONFIG, "order-service-point-cancel");
         configProps.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
-        configProps.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, JsonDeserializer.class);
+        configProps.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, CompactEventDeserializer.class);
         configProps.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
         
         configProps.put(JsonDeserializer.TRUSTED_PACKAGES, "*");
@@ -193,7 +205,7 @@ public class KafkaConfig {
         configProps.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         configProps.put(ConsumerConfig.GROUP_ID_CONFIG, "order-service-payment-cancel");
         configProps.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
-        configProps.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, JsonDeserializer.class);
+        configProps.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, CompactEventDeserializer.class);
         configProps.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
         
         configProps.put(JsonDeserializer.TRUSTED_PACKAGES, "*");
@@ -217,7 +229,7 @@ public class KafkaConfig {
         configProps.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         configProps.put(ConsumerConfig.GROUP_ID_CONFIG, "order-service-deduction");
         configProps.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
-        configProps.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, JsonDeserializer.class);
+        configProps.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, CompactEventDeserializer.class);
         configProps.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
         
         configProps.put(JsonDeserializer.TRUSTED_PACKAGES, "*");
@@ -259,33 +271,73 @@ public class KafkaConfig {
 
     }
 
-    // === 재고 이벤트(stock-events) 전용: String → 수동 파싱 ===
+    // === 재고 이벤트(stock-events) 전용: byte[] → 수동 파싱 (JSON/Smile 은 StockEventEnvelope 가 판별) ===
     @Bean
-    public ConsumerFactory<String, String> stockStringConsumerFactory(
+    public ConsumerFactory<String, byte[]> stockStringConsumerFactory(
             @Value("${spring.kafka.bootstrap-servers}") String bootstrapServers,
-            @Value("${spring.kafka.consumer.group-id:order-service}") String baseGroupId
+            @Value("${spring.kafka.consumer.group-id:order-service}") String baseGroupId,
+            @Value("${inventory.stock-events.max-poll-records:500}") int maxPollRecords
     ) {
         Map<String, Object> props = new HashMap<>();
         props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
         // 재고 이벤트는 별도 그룹으로 분리 (기존 응답 리스너들과 충돌 방지)
         props.put(ConsumerConfig.GROUP_ID_CONFIG, baseGroupId + "-stock");
         props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
-        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class);
         props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
-        // 필요시 fetch/max.poll 등 추가 설정
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecords); // 배치 크기 상한
         return new DefaultKafkaConsumerFactory<>(props);
     }
 
     @Bean
-    public ConcurrentKafkaListenerContainerFactory<String, String> stockStringKafkaListenerContainerFactory(
-            ConsumerFactory<String, String> stockStringConsumerFactory
+    public ConcurrentKafkaListenerContainerFactory<String, byte[]> stockStringKafkaListenerContainerFactory(
+            ConsumerFactory<String, byte[]> stockStringConsumerFactory
     ) {
-        var factory = new ConcurrentKafkaListenerContainerFactory<String, String>();
+        var factory = new ConcurrentKafkaListenerContainerFactory<String, byte[]>();
         factory.setConsumerFactory(stockStringConsumerFactory);
         factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL);
         factory.setCommonErrorHandler(responseErrorHandler()); // ✅ DLT 대신 스킵
+        factory.setBatchListener(true); // poll 단위 배치 반영 (StockEventListener)
         factory.setConcurrency(2);
         return factory;
     }
 
-} 
+    // stock-events 배치를 orderId 레인으로 나눠 병렬 반영 (레인 안은 offset 순)
+    @Bean
+    public KeyOrderedDispatcher stockEventDispatcher(@Value("${inventory.stock-events.workers:4}") int workers) {
+        return new KeyOrderedDispatcher("stock-events", workers);
+    }
+
+    // === 인스턴스 전용 saga 응답 토픽: 1 파티션, 짧은 retention ===
+    @Bean
+    public NewTopic sagaReplyTopicDefinition(SagaReplyTopic sagaReplyTopic,
+                                             @Value("${saga.reply.retention-ms:600000}") long retentionMs) {
+        return TopicBuilder.name(sagaReplyTopic.getName())
+                .partitions(1)
+                .config(TopicConfig.RETENTION_MS_CONFIG, String.valueOf(retentionMs))
+                .build();
+    }
+
+    @Bean
+    public ConsumerFactory<String, byte[]> sagaReplyConsumerFactory() {
+        Map<String, Object> configProps = new HashMap<>();
+        configProps.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        configProps.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        // JSON/Smile 판별은 SagaReplyConsumer 에서 (EventEncoding)
+        configProps.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class);
+        configProps.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        // 응답 대기는 짧으므로 poll 지연을 줄인다
+        configProps.put(ConsumerConfig.FETCH_MAX_WAIT_MS_CONFIG, 50);
+
+        return new DefaultKafkaConsumerFactory<>(configProps);
+    }
+
+    @Bean
+    public ConcurrentKafkaListenerContainerFactory<String, byte[]> sagaReplyKafkaListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, byte[]> factory = new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(sagaReplyConsumerFactory());
+        factory.setCommonErrorHandler(responseErrorHandler());
+        return factory;
+    }
+
+}
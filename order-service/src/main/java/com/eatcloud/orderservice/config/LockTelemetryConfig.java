@@ -0,0 +1,36 @@
+package com.eatcloud.orderservice.config;
+
+import com.eatcloud.locktelemetry.LockContentionEndpoint;
+import com.eatcloud.locktelemetry.LockContentionTracker;
+import com.eatcloud.locktelemetry.LockTelemetryProperties;
+import com.eatcloud.locktelemetry.LockWaitListener;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * 공통 모듈(lock-telemetry)의 락 경합 계측 빈 등록.
+ */
+@Configuration
+public class LockTelemetryConfig {
+
+    @Bean
+    @ConfigurationProperties(prefix = "lock.telemetry")
+    public LockTelemetryProperties lockTelemetryProperties() {
+        return new LockTelemetryProperties();
+    }
+
+    @Bean
+    public LockContentionTracker lockContentionTracker(MeterRegistry meterRegistry,
+                                                       ObjectProvider<LockWaitListener> waitListeners,
+                                                       LockTelemetryProperties lockTelemetryProperties) {
+        return new LockContentionTracker(meterRegistry, waitListeners, lockTelemetryProperties);
+    }
+
+    @Bean
+    public LockContentionEndpoint lockContentionEndpoint(LockContentionTracker lockContentionTracker) {
+        return new LockContentionEndpoint(lockContentionTracker);
+    }
+}
@@ -0,0 +1,105 @@
+package com.eatcloud.orderservice.config;
+
+import com.eatcloud.eventcodec.EventEncoding;
+import com.eatcloud.orderservice.event.OrderCancelledEvent;
+import com.eatcloud.orderservice.event.OrderCreatedEvent;
+import com.eatcloud.orderservice.event.PointDeductionRequestEvent;
+import com.eatcloud.orderservice.entity.OutboxEvent;
+import com.eatcloud.outboxrelay.DailyPartitionMaintainer;
+import com.eatcloud.outboxrelay.ExpiredRowCleaner;
+import com.eatcloud.outboxrelay.OutboxEventRegistry;
+import com.eatcloud.outboxrelay.OutboxNotificationListener;
+import com.eatcloud.outboxrelay.OutboxPartitionProperties;
+import com.eatcloud.outboxrelay.OutboxProducers;
+import com.eatcloud.outboxrelay.OutboxRelay;
+import com.eatcloud.outboxrelay.OutboxRelayProperties;
+import com.eatcloud.outboxrelay.OutboxRow;
+import com.eatcloud.outboxrelay.OutboxTable;
+import com.eatcloud.outboxrelay.PartitionedTable;
+import com.eatcloud.outboxrelay.WireOutboxSource;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+
+@Configuration
+public class OutboxRelayConfig {
+
+    private static final OutboxTable OUTBOX_TABLE =
+            new OutboxTable("outbox_events", "event_id", OutboxEvent.Status.FAILED.name());
+
+    // 기존 outbox.publisher.* 키(batch-size 등)를 그대로 사용한다
+    @Bean
+    @ConfigurationProperties(prefix = "outbox.publisher")
+    public OutboxRelayProperties orderOutboxRelayProperties() {
+        return new OutboxRelayProperties();
+    }
+
+    // outbox.mapping.* 토픽이 비어 있으면 기동 시점에 실패한다
+    @Bean
+    public OutboxEventRegistry orderOutboxEventRegistry(OutboxMappingProperties mappingProperties) {
+        OutboxEventRegistry registry = new OutboxEventRegistry();
+        registry.register("OrderCreatedEvent",
+                mappingProperties.resolveTopic("OrderCreatedEvent"), OrderCreatedEvent.class);
+        registry.register("OrderCancelledEvent",
+                mappingProperties.resolveTopic("OrderCancelledEvent"), OrderCancelledEvent.class);
+        registry.register("PointDeductionRequestEvent",
+                mappingProperties.resolveTopic("PointDeductionRequestEvent"), PointDeductionRequestEvent.class);
+        return registry;
+    }
+
+    // 저장된 payload JSON 을 역직렬화 없이 byte[] 로 그대로 보낸다 (kafka.codec.binary-topics 토픽은 Smile 로 변환)
+    // 재시도 대기 행은 FAILED 상태로 두고 next_attempt_at 이 지나면 다시 집어간다
+    @Bean
+    public OutboxRelay<OutboxRow, byte[]> orderOutboxRelay(@Value("${spring.kafka.bootstrap-servers}") String bootstrapServers,
+                                                           @Value("${kafka.codec.binary-topics:}") String binaryTopics,
+                                                           OutboxEventRegistry orderOutboxEventRegistry,
+                                                           ObjectMapper objectMapper,
+                                                           JdbcTemplate jdbcTemplate,
+                                                           OutboxRelayProperties orderOutboxRelayProperties,
+                                                           MeterRegistry meterRegistry) {
+        WireOutboxSource source = new WireOutboxSource(jdbcTemplate, OUTBOX_TABLE,
+                orderOutboxEventRegistry, objectMapper, "order-service", EventEncoding.parseTopics(binaryTopics));
+        return new OutboxRelay<>("order-outbox", source, OutboxProducers.bytesTemplate(bootstrapServers),
+                jdbcTemplate, OUTBOX_TABLE, orderOutboxRelayProperties, meterRegistry);
+    }
+
+    // outbox_events INSERT 트리거(trg_outbox_events_notify)의 NOTIFY 로 즉시 발행
+    @Bean
+    public OutboxNotificationListener orderOutboxListener(DataSource dataSource,
+                                                          OutboxRelay<OutboxRow, byte[]> orderOutboxRelay,
+                                                          OutboxRelayProperties orderOutboxRelayProperties) {
+        return new OutboxNotificationListener("order-outbox", dataSource, "outbox_events",
+                orderOutboxRelay::drain, orderOutboxRelayProperties);
+    }
+
+    @Bean
+    @ConfigurationProperties(prefix = "outbox.partition")
+    public OutboxPartitionProperties orderOutboxPartitionProperties() {
+        return new OutboxPartitionProperties();
+    }
+
+    // outbox_events 는 FAILED 도 재시도 대기라 SENT 가 아닌 행이 남은 파티션은 지우지 않는다
+    @Bean
+    public DailyPartitionMaintainer orderPartitionMaintainer(JdbcTemplate jdbcTemplate,
+                                                             OutboxPartitionProperties orderOutboxPartitionProperties,
+                                                             MeterRegistry meterRegistry) {
+        return new DailyPartitionMaintainer("order-partition", jdbcTemplate, List.of(
+                new PartitionedTable("outbox_events", orderOutboxPartitionProperties.getRetentionDays(), "status <> 'SENT'")
+        ), orderOutboxPartitionProperties, meterRegistry);
+    }
+
+    // processed_events 는 event_id 유일성이 멱등 판정이라 파티션하지 않고 행 단위로 만료시킨다
+    @Bean
+    public ExpiredRowCleaner orderProcessedEventCleaner(JdbcTemplate jdbcTemplate,
+                                                        OutboxPartitionProperties orderOutboxPartitionProperties) {
+        return new ExpiredRowCleaner("order-processed", jdbcTemplate, "processed_events", "processed_at",
+                orderOutboxPartitionProperties.getProcessedRetentionDays(), orderOutboxPartitionProperties);
+    }
+}
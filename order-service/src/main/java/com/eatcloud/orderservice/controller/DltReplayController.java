@@ -0,0 +1,76 @@
+package com.eatcloud.orderservice.controller;
+
+import java.util.List;
+import java.util.UUID;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import com.eatcloud.orderservice.dlt.DltReplayService;
+import com.eatcloud.orderservice.dto.request.DltReplayRequest;
+import com.eatcloud.orderservice.dto.response.ApiResponse;
+import com.eatcloud.orderservice.dto.response.DltReplayStatusResponse;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+
+/**
+ * DLT 재발행 관리 API.
+ * 작업 상태는 작업을 시작한 인스턴스 메모리에 있으므로 조회/취소도 같은 인스턴스로 보내야 한다.
+ */
+@RestController
+@RequestMapping("/api/v1/orders/admin/dlt-replays")
+@RequiredArgsConstructor
+@Slf4j
+public class DltReplayController {
+
+	private final DltReplayService dltReplayService;
+
+	@PreAuthorize("hasRole('ADMIN')")
+	@PostMapping
+	public ResponseEntity<ApiResponse<DltReplayStatusResponse>> start(@RequestBody DltReplayRequest request) {
+		try {
+			return ResponseEntity.status(HttpStatus.ACCEPTED)
+				.body(ApiResponse.success(DltReplayStatusResponse.from(dltReplayService.start(request))));
+		} catch (IllegalArgumentException e) {
+			log.warn("DLT 재발행 요청 거부: dltTopic={}, error={}", request.getDltTopic(), e.getMessage());
+			return ResponseEntity.badRequest().body(ApiResponse.error(e.getMessage()));
+		} catch (IllegalStateException e) {
+			return ResponseEntity.status(HttpStatus.CONFLICT).body(ApiResponse.error(e.getMessage()));
+		}
+	}
+
+	@PreAuthorize("hasRole('ADMIN')")
+	@GetMapping
+	public ResponseEntity<ApiResponse<List<DltReplayStatusResponse>>> list() {
+		return ResponseEntity.ok(ApiResponse.success(
+			dltReplayService.findAll().stream().map(DltReplayStatusResponse::from).toList()));
+	}
+
+	@PreAuthorize("hasRole('ADMIN')")
+	@GetMapping("/{jobId}")
+	public ResponseEntity<ApiResponse<DltReplayStatusResponse>> get(@PathVariable UUID jobId) {
+		try {
+			return ResponseEntity.ok(ApiResponse.success(DltReplayStatusResponse.from(dltReplayService.find(jobId))));
+		} catch (IllegalArgumentException e) {
+			return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ApiResponse.error(e.getMessage()));
+		}
+	}
+
+	@PreAuthorize("hasRole('ADMIN')")
+	@PostMapping("/{jobId}/cancel")
+	public ResponseEntity<ApiResponse<DltReplayStatusResponse>> cancel(@PathVariable UUID jobId) {
+		try {
+			return ResponseEntity.ok(ApiResponse.success(DltReplayStatusResponse.from(dltReplayService.cancel(jobId))));
+		} catch (IllegalArgumentException e) {
+			return ResponseEntity.status(HttpStatus.NOT_FOUND).body(ApiResponse.error(e.getMessage()));
+		}
+	}
+}
@@ -1,5 +1,6 @@
 package com.eatcloud.orderservice.controller;
 
+import java.net.URI;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -10,6 +11,7 @@ import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 
+import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PatchMapping;
@@ -27,8 +29,12 @@ import com.eatcloud.orderservice.dto.request.PaymentCompleteRequest;
 import com.eatcloud.orderservice.dto.request.PaymentFailedRequest;
 import com.eatcloud.orderservice.dto.response.CreateOrderResponse;
 import com.eatcloud.orderservice.dto.response.ApiResponse;
+import com.eatcloud.orderservice.dto.response.OrderSagaStatusResponse;
 import com.eatcloud.orderservice.entity.Order;
+import com.eatcloud.orderservice.exception.ErrorCode;
 import com.eatcloud.orderservice.exception.OrderException;
+import com.eatcloud.orderservice.saga.OrderSaga;
+import com.eatcloud.orderservice.service.OrderIdempotencyService;
 import com.eatcloud.orderservice.service.OrderService;
 import com.eatcloud.orderservice.service.SagaOrchestrator;
 
@@ -43,11 +49,13 @@ public class OrderController {
 
 	private final OrderService orderService;
 	private final SagaOrchestrator sagaOrchestrator;
+	private final OrderIdempotencyService orderIdempotencyService;
 
 	@PostMapping
 	public ResponseEntity<ApiResponse<CreateOrderResponse>> createOrder(
 			@AuthenticationPrincipal Jwt jwt,
 			@RequestHeader(value = "Authorization", required = false) String authorizationHeader,
+			@RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
 			@RequestBody CreateOrderRequest request) {
 
 		try {
@@ -57,8 +65,10 @@ public class OrderController {
 			if (authorizationHeader != null && authorizationHeader.startsWith("Bearer ")) {
 				bearerToken = authorizationHeader.substring(7);
 			}
-			
-			CreateOrderResponse response = orderService.createOrderFromCartSimple(customerId, request, bearerToken);
+			String token = bearerToken;
+
+			CreateOrderResponse response = orderIdempotencyService.execute(customerId, "orders", idempotencyKey, request,
+					() -> orderService.createOrderFromCartSimple(customerId, request, token));
 			return ResponseEntity.ok(ApiResponse.success(response));
 		} catch (IllegalArgumentException e) {
 			log.error("Invalid JWT subject format: {}", jwt != null ? jwt.getSubject() : "null");
@@ -269,25 +279,32 @@ public class OrderController {
 	public ResponseEntity<ApiResponse<CreateOrderResponse>> createOrderWithSaga(
 			@AuthenticationPrincipal Jwt jwt,
 			@RequestHeader(value = "Authorization", required = false) String authorizationHeader,
+			@RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
 			@RequestBody @Valid CreateOrderRequest request) {
 
 		try {
 			UUID customerId = UUID.fromString(jwt.getSubject());
 			log.info("Creating order with Saga: customerId={}, storeId={}", customerId, request.getStoreId());
 
-			CreateOrderResponse response = sagaOrchestrator.createOrderSaga(customerId, request, authorizationHeader);
+			CreateOrderResponse response = orderIdempotencyService.execute(customerId, "orders.saga", idempotencyKey, request,
+					() -> sagaOrchestrator.createOrderSaga(customerId, request, authorizationHeader));
 
-			return ResponseEntity.ok(
-					ApiResponse.<CreateOrderResponse>builder()
+			return ResponseEntity.accepted()
+					.location(URI.create(response.getStatusUrl()))
+					.body(ApiResponse.<CreateOrderResponse>builder()
 							.success(true)
-							.message("주문이 성공적으로 생성되었습니다 (Saga)")
+							.message("주문이 접수되었습니다 (Saga)")
 							.data(response)
-							.build()
-			);
+							.build());
 
 		} catch (OrderException e) {
 			log.error("Saga order creation failed", e);
-			return ResponseEntity.badRequest().body(
+			// 중복 요청(409/422)은 그대로 전달, 그 외 주문 오류는 400
+			HttpStatus status = switch (e.getErrorCode()) {
+				case ORDER_PROCESSING, IDEMPOTENCY_KEY_REUSED -> e.getErrorCode().getStatus();
+				default -> HttpStatus.BAD_REQUEST;
+			};
+			return ResponseEntity.status(status).body(
 					ApiResponse.<CreateOrderResponse>builder()
 							.success(false)
 							.message(e.getMessage())
@@ -303,4 +320,16 @@ public class OrderController {
 			);
 		}
 	}
+
+	@GetMapping("/{orderId}/saga")
+	public ResponseEntity<ApiResponse<OrderSagaStatusResponse>> getOrderSagaStatus(
+			@AuthenticationPrincipal Jwt jwt,
+			@PathVariable UUID orderId) {
+
+		OrderSaga saga = sagaOrchestrator.getSagaByOrderId(orderId);
+		if (!saga.getCustomerId().toString().equals(jwt.getSubject())) {
+			throw new OrderException(ErrorCode.ORDER_NOT_FOUND);
+		}
+		return ResponseEntity.ok(ApiResponse.success(OrderSagaStatusResponse.from(saga)));
+	}
 }
@@ -0,0 +1,75 @@
+package com.eatcloud.orderservice.dlt;
+
+import com.eatcloud.orderservice.dto.request.DltReplayRequest;
+import lombok.Getter;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * DLT 재발행 작업 하나의 진행 상태 (인스턴스 메모리에만 보관).
+ * 카운터는 파티션 워커들이 동시에 올리므로 Atomic 으로 둔다.
+ */
+@Getter
+public class DltReplayJob {
+
+    public enum Status { RUNNING, COMPLETED, CANCELLED, FAILED }
+
+    private final UUID jobId = UUID.randomUUID();
+    private final DltReplayRequest request;
+    private final int ratePerSecond;
+    private final int concurrency;
+    private final LocalDateTime startedAt = LocalDateTime.now();
+
+    private final AtomicLong scanned = new AtomicLong();
+    private final AtomicLong matched = new AtomicLong();
+    private final AtomicLong published = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+
+    private volatile Status status = Status.RUNNING;
+    private volatile long totalRecords;
+    private volatile boolean cancelRequested;
+    private volatile boolean aborted;
+    private volatile LocalDateTime finishedAt;
+    private volatile String lastError;
+
+    DltReplayJob(DltReplayRequest request, int ratePerSecond, int concurrency) {
+        this.request = request;
+        this.ratePerSecond = ratePerSecond;
+        this.concurrency = concurrency;
+    }
+
+    void addTotal(long records) {
+        synchronized (this) {
+            totalRecords += records;
+        }
+    }
+
+    void requestCancel() {
+        cancelRequested = true;
+    }
+
+    /** 워커가 중단된 경우 (작업은 FAILED 로 끝난다) */
+    void fail(String error) {
+        lastError = error;
+        aborted = true;
+    }
+
+    /** 개별 전송 실패 (failed 카운트로 집계하고 작업은 계속한다) */
+    void noteError(String error) {
+        lastError = error;
+    }
+
+    void finish() {
+        status = status != Status.RUNNING ? status
+                : cancelRequested ? Status.CANCELLED
+                : aborted ? Status.FAILED
+                : Status.COMPLETED;
+        finishedAt = LocalDateTime.now();
+    }
+
+    public boolean isRunning() {
+        return status == Status.RUNNING;
+    }
+}
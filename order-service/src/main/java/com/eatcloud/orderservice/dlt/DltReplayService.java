@@ -0,0 +1,423 @@
+package com.eatcloud.orderservice.dlt;
+
+import com.eatcloud.orderservice.dto.request.DltReplayRequest;
+import com.eatcloud.outboxrelay.OutboxHeaders;
+import com.eatcloud.outboxrelay.OutboxProducers;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.Consumer;
+import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.ConsumerRecords;
+import org.apache.kafka.clients.consumer.KafkaConsumer;
+import org.apache.kafka.clients.consumer.OffsetAndTimestamp;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.StringDeserializer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.KafkaHeaders;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * DLT 대량 재발행 엔진.
+ *
+ * 한 작업:
+ *  1) DLT 토픽의 파티션을 concurrency 개 워커로 나눈다. 워커마다 그룹 없는 consumer 로 assign/seek 하므로
+ *     DltAlertConsumer 등 기존 그룹 offset 에 영향이 없다
+ *  2) 시작 offset = fromOffset 또는 fromTime(offsetsForTimes), 끝 = 시작 시점의 end offset 과 toOffset 중 작은 쪽.
+ *     작업 중 새로 쌓이는 DLT 는 따라가지 않는다
+ *  3) eventType/key 필터를 통과한 레코드만 원래 토픽으로 value 바이트 그대로 보낸다.
+ *     kafka_dlt-* 헤더는 떼고 dltReplayJobId 헤더를 붙인다. 속도는 작업 단위 rate limit 으로 맞춘다
+ *  4) poll 한 번 분량의 전송 결과를 모두 기다린 뒤 다음 poll 을 한다 (워커당 in-flight ≤ max.poll.records)
+ * 진행 상황은 {@link DltReplayJob} 으로 관리자 API 에서 조회/취소한다.
+ */
+@Slf4j
+@Service
+public class DltReplayService {
+
+    public static final String REPLAY_JOB_HEADER = "dltReplayJobId";
+    private static final String DLT_HEADER_PREFIX = "kafka_dlt-";
+    private static final String TYPE_ID_HEADER = "__TypeId__";
+
+    private static final int MAX_POLL_RECORDS = 500;
+
+    private final int defaultRatePerSecond;
+    private final int maxRatePerSecond;
+    private final int defaultConcurrency;
+    private final int maxConcurrency;
+    private final Duration pollTimeout;
+    private final int retainedJobs;
+
+    private final KafkaTemplate<String, byte[]> replayTemplate;
+    private final Supplier<Consumer<String, byte[]>> consumers;
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final Map<UUID, DltReplayJob> jobs = new LinkedHashMap<>();
+
+    @Autowired
+    public DltReplayService(@Value("${spring.kafka.bootstrap-servers}") String bootstrapServers,
+                            @Value("${dlt.replay.default-rate-per-second:200}") int defaultRatePerSecond,
+                            @Value("${dlt.replay.max-rate-per-second:5000}") int maxRatePerSecond,
+                            @Value("${dlt.replay.default-concurrency:2}") int defaultConcurrency,
+                            @Value("${dlt.replay.max-concurrency:8}") int maxConcurrency,
+                            @Value("${dlt.replay.poll-timeout-ms:500}") long pollTimeoutMs,
+                            @Value("${dlt.replay.retained-jobs:50}") int retainedJobs) {
+        // 값은 DLT 에 있던 바이트 그대로 보낸다 (기본 KafkaTemplate 은 다시 JSON 으로 감싼다)
+        this(OutboxProducers.bytesTemplate(bootstrapServers), () -> newConsumer(bootstrapServers),
+                defaultRatePerSecond, maxRatePerSecond, defaultConcurrency, maxConcurrency, pollTimeoutMs, retainedJobs);
+    }
+
+    DltReplayService(KafkaTemplate<String, byte[]> replayTemplate, Supplier<Consumer<String, byte[]>> consumers,
+                     int defaultRatePerSecond, int maxRatePerSecond, int defaultConcurrency, int maxConcurrency,
+                     long pollTimeoutMs, int retainedJobs) {
+        this.replayTemplate = replayTemplate;
+        this.consumers = consumers;
+        this.defaultRatePerSecond = defaultRatePerSecond;
+        this.maxRatePerSecond = maxRatePerSecond;
+        this.defaultConcurrency = defaultConcurrency;
+        this.maxConcurrency = maxConcurrency;
+        this.pollTimeout = Duration.ofMillis(pollTimeoutMs);
+        this.retainedJobs = retainedJobs;
+    }
+
+    public DltReplayJob start(DltReplayRequest request) {
+        validate(request);
+        int rate = Math.min(orDefault(request.getRatePerSecond(), defaultRatePerSecond), maxRatePerSecond);
+        int concurrency = Math.max(1, Math.min(orDefault(request.getConcurrency(), defaultConcurrency), maxConcurrency));
+
+        DltReplayJob job = new DltReplayJob(request, rate, concurrency);
+        synchronized (jobs) {
+            boolean sameTopicRunning = jobs.values().stream()
+                    .anyMatch(j -> j.isRunning() && j.getRequest().getDltTopic().equals(request.getDltTopic()));
+            if (sameTopicRunning) {
+                throw new IllegalStateException("같은 DLT 토픽의 재발행이 이미 진행 중입니다: " + request.getDltTopic());
+            }
+            jobs.put(job.getJobId(), job);
+            evictFinished();
+        }
+        executor.submit(() -> run(job));
+        log.info("DLT 재발행 시작: jobId={}, dltTopic={}, rate={}/s, concurrency={}, dryRun={}",
+                job.getJobId(), request.getDltTopic(), rate, concurrency, request.isDryRun());
+        return job;
+    }
+
+    public List<DltReplayJob> findAll() {
+        synchronized (jobs) {
+            List<DltReplayJob> all = new ArrayList<>(jobs.values());
+            all.sort(Comparator.comparing(DltReplayJob::getStartedAt).reversed());
+            return all;
+        }
+    }
+
+    public DltReplayJob find(UUID jobId) {
+        synchronized (jobs) {
+            DltReplayJob job = jobs.get(jobId);
+            if (job == null) {
+                throw new IllegalArgumentException("DLT 재발행 작업을 찾을 수 없습니다: " + jobId);
+            }
+            return job;
+        }
+    }
+
+    public DltReplayJob cancel(UUID jobId) {
+        DltReplayJob job = find(jobId);
+        job.requestCancel();
+        log.info("DLT 재발행 취소 요청: jobId={}", jobId);
+        return job;
+    }
+
+    private void run(DltReplayJob job) {
+        DltReplayRequest request = job.getRequest();
+        try {
+            List<TopicPartition> partitions = resolvePartitions(request);
+            ReplayRateLimiter limiter = new ReplayRateLimiter(job.getRatePerSecond());
+
+            List<List<TopicPartition>> lanes = new ArrayList<>();
+            for (int i = 0; i < Math.min(job.getConcurrency(), partitions.size()); i++) {
+                lanes.add(new ArrayList<>());
+            }
+            for (int i = 0; i < partitions.size(); i++) {
+                lanes.get(i % lanes.size()).add(partitions.get(i));
+            }
+
+            List<Future<?>> workers = new ArrayList<>();
+            for (List<TopicPartition> lane : lanes) {
+                workers.add(executor.submit(() -> replayPartitions(job, lane, limiter)));
+            }
+            for (Future<?> worker : workers) {
+                worker.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            job.requestCancel();
+        } catch (Exception e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            job.fail(cause.toString());
+            log.error("DLT 재발행 실패: jobId={}, error={}", job.getJobId(), cause.toString());
+        } finally {
+            job.finish();
+            log.info("DLT 재발행 종료: jobId={}, status={}, scanned={}, matched={}, published={}, failed={}",
+                    job.getJobId(), job.getStatus(), job.getScanned().get(), job.getMatched().get(),
+                    job.getPublished().get(), job.getFailed().get());
+        }
+    }
+
+    /** 파티션 묶음 하나를 끝 offset 까지 읽어 재발행한다. */
+    private void replayPartitions(DltReplayJob job, List<TopicPartition> partitions, ReplayRateLimiter limiter) {
+        DltReplayRequest request = job.getRequest();
+        List<CompletableFuture<?>> pending = new ArrayList<>();
+
+        try (Consumer<String, byte[]> consumer = consumers.get()) {
+            consumer.assign(partitions);
+            Map<TopicPartition, Long> ends = bounds(consumer, partitions, request);
+            Set<TopicPartition> active = new HashSet<>();
+            for (TopicPartition tp : partitions) {
+                long start = startOffset(consumer, tp, request);
+                if (start < ends.get(tp)) {
+                    consumer.seek(tp, start);
+                    job.addTotal(ends.get(tp) - start);
+                    active.add(tp);
+                }
+            }
+            consumer.pause(partitions.stream().filter(tp -> !active.contains(tp)).toList());
+
+            while (!active.isEmpty() && !job.isCancelRequested()) {
+                ConsumerRecords<String, byte[]> records = consumer.poll(pollTimeout);
+                for (ConsumerRecord<String, byte[]> record : records) {
+                    TopicPartition tp = new TopicPartition(record.topic(), record.partition());
+                    if (!active.contains(tp) || job.isCancelRequested()) {
+                        continue;
+                    }
+                    if (record.offset() >= ends.get(tp)
+                            || (request.getToTime() != null && record.timestamp() > request.getToTime().toEpochMilli())) {
+                        done(consumer, active, tp);
+                        continue;
+                    }
+                    job.getScanned().incrementAndGet();
+                    if (!matches(record, request)) {
+                        continue;
+                    }
+                    job.getMatched().incrementAndGet();
+                    if (request.isDryRun()) {
+                        continue;
+                    }
+                    limiter.acquire();
+                    pending.add(publish(job, record));
+                }
+                // 이번 poll 분량의 ack 를 기다린 뒤 다음 poll (in-flight 상한, 취소 시 바로 멈춤)
+                awaitAll(pending);
+                pending.clear();
+                for (TopicPartition tp : List.copyOf(active)) {
+                    if (consumer.position(tp) >= ends.get(tp)) {
+                        done(consumer, active, tp);
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            job.requestCancel();
+        } catch (RuntimeException e) {
+            job.fail(e.toString());
+            log.error("DLT 재발행 워커 실패: jobId={}, partitions={}, error={}", job.getJobId(), partitions, e.toString());
+        } finally {
+            awaitAll(pending);
+        }
+    }
+
+    private CompletableFuture<?> publish(DltReplayJob job, ConsumerRecord<String, byte[]> record) {
+        String target = targetTopicOf(record, job.getRequest());
+        Headers headers = new RecordHeaders();
+        for (Header header : record.headers()) {
+            if (!header.key().startsWith(DLT_HEADER_PREFIX)) {
+                headers.add(header);
+            }
+        }
+        headers.add(REPLAY_JOB_HEADER, job.getJobId().toString().getBytes(StandardCharsets.UTF_8));
+
+        try {
+            return replayTemplate.send(new ProducerRecord<>(target, null, record.key(), record.value(), headers))
+                    .whenComplete((result, ex) -> {
+                        if (ex == null) {
+                            job.getPublished().incrementAndGet();
+                        } else {
+                            job.getFailed().incrementAndGet();
+                            job.noteError(ex.toString());
+                            log.warn("DLT 재발행 전송 실패: jobId={}, dlt={}-{}@{}, error={}", job.getJobId(),
+                                    record.topic(), record.partition(), record.offset(), ex.toString());
+                        }
+                    });
+        } catch (RuntimeException e) {
+            job.getFailed().incrementAndGet();
+            job.noteError(e.toString());
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+
+    private List<TopicPartition> resolvePartitions(DltReplayRequest request) {
+        try (Consumer<String, byte[]> consumer = consumers.get()) {
+            List<PartitionInfo> infos = consumer.partitionsFor(request.getDltTopic());
+            if (infos == null || infos.isEmpty()) {
+                throw new IllegalArgumentException("DLT 토픽이 없습니다: " + request.getDltTopic());
+            }
+            return infos.stream()
+                    .map(PartitionInfo::partition)
+                    .filter(p -> request.getPartitions() == null || request.getPartitions().isEmpty()
+                            || request.getPartitions().contains(p))
+                    .sorted()
+                    .map(p -> new TopicPartition(request.getDltTopic(), p))
+                    .toList();
+        }
+    }
+
+    /** 읽을 끝(배타) offset: 시작 시점의 end offset 과 toOffset+1 중 작은 쪽 */
+    private Map<TopicPartition, Long> bounds(Consumer<String, byte[]> consumer,
+                                             Collection<TopicPartition> partitions, DltReplayRequest request) {
+        Map<TopicPartition, Long> ends = new HashMap<>(consumer.endOffsets(partitions));
+        if (request.getToOffset() != null) {
+            ends.replaceAll((tp, end) -> Math.min(end, request.getToOffset() + 1));
+        }
+        return ends;
+    }
+
+    private long startOffset(Consumer<String, byte[]> consumer, TopicPartition tp, DltReplayRequest request) {
+        long beginning = consumer.beginningOffsets(List.of(tp)).get(tp);
+        long start = beginning;
+        if (request.getFromTime() != null) {
+            OffsetAndTimestamp found = consumer.offsetsForTimes(Map.of(tp, request.getFromTime().toEpochMilli())).get(tp);
+            start = found != null ? found.offset() : consumer.endOffsets(List.of(tp)).get(tp);
+        }
+        if (request.getFromOffset() != null) {
+            start = Math.max(start, request.getFromOffset());
+        }
+        return Math.max(start, beginning);
+    }
+
+    private boolean matches(ConsumerRecord<String, byte[]> record, DltReplayRequest request) {
+        if (request.getKeys() != null && !request.getKeys().isEmpty() && !request.getKeys().contains(record.key())) {
+            return false;
+        }
+        if (request.getEventTypes() != null && !request.getEventTypes().isEmpty()) {
+            return request.getEventTypes().contains(eventTypeOf(record.headers()));
+        }
+        return true;
+    }
+
+    /** outbox 릴레이의 eventType 헤더, 없으면 JsonSerializer 의 __TypeId__ 클래스 simple name */
+    private static String eventTypeOf(Headers headers) {
+        String eventType = OutboxHeaders.read(headers, OutboxHeaders.EVENT_TYPE);
+        if (eventType != null) {
+            return eventType;
+        }
+        String typeId = OutboxHeaders.read(headers, TYPE_ID_HEADER);
+        return typeId == null ? null : typeId.substring(typeId.lastIndexOf('.') + 1);
+    }
+
+    private static String targetTopicOf(ConsumerRecord<String, byte[]> record, DltReplayRequest request) {
+        if (request.getTargetTopic() != null && !request.getTargetTopic().isBlank()) {
+            return request.getTargetTopic();
+        }
+        String original = OutboxHeaders.read(record.headers(), KafkaHeaders.DLT_ORIGINAL_TOPIC);
+        return original != null ? original : stripDltSuffix(record.topic());
+    }
+
+    private static String stripDltSuffix(String topic) {
+        return topic.endsWith(".dlt") || topic.endsWith("-dlt") ? topic.substring(0, topic.length() - 4) : topic;
+    }
+
+    private void validate(DltReplayRequest request) {
+        String dlt = request.getDltTopic();
+        if (dlt == null || !(dlt.endsWith(".dlt") || dlt.endsWith("-dlt"))) {
+            throw new IllegalArgumentException("dltTopic 은 .dlt 또는 -dlt 로 끝나야 합니다: " + dlt);
+        }
+        String target = request.getTargetTopic();
+        if (target != null && (target.endsWith(".dlt") || target.endsWith("-dlt"))) {
+            throw new IllegalArgumentException("DLT 토픽으로는 재발행할 수 없습니다: " + target);
+        }
+        if (request.getFromTime() != null && request.getToTime() != null
+                && request.getFromTime().isAfter(request.getToTime())) {
+            throw new IllegalArgumentException("fromTime 이 toTime 보다 늦습니다");
+        }
+        if (request.getFromOffset() != null && request.getToOffset() != null
+                && request.getFromOffset() > request.getToOffset()) {
+            throw new IllegalArgumentException("fromOffset 이 toOffset 보다 큽니다");
+        }
+    }
+
+    private static Consumer<String, byte[]> newConsumer(String bootstrapServers) {
+        Map<String, Object> props = new HashMap<>();
+        props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, MAX_POLL_RECORDS);
+        props.put(ConsumerConfig.CLIENT_ID_CONFIG, "order-service-dlt-replay-" + UUID.randomUUID().toString().substring(0, 8));
+        return new KafkaConsumer<>(props, new StringDeserializer(), new ByteArrayDeserializer());
+    }
+
+    private static void done(Consumer<String, byte[]> consumer, Set<TopicPartition> active, TopicPartition tp) {
+        if (active.remove(tp)) {
+            consumer.pause(List.of(tp));
+        }
+    }
+
+    private static void awaitAll(List<CompletableFuture<?>> pending) {
+        if (pending.isEmpty()) {
+            return;
+        }
+        try {
+            CompletableFuture.allOf(pending.toArray(CompletableFuture[]::new)).get(2, TimeUnit.MINUTES);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            // 개별 결과는 whenComplete 에서 카운트됨
+        }
+    }
+
+    private void evictFinished() {
+        var it = jobs.values().iterator();
+        while (jobs.size() > retainedJobs && it.hasNext()) {
+            if (!it.next().isRunning()) {
+                it.remove();
+            }
+        }
+    }
+
+    private static int orDefault(Integer value, int fallback) {
+        return value == null || value <= 0 ? fallback : value;
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        findAll().forEach(DltReplayJob::requestCancel);
+        executor.shutdown();
+        try {
+            executor.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        replayTemplate.getProducerFactory().reset();
+    }
+}
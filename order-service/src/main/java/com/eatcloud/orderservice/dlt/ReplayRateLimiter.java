@@ -0,0 +1,34 @@
+package com.eatcloud.orderservice.dlt;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 작업 단위 발행 속도 제한 (모든 파티션 워커가 공유).
+ * 다음 허용 시각을 한 칸씩 예약하는 방식이라 버스트 없이 초당 permitsPerSecond 건으로 고르게 나간다.
+ * 0 이하면 제한 없음.
+ */
+class ReplayRateLimiter {
+
+    private final long intervalNanos;
+    private long nextFreeAt = System.nanoTime();
+
+    ReplayRateLimiter(int permitsPerSecond) {
+        this.intervalNanos = permitsPerSecond <= 0 ? 0 : TimeUnit.SECONDS.toNanos(1) / permitsPerSecond;
+    }
+
+    void acquire() throws InterruptedException {
+        if (intervalNanos == 0) {
+            return;
+        }
+        long waitNanos;
+        synchronized (this) {
+            long now = System.nanoTime();
+            long at = Math.max(now, nextFreeAt);
+            nextFreeAt = at + intervalNanos;
+            waitNanos = at - now;
+        }
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+}
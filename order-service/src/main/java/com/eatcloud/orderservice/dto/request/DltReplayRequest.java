@@ -0,0 +1,44 @@
+package com.eatcloud.orderservice.dto.request;
+
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.time.Instant;
+import java.util.List;
+
+/**
+ * DLT 재발행 요청.
+ * 범위(시간/offset)와 필터(eventType/key)는 모두 선택이며, 비우면 DLT 의 현재 끝까지 전부 대상이다.
+ */
+@Getter
+@Setter
+@NoArgsConstructor
+public class DltReplayRequest {
+
+    /** 읽을 DLT 토픽 (예: order.created.dlt) */
+    private String dltTopic;
+
+    /** 재발행할 토픽. 비우면 kafka_dlt-original-topic 헤더, 그것도 없으면 .dlt/-dlt 를 뗀 이름 */
+    private String targetTopic;
+
+    /** 레코드 timestamp 범위 [fromTime, toTime] */
+    private Instant fromTime;
+    private Instant toTime;
+
+    /** 대상 파티션 (비우면 전체)과 offset 범위 [fromOffset, toOffset] */
+    private List<Integer> partitions;
+    private Long fromOffset;
+    private Long toOffset;
+
+    /** eventType 헤더(없으면 __TypeId__ 의 클래스명) 또는 key 가 목록에 있는 레코드만 */
+    private List<String> eventTypes;
+    private List<String> keys;
+
+    /** 초당 재발행 건수 상한 / 동시에 읽는 파티션 워커 수 (비우면 기본값) */
+    private Integer ratePerSecond;
+    private Integer concurrency;
+
+    /** true 면 발행 없이 대상 건수만 센다 */
+    private boolean dryRun;
+}
@@ -18,5 +18,7 @@ public class CreateOrderResponse {
     private Integer finalPaymentAmount;
     private String orderStatus;
     private String paymentUrl;
+    private UUID sagaId;
+    private String statusUrl;
     private String message;
 }
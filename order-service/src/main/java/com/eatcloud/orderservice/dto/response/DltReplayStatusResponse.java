@@ -0,0 +1,56 @@
+package com.eatcloud.orderservice.dto.response;
+
+import com.eatcloud.orderservice.dlt.DltReplayJob;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class DltReplayStatusResponse {
+    private UUID jobId;
+    private String status;
+    private String dltTopic;
+    private String targetTopic;
+    private boolean dryRun;
+    private int ratePerSecond;
+    private int concurrency;
+    private long totalRecords;
+    private long scanned;
+    private long matched;
+    private long published;
+    private long failed;
+    private double progressPercent;
+    private String lastError;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+
+    public static DltReplayStatusResponse from(DltReplayJob job) {
+        long total = job.getTotalRecords();
+        long scanned = job.getScanned().get();
+        return DltReplayStatusResponse.builder()
+                .jobId(job.getJobId())
+                .status(job.getStatus().name())
+                .dltTopic(job.getRequest().getDltTopic())
+                .targetTopic(job.getRequest().getTargetTopic())
+                .dryRun(job.getRequest().isDryRun())
+                .ratePerSecond(job.getRatePerSecond())
+                .concurrency(job.getConcurrency())
+                .totalRecords(total)
+                .scanned(scanned)
+                .matched(job.getMatched().get())
+                .published(job.getPublished().get())
+                .failed(job.getFailed().get())
+                .progressPercent(total == 0 ? (job.isRunning() ? 0.0 : 100.0) : Math.min(100.0, 100.0 * scanned / total))
+                .lastError(job.getLastError())
+                .startedAt(job.getStartedAt())
+                .finishedAt(job.getFinishedAt())
+                .build();
+    }
+}
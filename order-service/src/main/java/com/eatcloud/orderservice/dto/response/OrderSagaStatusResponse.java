@@ -0,0 +1,36 @@
+package com.eatcloud.orderservice.dto.response;
+
+import com.eatcloud.orderservice.saga.OrderSaga;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class OrderSagaStatusResponse {
+    private UUID sagaId;
+    private UUID orderId;
+    private String step;
+    private String status;
+    private String paymentUrl;
+    private String failureReason;
+    private LocalDateTime updatedAt;
+
+    public static OrderSagaStatusResponse from(OrderSaga saga) {
+        return OrderSagaStatusResponse.builder()
+                .sagaId(saga.getSagaId())
+                .orderId(saga.getOrderId())
+                .step(saga.getStep().name())
+                .status(saga.getStatus().name())
+                .paymentUrl(saga.getPaymentUrl())
+                .failureReason(saga.getFailureReason())
+                .updatedAt(saga.getUpdatedAt())
+                .build();
+    }
+}
@@ -30,4 +30,7 @@ public class Cart extends BaseTimeEntity {
 
 	@Column(name = "customer_id", nullable = false, unique = true)
 	private UUID customerId;
+
+	@Column(name = "cart_version", nullable = false)
+	private Long cartVersion;
 }
@@ -17,6 +17,7 @@ import lombok.Getter;
 import lombok.NoArgsConstructor;
 
 import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
 import java.util.UUID;
 
 @Getter
@@ -26,7 +27,8 @@ import java.util.UUID;
 @Table(name = "outbox_events", indexes = {
         @Index(name = "idx_outbox_status", columnList = "status"),
         @Index(name = "idx_outbox_next_attempt_at", columnList = "next_attempt_at"),
-        @Index(name = "idx_outbox_aggregate", columnList = "aggregate_type,aggregate_id")
+        @Index(name = "idx_outbox_aggregate", columnList = "aggregate_type,aggregate_id"),
+        @Index(name = "idx_outbox_claim_expires", columnList = "claim_expires_at")
 })
 public class OutboxEvent {
 
@@ -69,6 +71,13 @@ public class OutboxEvent {
     @Column(name = "next_attempt_at")
     private LocalDateTime nextAttemptAt;
 
+    // 릴레이 lease: 소유 인스턴스와 만료 시각 (OutboxRelay 가 JDBC 로 직접 갱신)
+    @Column(name = "claimed_by", length = 100)
+    private String claimedBy;
+
+    @Column(name = "claim_expires_at")
+    private OffsetDateTime claimExpiresAt;
+
     @Builder
     private OutboxEvent(String aggregateType,
                         String aggregateId,
@@ -12,6 +12,7 @@ public class PaymentRequestCancelResponseEvent {
     
     private UUID orderId;
     private String sagaId;
+    private String correlationId;
     private boolean success;
     private String errorMessage;
 }
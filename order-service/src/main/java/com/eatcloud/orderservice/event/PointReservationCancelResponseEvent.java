@@ -13,6 +13,7 @@ public class PointReservationCancelResponseEvent {
     private UUID orderId;
     private UUID customerId;
     private String sagaId;
+    private String correlationId;
     private boolean success;
     private String errorMessage;
 }
@@ -17,10 +17,14 @@ public enum ErrorCode {
     ORDER_NOT_FOUND(HttpStatus.NOT_FOUND, "주문을 찾을 수 없습니다."),
     INVALID_ORDER_STATUS(HttpStatus.BAD_REQUEST, "유효하지 않은 주문 상태입니다."),
     ORDER_PROCESSING(HttpStatus.CONFLICT, "주문이 이미 처리 중입니다. 잠시 후 다시 시도해주세요."),
+    INVALID_IDEMPOTENCY_KEY(HttpStatus.BAD_REQUEST, "Idempotency-Key 는 100자 이하여야 합니다."),
+    IDEMPOTENCY_KEY_REUSED(HttpStatus.UNPROCESSABLE_ENTITY, "같은 Idempotency-Key 로 다른 주문을 요청할 수 없습니다."),
     EMPTY_CART(HttpStatus.BAD_REQUEST, "장바구니가 비어있습니다."),
     ORDER_CREATION_FAILED(HttpStatus.INTERNAL_SERVER_ERROR, "주문 생성에 실패했습니다."),
     INSUFFICIENT_INVENTORY(HttpStatus.BAD_REQUEST, "재고가 부족합니다."),
     MENU_NOT_FOUND(HttpStatus.NOT_FOUND, "메뉴를 찾을 수 없습니다."),
+    MENU_UNAVAILABLE(HttpStatus.BAD_REQUEST, "현재 주문할 수 없는 메뉴가 포함되어 있습니다."),
+    MENU_VALIDATION_FAILED(HttpStatus.SERVICE_UNAVAILABLE, "메뉴 정보를 확인할 수 없습니다. 잠시 후 다시 시도해주세요."),
     POINT_DEDUCTION_FAILED(HttpStatus.BAD_REQUEST, "포인트 차감에 실패했습니다."),
     INVENTORY_RESERVATION_FAILED(HttpStatus.INTERNAL_SERVER_ERROR, "재고 예약에 실패했습니다."),
     PAYMENT_REQUEST_FAILED(HttpStatus.INTERNAL_SERVER_ERROR, "결제 요청 생성에 실패했습니다."),
@@ -1,6 +1,6 @@
 package com.eatcloud.orderservice.kafka.consumer;
 
-import com.eatcloud.orderservice.alert.DiscordNotifier;
+import com.eatcloud.orderservice.alert.AlertDispatcher;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
@@ -19,7 +19,7 @@ import java.time.format.DateTimeFormatter;
 @Slf4j
 public class DltAlertConsumer {
 
-    private final DiscordNotifier discordNotifier;
+    private final AlertDispatcher alertDispatcher;
     private final ObjectMapper objectMapper;
 
     @Value("${alert.dlt.enabled:true}")
@@ -55,7 +55,8 @@ public class DltAlertConsumer {
               .append("\n```");
 
             String msg = sb.toString();
-            discordNotifier.sendText(msg);
+            // 큐에 넣기만 한다 (웹훅 호출/집계/속도 제한은 AlertDispatcher 스레드에서)
+            alertDispatcher.dispatch("dlt:" + topic, "DLT " + topic, msg);
         } catch (Exception e) {
             log.warn("DLT alert send failed: topic={}, offset={}", topic, record.offset(), e);
         } finally {
@@ -1,38 +1,30 @@
 package com.eatcloud.orderservice.kafka.consumer;
 
 import com.eatcloud.orderservice.event.PaymentRequestResponseEvent;
+import com.eatcloud.orderservice.kafka.reply.SagaReplyRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Service;
 
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CompletableFuture;
-
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class PaymentRequestResponseEventConsumer {
 
-    private final ConcurrentHashMap<String, CompletableFuture<PaymentRequestResponseEvent>> pendingRequests = new ConcurrentHashMap<>();
+    public static final String REPLY_TYPE = "payment.request";
+
+    private final SagaReplyRegistry sagaReplyRegistry;
 
-    @KafkaListener(topics = "payment.request.response", groupId = "order-service", containerFactory = "paymentRequestKafkaListenerContainerFactory")
+    @KafkaListener(topics = "payment.request.response", groupId = "#{@sagaReplyTopic.name}.legacy", containerFactory = "paymentRequestKafkaListenerContainerFactory",
+            autoStartup = "${saga.reply.legacy-topics.enabled:false}", properties = "auto.offset.reset=latest")
     public void handlePaymentRequestResponse(PaymentRequestResponseEvent event) {
         log.info("PaymentRequestResponseEvent 수신: orderId={}, customerId={}, sagaId={}, success={}", 
                 event.getOrderId(), event.getCustomerId(), event.getSagaId(), event.isSuccess());
 
-        CompletableFuture<PaymentRequestResponseEvent> future = pendingRequests.remove(event.getSagaId());
-        if (future != null) {
-            future.complete(event);
-            log.info("결제 요청 응답 처리 완료: sagaId={}", event.getSagaId());
-        } else {
-            log.warn("대기 중인 결제 요청을 찾을 수 없음: sagaId={}", event.getSagaId());
+        // replyTo 를 모르는 응답자용 공용 토픽 경로(SagaReplyRegistry 참고). 다른 인스턴스의 요청이면 무시된다.
+        if (sagaReplyRegistry.completeLegacy(REPLY_TYPE, event.getSagaId(), event)) {
+            log.info("결제 요청 응답 처리 완료 (공용 토픽): sagaId={}", event.getSagaId());
         }
     }
-
-    public CompletableFuture<PaymentRequestResponseEvent> waitForResponse(String sagaId) {
-        CompletableFuture<PaymentRequestResponseEvent> future = new CompletableFuture<>();
-        pendingRequests.put(sagaId, future);
-        return future;
-    }
 }
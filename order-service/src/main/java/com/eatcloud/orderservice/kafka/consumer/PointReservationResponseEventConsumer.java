@@ -1,38 +1,30 @@
 package com.eatcloud.orderservice.kafka.consumer;
 
 import com.eatcloud.orderservice.event.PointReservationResponseEvent;
+import com.eatcloud.orderservice.kafka.reply.SagaReplyRegistry;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Service;
 
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CompletableFuture;
-
 @Slf4j
 @Service
 @RequiredArgsConstructor
 public class PointReservationResponseEventConsumer {
 
-    private final ConcurrentHashMap<String, CompletableFuture<PointReservationResponseEvent>> pendingRequests = new ConcurrentHashMap<>();
+    public static final String REPLY_TYPE = "point.reservation";
+
+    private final SagaReplyRegistry sagaReplyRegistry;
 
-    @KafkaListener(topics = "point.reservation.response", groupId = "order-service", containerFactory = "pointReservationKafkaListenerContainerFactory")
+    @KafkaListener(topics = "point.reservation.response", groupId = "#{@sagaReplyTopic.name}.legacy", containerFactory = "pointReservationKafkaListenerContainerFactory",
+            autoStartup = "${saga.reply.legacy-topics.enabled:false}", properties = "auto.offset.reset=latest")
     public void handlePointReservationResponse(PointReservationResponseEvent event) {
         log.info("PointReservationResponseEvent 수신: orderId={}, customerId={}, sagaId={}, success={}", 
                 event.getOrderId(), event.getCustomerId(), event.getSagaId(), event.isSuccess());
 
-        CompletableFuture<PointReservationResponseEvent> future = pendingRequests.remove(event.getSagaId());
-        if (future != null) {
-            future.complete(event);
-            log.info("포인트 예약 응답 처리 완료: sagaId={}", event.getSagaId());
-        } else {
-            log.warn("대기 중인 포인트 예약 요청을 찾을 수 없음: sagaId={}", event.getSagaId());
+        // replyTo 를 모르는 응답자용 공용 토픽 경로(SagaReplyRegistry 참고). 다른 인스턴스의 요청이면 무시된다.
+        if (sagaReplyRegistry.completeLegacy(REPLY_TYPE, event.getSagaId(), event)) {
+            log.info("포인트 예약 응답 처리 완료 (공용 토픽): sagaId={}", event.getSagaId());
         }
     }
-
-    public CompletableFuture<PointReservationResponseEvent> waitForResponse(String sagaId) {
-        CompletableFuture<PointReservationResponseEvent> future = new CompletableFuture<>();
-        pendingRequests.put(sagaId, future);
-        return future;
-    }
 }
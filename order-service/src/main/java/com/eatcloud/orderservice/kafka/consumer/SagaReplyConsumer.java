@@ -0,0 +1,35 @@
+package com.eatcloud.orderservice.kafka.consumer;
+
+import com.eatcloud.eventcodec.EventEncoding;
+import com.eatcloud.orderservice.kafka.reply.SagaReplyRegistry;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Service;
+
+/**
+ * 인스턴스 전용 saga 응답 토픽 리스너.
+ * 토픽/그룹 모두 인스턴스마다 다르므로 응답은 요청을 보낸 인스턴스에만 도착한다.
+ * value 는 byte[] 로 받아 JSON/Smile 을 판별해 읽는다(kafka.codec.binary-topics 에 포함돼도 동작).
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class SagaReplyConsumer {
+
+    private final SagaReplyRegistry sagaReplyRegistry;
+    private final ObjectMapper objectMapper;
+
+    @KafkaListener(topics = "#{@sagaReplyTopic.name}", groupId = "#{@sagaReplyTopic.name}",
+            containerFactory = "sagaReplyKafkaListenerContainerFactory")
+    public void handleReply(ConsumerRecord<String, byte[]> record) throws Exception {
+        JsonNode payload = EventEncoding.readTree(objectMapper, record.value());
+        String correlationId = payload.path("correlationId").asText(null);
+
+        boolean matched = sagaReplyRegistry.complete(correlationId, payload);
+        log.debug("saga 응답 수신: key={}, correlationId={}, matched={}", record.key(), correlationId, matched);
+    }
+}
@@ -0,0 +1,60 @@
+package com.eatcloud.orderservice.kafka.reply;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * 전송 전에 등록된 응답 대기 핸들.
+ * 요청 이벤트에는 {@link #getCorrelationId()}와 {@link #getReplyTo()}를 실어 보낸다.
+ */
+public class PendingReply<T> {
+
+    private final String correlationId;
+    private final String replyTo;
+    private final CompletableFuture<T> future;
+
+    PendingReply(String correlationId, String replyTo, CompletableFuture<T> future) {
+        this.correlationId = correlationId;
+        this.replyTo = replyTo;
+        this.future = future;
+    }
+
+    public String getCorrelationId() {
+        return correlationId;
+    }
+
+    public String getReplyTo() {
+        return replyTo;
+    }
+
+    /**
+     * 스레드를 붙잡지 않고 응답에 후속 처리를 연결할 때 사용한다.
+     * 타임아웃 시 TimeoutException 으로 완료된다.
+     */
+    public CompletionStage<T> stage() {
+        return future.minimalCompletionStage();
+    }
+
+    /**
+     * 응답을 기다린다. 등록 시 지정한 타임아웃이 지나면 TimeoutException.
+     */
+    public T await() throws TimeoutException, InterruptedException, ExecutionException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof TimeoutException timeout) {
+                throw timeout;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * 전송 실패 등으로 응답을 더 기다릴 필요가 없을 때 호출한다.
+     */
+    public void fail(Throwable cause) {
+        future.completeExceptionally(cause);
+    }
+}
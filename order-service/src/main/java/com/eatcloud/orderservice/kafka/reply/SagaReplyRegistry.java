@@ -0,0 +1,148 @@
+package com.eatcloud.orderservice.kafka.reply;
+
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * saga Kafka 요청/응답 상관관계 레지스트리.
+ *  - 요청 전송 전에 correlationId 로 대기 항목을 등록한다 (빠른 응답 유실 방지)
+ *  - 대기 항목은 타임아웃 시 자동으로 만료/제거된다
+ *  - 응답은 인스턴스 전용 토픽(correlationId)으로 받는다
+ *
+ * 공용 응답 토픽(type + sagaId) 경로는 replyTo 를 모르는 구버전 응답자가 남아 있는 동안만 쓰는 전환용이다.
+ * 공용 토픽 리스너는 saga.reply.legacy-topics.enabled=true 일 때만 뜨고, 인스턴스마다 다른 그룹으로
+ * 구독해(브로드캐스트) 모든 인스턴스가 응답을 보고 요청을 보낸 인스턴스만 매칭한다.
+ * 같은 그룹을 공유하면 응답이 요청을 보내지 않은 인스턴스로 가서 유실되기 때문이다.
+ * 응답자(customer-service, payment-service)가 모두 replyTo 를 지원하게 되면 끈 채로 두고 제거한다.
+ */
+@Slf4j
+@Component
+public class SagaReplyRegistry {
+
+    private final SagaReplyTopic replyTopic;
+    private final ObjectMapper objectMapper;
+    private final MeterRegistry meterRegistry;
+
+    private final Map<String, Pending> byCorrelationId = new ConcurrentHashMap<>();
+    private final Map<String, String> correlationBySaga = new ConcurrentHashMap<>();
+
+    private final Counter unmatchedCounter;
+    private final Counter legacyCounter;
+
+    public SagaReplyRegistry(SagaReplyTopic replyTopic, ObjectMapper objectMapper, MeterRegistry meterRegistry) {
+        this.replyTopic = replyTopic;
+        this.objectMapper = objectMapper;
+        this.meterRegistry = meterRegistry;
+
+        Gauge.builder("saga.reply.inflight", byCorrelationId, Map::size)
+                .description("응답 대기 중인 saga 요청 수")
+                .register(meterRegistry);
+        this.unmatchedCounter = Counter.builder("saga.reply.unmatched")
+                .description("대기 항목이 없는 응답 (만료 후 도착 등)")
+                .register(meterRegistry);
+        this.legacyCounter = Counter.builder("saga.reply.legacy")
+                .description("공용 응답 토픽으로 매칭된 응답")
+                .register(meterRegistry);
+    }
+
+    private record Pending(String type, String sagaId, Class<?> replyType,
+                           CompletableFuture<Object> future, long startNanos) {}
+
+    /**
+     * 응답 대기 등록. 반드시 요청 전송 전에 호출한다.
+     *
+     * @param type    요청 종류 (메트릭 태그 겸 공용 토픽 매칭 키)
+     * @param timeout 이 시간이 지나면 대기 항목은 TimeoutException 으로 만료된다
+     */
+    @SuppressWarnings("unchecked")
+    public <T> PendingReply<T> register(String type, String sagaId, Class<T> replyType, Duration timeout) {
+        String correlationId = UUID.randomUUID().toString();
+        CompletableFuture<Object> future = new CompletableFuture<>();
+        Pending pending = new Pending(type, sagaId, replyType, future, System.nanoTime());
+
+        byCorrelationId.put(correlationId, pending);
+        correlationBySaga.put(sagaKey(type, sagaId), correlationId);
+
+        future.orTimeout(timeout.toMillis(), TimeUnit.MILLISECONDS)
+                .whenComplete((reply, ex) -> release(correlationId, pending, ex));
+
+        return new PendingReply<>(correlationId, replyTopic.getName(), (CompletableFuture<T>) future);
+    }
+
+    /**
+     * 인스턴스 전용 응답 토픽 경로.
+     *
+     * @return 대기 항목과 매칭되었으면 true
+     */
+    public boolean complete(String correlationId, JsonNode payload) {
+        Pending pending = correlationId != null ? byCorrelationId.get(correlationId) : null;
+        if (pending == null) {
+            unmatchedCounter.increment();
+            log.warn("[SagaReply] 대기 중인 요청 없음 (만료 후 도착 가능): correlationId={}", correlationId);
+            return false;
+        }
+        try {
+            Object reply = objectMapper.readerFor(pending.replyType())
+                    .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+                    .readValue(payload);
+            return pending.future().complete(reply);
+        } catch (Exception e) {
+            return pending.future().completeExceptionally(e);
+        }
+    }
+
+    /**
+     * 공용 응답 토픽 경로 (replyTo 를 지원하지 않는 응답자용).
+     * 다른 인스턴스가 보낸 요청의 응답이면 false.
+     */
+    public boolean completeLegacy(String type, String sagaId, Object reply) {
+        String correlationId = correlationBySaga.get(sagaKey(type, sagaId));
+        Pending pending = correlationId != null ? byCorrelationId.get(correlationId) : null;
+        if (pending == null) {
+            log.debug("[SagaReply] 이 인스턴스의 요청이 아님: type={}, sagaId={}", type, sagaId);
+            return false;
+        }
+        legacyCounter.increment();
+        return pending.future().complete(reply);
+    }
+
+    public int inflight() {
+        return byCorrelationId.size();
+    }
+
+    private void release(String correlationId, Pending pending, Throwable ex) {
+        byCorrelationId.remove(correlationId);
+        correlationBySaga.remove(sagaKey(pending.type(), pending.sagaId()), correlationId);
+
+        String outcome = ex == null ? "success" : ex instanceof TimeoutException ? "timeout" : "error";
+        Timer.builder("saga.reply.latency")
+                .tag("type", pending.type())
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(System.nanoTime() - pending.startNanos(), TimeUnit.NANOSECONDS);
+
+        if (ex instanceof TimeoutException) {
+            log.warn("[SagaReply] 응답 대기 만료: type={}, sagaId={}, correlationId={}",
+                    pending.type(), pending.sagaId(), correlationId);
+        }
+    }
+
+    private static String sagaKey(String type, String sagaId) {
+        return type + ":" + sagaId;
+    }
+}
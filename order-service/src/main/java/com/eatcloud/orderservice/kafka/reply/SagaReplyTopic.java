@@ -0,0 +1,62 @@
+package com.eatcloud.orderservice.kafka.reply;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.admin.AdminClient;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaAdmin;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 인스턴스 전용 saga 응답 토픽.
+ * 요청 이벤트의 replyTo 로 이 토픽 이름을 보내면 응답 서비스가 요청을 보낸 인스턴스로만 응답을 돌려준다.
+ * 토픽 이름은 인스턴스 ID(기본: HOSTNAME, 없으면 임의 값)로 만든다.
+ */
+@Slf4j
+@Component
+public class SagaReplyTopic {
+
+    private static final String PREFIX = "order-service.saga.reply.";
+
+    private final String name;
+    private final KafkaAdmin kafkaAdmin;
+    private final boolean deleteOnShutdown;
+
+    public SagaReplyTopic(KafkaAdmin kafkaAdmin,
+                          @Value("${saga.reply.instance-id:${HOSTNAME:}}") String instanceId,
+                          @Value("${saga.reply.delete-on-shutdown:true}") boolean deleteOnShutdown) {
+        this.kafkaAdmin = kafkaAdmin;
+        this.deleteOnShutdown = deleteOnShutdown;
+
+        String id = instanceId == null || instanceId.isBlank()
+                ? UUID.randomUUID().toString().substring(0, 8)
+                : instanceId;
+        this.name = PREFIX + id.replaceAll("[^a-zA-Z0-9._-]", "-");
+        log.info("[SagaReply] 인스턴스 응답 토픽: {}", name);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * 종료 시 응답 토픽 삭제 (best-effort).
+     * 리스너 컨테이너가 먼저 멈춘 뒤 호출된다. 실패해도 토픽 retention 으로 데이터는 정리된다.
+     */
+    @PreDestroy
+    public void deleteTopic() {
+        if (!deleteOnShutdown) {
+            return;
+        }
+        try (AdminClient admin = AdminClient.create(kafkaAdmin.getConfigurationProperties())) {
+            admin.deleteTopics(List.of(name)).all().get(5, TimeUnit.SECONDS);
+            log.info("[SagaReply] 응답 토픽 삭제: {}", name);
+        } catch (Exception e) {
+            log.warn("[SagaReply] 응답 토픽 삭제 실패 (무시): {}", name, e);
+        }
+    }
+}
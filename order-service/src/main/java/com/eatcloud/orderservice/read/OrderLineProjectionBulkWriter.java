@@ -0,0 +1,68 @@
+package com.eatcloud.orderservice.read;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * stock-events 배치 반영용 JDBC. 배열 파라미터 + unnest 로 여러 행을 한 문장에 싣는다.
+ */
+@Repository
+@RequiredArgsConstructor
+public class OrderLineProjectionBulkWriter {
+
+    // qty 는 이벤트에 값이 있을 때(>0)만 덮어쓴다
+    private static final String UPSERT_SQL = """
+            INSERT INTO order_line_projection (order_line_id, order_id, menu_id, qty, stock_status, updated_at)
+            SELECT l, o, m, q, s, now()
+              FROM unnest(?::uuid[], ?::uuid[], ?::uuid[], ?::int[], ?::varchar[]) AS t(l, o, m, q, s)
+            ON CONFLICT (order_line_id) DO UPDATE
+               SET stock_status = EXCLUDED.stock_status,
+                   qty          = CASE WHEN EXCLUDED.qty > 0 THEN EXCLUDED.qty ELSE order_line_projection.qty END,
+                   updated_at   = EXCLUDED.updated_at
+            """;
+
+    private static final String PROCESSED_SQL = """
+            INSERT INTO processed_events (event_id, processed_at)
+            SELECT e, now() FROM unnest(?::uuid[]) AS e
+            ON CONFLICT (event_id) DO NOTHING
+            RETURNING event_id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public record LineState(UUID orderLineId, UUID orderId, UUID menuId, int qty, String stockStatus) {
+    }
+
+    public void upsert(Collection<LineState> lines) {
+        if (lines.isEmpty()) {
+            return;
+        }
+        jdbcTemplate.update(UPSERT_SQL, ps -> {
+            var con = ps.getConnection();
+            ps.setArray(1, con.createArrayOf("uuid", lines.stream().map(LineState::orderLineId).toArray()));
+            ps.setArray(2, con.createArrayOf("uuid", lines.stream().map(LineState::orderId).toArray()));
+            ps.setArray(3, con.createArrayOf("uuid", lines.stream().map(LineState::menuId).toArray()));
+            ps.setArray(4, con.createArrayOf("integer", lines.stream().map(LineState::qty).toArray()));
+            ps.setArray(5, con.createArrayOf("varchar", lines.stream().map(LineState::stockStatus).toArray()));
+        });
+    }
+
+    /**
+     * 처리 이력을 먼저 남기고 이번에 새로 남긴 id 만 돌려준다 (event_id PK 가 중복 판정).
+     * 다른 트랜잭션이 같은 id 를 먼저 넣었으면 그 커밋을 기다린 뒤 빠지므로 동시에 두 번 반영되지 않는다.
+     */
+    public Set<UUID> claim(Collection<UUID> eventIds) {
+        if (eventIds.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(jdbcTemplate.query(PROCESSED_SQL,
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("uuid", eventIds.toArray())),
+                (rs, i) -> rs.getObject(1, UUID.class)));
+    }
+}
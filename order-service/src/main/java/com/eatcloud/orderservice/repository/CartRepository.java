@@ -19,4 +19,7 @@ public interface CartRepository extends SoftDeleteRepository<Cart, UUID> {
 
     @Query("SELECT COUNT(c) > 0 FROM Cart c WHERE c.customerId = :customerId")
     boolean existsByCustomerId(@Param("customerId") UUID customerId);
+
+    @Query("SELECT c.cartVersion FROM Cart c WHERE c.customerId = :customerId")
+    Optional<Long> findCartVersionByCustomerId(@Param("customerId") UUID customerId);
 }
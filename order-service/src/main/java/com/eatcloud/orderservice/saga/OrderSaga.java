@@ -0,0 +1,187 @@
+package com.eatcloud.orderservice.saga;
+
+import com.eatcloud.orderservice.entity.Order;
+import jakarta.persistence.Column;
+import jakarta.persistence.Entity;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.Id;
+import jakarta.persistence.Index;
+import jakarta.persistence.Table;
+import jakarta.persistence.Version;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 주문 saga 상태.
+ * 현재 단계와 아직 갚아야 할 보상 목록을 저장해 두고, Kafka 응답/HTTP 결과가 올 때마다 짧은 트랜잭션으로 전이한다.
+ * 동시 전이(응답 처리 vs 타임아웃 스위퍼)는 @Version 낙관적 락으로 하나만 성공한다.
+ */
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+@Entity
+@Table(name = "p_order_saga", indexes = {
+        @Index(name = "idx_order_saga_status_deadline", columnList = "status,deadline_at")
+})
+public class OrderSaga {
+
+    @Id
+    @Column(name = "saga_id", nullable = false, updatable = false)
+    private UUID sagaId;
+
+    @Column(name = "order_id", nullable = false, unique = true, updatable = false)
+    private UUID orderId;
+
+    @Column(name = "customer_id", nullable = false, updatable = false)
+    private UUID customerId;
+
+    @Column(name = "points_to_use", nullable = false)
+    private int pointsToUse;
+
+    @Column(name = "payment_amount", nullable = false)
+    private int paymentAmount;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "step", nullable = false, length = 30)
+    private SagaStep step;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private SagaStatus status;
+
+    // 보상 목록 (등록 순서, 콤마 구분)
+    @Column(name = "pending_compensations", nullable = false, length = 200)
+    private String pendingCompensations;
+
+    @Column(name = "payment_url", length = 1000)
+    private String paymentUrl;
+
+    @Column(name = "failure_reason", length = 500)
+    private String failureReason;
+
+    @Column(name = "owner_instance", length = 200)
+    private String ownerInstance;
+
+    @Column(name = "deadline_at")
+    private LocalDateTime deadlineAt;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @Version
+    @Column(name = "version", nullable = false)
+    private long version;
+
+    public static OrderSaga start(UUID sagaId, Order order, SagaStep firstStep,
+                                  String ownerInstance, LocalDateTime deadlineAt) {
+        OrderSaga saga = new OrderSaga();
+        saga.sagaId = sagaId;
+        saga.orderId = order.getOrderId();
+        saga.customerId = order.getCustomerId();
+        saga.pointsToUse = Boolean.TRUE.equals(order.getUsePoints()) && order.getPointsToUse() != null
+                ? order.getPointsToUse() : 0;
+        saga.paymentAmount = order.getFinalPaymentAmount();
+        saga.step = firstStep;
+        saga.status = SagaStatus.RUNNING;
+        saga.pendingCompensations = "";
+        saga.ownerInstance = ownerInstance;
+        saga.deadlineAt = deadlineAt;
+        saga.createdAt = LocalDateTime.now();
+        saga.updatedAt = saga.createdAt;
+        return saga;
+    }
+
+    public boolean isAt(SagaStep expected) {
+        return status == SagaStatus.RUNNING && step == expected;
+    }
+
+    public void moveTo(SagaStep next, LocalDateTime deadlineAt) {
+        this.step = next;
+        this.deadlineAt = deadlineAt;
+        touch();
+    }
+
+    public void owe(SagaCompensation compensation) {
+        List<SagaCompensation> owed = owed();
+        if (!owed.contains(compensation)) {
+            owed.add(compensation);
+            this.pendingCompensations = join(owed);
+            touch();
+        }
+    }
+
+    public void settle(SagaCompensation compensation) {
+        List<SagaCompensation> owed = owed();
+        if (owed.remove(compensation)) {
+            this.pendingCompensations = join(owed);
+            touch();
+        }
+    }
+
+    public List<SagaCompensation> owedInReverse() {
+        List<SagaCompensation> owed = owed();
+        Collections.reverse(owed);
+        return owed;
+    }
+
+    public void recordPaymentUrl(String paymentUrl) {
+        this.paymentUrl = paymentUrl;
+        touch();
+    }
+
+    public void complete() {
+        this.step = SagaStep.DONE;
+        this.status = SagaStatus.COMPLETED;
+        this.pendingCompensations = "";
+        this.deadlineAt = null;
+        touch();
+    }
+
+    public void startCompensating(String reason, LocalDateTime deadlineAt) {
+        this.status = SagaStatus.COMPENSATING;
+        this.failureReason = reason != null && reason.length() > 500 ? reason.substring(0, 500) : reason;
+        this.deadlineAt = deadlineAt;
+        touch();
+    }
+
+    /** 스위퍼가 멈춘 saga 를 가져갈 때 사용 (낙관적 락으로 한 인스턴스만 성공) */
+    public void claim(String ownerInstance, LocalDateTime deadlineAt) {
+        this.ownerInstance = ownerInstance;
+        this.deadlineAt = deadlineAt;
+        touch();
+    }
+
+    public void fail() {
+        this.status = SagaStatus.FAILED;
+        this.deadlineAt = null;
+        touch();
+    }
+
+    private List<SagaCompensation> owed() {
+        if (pendingCompensations == null || pendingCompensations.isBlank()) {
+            return new ArrayList<>();
+        }
+        return new ArrayList<>(Arrays.stream(pendingCompensations.split(","))
+                .map(SagaCompensation::valueOf)
+                .toList());
+    }
+
+    private static String join(List<SagaCompensation> owed) {
+        return String.join(",", owed.stream().map(Enum::name).toList());
+    }
+
+    private void touch() {
+        this.updatedAt = LocalDateTime.now();
+    }
+}
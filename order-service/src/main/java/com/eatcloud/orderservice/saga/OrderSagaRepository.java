@@ -0,0 +1,21 @@
+package com.eatcloud.orderservice.saga;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+public interface OrderSagaRepository extends JpaRepository<OrderSaga, UUID> {
+
+    Optional<OrderSaga> findByOrderId(UUID orderId);
+
+    List<OrderSaga> findByStatusInAndDeadlineAtBeforeOrderByDeadlineAtAsc(
+            Collection<SagaStatus> statuses,
+            LocalDateTime deadlineAt,
+            Pageable pageable
+    );
+}
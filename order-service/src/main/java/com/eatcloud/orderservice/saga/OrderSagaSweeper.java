@@ -0,0 +1,64 @@
+package com.eatcloud.orderservice.saga;
+
+import com.eatcloud.orderservice.service.SagaOrchestrator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.EnumSet;
+import java.util.List;
+
+/**
+ * deadline 이 지난 saga 회수기.
+ * 정상이라면 응답 대기 타임아웃이 먼저 saga 를 전이시키므로, 여기서는 grace 만큼 더 지난 saga 만 본다
+ * (응답을 기다리던 인스턴스가 재시작/장애로 사라진 경우).
+ *  - RUNNING      → 보상 시작
+ *  - COMPENSATING → 남은 보상 재실행
+ * 여러 인스턴스가 동시에 돌아도 saga 행의 @Version 으로 한 곳만 가져간다.
+ */
+@Slf4j
+@Component
+public class OrderSagaSweeper {
+
+    private final OrderSagaRepository sagaRepository;
+    private final SagaOrchestrator sagaOrchestrator;
+    private final long graceMillis;
+    private final int batchSize;
+
+    public OrderSagaSweeper(OrderSagaRepository sagaRepository,
+                            SagaOrchestrator sagaOrchestrator,
+                            @Value("${saga.sweeper.grace-ms:5000}") long graceMillis,
+                            @Value("${saga.sweeper.batch-size:50}") int batchSize) {
+        this.sagaRepository = sagaRepository;
+        this.sagaOrchestrator = sagaOrchestrator;
+        this.graceMillis = graceMillis;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(fixedDelayString = "${saga.sweeper.interval-ms:5000}")
+    public void sweep() {
+        LocalDateTime cutoff = LocalDateTime.now().minusNanos(graceMillis * 1_000_000L);
+        List<OrderSaga> stuck = sagaRepository.findByStatusInAndDeadlineAtBeforeOrderByDeadlineAtAsc(
+                EnumSet.of(SagaStatus.RUNNING, SagaStatus.COMPENSATING), cutoff, PageRequest.of(0, batchSize));
+        if (stuck.isEmpty()) {
+            return;
+        }
+
+        log.warn("[SagaSweeper] deadline 초과 saga 회수: count={}", stuck.size());
+        for (OrderSaga saga : stuck) {
+            try {
+                if (saga.getStatus() == SagaStatus.RUNNING) {
+                    sagaOrchestrator.compensate(saga.getSagaId(), saga.getStep(),
+                            "단계 시간 초과: " + saga.getStep());
+                } else {
+                    sagaOrchestrator.resumeCompensation(saga.getSagaId());
+                }
+            } catch (Exception e) {
+                log.error("[SagaSweeper] saga 회수 실패: sagaId={}", saga.getSagaId(), e);
+            }
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package com.eatcloud.orderservice.saga;
+
+/**
+ * saga 가 아직 갚아야 할 보상 작업. 등록 순서의 역순으로 실행된다.
+ */
+public enum SagaCompensation {
+    CANCEL_ORDER,
+    CANCEL_POINTS,
+    RETURN_INVENTORY,
+    CANCEL_PAYMENT
+}
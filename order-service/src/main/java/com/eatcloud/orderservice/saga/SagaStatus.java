@@ -0,0 +1,12 @@
+package com.eatcloud.orderservice.saga;
+
+public enum SagaStatus {
+    RUNNING,
+    COMPENSATING,
+    COMPLETED,
+    FAILED;
+
+    public boolean isTerminal() {
+        return this == COMPLETED || this == FAILED;
+    }
+}
@@ -0,0 +1,12 @@
+package com.eatcloud.orderservice.saga;
+
+/**
+ * 주문 saga 진행 단계. 보상 중/실패 시에는 실패가 발생한 단계를 그대로 유지한다.
+ */
+public enum SagaStep {
+    // 포인트 예약과 라인별 재고 예약을 동시에 진행 (서로 의존하지 않음)
+    RESERVING,
+    PAYMENT_REQUESTING,
+    INVENTORY_CONFIRMING,
+    DONE
+}
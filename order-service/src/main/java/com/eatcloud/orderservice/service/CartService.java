@@ -1,9 +1,10 @@
 package com.eatcloud.orderservice.service;
 
-import jakarta.annotation.PostConstruct;
-import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import com.eatcloud.orderservice.cart.CartSnapshot;
+import com.eatcloud.orderservice.cart.CartWriteBehindWorker;
+import com.eatcloud.orderservice.cart.RedisCartStore;
 import com.eatcloud.orderservice.dto.CartItem;
 import com.eatcloud.orderservice.dto.request.AddCartItemRequest;
 import com.eatcloud.orderservice.dto.request.UpdateCartItemRequest;
@@ -12,77 +13,57 @@ import com.eatcloud.orderservice.repository.CartRepository;
 import com.eatcloud.orderservice.exception.CartException;
 import com.eatcloud.orderservice.exception.ErrorCode;
 
-import org.springframework.data.redis.RedisConnectionFailureException;
-import org.springframework.data.redis.core.RedisTemplate;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.transaction.PlatformTransactionManager;
-import org.springframework.transaction.TransactionDefinition;
-import org.springframework.transaction.TransactionStatus;
-import org.springframework.transaction.support.DefaultTransactionDefinition;
 
-import java.time.Duration;
 import java.util.*;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.Executors;
-import java.util.concurrent.ScheduledExecutorService;
-import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.function.LongUnaryOperator;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class CartService {
 
-    private final RedisTemplate<String, Object> redisTemplate;
+    private final RedisCartStore redisCartStore;
+    private final RedisHealthTracker redisHealthTracker;
     private final CartRepository cartRepository;
-    private final PlatformTransactionManager transactionManager;
-
-    private static final String CART_KEY_PREFIX = "cart:";
-    private static final Duration CART_TTL = Duration.ofHours(1);
-
-    private final Map<UUID, List<CartItem>> pendingChanges = new ConcurrentHashMap<>();
-    private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(1);
-    private static final int BATCH_INTERVAL_SECONDS = 10;
-
+    private final CartWriteBehindWorker cartWriteBehindWorker;
 
     public void addItem(UUID customerId, AddCartItemRequest request) {
         validateCustomerId(customerId);
         validateAddItemRequest(request);
 
-        try {
-            List<CartItem> cartItems = getCartFromRedis(customerId);
-
-            if (cartItems.isEmpty()) {
-                cartItems = new ArrayList<>();
-            }
-
-            validateStoreConsistency(cartItems, request.getStoreId());
-
-            Optional<CartItem> existingItem = cartItems.stream()
-                .filter(item -> item.getMenuId().equals(request.getMenuId()))
-                .findFirst();
+        CartItem newItem = CartItem.builder()
+            .menuId(request.getMenuId())
+            .menuName(request.getMenuName())
+            .quantity(request.getQuantity())
+            .price(request.getPrice())
+            .storeId(request.getStoreId())
+            .build();
 
-            if (existingItem.isPresent()) {
-                CartItem item = existingItem.get();
-                item.setQuantity(item.getQuantity() + request.getQuantity());
-                log.debug("Updated existing cart item: customerId={}, menuId={}, newQuantity={}",
-                    customerId, request.getMenuId(), item.getQuantity());
-            } else {
-                CartItem newItem = CartItem.builder()
-                    .menuId(request.getMenuId())
-                    .menuName(request.getMenuName())
-                    .quantity(request.getQuantity())
-                    .price(request.getPrice())
-                    .storeId(request.getStoreId())
-                    .build();
-                cartItems.add(newItem);
-                log.debug("Added new cart item: customerId={}, menuId={}, quantity={}",
-                    customerId, request.getMenuId(), request.getQuantity());
+        try {
+            boolean handled = tryRedis(customerId, () -> {
+                long result = mutateInRedis(customerId,
+                    minVersion -> redisCartStore.addItem(customerId, newItem, minVersion));
+                if (result == RedisCartStore.STORE_MISMATCH) {
+                    throw new CartException(ErrorCode.CART_STORE_MISMATCH);
+                }
+                log.debug("Added cart item in Redis: customerId={}, menuId={}, quantity={}",
+                    customerId, request.getMenuId(), result);
+            });
+            if (!handled) {
+                mutateInDatabase(customerId, cartItems -> {
+                    validateStoreConsistency(cartItems, request.getStoreId());
+                    cartItems.stream()
+                        .filter(item -> item.getMenuId().equals(request.getMenuId()))
+                        .findFirst()
+                        .ifPresentOrElse(
+                            item -> item.setQuantity(item.getQuantity() + request.getQuantity()),
+                            () -> cartItems.add(newItem));
+                });
             }
 
-            saveCartToRedis(customerId, cartItems);
-            syncToDatabaseAsync(customerId, cartItems);
-
             log.info("Successfully added item to cart: customerId={}, menuId={}",
                 customerId, request.getMenuId());
 
@@ -99,22 +80,19 @@ public class CartService {
         validateCustomerId(customerId);
 
         try {
-            List<CartItem> cartItems = getCartFromRedis(customerId);
+            Optional<List<CartItem>> cached = getCartFromRedis(customerId);
 
-            if (!cartItems.isEmpty()) {
+            if (cached.isPresent()) {
                 log.debug("Cart found in Redis for customer: {}, itemCount={}",
-                    customerId, cartItems.size());
-                return cartItems;
+                    customerId, cached.get().size());
+                return cached.get();
             }
 
             log.debug("Cache miss, retrieving from database for customer: {}", customerId);
-            cartItems = getCartFromDatabase(customerId);
-
-            if (!cartItems.isEmpty()) {
-                saveCartToRedis(customerId, cartItems);
-            }
+            CartSnapshot snapshot = getSnapshotFromDatabase(customerId);
+            hydrateRedis(customerId, snapshot);
 
-            return cartItems;
+            return snapshot.items();
 
         } catch (Exception e) {
             log.error("Failed to get cart for customer: {}", customerId, e);
@@ -127,35 +105,30 @@ public class CartService {
         validateUpdateItemRequest(request);
 
         try {
-            List<CartItem> cartItems = getCartFromRedis(customerId);
-
-            if (cartItems.isEmpty()) {
-                cartItems = getCartFromDatabase(customerId);
-                if (!cartItems.isEmpty()) {
-                    saveCartToRedis(customerId, cartItems);
+            boolean handled = tryRedis(customerId, () -> {
+                long result = mutateInRedis(customerId,
+                    minVersion -> redisCartStore.setQuantity(customerId, request.getMenuId(), request.getQuantity(), minVersion));
+                if (result == RedisCartStore.ITEM_NOT_FOUND) {
+                    throw new CartException(ErrorCode.CART_ITEM_NOT_FOUND);
                 }
+            });
+            if (!handled) {
+                mutateInDatabase(customerId, cartItems -> {
+                    CartItem targetItem = cartItems.stream()
+                        .filter(item -> item.getMenuId().equals(request.getMenuId()))
+                        .findFirst()
+                        .orElseThrow(() -> new CartException(ErrorCode.CART_ITEM_NOT_FOUND));
+
+                    if (request.getQuantity() <= 0) {
+                        cartItems.remove(targetItem);
+                    } else {
+                        targetItem.setQuantity(request.getQuantity());
+                    }
+                });
             }
 
-            CartItem targetItem = cartItems.stream()
-                .filter(item -> item.getMenuId().equals(request.getMenuId()))
-                .findFirst()
-                .orElseThrow(() -> new CartException(ErrorCode.CART_ITEM_NOT_FOUND));
-
-            if (request.getQuantity() <= 0) {
-                cartItems.remove(targetItem);
-                log.debug("Removed item from cart: customerId={}, menuId={}",
-                    customerId, request.getMenuId());
-            } else {
-                targetItem.setQuantity(request.getQuantity());
-                log.debug("Updated item quantity: customerId={}, menuId={}, quantity={}",
-                    customerId, request.getMenuId(), request.getQuantity());
-            }
-
-            saveCartToRedis(customerId, cartItems);
-            syncToDatabaseAsync(customerId, cartItems);
-
-            log.info("Successfully updated cart item: customerId={}, menuId={}",
-                customerId, request.getMenuId());
+            log.info("Successfully updated cart item: customerId={}, menuId={}, quantity={}",
+                customerId, request.getMenuId(), request.getQuantity());
 
         } catch (CartException e) {
             log.warn("Cart update failed: customerId={}, error={}", customerId, e.getMessage());
@@ -173,17 +146,21 @@ public class CartService {
         }
 
         try {
-            List<CartItem> cartItems = getCart(customerId);
-
-            boolean removed = cartItems.removeIf(item -> item.getMenuId().equals(menuId));
-
-            if (!removed) {
-                throw new CartException(ErrorCode.CART_NOT_FOUND);
+            boolean handled = tryRedis(customerId, () -> {
+                long result = mutateInRedis(customerId,
+                    minVersion -> redisCartStore.removeItem(customerId, menuId, minVersion));
+                if (result == RedisCartStore.ITEM_NOT_FOUND) {
+                    throw new CartException(ErrorCode.CART_NOT_FOUND);
+                }
+            });
+            if (!handled) {
+                mutateInDatabase(customerId, cartItems -> {
+                    if (!cartItems.removeIf(item -> item.getMenuId().equals(menuId))) {
+                        throw new CartException(ErrorCode.CART_NOT_FOUND);
+                    }
+                });
             }
 
-            saveCartToRedis(customerId, cartItems);
-            syncToDatabaseAsync(customerId, cartItems);
-
             log.info("Successfully removed item from cart: customerId={}, menuId={}",
                 customerId, menuId);
 
@@ -201,8 +178,7 @@ public class CartService {
         validateCustomerId(customerId);
 
         try {
-            invalidateCartCache(customerId);
-            syncToDatabaseAsync(customerId, new ArrayList<>());
+            clearCartEverywhere(customerId);
 
             log.info("Successfully cleared cart for customer: {}", customerId);
 
@@ -217,8 +193,7 @@ public class CartService {
         validateCustomerId(customerId);
 
         try {
-            invalidateCartCache(customerId);
-            syncToDatabaseAsync(customerId, new ArrayList<>());
+            clearCartEverywhere(customerId);
             log.info("Cart invalidated after order completion for customer: {}", customerId);
         } catch (Exception e) {
             log.error("Failed to invalidate cart after order for customer: {}", customerId, e);
@@ -231,97 +206,126 @@ public class CartService {
         }
     }
 
-    private String getCartKey(UUID customerId) {
-        return CART_KEY_PREFIX + customerId.toString();
-    }
-
-    private boolean isRedisAvailable() {
+    /**
+     * Redis 경로 실행. DB 반영은 스크립트가 적재한 write-behind 스트림을 통해 비동기로 이뤄진다.
+     * Redis가 차단 상태이거나 연결 계열 오류가 나면 false를 돌려 호출 측이 DB 경로로 처리하게 한다.
+     */
+    private boolean tryRedis(UUID customerId, Runnable redisOperation) {
+        if (!redisHealthTracker.isAvailable()) {
+            return false;
+        }
         try {
-            assert redisTemplate.getConnectionFactory() != null;
-            redisTemplate.getConnectionFactory().getConnection().ping();
+            redisOperation.run();
+            redisHealthTracker.recordSuccess();
             return true;
-        } catch (RedisConnectionFailureException e) {
-            log.debug("Redis connection failed: {}", e.getMessage());
-            return false;
-        } catch (Exception e) {
-            log.debug("Redis availability check failed: {}", e.getMessage());
+        } catch (RuntimeException e) {
+            if (!redisHealthTracker.recordFailure(e)) {
+                throw e;
+            }
+            log.warn("Redis command failed, falling back to database for customer: {}", customerId);
             return false;
         }
     }
 
-    private List<CartItem> getCartFromRedis(UUID customerId) {
-        try {
-            if (!isRedisAvailable()) {
-                return new ArrayList<>();
-            }
-
-            String cartKey = getCartKey(customerId);
-            Object cartData = redisTemplate.opsForValue().get(cartKey);
+    /**
+     * Redis 스크립트 실행. DB cart_version 을 함께 넘겨, 캐시가 비었거나 그보다 낮으면(NOT_LOADED)
+     * DB에서 한 번 적재한 뒤 재시도한다.
+     */
+    private long mutateInRedis(UUID customerId, LongUnaryOperator operation) {
+        long minVersion = databaseVersion(customerId);
+        long result = operation.applyAsLong(minVersion);
+        if (result == RedisCartStore.NOT_LOADED) {
+            redisCartStore.hydrate(customerId, getSnapshotFromDatabase(customerId));
+            result = operation.applyAsLong(minVersion);
+        }
+        if (result == RedisCartStore.NOT_LOADED) {
+            throw new IllegalStateException("Cart could not be loaded into Redis: " + customerId);
+        }
+        return result;
+    }
 
-            if (cartData instanceof List<?> rawList) {
-                List<CartItem> cartItems = new ArrayList<>();
+    /** Redis 장애 시 경로: DB에서 읽고 고친 뒤 즉시 반영 */
+    private void mutateInDatabase(UUID customerId, Consumer<List<CartItem>> mutation) {
+        List<CartItem> cartItems = getCartFromDatabase(customerId);
+        mutation.accept(cartItems);
+        syncToDatabase(customerId, cartItems);
+        invalidateRedis(customerId);
+    }
 
-                for (Object item : rawList) {
-                    if (item instanceof CartItem) {
-                        cartItems.add((CartItem) item);
-                    } else if (item instanceof Map) {
-                        cartItems.add(convertMapToCartItem((Map<?, ?>) item));
-                    }
-                }
+    private void clearCartEverywhere(UUID customerId) {
+        if (!tryRedis(customerId, () -> redisCartStore.clear(customerId, databaseVersion(customerId)))) {
+            syncToDatabase(customerId, new ArrayList<>());
+            invalidateRedis(customerId);
+        }
+    }
 
-                return cartItems;
+    /**
+     * DB 폴백으로 쓴 뒤 cart:{id} 캐시를 지운다(가능하면).
+     * 지우지 못해도 폴백이 올린 DB cart_version 이 공유 표식이 되어, Redis 복구 후 어느 인스턴스든
+     * 읽기·변경 시 캐시 버전이 더 낮으면 버리고 DB에서 다시 적재한다({@link #databaseVersion}).
+     */
+    private void invalidateRedis(UUID customerId) {
+        if (!redisHealthTracker.isAvailable()) {
+            return;
+        }
+        try {
+            redisCartStore.evict(customerId);
+        } catch (RuntimeException e) {
+            if (!redisHealthTracker.recordFailure(e)) {
+                log.warn("Failed to evict cart cache for customer: {}, error: {}", customerId, e.getMessage());
             }
+        }
+    }
 
-            return new ArrayList<>();
+    /** 캐시 신선도 기준이 되는 DB cart_version. 행이 없으면 0 */
+    private long databaseVersion(UUID customerId) {
+        return cartRepository.findCartVersionByCustomerId(customerId).orElse(0L);
+    }
+
+    private Optional<List<CartItem>> getCartFromRedis(UUID customerId) {
+        if (!redisHealthTracker.isAvailable()) {
+            return Optional.empty();
+        }
+        try {
+            Optional<List<CartItem>> cached = redisCartStore.load(customerId, databaseVersion(customerId));
+            redisHealthTracker.recordSuccess();
+            return cached;
 
-        } catch (RedisConnectionFailureException e) {
-            log.warn("Redis unavailable, falling back to database for customer: {}", customerId);
-            return new ArrayList<>();
         } catch (Exception e) {
+            if (redisHealthTracker.recordFailure(e)) {
+                log.warn("Redis unavailable, falling back to database for customer: {}", customerId);
+                return Optional.empty();
+            }
             log.warn("Failed to get cart from Redis for customer: {}, error: {}",
                 customerId, e.getMessage());
-            return new ArrayList<>();
+            return Optional.empty();
         }
     }
 
-    private void saveCartToRedis(UUID customerId, List<CartItem> cartItems) {
+    private void hydrateRedis(UUID customerId, CartSnapshot snapshot) {
+        if (!redisHealthTracker.isAvailable()) {
+            log.debug("Redis unavailable, skipping cache hydrate for customer: {}", customerId);
+            return;
+        }
         try {
-            if (!isRedisAvailable()) {
-                log.debug("Redis unavailable, skipping cache update for customer: {}", customerId);
-                return;
-            }
-
-            String cartKey = getCartKey(customerId);
+            redisCartStore.hydrate(customerId, snapshot);
+            redisHealthTracker.recordSuccess();
+            log.debug("Hydrated cart cache for customer: {}, itemCount={}", customerId, snapshot.items().size());
 
-            if (cartItems.isEmpty()) {
-                redisTemplate.delete(cartKey);
-                log.debug("Deleted empty cart from cache for customer: {}", customerId);
+        } catch (Exception e) {
+            if (redisHealthTracker.recordFailure(e)) {
+                log.warn("Redis unavailable during cart hydrate for customer: {}", customerId);
             } else {
-                redisTemplate.opsForValue().set(cartKey, cartItems, CART_TTL);
-                log.debug("Saved cart to cache for customer: {}, itemCount={}",
-                    customerId, cartItems.size());
+                log.error("Failed to hydrate cart in Redis for customer: {}", customerId, e);
             }
-
-        } catch (RedisConnectionFailureException e) {
-            log.warn("Redis unavailable during cart save for customer: {}", customerId);
-        } catch (Exception e) {
-            log.error("Failed to save cart to Redis for customer: {}", customerId, e);
         }
     }
 
-    private void invalidateCartCache(UUID customerId) {
-        try {
-            if (isRedisAvailable()) {
-                String cartKey = getCartKey(customerId);
-                redisTemplate.delete(cartKey);
-                log.debug("Invalidated cart cache for customer: {}", customerId);
-            }
-        } catch (Exception e) {
-            log.warn("Failed to invalidate cart cache for customer: {}", customerId, e);
-        }
+    private List<CartItem> getCartFromDatabase(UUID customerId) {
+        return getSnapshotFromDatabase(customerId).items();
     }
 
-    private List<CartItem> getCartFromDatabase(UUID customerId) {
+    private CartSnapshot getSnapshotFromDatabase(UUID customerId) {
         try {
             Optional<Cart> cartOptional = cartRepository.findByCustomerId(customerId);
 
@@ -330,42 +334,30 @@ public class CartService {
                 List<CartItem> items = convertCartEntityToItems(cart);
                 log.debug("Retrieved cart from database for customer: {}, itemCount={}",
                     customerId, items.size());
-                return items;
+                return new CartSnapshot(items, cart.getCartVersion() != null ? cart.getCartVersion() : 0L);
             }
 
-            return new ArrayList<>();
+            return new CartSnapshot(new ArrayList<>(), 0L);
 
         } catch (Exception e) {
             log.error("Failed to get cart from database for customer: {}", customerId, e);
-            return new ArrayList<>();
-        }
-    }
-
-    private void syncToDatabaseAsync(UUID customerId, List<CartItem> cartItems) {
-        try {
-            pendingChanges.put(customerId, cartItems);
-            log.debug("Added to batch queue for customer: {}, queue size: {}",
-                customerId, pendingChanges.size());
-
-        } catch (Exception e) {
-            log.warn("Failed to add to batch queue for customer: {}, falling back to immediate sync",
-                customerId, e);
-            syncToDatabase(customerId, cartItems);
+            return new CartSnapshot(new ArrayList<>(), 0L);
         }
     }
 
+    /**
+     * Redis 장애 시 DB 직접 반영. 빈 장바구니도 행을 지우지 않고 버전을 올려 남겨,
+     * 뒤늦게 도착한 write-behind 배치가 더 오래된 내용으로 덮어쓰지 못하게 한다.
+     */
     @Transactional
     protected void syncToDatabase(UUID customerId, List<CartItem> cartItems) {
         try {
-            if (cartItems.isEmpty()) {
-                cartRepository.deleteByCustomerId(customerId);
-                log.debug("Deleted empty cart from database for customer: {}", customerId);
-            } else {
-                Cart cart = convertCartItemsToEntity(customerId, cartItems);
-                cartRepository.save(cart);
-                log.debug("Synced cart to database for customer: {}, itemCount={}",
-                    customerId, cartItems.size());
-            }
+            Cart cart = convertCartItemsToEntity(customerId, cartItems);
+            long current = cart.getCartVersion() != null ? cart.getCartVersion() : 0L;
+            cart.setCartVersion(CartSnapshot.nextVersion(current));
+            cartRepository.save(cart);
+            log.debug("Synced cart to database for customer: {}, itemCount={}",
+                customerId, cartItems.size());
 
         } catch (Exception e) {
             log.error("Failed to sync cart to database for customer: {}", customerId, e);
@@ -373,39 +365,6 @@ public class CartService {
         }
     }
 
-    protected void syncToDatabaseWithTransaction(UUID customerId, List<CartItem> cartItems) {
-        try {
-            if (cartItems.isEmpty()) {
-                cartRepository.deleteByCustomerId(customerId);
-                log.debug("Deleted empty cart from database for customer: {}", customerId);
-            } else {
-                Cart cart = convertCartItemsToEntity(customerId, cartItems);
-                cartRepository.save(cart);
-                log.debug("Synced cart to database for customer: {}, itemCount={}",
-                    customerId, cartItems.size());
-            }
-
-        } catch (Exception e) {
-            log.error("Failed to sync cart to database for customer: {}", customerId, e);
-            throw new CartException(ErrorCode.CART_NOT_FOUND);
-        }
-    }
-
-    private CartItem convertMapToCartItem(Map<?, ?> map) {
-        try {
-            return CartItem.builder()
-                .menuId(UUID.fromString(map.get("menuId").toString()))
-                .menuName(map.get("menuName").toString())
-                .quantity(Integer.valueOf(map.get("quantity").toString()))
-                .price(Integer.valueOf(map.get("price").toString()))
-                .storeId(UUID.fromString(map.get("storeId").toString()))
-                .build();
-        } catch (Exception e) {
-            log.error("Failed to convert map to CartItem: {}", map, e);
-            throw new CartException(ErrorCode.CART_NOT_FOUND);
-        }
-    }
-
     private List<CartItem> convertCartEntityToItems(Cart cart) {
         if (cart == null || cart.getCartItems() == null) {
             return new ArrayList<>();
@@ -424,6 +383,7 @@ public class CartService {
             cart = Cart.builder()
                 .cartItems(new ArrayList<>(cartItems))
                 .customerId(customerId)
+                .cartVersion(0L)
                 .build();
         }
 
@@ -463,99 +423,15 @@ public class CartService {
         }
     }
 
-    @PostConstruct
-    public void initBatchProcessor() {
-        scheduler.scheduleAtFixedRate(
-            this::processBatchChanges,
-            BATCH_INTERVAL_SECONDS,
-            BATCH_INTERVAL_SECONDS,
-            TimeUnit.SECONDS
-        );
-
-        log.info("Cart batch processor started with {} seconds interval", BATCH_INTERVAL_SECONDS);
-    }
-
-    @PreDestroy
-    public void cleanup() {
-        if (scheduler != null && !scheduler.isShutdown()) {
-            scheduler.shutdown();
-            try {
-                if (!scheduler.awaitTermination(10, TimeUnit.SECONDS)) {
-                    scheduler.shutdownNow();
-                }
-            } catch (InterruptedException e) {
-                scheduler.shutdownNow();
-                Thread.currentThread().interrupt();
-            }
-        }
-    }
-
-    private void processBatchChanges() {
-        if (pendingChanges.isEmpty()) return;
-
-        Map<UUID, List<CartItem>> batch = null;
-
-        try {
-            batch = new HashMap<>(pendingChanges);
-            pendingChanges.clear();
-
-            log.info("Processing batch DB sync for {} customers", batch.size());
-
-            batch.forEach((customerId, cartItems) -> {
-                TransactionStatus transaction = null;
-                try {
-                    DefaultTransactionDefinition def = new DefaultTransactionDefinition();
-                    def.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
-                    transaction = transactionManager.getTransaction(def);
-                    
-                    syncToDatabaseWithTransaction(customerId, cartItems);
-                    
-                    transactionManager.commit(transaction);
-                    log.debug("Batch DB sync completed for customer: {}", customerId);
-
-                } catch (Exception e) {
-                    if (transaction != null) {
-                        transactionManager.rollback(transaction);
-                    }
-                    log.error("Batch DB sync failed for customer: {}", customerId, e);
-                    pendingChanges.put(customerId, cartItems);
-                    log.warn("Re-added failed sync to batch queue for customer: {}", customerId);
-                }
-            });
-
-            log.info("Batch DB sync completed for {} customers", batch.size());
-
-        } catch (Exception e) {
-            log.error("Failed to process batch changes", e);
-            if (batch != null) {
-                pendingChanges.putAll(batch);
-                log.warn("Re-added all failed batch items to queue due to processing error");
-            }
-        }
-    }
-
     public Map<String, Object> getBatchQueueStatus() {
-        Map<String, Object> status = new HashMap<>();
-
-        int pendingCount = pendingChanges.size();
-        List<UUID> pendingIds = new ArrayList<>(pendingChanges.keySet());
-
-        status.put("pendingChangesCount", pendingCount);
-        status.put("batchIntervalSeconds", BATCH_INTERVAL_SECONDS);
-        status.put("pendingCustomerIds", pendingIds);
-        status.put("lastProcessedTime", System.currentTimeMillis());
-
-        return status;
+        return cartWriteBehindWorker.status();
     }
 
     public void forceBatchProcessing() {
         log.info("Force batch processing triggered");
-        synchronized (this) {
-            if (!pendingChanges.isEmpty()) {
-                processBatchChanges();
-            } else {
-                log.info("No pending changes to process");
-            }
+        int processed = cartWriteBehindWorker.forceFlush();
+        if (processed == 0) {
+            log.info("No pending changes to process");
         }
     }
 }
@@ -1,152 +1,164 @@
 package com.eatcloud.orderservice.service;
 
+import com.eatcloud.locktelemetry.LockContentionTracker;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.redisson.api.RLock;
 import org.redisson.api.RReadWriteLock;
 import org.redisson.api.RedissonClient;
+import org.redisson.client.RedisException;
 import org.springframework.stereotype.Service;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
 import java.util.concurrent.Callable;
 import java.util.concurrent.TimeUnit;
 
+/**
+ * Redisson 분산 락.
+ *
+ * 모든 획득 경로(단일/멀티/읽기/쓰기 락, tryLock)는 Redis 장애 시 바로 실패하고,
+ * 대기·보유 시간을 {@link LockContentionTracker} 에 남긴다.
+ * 보유 시작 시각은 호출 스택의 지역 변수나 {@link LockHandle} 이 들고 있으므로 해제를 빠뜨려도 서비스 쪽에 남는 상태가 없다.
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class DistributedLockService {
     
     private final RedissonClient redissonClient;
+    private final RedisHealthTracker redisHealthTracker;
+    private final LockContentionTracker telemetry;
     private static final String LOCK_PREFIX = "lock:";
     
 
     public <T> T executeWithLock(String key, long waitTime, long leaseTime, TimeUnit unit, 
                                   Callable<T> task) throws Exception {
         RLock lock = redissonClient.getFairLock(LOCK_PREFIX + key);
-        boolean acquired = false;
-        
-        try {
-            acquired = lock.tryLock(waitTime, leaseTime, unit);
-            
-            if (!acquired) {
-                log.warn("Failed to acquire lock for key: {}, thread: {}", key, Thread.currentThread().getId());
-                throw new RuntimeException("Failed to acquire lock for key: " + key);
-            }
-            
-            log.debug("Lock acquired: key={}, thread={}", key, Thread.currentThread().getId());
-            return task.call();
-            
-        } finally {
-            if (acquired && lock.isHeldByCurrentThread()) {
-                lock.unlock();
-                log.debug("Lock released: key={}, thread={}", key, Thread.currentThread().getId());
-            }
-        }
+        return executeLocked("lock", List.of(key), lock, List.of(lock), waitTime, leaseTime, unit, task);
     }
 
-    public boolean tryLock(String key, long leaseTime, TimeUnit unit) {
+    /**
+     * 대기 없이 락을 시도한다. 획득하면 핸들을 돌려주고, 못 잡았거나 Redis 를 쓸 수 없으면 null.
+     * 핸들은 try-with-resources 로 닫는다(null 이어도 안전).
+     */
+    public LockHandle tryLock(String key, long leaseTime, TimeUnit unit) {
+        if (!redisHealthTracker.isAvailable()) {
+            log.warn("Redis unavailable, lock not acquired: key={}", key);
+            return null;
+        }
         RLock lock = redissonClient.getFairLock(LOCK_PREFIX + key);
         
         try {
-            boolean acquired = lock.tryLock(0, leaseTime, unit);
-            if (acquired) {
-                log.debug("Lock acquired immediately: key={}, thread={}", key, Thread.currentThread().getId());
+            if (!acquire(lock, List.of(key), 0, leaseTime, unit)) {
+                return null;
             }
-            return acquired;
+            log.debug("Lock acquired immediately: key={}, thread={}", key, Thread.currentThread().getId());
+            return new LockHandle(key, lock, System.nanoTime());
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
             log.error("Lock acquisition interrupted: key={}", key, e);
-            return false;
-        }
-    }
-
-    public void unlock(String key) {
-        RLock lock = redissonClient.getFairLock(LOCK_PREFIX + key);
-        
-        if (lock.isHeldByCurrentThread()) {
-            lock.unlock();
-            log.debug("Lock released: key={}, thread={}", key, Thread.currentThread().getId());
-        } else {
-            log.warn("Attempted to unlock non-owned lock: key={}, thread={}", key, Thread.currentThread().getId());
+            return null;
         }
     }
 
     public <T> T executeWithMultiLock(String[] keys, long waitTime, long leaseTime, TimeUnit unit,
                                        Callable<T> task) throws Exception {
-        RLock[] locks = new RLock[keys.length];
-        for (int i = 0; i < keys.length; i++) {
-            locks[i] = redissonClient.getFairLock(LOCK_PREFIX + keys[i]);
-        }
-        
-        RLock multiLock = redissonClient.getMultiLock(locks);
-        boolean acquired = false;
-        
-        try {
-            acquired = multiLock.tryLock(waitTime, leaseTime, unit);
-            
-            if (!acquired) {
-                log.warn("Failed to acquire multi-lock for keys: {}, thread: {}", 
-                        String.join(", ", keys), Thread.currentThread().getId());
-                throw new RuntimeException("Failed to acquire multi-lock for keys: " + String.join(", ", keys));
-            }
-            
-            log.debug("Multi-lock acquired: keys={}, thread={}", 
-                     String.join(", ", keys), Thread.currentThread().getId());
-            return task.call();
-            
-        } finally {
-            if (acquired && multiLock.isHeldByCurrentThread()) {
-                multiLock.unlock();
-                log.debug("Multi-lock released: keys={}, thread={}", 
-                         String.join(", ", keys), Thread.currentThread().getId());
-            }
+        List<RLock> locks = new ArrayList<>(keys.length);
+        for (String key : keys) {
+            locks.add(redissonClient.getFairLock(LOCK_PREFIX + key));
         }
+        RLock multiLock = redissonClient.getMultiLock(locks.toArray(new RLock[0]));
+        return executeLocked("multi-lock", Arrays.asList(keys), multiLock, locks, waitTime, leaseTime, unit, task);
     }
 
     public <T> T executeWithReadLock(String key, long waitTime, long leaseTime, TimeUnit unit,
                                       Callable<T> task) throws Exception {
         RReadWriteLock rwLock = redissonClient.getReadWriteLock(LOCK_PREFIX + key);
         RLock readLock = rwLock.readLock();
-        boolean acquired = false;
-        
-        try {
-            acquired = readLock.tryLock(waitTime, leaseTime, unit);
-            
-            if (!acquired) {
-                throw new RuntimeException("Failed to acquire read lock for key: " + key);
-            }
-            
-            log.debug("Read lock acquired: key={}, thread={}", key, Thread.currentThread().getId());
-            return task.call();
-            
-        } finally {
-            if (acquired && readLock.isHeldByCurrentThread()) {
-                readLock.unlock();
-                log.debug("Read lock released: key={}, thread={}", key, Thread.currentThread().getId());
-            }
-        }
+        return executeLocked("read lock", List.of(key), readLock, List.of(readLock), waitTime, leaseTime, unit, task);
     }
 
     public <T> T executeWithWriteLock(String key, long waitTime, long leaseTime, TimeUnit unit,
                                        Callable<T> task) throws Exception {
         RReadWriteLock rwLock = redissonClient.getReadWriteLock(LOCK_PREFIX + key);
         RLock writeLock = rwLock.writeLock();
-        boolean acquired = false;
-        
+        return executeLocked("write lock", List.of(key), writeLock, List.of(writeLock), waitTime, leaseTime, unit, task);
+    }
+
+    /**
+     * @param lock  실제로 tryLock/unlock 할 락 (멀티 락이면 RedissonMultiLock)
+     * @param parts 보유 여부를 확인할 개별 락. keys 와 같은 순서
+     */
+    private <T> T executeLocked(String kind, List<String> keys, RLock lock, List<RLock> parts,
+                                long waitTime, long leaseTime, TimeUnit unit, Callable<T> task) throws Exception {
+        String joined = String.join(", ", keys);
+        if (!redisHealthTracker.isAvailable()) {
+            throw new RuntimeException("Redis unavailable, cannot acquire " + kind + " for key: " + joined);
+        }
+        if (!acquire(lock, keys, waitTime, leaseTime, unit)) {
+            log.warn("Failed to acquire {} for key: {}, thread: {}", kind, joined, Thread.currentThread().getId());
+            throw new RuntimeException("Failed to acquire " + kind + " for key: " + joined);
+        }
+        long lockedAt = System.nanoTime();
+        log.debug("{} acquired: key={}, thread={}", kind, joined, Thread.currentThread().getId());
+
         try {
-            acquired = writeLock.tryLock(waitTime, leaseTime, unit);
-            
-            if (!acquired) {
-                throw new RuntimeException("Failed to acquire write lock for key: " + key);
-            }
-            
-            log.debug("Write lock acquired: key={}, thread={}", key, Thread.currentThread().getId());
             return task.call();
-            
         } finally {
-            if (acquired && writeLock.isHeldByCurrentThread()) {
-                writeLock.unlock();
-                log.debug("Write lock released: key={}, thread={}", key, Thread.currentThread().getId());
+            release(lock, keys, parts, lockedAt);
+            log.debug("{} released: key={}, thread={}", kind, joined, Thread.currentThread().getId());
+        }
+    }
+
+    // 멀티 락은 키마다 같은 대기 시간으로 기록한다 (한 번에 전부 잡히거나 전부 실패)
+    private boolean acquire(RLock lock, List<String> keys, long waitTime, long leaseTime, TimeUnit unit) throws InterruptedException {
+        long start = System.nanoTime();
+        try {
+            boolean acquired = lock.tryLock(waitTime, leaseTime, unit);
+            redisHealthTracker.recordSuccess();
+            long waitNanos = System.nanoTime() - start;
+            for (String key : keys) {
+                if (acquired) {
+                    telemetry.acquired(key, waitNanos);
+                } else {
+                    telemetry.failed(key, waitNanos, "timeout");
+                }
+            }
+            return acquired;
+        } catch (InterruptedException e) {
+            keys.forEach(key -> telemetry.failed(key, System.nanoTime() - start, "interrupted"));
+            throw e;
+        } catch (RedisException e) {
+            redisHealthTracker.recordFailure(e);
+            keys.forEach(key -> telemetry.failed(key, System.nanoTime() - start, "error"));
+            throw e;
+        }
+    }
+
+    // RedissonMultiLock 은 isHeldByCurrentThread 를 지원하지 않아 개별 락으로 확인하고,
+    // lease 가 일부만 만료됐으면 아직 가진 락만 푼다
+    private void release(RLock lock, List<String> keys, List<RLock> parts, long lockedAt) {
+        long holdNanos = System.nanoTime() - lockedAt;
+        boolean[] held = new boolean[parts.size()];
+        boolean allHeld = true;
+        for (int i = 0; i < parts.size(); i++) {
+            held[i] = parts.get(i).isHeldByCurrentThread();
+            allHeld &= held[i];
+        }
+        if (allHeld) {
+            lock.unlock();
+        } else {
+            for (int i = 0; i < parts.size(); i++) {
+                if (held[i]) {
+                    parts.get(i).unlock();
+                }
             }
+            log.warn("Lock lease expired before release: keys={}, thread={}", keys, Thread.currentThread().getId());
+        }
+        for (int i = 0; i < keys.size(); i++) {
+            telemetry.released(keys.get(i), holdNanos, held[i]);
         }
     }
 
@@ -159,4 +171,33 @@ public class DistributedLockService {
         RLock lock = redissonClient.getFairLock(LOCK_PREFIX + key);
         return lock.isHeldByCurrentThread();
     }
+
+    /** {@link #tryLock} 으로 잡은 락. 보유 시작 시각을 핸들이 들고 있고, close 는 한 번만 해제한다 */
+    public final class LockHandle implements AutoCloseable {
+
+        private final String key;
+        private final RLock lock;
+        private final long lockedAt;
+        private boolean released;
+
+        private LockHandle(String key, RLock lock, long lockedAt) {
+            this.key = key;
+            this.lock = lock;
+            this.lockedAt = lockedAt;
+        }
+
+        public String getKey() {
+            return key;
+        }
+
+        @Override
+        public void close() {
+            if (released) {
+                return;
+            }
+            released = true;
+            release(lock, List.of(key), List.of(lock), lockedAt);
+            log.debug("Lock released: key={}, thread={}", key, Thread.currentThread().getId());
+        }
+    }
 }
@@ -8,6 +8,9 @@ import org.springframework.web.client.RestTemplate;
 import org.springframework.http.*;
 import org.springframework.beans.factory.annotation.Value;
 
+import java.math.BigDecimal;
+import java.util.Arrays;
+import java.util.List;
 import java.util.UUID;
 
 @Slf4j
@@ -70,6 +73,20 @@ public class ExternalApiService {
         }
     }
 
+    /** 여러 메뉴의 가격/판매 여부/재고 상태를 한 번에 조회 */
+    public List<MenuAvailability> getMenuAvailability(List<UUID> menuIds, String bearerToken) {
+        try {
+            String url = inventoryBaseUrl + "/api/v1/stores/menus/availability";
+            var res = postJson(url, new MenuAvailabilityReq(menuIds), bearerToken, MenuAvailability[].class);
+            MenuAvailability[] body = res.getBody();
+            log.info("menu.availability OK requested={} returned={}", menuIds.size(), body != null ? body.length : 0);
+            return body != null ? Arrays.asList(body) : List.of();
+        } catch (RestClientException e) {
+            log.error("Failed to get menu availability for menuIds: {}", menuIds, e);
+            throw new RuntimeException("Store service is temporarily unavailable for menu availability", e);
+        }
+    }
+
     public Integer getCustomerPoints(UUID customerId, String bearerToken) {
         try {
             String url = "http://customer-service/api/v1/customers/" + customerId + "/points";
@@ -135,6 +152,89 @@ public class ExternalApiService {
         public void setQty(int qty) { this.qty = qty; }
     }
 
+    public static class ReserveLineReq {
+        private UUID orderLineId;
+        private UUID menuId;
+        private int qty;
+        public ReserveLineReq() {}
+        public ReserveLineReq(UUID orderLineId, UUID menuId, int qty) {
+            this.orderLineId = orderLineId; this.menuId = menuId; this.qty = qty;
+        }
+        public UUID getOrderLineId() { return orderLineId; }
+        public UUID getMenuId() { return menuId; }
+        public int getQty() { return qty; }
+        public void setOrderLineId(UUID orderLineId) { this.orderLineId = orderLineId; }
+        public void setMenuId(UUID menuId) { this.menuId = menuId; }
+        public void setQty(int qty) { this.qty = qty; }
+    }
+
+    public static class BatchReserveReq {
+        private UUID orderId;
+        private List<ReserveLineReq> lines;
+        public BatchReserveReq() {}
+        public BatchReserveReq(UUID orderId, List<ReserveLineReq> lines) { this.orderId = orderId; this.lines = lines; }
+        public UUID getOrderId() { return orderId; }
+        public List<ReserveLineReq> getLines() { return lines; }
+        public void setOrderId(UUID orderId) { this.orderId = orderId; }
+        public void setLines(List<ReserveLineReq> lines) { this.lines = lines; }
+    }
+
+    @com.fasterxml.jackson.annotation.JsonIgnoreProperties(ignoreUnknown = true)
+    public static class BatchReserveRes {
+        private boolean reserved;
+        private List<UUID> insufficientMenuIds;
+        public BatchReserveRes() {}
+        public boolean isReserved() { return reserved; }
+        public List<UUID> getInsufficientMenuIds() { return insufficientMenuIds; }
+        public void setReserved(boolean reserved) { this.reserved = reserved; }
+        public void setInsufficientMenuIds(List<UUID> insufficientMenuIds) { this.insufficientMenuIds = insufficientMenuIds; }
+    }
+
+    public static class BatchLineReq {
+        private List<UUID> orderLineIds;
+        private String reason;
+        public BatchLineReq() {}
+        public BatchLineReq(List<UUID> orderLineIds, String reason) { this.orderLineIds = orderLineIds; this.reason = reason; }
+        public List<UUID> getOrderLineIds() { return orderLineIds; }
+        public String getReason() { return reason; }
+        public void setOrderLineIds(List<UUID> orderLineIds) { this.orderLineIds = orderLineIds; }
+        public void setReason(String reason) { this.reason = reason; }
+    }
+
+    public static class MenuAvailabilityReq {
+        private List<UUID> menuIds;
+        public MenuAvailabilityReq() {}
+        public MenuAvailabilityReq(List<UUID> menuIds) { this.menuIds = menuIds; }
+        public List<UUID> getMenuIds() { return menuIds; }
+        public void setMenuIds(List<UUID> menuIds) { this.menuIds = menuIds; }
+    }
+
+    @com.fasterxml.jackson.annotation.JsonIgnoreProperties(ignoreUnknown = true)
+    public static class MenuAvailability {
+        private UUID menuId;
+        private UUID storeId;
+        private String menuName;
+        private BigDecimal price;
+        private Boolean isAvailable;
+        private String stockStatus;
+        private Integer availableQty;
+        public MenuAvailability() {}
+        public UUID getMenuId() { return menuId; }
+        public UUID getStoreId() { return storeId; }
+        public String getMenuName() { return menuName; }
+        public BigDecimal getPrice() { return price; }
+        public Boolean getIsAvailable() { return isAvailable; }
+        public String getStockStatus() { return stockStatus; }
+        public Integer getAvailableQty() { return availableQty; }
+        public void setMenuId(UUID menuId) { this.menuId = menuId; }
+        public void setStoreId(UUID storeId) { this.storeId = storeId; }
+        public void setMenuName(String menuName) { this.menuName = menuName; }
+        public void setPrice(BigDecimal price) { this.price = price; }
+        public void setIsAvailable(Boolean isAvailable) { this.isAvailable = isAvailable; }
+        public void setStockStatus(String stockStatus) { this.stockStatus = stockStatus; }
+        public void setAvailableQty(Integer availableQty) { this.availableQty = availableQty; }
+    }
+
     public static class ConfirmReq {
         private UUID orderLineId;
         public ConfirmReq() {}
@@ -191,4 +291,47 @@ public class ExternalApiService {
             return false;
         }
     }
+
+    /**
+     * 주문의 모든 라인을 한 번의 호출로 all-or-nothing 예약.
+     * @return 스토어 응답. 통신 실패면 null
+     */
+    public BatchReserveRes reserveInventoryBatch(UUID orderId, List<ReserveLineReq> lines, String bearerToken) {
+        try {
+            String url = inventoryBaseUrl + "/api/v1/stores/inventory/reserve/batch";
+            var res = postJson(url, new BatchReserveReq(orderId, lines), bearerToken, BatchReserveRes.class);
+            BatchReserveRes body = res.getBody();
+            log.info("inventory.reserveBatch OK orderId={} lines={} reserved={}",
+                    orderId, lines.size(), body != null && body.isReserved());
+            return body;
+        } catch (RestClientException e) {
+            log.warn("inventory.reserveBatch FAIL orderId={} err={}", orderId, e.toString());
+            return null;
+        }
+    }
+
+    public boolean confirmInventoryBatch(List<UUID> orderLineIds, String bearerToken) {
+        try {
+            String url = inventoryBaseUrl + "/api/v1/stores/inventory/confirm/batch";
+            var res = postJson(url, new BatchLineReq(orderLineIds, null), bearerToken, Void.class);
+            log.info("inventory.confirmBatch OK lines={} status={}", orderLineIds.size(), res.getStatusCode());
+            return res.getStatusCode().is2xxSuccessful();
+        } catch (RestClientException e) {
+            log.warn("inventory.confirmBatch FAIL lines={} err={}", orderLineIds.size(), e.toString());
+            return false;
+        }
+    }
+
+    // 확정 전 예약은 해제, 확정 후는 재고 반환 (라인별 cancel-after-confirm 과 같은 규칙)
+    public boolean cancelInventoryBatch(List<UUID> orderLineIds, String reason, String bearerToken) {
+        try {
+            String url = inventoryBaseUrl + "/api/v1/stores/inventory/cancel/batch";
+            var res = postJson(url, new BatchLineReq(orderLineIds, reason), bearerToken, Void.class);
+            log.info("inventory.cancelBatch OK lines={} status={}", orderLineIds.size(), res.getStatusCode());
+            return res.getStatusCode().is2xxSuccessful();
+        } catch (RestClientException e) {
+            log.warn("inventory.cancelBatch FAIL lines={} err={}", orderLineIds.size(), e.toString());
+            return false;
+        }
+    }
 }
@@ -0,0 +1,19 @@
+package com.eatcloud.orderservice.service;
+
+import com.eatcloud.locktelemetry.LockContentionTracker;
+import lombok.RequiredArgsConstructor;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/** 락 경합 키 통계 윈도우 교체 (lock.telemetry.window-ms 주기) */
+@Component
+@RequiredArgsConstructor
+public class LockTelemetryScheduler {
+
+    private final LockContentionTracker lockContentionTracker;
+
+    @Scheduled(fixedDelayString = "${lock.telemetry.window-ms:60000}")
+    public void rotate() {
+        lockContentionTracker.rotate();
+    }
+}
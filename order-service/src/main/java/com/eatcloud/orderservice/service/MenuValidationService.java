@@ -0,0 +1,143 @@
+package com.eatcloud.orderservice.service;
+
+import com.eatcloud.orderservice.dto.CartItem;
+import com.eatcloud.orderservice.dto.OrderMenu;
+import com.eatcloud.orderservice.exception.ErrorCode;
+import com.eatcloud.orderservice.exception.OrderException;
+import com.eatcloud.orderservice.service.ExternalApiService.MenuAvailability;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 주문 시점 장바구니 검증.
+ * 장바구니 전체 메뉴를 store-service 일괄 조회 한 번으로 확인한다.
+ * 조회 결과(가격/판매 여부/재고 상태)는 짧은 TTL 로컬 캐시에 두고 만료된 메뉴만 다시 조회한다.
+ * 캐시로 인해 품절이 몇 초 늦게 보일 수 있으나, 실제 수량은 재고 예약 단계에서 다시 확인된다.
+ */
+@Slf4j
+@Service
+public class MenuValidationService {
+
+    private static final int MAX_CACHE_SIZE = 10_000;
+
+    private final ExternalApiService externalApiService;
+    private final long priceTtlMillis;
+
+    private final Map<UUID, CachedMenu> cache = new ConcurrentHashMap<>();
+
+    public MenuValidationService(ExternalApiService externalApiService,
+                                 @Value("${menu.price-cache.ttl-ms:3000}") long priceTtlMillis) {
+        this.externalApiService = externalApiService;
+        this.priceTtlMillis = priceTtlMillis;
+    }
+
+    private record CachedMenu(MenuAvailability menu, long expiresAt) {}
+
+    /**
+     * 장바구니 라인을 검증하고 서버 기준 가격으로 주문 메뉴를 만든다.
+     *
+     * @throws OrderException MENU_NOT_FOUND / MENU_UNAVAILABLE / INSUFFICIENT_INVENTORY / MENU_VALIDATION_FAILED
+     */
+    public List<OrderMenu> validateAndPrice(UUID storeId, List<CartItem> cartItems, String bearerToken) {
+        Set<UUID> menuIds = new LinkedHashSet<>();
+        cartItems.forEach(item -> menuIds.add(item.getMenuId()));
+
+        Map<UUID, MenuAvailability> availability = fetch(new ArrayList<>(menuIds), bearerToken);
+        Map<UUID, Integer> prices = new HashMap<>();
+
+        for (UUID menuId : menuIds) {
+            MenuAvailability menu = availability.get(menuId);
+            if (menu == null) {
+                throw new OrderException(ErrorCode.MENU_NOT_FOUND, "메뉴를 찾을 수 없습니다: " + menuId);
+            }
+            if (storeId != null && menu.getStoreId() != null && !storeId.equals(menu.getStoreId())) {
+                throw new OrderException(ErrorCode.CART_STORE_MISMATCH);
+            }
+            if (!Boolean.TRUE.equals(menu.getIsAvailable())) {
+                throw new OrderException(ErrorCode.MENU_UNAVAILABLE, "판매 중지된 메뉴입니다: " + menu.getMenuName());
+            }
+            if ("OUT_OF_STOCK".equals(menu.getStockStatus())) {
+                throw new OrderException(ErrorCode.INSUFFICIENT_INVENTORY, "품절된 메뉴입니다: " + menu.getMenuName());
+            }
+            if (menu.getPrice() == null) {
+                throw new OrderException(ErrorCode.MENU_UNAVAILABLE, "가격 정보가 없는 메뉴입니다: " + menuId);
+            }
+            prices.put(menuId, menu.getPrice().intValue());
+        }
+
+        List<OrderMenu> orderMenus = new ArrayList<>(cartItems.size());
+        for (CartItem item : cartItems) {
+            int price = prices.get(item.getMenuId());
+            if (item.getPrice() == null || item.getPrice() != price) {
+                log.warn("장바구니 가격과 현재 가격 불일치, 현재 가격 적용: menuId={}, cart={}, current={}",
+                        item.getMenuId(), item.getPrice(), price);
+            }
+            orderMenus.add(OrderMenu.builder()
+                    .menuId(item.getMenuId())
+                    .menuName(item.getMenuName())
+                    .quantity(item.getQuantity())
+                    .price(price)
+                    .build());
+        }
+        return orderMenus;
+    }
+
+    /**
+     * 캐시에 없거나 만료된 메뉴만 모아 한 번에 조회한다.
+     * 일괄 조회가 실패하면 주문을 진행하지 않는다.
+     */
+    private Map<UUID, MenuAvailability> fetch(List<UUID> menuIds, String bearerToken) {
+        Map<UUID, MenuAvailability> byId = new HashMap<>();
+        List<UUID> misses = new ArrayList<>();
+        long now = System.currentTimeMillis();
+        for (UUID menuId : menuIds) {
+            CachedMenu cached = cache.get(menuId);
+            if (cached != null && cached.expiresAt() >= now) {
+                byId.put(menuId, cached.menu());
+            } else {
+                misses.add(menuId);
+            }
+        }
+        if (misses.isEmpty()) {
+            return byId;
+        }
+
+        List<MenuAvailability> result;
+        try {
+            result = externalApiService.getMenuAvailability(misses, bearerToken);
+        } catch (RuntimeException e) {
+            log.error("메뉴 일괄 조회 실패: menuIds={}", misses, e);
+            throw new OrderException(ErrorCode.MENU_VALIDATION_FAILED);
+        }
+
+        long expiresAt = System.currentTimeMillis() + priceTtlMillis;
+        for (MenuAvailability menu : result) {
+            byId.put(menu.getMenuId(), menu);
+            put(menu.getMenuId(), new CachedMenu(menu, expiresAt));
+        }
+        log.debug("메뉴 검증 조회: requested={}, cacheHits={}, fetched={}",
+                menuIds.size(), menuIds.size() - misses.size(), result.size());
+        return byId;
+    }
+
+    private void put(UUID menuId, CachedMenu entry) {
+        if (cache.size() >= MAX_CACHE_SIZE) {
+            long now = System.currentTimeMillis();
+            cache.values().removeIf(c -> c.expiresAt() < now);
+            if (cache.size() >= MAX_CACHE_SIZE) {
+                cache.clear();
+            }
+        }
+        cache.put(menuId, entry);
+    }
+}
@@ -0,0 +1,233 @@
+package com.eatcloud.orderservice.service;
+
+import com.eatcloud.orderservice.dto.request.CreateOrderRequest;
+import com.eatcloud.orderservice.dto.response.CreateOrderResponse;
+import com.eatcloud.orderservice.exception.ErrorCode;
+import com.eatcloud.orderservice.exception.OrderException;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.data.redis.serializer.GenericToStringSerializer;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * 주문 생성 멱등 처리 (Idempotency-Key).
+ *
+ * idem:order:{customerId}:{key} 하나에 처리 상태를 둔다.
+ *  - 처음 요청: Lua 한 번으로 PROCESSING 선점 → 주문 생성 → 응답을 DONE 으로 저장(TTL)
+ *  - 재시도(같은 키, 같은 요청): 저장된 CreateOrderResponse 를 그대로 반환
+ *  - 처리 중 중복: 409 (ORDER_PROCESSING)
+ *  - 같은 키로 다른 요청: 422 (IDEMPOTENCY_KEY_REUSED)
+ * 실패한 요청은 선점을 풀어 같은 키로 다시 시도할 수 있게 한다.
+ *
+ * 키가 없는 요청은 고객 단위 in-flight 마커만 잡아 동시 주문을 막는다 (응답 캐시 없음).
+ */
+@Slf4j
+@Service
+public class OrderIdempotencyService {
+
+    private static final String KEY_PREFIX = "idem:order:";
+    private static final String INFLIGHT_SUFFIX = ":inflight";
+    private static final int MAX_KEY_LENGTH = 100;
+
+    private static final RedisSerializer<String> STRING = RedisSerializer.string();
+    private static final RedisSerializer<Long> LONG = new GenericToStringSerializer<>(Long.class);
+
+    // KEYS[1]=idem key, ARGV[1]=PROCESSING 값, ARGV[2]=선점 TTL(ms)
+    // 반환: '' = 선점 성공, 그 외 = 이미 있는 값
+    private static final RedisScript<String> LUA_CLAIM = new DefaultRedisScript<>("""
+        local cur = redis.call('GET', KEYS[1])
+        if cur then
+          return cur
+        end
+        redis.call('SET', KEYS[1], ARGV[1], 'PX', ARGV[2])
+        return ''
+        """, String.class);
+
+    // KEYS[1]=idem key, ARGV[1]=내가 쓴 PROCESSING 값, ARGV[2]=DONE 값, ARGV[3]=보관 TTL(ms)
+    private static final RedisScript<Long> LUA_COMPLETE = new DefaultRedisScript<>("""
+        if redis.call('GET', KEYS[1]) == ARGV[1] then
+          redis.call('SET', KEYS[1], ARGV[2], 'PX', ARGV[3])
+          return 1
+        end
+        return 0
+        """, Long.class);
+
+    // KEYS[1]=idem key, ARGV[1]=내가 쓴 PROCESSING 값
+    private static final RedisScript<Long> LUA_RELEASE = new DefaultRedisScript<>("""
+        if redis.call('GET', KEYS[1]) == ARGV[1] then
+          return redis.call('DEL', KEYS[1])
+        end
+        return 0
+        """, Long.class);
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final RedisHealthTracker redisHealthTracker;
+    private final ObjectMapper objectMapper;
+    private final Duration inflightTtl;
+    private final Duration responseTtl;
+
+    private final Counter replayedCounter;
+    private final Counter conflictCounter;
+
+    public OrderIdempotencyService(RedisTemplate<String, Object> redisTemplate,
+                                   RedisHealthTracker redisHealthTracker,
+                                   ObjectMapper objectMapper,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${order.idempotency.inflight-ttl-ms:30000}") long inflightTtlMs,
+                                   @Value("${order.idempotency.response-ttl-ms:86400000}") long responseTtlMs) {
+        this.redisTemplate = redisTemplate;
+        this.redisHealthTracker = redisHealthTracker;
+        this.objectMapper = objectMapper;
+        this.inflightTtl = Duration.ofMillis(inflightTtlMs);
+        this.responseTtl = Duration.ofMillis(responseTtlMs);
+
+        this.replayedCounter = Counter.builder("order.idempotency")
+                .tag("result", "replayed")
+                .register(meterRegistry);
+        this.conflictCounter = Counter.builder("order.idempotency")
+                .tag("result", "conflict")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @param scope          주문 생성 경로 구분 (같은 키를 다른 경로에 재사용하면 다른 요청으로 본다)
+     * @param idempotencyKey 클라이언트가 보낸 Idempotency-Key. 없으면 in-flight 중복만 막는다
+     */
+    public CreateOrderResponse execute(UUID customerId, String scope, String idempotencyKey,
+                                       CreateOrderRequest request, Supplier<CreateOrderResponse> createOrder) {
+        boolean keyed = idempotencyKey != null && !idempotencyKey.isBlank();
+        if (keyed && idempotencyKey.length() > MAX_KEY_LENGTH) {
+            throw new OrderException(ErrorCode.INVALID_IDEMPOTENCY_KEY);
+        }
+
+        String key = keyed
+                ? KEY_PREFIX + customerId + ":" + idempotencyKey
+                : KEY_PREFIX + customerId + INFLIGHT_SUFFIX;
+        String fingerprint = fingerprint(scope, request);
+        String processing = write(new Entry(Entry.PROCESSING, UUID.randomUUID().toString(), fingerprint, null));
+
+        String existing = claim(key, processing);
+        if (!existing.isEmpty()) {
+            return replayOrReject(key, existing, fingerprint, keyed);
+        }
+
+        CreateOrderResponse response;
+        try {
+            response = createOrder.get();
+        } catch (RuntimeException e) {
+            release(key, processing);
+            throw e;
+        }
+
+        if (keyed) {
+            String done = write(new Entry(Entry.DONE, null, fingerprint, response));
+            store(key, processing, done);
+        } else {
+            release(key, processing);
+        }
+        return response;
+    }
+
+    private CreateOrderResponse replayOrReject(String key, String existing, String fingerprint, boolean keyed) {
+        Entry entry = read(existing);
+        if (keyed && !fingerprint.equals(entry.fingerprint())) {
+            conflictCounter.increment();
+            log.warn("Idempotency-Key 재사용(요청 불일치): key={}", key);
+            throw new OrderException(ErrorCode.IDEMPOTENCY_KEY_REUSED);
+        }
+        if (Entry.DONE.equals(entry.state())) {
+            replayedCounter.increment();
+            log.info("멱등 재시도 → 저장된 응답 반환: key={}, orderId={}", key, entry.response().getOrderId());
+            return entry.response();
+        }
+        conflictCounter.increment();
+        log.info("동일 주문 처리 중 → 409: key={}", key);
+        throw new OrderException(ErrorCode.ORDER_PROCESSING, "다른 주문이 진행 중입니다.");
+    }
+
+    private String claim(String key, String processing) {
+        if (!redisHealthTracker.isAvailable()) {
+            throw new OrderException(ErrorCode.ORDER_PROCESSING, "주문 중복 확인을 할 수 없습니다. 잠시 후 다시 시도해주세요.");
+        }
+        try {
+            String result = redisTemplate.execute(LUA_CLAIM, STRING, STRING, List.of(key),
+                    processing, String.valueOf(inflightTtl.toMillis()));
+            redisHealthTracker.recordSuccess();
+            return result != null ? result : "";
+        } catch (RuntimeException e) {
+            redisHealthTracker.recordFailure(e);
+            log.error("멱등 키 선점 실패: key={}", key, e);
+            throw new OrderException(ErrorCode.ORDER_PROCESSING, "주문 중복 확인을 할 수 없습니다. 잠시 후 다시 시도해주세요.");
+        }
+    }
+
+    // 주문은 이미 만들어졌으므로 저장 실패는 로그만 남긴다 (선점 TTL이 지나면 같은 키로 새 주문이 가능해짐)
+    private void store(String key, String processing, String done) {
+        try {
+            Long stored = redisTemplate.execute(LUA_COMPLETE, STRING, LONG, List.of(key),
+                    processing, done, String.valueOf(responseTtl.toMillis()));
+            if (stored == null || stored == 0L) {
+                log.warn("멱등 응답 저장 생략 (선점 만료): key={}", key);
+            }
+        } catch (RuntimeException e) {
+            redisHealthTracker.recordFailure(e);
+            log.error("멱등 응답 저장 실패: key={}", key, e);
+        }
+    }
+
+    private void release(String key, String processing) {
+        try {
+            redisTemplate.execute(LUA_RELEASE, STRING, LONG, List.of(key), processing);
+        } catch (RuntimeException e) {
+            redisHealthTracker.recordFailure(e);
+            log.warn("멱등 선점 해제 실패 (TTL 후 만료): key={}", key, e);
+        }
+    }
+
+    private String fingerprint(String scope, CreateOrderRequest request) {
+        try {
+            byte[] body = (scope + ":" + objectMapper.writeValueAsString(request)).getBytes(StandardCharsets.UTF_8);
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(body));
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("주문 요청 fingerprint 계산 실패", e);
+        }
+    }
+
+    private String write(Entry entry) {
+        try {
+            return objectMapper.writeValueAsString(entry);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("멱등 항목 직렬화 실패", e);
+        }
+    }
+
+    private Entry read(String raw) {
+        try {
+            return objectMapper.readValue(raw, Entry.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("멱등 항목 역직렬화 실패", e);
+        }
+    }
+
+    record Entry(String state, String token, String fingerprint, CreateOrderResponse response) {
+        static final String PROCESSING = "PROCESSING";
+        static final String DONE = "DONE";
+    }
+}
@@ -26,9 +26,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
-import java.util.concurrent.TimeUnit;
 import java.util.ArrayList;
-import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -39,8 +37,8 @@ public class OrderService {
     private final OrderRepository orderRepository;
     private final OrderStatusCodeRepository orderStatusCodeRepository;
     private final OrderTypeCodeRepository orderTypeCodeRepository;
-    private final DistributedLockService distributedLockService;
     private final OutboxService outboxService;
+    private final MenuValidationService menuValidationService;
     @Lazy
 
     @Autowired
@@ -50,93 +48,78 @@ public class OrderService {
         log.info("=== createOrderFromCartSimple called ===");
         log.info("customerId: {}, storeId: {}, bearerToken: {}", customerId, request.getStoreId(), bearerToken != null ? "present" : "null");
         
-        String lockKey = "order:create:" + customerId;
-        
+        // 중복 요청/동시 주문은 컨트롤러의 OrderIdempotencyService 에서 걸러진다
         try {
-            return distributedLockService.executeWithLock(
-                lockKey,
-                5,
-                10,
-                TimeUnit.SECONDS,
-                () -> {
-                    log.info("Starting order creation for customer: {}", customerId);
-
-                    List<CartItem> cartItems = cartService.getCart(customerId);
-                    log.info("Cart items retrieved: count={}, items={}", cartItems.size(), cartItems);
-                    if (cartItems.isEmpty()) {
-                        log.warn("Cart is empty for customer: {}", customerId);
-                        throw new OrderException(ErrorCode.EMPTY_CART);
-                    }
-
-                    List<OrderMenu> orderMenuList = cartItems.stream()
-                        .map(item -> OrderMenu.builder()
-                            .menuId(item.getMenuId())
-                            .menuName(item.getMenuName())
-                            .quantity(item.getQuantity())
-                            .price(item.getPrice())
-                            .build())
-                        .collect(Collectors.toList());
-                    
-                    log.info("OrderMenuList created: size={}, items={}", orderMenuList.size(), orderMenuList);
-
-                    Order order = createPendingOrder(
-                        customerId,
-                        request.getStoreId(),
-                        orderMenuList,
-                        request.getOrderType(),
-                        request.getUsePoints(),
-                        request.getPointsToUse()
-                    );
-
-                    try {
-                        com.eatcloud.orderservice.event.OrderCreatedEvent event =
-                                com.eatcloud.orderservice.event.OrderCreatedEvent.builder()
-                                        .orderId(order.getOrderId())
-                                        .customerId(order.getCustomerId())
-                                        .storeId(order.getStoreId())
-                                        .totalAmount(order.getTotalPrice())
-                                        .finalAmount(order.getFinalPaymentAmount())
-                                        .pointsToUse(order.getPointsToUse())
-                                        .orderItems(orderMenuList.stream()
-                                                .map(m -> com.eatcloud.orderservice.event.OrderCreatedEvent.OrderItemEvent.builder()
-                                                        .menuId(m.getMenuId())
-                                                        .menuName(m.getMenuName())
-                                                        .quantity(m.getQuantity())
-                                                        .unitPrice(m.getPrice())
-                                                        .build())
-                                                .collect(java.util.stream.Collectors.toList()))
-                                        .build();
-
-                        outboxService.saveEvent(
-                                "Order",
-                                order.getOrderId().toString(),
-                                "OrderCreatedEvent",
-                                event,
-                                outboxService.defaultHeaders(null, null)
-                        );
-                    } catch (Exception publishEx) {
-                        log.error("주문 생성 Outbox 기록 실패: orderId={}", order.getOrderId(), publishEx);
-                    }
-
-                    try {
-                        cartService.clearCart(customerId);
-                        log.info("Cart cleared for customer: {}", customerId);
-                    } catch (Exception e) {
-                        log.error("Failed to clear cart for customer: {}, but order created successfully", customerId, e);
-                    }
-
-                    log.info("Order created successfully: orderId={}, customerId={}", order.getOrderId(), customerId);
-
-                    return CreateOrderResponse.builder()
-                        .orderId(order.getOrderId())
-                        .orderNumber(order.getOrderNumber())
-                        .totalPrice(order.getTotalPrice())
-                        .finalPaymentAmount(order.getFinalPaymentAmount())
-                        .orderStatus(order.getOrderStatusCode().getCode())
-                        .message("주문이 생성되었습니다.")
-                        .build();
-                }
+            log.info("Starting order creation for customer: {}", customerId);
+
+            List<CartItem> cartItems = cartService.getCart(customerId);
+            log.info("Cart items retrieved: count={}, items={}", cartItems.size(), cartItems);
+            if (cartItems.isEmpty()) {
+                log.warn("Cart is empty for customer: {}", customerId);
+                throw new OrderException(ErrorCode.EMPTY_CART);
+            }
+
+            List<OrderMenu> orderMenuList = menuValidationService.validateAndPrice(
+                request.getStoreId(), cartItems, bearerToken);
+
+            log.info("OrderMenuList created: size={}, items={}", orderMenuList.size(), orderMenuList);
+
+            Order order = createPendingOrder(
+                customerId,
+                request.getStoreId(),
+                orderMenuList,
+                request.getOrderType(),
+                request.getUsePoints(),
+                request.getPointsToUse()
             );
+
+            try {
+                com.eatcloud.orderservice.event.OrderCreatedEvent event =
+                        com.eatcloud.orderservice.event.OrderCreatedEvent.builder()
+                                .orderId(order.getOrderId())
+                                .customerId(order.getCustomerId())
+                                .storeId(order.getStoreId())
+                                .totalAmount(order.getTotalPrice())
+                                .finalAmount(order.getFinalPaymentAmount())
+                                .pointsToUse(order.getPointsToUse())
+                                .orderItems(orderMenuList.stream()
+                                        .map(m -> com.eatcloud.orderservice.event.OrderCreatedEvent.OrderItemEvent.builder()
+                                                .menuId(m.getMenuId())
+                                                .menuName(m.getMenuName())
+                                                .quantity(m.getQuantity())
+                                                .unitPrice(m.getPrice())
+                                                .build())
+                                        .collect(java.util.stream.Collectors.toList()))
+                                .build();
+
+                outboxService.saveEvent(
+                        "Order",
+                        order.getOrderId().toString(),
+                        "OrderCreatedEvent",
+                        event,
+                        outboxService.defaultHeaders(null, null)
+                );
+            } catch (Exception publishEx) {
+                log.error("주문 생성 Outbox 기록 실패: orderId={}", order.getOrderId(), publishEx);
+            }
+
+            try {
+                cartService.clearCart(customerId);
+                log.info("Cart cleared for customer: {}", customerId);
+            } catch (Exception e) {
+                log.error("Failed to clear cart for customer: {}, but order created successfully", customerId, e);
+            }
+
+            log.info("Order created successfully: orderId={}, customerId={}", order.getOrderId(), customerId);
+
+            return CreateOrderResponse.builder()
+                .orderId(order.getOrderId())
+                .orderNumber(order.getOrderNumber())
+                .totalPrice(order.getTotalPrice())
+                .finalPaymentAmount(order.getFinalPaymentAmount())
+                .orderStatus(order.getOrderStatusCode().getCode())
+                .message("주문이 생성되었습니다.")
+                .build();
         } catch (Exception e) {
             log.error("Order creation failed for customer: {}", customerId, e);
             log.error("Exception type: {}, message: {}", e.getClass().getSimpleName(), e.getMessage());
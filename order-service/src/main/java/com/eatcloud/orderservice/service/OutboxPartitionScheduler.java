@@ -0,0 +1,35 @@
+package com.eatcloud.orderservice.service;
+
+import com.eatcloud.outboxrelay.DailyPartitionMaintainer;
+import com.eatcloud.outboxrelay.ExpiredRowCleaner;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * outbox_events 일 단위 파티션 선생성 + 만료 파티션 drop, processed_events 만료 행 정리.
+ * 기동 직후 한 번, 이후 outbox.partition.interval-ms 주기로 실행한다.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxPartitionScheduler {
+
+    private final DailyPartitionMaintainer orderPartitionMaintainer;
+    private final ExpiredRowCleaner orderProcessedEventCleaner;
+
+    @Scheduled(fixedDelayString = "${outbox.partition.interval-ms:3600000}")
+    public void maintain() {
+        try {
+            orderPartitionMaintainer.runOnce();
+        } catch (Exception e) {
+            log.error("파티션 관리 실패: {}", e.getMessage(), e);
+        }
+        try {
+            orderProcessedEventCleaner.runOnce();
+        } catch (Exception e) {
+            log.error("처리 이력 정리 실패: {}", e.getMessage(), e);
+        }
+    }
+}
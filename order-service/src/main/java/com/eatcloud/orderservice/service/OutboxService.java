@@ -2,6 +2,7 @@ package com.eatcloud.orderservice.service;
 
 import com.eatcloud.orderservice.entity.OutboxEvent;
 import com.eatcloud.orderservice.repository.OutboxEventRepository;
+import com.eatcloud.outboxrelay.OutboxEventRegistry;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
@@ -20,6 +21,7 @@ public class OutboxService {
 
     private final OutboxEventRepository outboxEventRepository;
     private final ObjectMapper objectMapper;
+    private final OutboxEventRegistry orderOutboxEventRegistry;
 
     @Transactional
     public void saveEvent(String aggregateType,
@@ -27,6 +29,8 @@ public class OutboxService {
                           String eventType,
                           Object payload,
                           Map<String, Object> headers) {
+        // 발행 시에는 payload 를 다시 읽지 않으므로 여기서 타입을 확정한다
+        orderOutboxEventRegistry.require(eventType, payload);
         try {
             String payloadJson = objectMapper.writeValueAsString(payload);
             String headersJson = headers == null ? null : objectMapper.writeValueAsString(headers);
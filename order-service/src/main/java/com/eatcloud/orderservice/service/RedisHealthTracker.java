@@ -0,0 +1,134 @@
+package com.eatcloud.orderservice.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.client.RedisConnectionException;
+import org.redisson.client.RedisTimeoutException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.QueryTimeoutException;
+import org.springframework.data.redis.RedisConnectionFailureException;
+import org.springframework.data.redis.connection.RedisConnection;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Redis 가용성 추적기.
+ * 요청 경로에서는 volatile 플래그만 읽고, 실제 판단은
+ *  - 백그라운드 PING 프로브
+ *  - 실제 명령 실패(연결/타임아웃) 연속 횟수
+ * 로 한다. 연속 실패가 임계치를 넘으면 open(사용 불가), 프로브가 성공하면 close(사용 가능)로 전환한다.
+ */
+@Slf4j
+@Component
+public class RedisHealthTracker {
+
+    private final RedisTemplate<String, Object> redisTemplate;
+    private final int failureThreshold;
+
+    private volatile boolean available = true;
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+
+    private final Counter openedCounter;
+    private final Counter closedCounter;
+    private final Counter commandFailureCounter;
+    private final Counter probeFailureCounter;
+
+    public RedisHealthTracker(RedisTemplate<String, Object> redisTemplate,
+                              MeterRegistry meterRegistry,
+                              @Value("${redis.health.failure-threshold:3}") int failureThreshold) {
+        this.redisTemplate = redisTemplate;
+        this.failureThreshold = failureThreshold;
+
+        Gauge.builder("redis.health.available", this, t -> t.available ? 1 : 0)
+                .description("Redis 사용 가능 여부 (1=가능, 0=차단)")
+                .register(meterRegistry);
+        this.openedCounter = Counter.builder("redis.health.transitions")
+                .tag("to", "unavailable")
+                .register(meterRegistry);
+        this.closedCounter = Counter.builder("redis.health.transitions")
+                .tag("to", "available")
+                .register(meterRegistry);
+        this.commandFailureCounter = Counter.builder("redis.health.failures")
+                .tag("source", "command")
+                .register(meterRegistry);
+        this.probeFailureCounter = Counter.builder("redis.health.failures")
+                .tag("source", "probe")
+                .register(meterRegistry);
+    }
+
+    public boolean isAvailable() {
+        return available;
+    }
+
+    public void recordSuccess() {
+        if (consecutiveFailures.get() != 0) {
+            consecutiveFailures.set(0);
+        }
+    }
+
+    /**
+     * 명령 실패 기록.
+     *
+     * @return 연결/타임아웃 계열 실패이면 true (호출 측은 DB 경로로 폴백), 그 외 예외면 false (그대로 던질 것)
+     */
+    public boolean recordFailure(Throwable e) {
+        if (!isConnectivityFailure(e)) {
+            return false;
+        }
+        commandFailureCounter.increment();
+        if (consecutiveFailures.incrementAndGet() >= failureThreshold) {
+            markUnavailable(e.getMessage());
+        }
+        return true;
+    }
+
+    @Scheduled(fixedDelayString = "${redis.health.probe-interval-ms:2000}")
+    public void probe() {
+        try {
+            String pong = redisTemplate.execute((RedisCallback<String>) RedisConnection::ping);
+            if (pong == null) {
+                throw new RedisConnectionFailureException("PING 응답 없음");
+            }
+            consecutiveFailures.set(0);
+            markAvailable();
+        } catch (Exception e) {
+            probeFailureCounter.increment();
+            consecutiveFailures.incrementAndGet();
+            markUnavailable(e.getMessage());
+        }
+    }
+
+    private void markUnavailable(String reason) {
+        if (available) {
+            available = false;
+            openedCounter.increment();
+            log.warn("[RedisHealth] Redis 사용 불가로 전환: {}", reason);
+        }
+    }
+
+    private void markAvailable() {
+        if (!available) {
+            available = true;
+            closedCounter.increment();
+            log.info("[RedisHealth] Redis 사용 가능으로 복구");
+        }
+    }
+
+    private boolean isConnectivityFailure(Throwable e) {
+        for (Throwable t = e; t != null; t = t.getCause()) {
+            if (t instanceof RedisConnectionFailureException
+                    || t instanceof QueryTimeoutException
+                    || t instanceof RedisConnectionException
+                    || t instanceof RedisTimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
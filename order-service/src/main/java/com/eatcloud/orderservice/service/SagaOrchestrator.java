@@ -8,49 +8,154 @@ import com.eatcloud.orderservice.entity.Order;
 import com.eatcloud.orderservice.event.PointReservationRequestEvent;
 import com.eatcloud.orderservice.event.PointReservationResponseEvent;
 import com.eatcloud.orderservice.event.PointReservationCancelEvent;
-import com.eatcloud.orderservice.event.PointReservationCancelResponseEvent;
 import com.eatcloud.orderservice.event.PaymentRequestEvent;
 import com.eatcloud.orderservice.event.PaymentRequestResponseEvent;
 import com.eatcloud.orderservice.event.PaymentRequestCancelEvent;
-import com.eatcloud.orderservice.event.PaymentRequestCancelResponseEvent;
 import com.eatcloud.orderservice.exception.ErrorCode;
 import com.eatcloud.orderservice.exception.OrderException;
-import com.eatcloud.orderservice.kafka.consumer.PaymentRequestCancelResponseEventConsumer;
 import com.eatcloud.orderservice.kafka.consumer.PaymentRequestResponseEventConsumer;
-import com.eatcloud.orderservice.kafka.consumer.PointReservationCancelResponseEventConsumer;
 import com.eatcloud.orderservice.kafka.consumer.PointReservationResponseEventConsumer;
-
-import lombok.RequiredArgsConstructor;
+import com.eatcloud.orderservice.kafka.reply.PendingReply;
+import com.eatcloud.orderservice.kafka.reply.SagaReplyRegistry;
+import com.eatcloud.orderservice.kafka.reply.SagaReplyTopic;
+import com.eatcloud.orderservice.saga.OrderSaga;
+import com.eatcloud.orderservice.saga.OrderSagaRepository;
+import com.eatcloud.orderservice.saga.SagaCompensation;
+import com.eatcloud.orderservice.saga.SagaStatus;
+import com.eatcloud.orderservice.saga.SagaStep;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
 
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
 import org.springframework.stereotype.Service;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
-import java.util.concurrent.TimeUnit;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.TimeoutException;
-import java.util.stream.Collectors;
-
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Consumer;
+
+/**
+ * 주문 saga 오케스트레이터 (영속 상태 머신).
+ *
+ * 주문 생성 요청은 주문 + saga 행을 한 트랜잭션으로 기록하고 첫 단계를 발행한 뒤 바로 반환한다(202).
+ * 이후 단계는 Kafka 응답/재고 HTTP 결과가 도착할 때마다 짧은 트랜잭션으로 전이한다.
+ * 다른 서비스를 기다리는 동안 요청 스레드나 DB 커넥션을 붙잡지 않는다.
+ *
+ *  RESERVING(포인트 ∥ 재고) → PAYMENT_REQUESTING → INVENTORY_CONFIRMING → DONE
+ *
+ * 서로 의존하지 않는 호출(포인트 예약과 재고 예약)은 동시에 진행한다.
+ * 재고 예약/확정/반납은 라인 수와 무관하게 주문당 HTTP 호출 한 번이다.
+ * 단계별 소요 시간은 order.saga.step{step,outcome} 타이머로 남긴다.
+ *
+ * 실패/타임아웃 시 saga 행에 남아 있는 보상 목록을 역순으로 실행한다.
+ * 인스턴스가 죽어 응답을 놓친 saga 는 {@link com.eatcloud.orderservice.saga.OrderSagaSweeper}가 deadline 기준으로 회수한다.
+ *
+ * saga 행 갱신이 낙관적 락에 걸리면(같은 단계의 병렬 응답이 동시에 보상을 등록하는 경우 등) 행을 다시 읽어
+ * 전이 조건을 다시 확인하고 최대 {@value #MAX_CONFLICT_ATTEMPTS}번까지 재시도한다.
+ */
 @Service
-@RequiredArgsConstructor
 @Slf4j
 public class SagaOrchestrator {
 
-    private final DistributedLockService lockService;
+    private static final int MAX_CONFLICT_ATTEMPTS = 3;
+
     private final CartService cartService;
     private final OrderService orderService;
     private final KafkaTemplate<String, Object> kafkaTemplate;
-    private final PointReservationResponseEventConsumer pointReservationResponseEventConsumer;
-    private final PointReservationCancelResponseEventConsumer pointReservationCancelResponseEventConsumer;
-    private final PaymentRequestResponseEventConsumer paymentRequestResponseEventConsumer;
-    private final PaymentRequestCancelResponseEventConsumer paymentRequestCancelResponseEventConsumer;
+    private final SagaReplyRegistry sagaReplyRegistry;
+    private final SagaReplyTopic sagaReplyTopic;
     private final OutboxService outboxService;
+    private final OrderSagaRepository sagaRepository;
+    private final TransactionTemplate transactionTemplate;
 
     private final ExternalApiService externalApiService;
+    private final MenuValidationService menuValidationService;
+
+    private final Duration stepTimeout;
+    private final Duration compensationTimeout;
+    // 사용자 토큰이 없는 인스턴스(스위퍼 회수)에서 재고 호출에 쓰는 서비스 자격 증명
+    private final String inventoryServiceToken;
+
+    // 단계 실행/응답 후속 처리용. 외부 호출을 기다리는 동안 플랫폼 스레드를 점유하지 않도록 가상 스레드를 쓴다.
+    private final ExecutorService sagaExecutor = Executors.newVirtualThreadPerTaskExecutor();
+
+    private final Map<UUID, SagaRun> runs = new ConcurrentHashMap<>();
+
+    private final MeterRegistry meterRegistry;
+    private final Counter completedCounter;
+    private final Counter failedCounter;
+
+    public SagaOrchestrator(CartService cartService,
+                            OrderService orderService,
+                            KafkaTemplate<String, Object> kafkaTemplate,
+                            SagaReplyRegistry sagaReplyRegistry,
+                            SagaReplyTopic sagaReplyTopic,
+                            OutboxService outboxService,
+                            OrderSagaRepository sagaRepository,
+                            TransactionTemplate transactionTemplate,
+                            ExternalApiService externalApiService,
+                            MenuValidationService menuValidationService,
+                            MeterRegistry meterRegistry,
+                            @Value("${saga.step-timeout-ms:10000}") long stepTimeoutMs,
+                            @Value("${saga.compensation-timeout-ms:30000}") long compensationTimeoutMs,
+                            @Value("${saga.inventory.service-token:}") String inventoryServiceToken) {
+        this.cartService = cartService;
+        this.orderService = orderService;
+        this.kafkaTemplate = kafkaTemplate;
+        this.sagaReplyRegistry = sagaReplyRegistry;
+        this.sagaReplyTopic = sagaReplyTopic;
+        this.outboxService = outboxService;
+        this.sagaRepository = sagaRepository;
+        this.transactionTemplate = transactionTemplate;
+        this.externalApiService = externalApiService;
+        this.menuValidationService = menuValidationService;
+        this.stepTimeout = Duration.ofMillis(stepTimeoutMs);
+        this.compensationTimeout = Duration.ofMillis(compensationTimeoutMs);
+        this.inventoryServiceToken = inventoryServiceToken;
+
+        this.meterRegistry = meterRegistry;
+        this.completedCounter = Counter.builder("order.saga.finished")
+                .tag("outcome", "completed")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("order.saga.finished")
+                .tag("outcome", "failed")
+                .register(meterRegistry);
+    }
+
+    /**
+     * 이 인스턴스에서 진행 중인 saga 의 메모리 상태.
+     * 재고 HTTP 호출에 쓸 사용자 토큰은 자격 증명이라 DB에 저장하지 않고 여기에만 둔다.
+     */
+    private static final class SagaRun {
+        private final String bearer;
+        // 보상으로 전환되면 true: 아직 시작하지 않은 재고 호출은 건너뛴다
+        private final AtomicBoolean aborted = new AtomicBoolean();
+        // 진행 중인 재고 예약 호출. 재고 반납 보상은 이것이 끝난 뒤 실행한다
+        private volatile CompletableFuture<Void> inventoryBranch = CompletableFuture.completedFuture(null);
+
+        private SagaRun(String bearer) {
+            this.bearer = bearer;
+        }
+    }
 
     /** orderId, menuId, index로 결정적 라인ID 생성 (UUID v5 스타일) */
     private UUID deriveLineId(UUID orderId, UUID menuId, int index) {
@@ -58,335 +163,569 @@ public class SagaOrchestrator {
         return UUID.nameUUIDFromBytes(seed.getBytes(StandardCharsets.UTF_8));
     }
 
-    @Transactional
+    /**
+     * 주문을 접수하고 saga 를 시작한다. 외부 서비스 응답을 기다리지 않는다.
+     * 진행 상황은 반환된 statusUrl 로 조회한다.
+     */
     public CreateOrderResponse createOrderSaga(UUID customerId, CreateOrderRequest request, String authorizationHeader) {
-        log.info("=== createOrderSaga called ===");
-        log.info("customerId: {}, storeId: {}, authorizationHeader: {}", customerId, request.getStoreId(), authorizationHeader != null ? "present" : "null");
-        
-        String sagaId = UUID.randomUUID().toString();
-        Saga saga = new Saga(sagaId);
-        
-        try {
-            log.info("Starting order saga: sagaId={}, customerId={}, storeId={}", sagaId, customerId, request.getStoreId());
+        UUID sagaId = UUID.randomUUID();
+        log.info("Starting order saga: sagaId={}, customerId={}, storeId={}", sagaId, customerId, request.getStoreId());
 
-            String lockKey = "order:create:" + customerId;
-            if (!lockService.tryLock(lockKey, 5, TimeUnit.SECONDS)) {
-                throw new OrderException(ErrorCode.ORDER_PROCESSING, "다른 주문이 진행 중입니다.");
-            }
-            
-            try {
-                log.info("Step 1: Fetching cart items for customer: {}", customerId);
-                List<CartItem> cartItems = cartService.getCart(customerId);
-                log.info("Cart items retrieved: count={}, items={}", cartItems.size(), cartItems);
-                
-                if (cartItems.isEmpty()) {
-                    throw new OrderException(ErrorCode.EMPTY_CART, "장바구니가 비어있습니다.");
-                }
+        // 중복 요청/동시 주문은 컨트롤러의 OrderIdempotencyService 에서 걸러진다
+        List<CartItem> cartItems = cartService.getCart(customerId);
+        if (cartItems.isEmpty()) {
+            throw new OrderException(ErrorCode.EMPTY_CART, "장바구니가 비어있습니다.");
+        }
 
-                log.info("Step 2: Converting cart items to order menu");
-                List<OrderMenu> orderMenuList = cartItems.stream()
-                    .map(item -> OrderMenu.builder()
-                        .menuId(item.getMenuId())
-                        .menuName(item.getMenuName())
-                        .quantity(item.getQuantity())
-                        .price(item.getPrice())
-                        .build())
-                    .collect(Collectors.toList());
-                log.info("OrderMenuList created: size={}, items={}", orderMenuList.size(), orderMenuList);
-                
-                // 메뉴 가격 검증
-
-                log.info("Step 4: Creating order");
-                Order order = orderService.createPendingOrder(
+        List<OrderMenu> orderMenuList = menuValidationService.validateAndPrice(
+                request.getStoreId(), cartItems, authorizationHeader);
+
+        Order[] created = new Order[1];
+        OrderSaga saga = transactionTemplate.execute(status -> {
+            Order pending = orderService.createPendingOrder(
                     customerId,
                     request.getStoreId(),
                     orderMenuList,
                     request.getOrderType(),
                     request.getUsePoints(),
                     request.getPointsToUse()
-                );
-                log.info("Order created: orderId={}, orderMenuList size={}", order.getOrderId(), order.getOrderMenuList() != null ? order.getOrderMenuList().size() : "null");
-
-                // Outbox: OrderCreatedEvent 저장
-                try {
-                    com.eatcloud.orderservice.event.OrderCreatedEvent createdEvent =
-                            com.eatcloud.orderservice.event.OrderCreatedEvent.builder()
-                                    .orderId(order.getOrderId())
-                                    .customerId(order.getCustomerId())
-                                    .storeId(order.getStoreId())
-                                    .totalAmount(order.getTotalPrice())
-                                    .finalAmount(order.getFinalPaymentAmount())
-                                    .pointsToUse(order.getPointsToUse())
-                                    .orderItems(orderMenuList.stream()
-                                            .map(m -> com.eatcloud.orderservice.event.OrderCreatedEvent.OrderItemEvent.builder()
-                                                    .menuId(m.getMenuId())
-                                                    .menuName(m.getMenuName())
-                                                    .quantity(m.getQuantity())
-                                                    .unitPrice(m.getPrice())
-                                                    .build())
-                                            .collect(java.util.stream.Collectors.toList()))
-                                    .build();
-
-                    outboxService.saveEvent(
-                            "Order",
-                            order.getOrderId().toString(),
-                            "OrderCreatedEvent",
-                            createdEvent,
-                            outboxService.defaultHeaders(null, sagaId)
-                    );
-                    log.info("OrderCreatedEvent Outbox 기록 완료: orderId={}", order.getOrderId());
-                } catch (Exception e) {
-                    log.error("OrderCreatedEvent Outbox 기록 실패: orderId={}", order.getOrderId(), e);
-                }
+            );
+            recordOrderCreated(pending, orderMenuList, sagaId);
+
+            OrderSaga started = OrderSaga.start(sagaId, pending, SagaStep.RESERVING,
+                    sagaReplyTopic.getName(), stepDeadline());
+            started.owe(SagaCompensation.CANCEL_ORDER);
+            // 재고 예약은 포인트와 동시에 진행되므로 시작 전에 반납 보상을 걸어 둔다 (반납은 멱등)
+            started.owe(SagaCompensation.RETURN_INVENTORY);
+            created[0] = pending;
+            return sagaRepository.save(started);
+        });
+        Order order = created[0];
+
+        runs.put(sagaId, new SagaRun(authorizationHeader));
+        runStep(saga);
+
+        log.info("Order saga accepted: sagaId={}, orderId={}, firstStep={}", sagaId, order.getOrderId(), saga.getStep());
+
+        return CreateOrderResponse.builder()
+                .orderId(order.getOrderId())
+                .orderNumber(order.getOrderNumber())
+                .totalPrice(order.getTotalPrice())
+                .finalPaymentAmount(order.getFinalPaymentAmount())
+                .orderStatus(order.getOrderStatusCode().getCode())
+                .sagaId(sagaId)
+                .statusUrl("/api/v1/orders/" + order.getOrderId() + "/saga")
+                .message("주문이 접수되었습니다. 진행 상태는 statusUrl 로 확인하세요.")
+                .build();
+    }
 
-                saga.addCompensation("Cancel Order",
-                    () -> orderService.cancelOrder(order.getOrderId(), "Saga 실패로 인한 취소"));
+    public OrderSaga getSagaByOrderId(UUID orderId) {
+        return sagaRepository.findByOrderId(orderId)
+                .orElseThrow(() -> new OrderException(ErrorCode.ORDER_NOT_FOUND));
+    }
 
-                if (Boolean.TRUE.equals(request.getUsePoints()) && request.getPointsToUse() > 0) {
-                    log.info("Step 5: Reserving points: {} points", request.getPointsToUse());
-                    String reservationId = reserveCustomerPointsAsync(customerId, order.getOrderId(), request.getPointsToUse(), sagaId);
+    private void recordOrderCreated(Order order, List<OrderMenu> orderMenuList, UUID sagaId) {
+        try {
+            com.eatcloud.orderservice.event.OrderCreatedEvent createdEvent =
+                    com.eatcloud.orderservice.event.OrderCreatedEvent.builder()
+                            .orderId(order.getOrderId())
+                            .customerId(order.getCustomerId())
+                            .storeId(order.getStoreId())
+                            .totalAmount(order.getTotalPrice())
+                            .finalAmount(order.getFinalPaymentAmount())
+                            .pointsToUse(order.getPointsToUse())
+                            .orderItems(orderMenuList.stream()
+                                    .map(m -> com.eatcloud.orderservice.event.OrderCreatedEvent.OrderItemEvent.builder()
+                                            .menuId(m.getMenuId())
+                                            .menuName(m.getMenuName())
+                                            .quantity(m.getQuantity())
+                                            .unitPrice(m.getPrice())
+                                            .build())
+                                    .collect(java.util.stream.Collectors.toList()))
+                            .build();
+
+            outboxService.saveEvent(
+                    "Order",
+                    order.getOrderId().toString(),
+                    "OrderCreatedEvent",
+                    createdEvent,
+                    outboxService.defaultHeaders(null, sagaId.toString())
+            );
+            log.info("OrderCreatedEvent Outbox 기록 완료: orderId={}", order.getOrderId());
+        } catch (Exception e) {
+            log.error("OrderCreatedEvent Outbox 기록 실패: orderId={}", order.getOrderId(), e);
+        }
+    }
 
-                    saga.addCompensation("Cancel Point Reservation",
-                        () -> cancelPointReservationAsync(customerId, order.getOrderId(), sagaId));
-                }
+    // ------------------------------------------------------------------
+    // 단계 실행
+    // ------------------------------------------------------------------
 
-                // === [INSERT #1] 라인별 재고 예약 Try-Fast (실패해도 주문은 계속 진행) ===
-                for (int i = 0; i < order.getOrderMenuList().size(); i++) {
-                    var line = order.getOrderMenuList().get(i);
+    private void runStep(OrderSaga saga) {
+        switch (saga.getStep()) {
+            case RESERVING -> startReservations(saga);
+            case PAYMENT_REQUESTING -> requestPayment(saga);
+            case INVENTORY_CONFIRMING -> confirmInventory(saga);
+            case DONE -> { }
+        }
+    }
 
-                    UUID menuId = line.getMenuId();
-                    int  qty    = line.getQuantity() != null ? line.getQuantity() : 0;
+    /**
+     * 포인트 예약과 재고 예약을 동시에 시작하고, 모두 성공하면 결제 요청으로 넘어간다.
+     * 어느 한쪽이 실패하면 즉시 보상으로 전환한다(fail-fast).
+     */
+    private void startReservations(OrderSaga saga) {
+        UUID sagaId = saga.getSagaId();
+        SagaRun run = run(sagaId);
+        long started = System.nanoTime();
+
+        // 재고 쪽을 먼저 등록해 둬야 포인트가 즉시 실패해도 반납 보상이 진행 중인 예약을 기다린다
+        CompletableFuture<Void> inventory = reserveInventory(saga, run);
+        run.inventoryBranch = inventory;
+        CompletableFuture<Void> points = saga.getPointsToUse() > 0
+                ? reservePoints(saga)
+                : CompletableFuture.completedFuture(null);
+
+        CompletableFuture.allOf(points, inventory).whenCompleteAsync((ignored, ex) -> {
+            recordStep("reserve", started, ex == null);
+            if (ex == null) {
+                advance(sagaId, SagaStep.RESERVING, s -> s.moveTo(SagaStep.PAYMENT_REQUESTING, stepDeadline()));
+            }
+        }, sagaExecutor);
+    }
 
-                    // ✅ 결정적 라인ID 생성 (orderId, menuId, index 기반)
-                    UUID lineId = deriveLineId(order.getOrderId(), menuId, i);
+    private CompletableFuture<Void> reservePoints(OrderSaga saga) {
+        UUID sagaId = saga.getSagaId();
+        long started = System.nanoTime();
+        PendingReply<PointReservationResponseEvent> reply = sagaReplyRegistry.register(
+                PointReservationResponseEventConsumer.REPLY_TYPE, sagaId.toString(),
+                PointReservationResponseEvent.class, stepTimeout);
+
+        PointReservationRequestEvent requestEvent = PointReservationRequestEvent.builder()
+                .orderId(saga.getOrderId())
+                .customerId(saga.getCustomerId())
+                .points(saga.getPointsToUse())
+                .sagaId(sagaId.toString())
+                .replyTo(reply.getReplyTo())
+                .correlationId(reply.getCorrelationId())
+                .build();
+
+        CompletableFuture<Void> done = reply.stage().<Void>handleAsync((response, ex) -> {
+            boolean success = ex == null && response.isSuccess();
+            recordStep("points.reserve", started, success);
+            if (!success) {
+                compensate(sagaId, SagaStep.RESERVING, "포인트 예약 실패: " + failureMessage(response, ex));
+                throw new CompletionException(new IllegalStateException("포인트 예약 실패"));
+            }
+            log.info("포인트 예약 성공: sagaId={}, reservationId={}", sagaId, response.getReservationId());
+            if (advance(sagaId, SagaStep.RESERVING, s -> s.owe(SagaCompensation.CANCEL_POINTS)) == null) {
+                // 재고 쪽 실패로 이미 보상이 시작된 뒤 도착한 성공 응답: 예약된 포인트를 바로 되돌린다
+                sendPointReservationCancel(saga);
+                throw new CompletionException(new IllegalStateException("saga 가 이미 보상 중"));
+            }
+            return null;
+        }, sagaExecutor).toCompletableFuture();
 
-                    boolean reserved = externalApiService.reserveInventory(
-                            order.getOrderId(), lineId, menuId, qty, authorizationHeader);
+        sendRequest("point.reservation.request", saga.getOrderId(), requestEvent, reply);
+        log.info("포인트 예약 요청 이벤트 발행: customerId={}, orderId={}, points={}, sagaId={}",
+                saga.getCustomerId(), saga.getOrderId(), saga.getPointsToUse(), sagaId);
+        return done;
+    }
 
-                    if (!reserved) {
-                        try {
-                            // 선택: 표시만 PENDING_STOCK로 (메서드 없으면 생략 가능)
-//                            orderService.markLineStockPending(lineId);
-                        } catch (Exception ignore) {
-                            log.info("markLineStockPending not available; continue. lineId={}", lineId);
-                        }
-                        log.info("Inventory reserve pending/failed. lineId={} menuId={} qty={}", lineId, menuId, qty);
-                    }
+    // 주문의 모든 라인을 한 번에 all-or-nothing 예약. 재고 부족이나 통신 실패면 보상으로 전환한다.
+    // 통신 실패라도 스토어에 예약이 들어갔을 수 있으므로 반납 보상(멱등)이 이를 되돌린다
+    private CompletableFuture<Void> reserveInventory(OrderSaga saga, SagaRun run) {
+        UUID sagaId = saga.getSagaId();
+        UUID orderId = saga.getOrderId();
+        long started = System.nanoTime();
 
-                    // 보상 등록: 확정 이후 문제 생기면 반납
-                    saga.addCompensation("Return Inventory after confirm",
-                            () -> externalApiService.cancelInventoryAfterConfirm(
-                                    lineId, "SAGA_COMPENSATION", authorizationHeader));
-                }
-// === [INSERT #1] 끝 ===
+        return CompletableFuture.runAsync(() -> {
+            if (run.aborted.get()) {
+                return;
+            }
+            List<OrderMenu> lines = orderLines(orderId);
+            List<ExternalApiService.ReserveLineReq> reqs = new ArrayList<>(lines.size());
+            for (int i = 0; i < lines.size(); i++) {
+                OrderMenu line = lines.get(i);
+                int qty = line.getQuantity() != null ? line.getQuantity() : 0;
+                reqs.add(new ExternalApiService.ReserveLineReq(deriveLineId(orderId, line.getMenuId(), i), line.getMenuId(), qty));
+            }
 
+            ExternalApiService.BatchReserveRes res = externalApiService.reserveInventoryBatch(orderId, reqs, inventoryBearer(run));
+            if (res == null) {
+                throw new IllegalStateException("재고 예약 응답 없음 (통신 실패)");
+            }
+            if (!res.isReserved()) {
+                throw new IllegalStateException("재고 부족: " + res.getInsufficientMenuIds());
+            }
+        }, sagaExecutor).whenComplete((ignored, ex) -> {
+            recordStep("inventory.reserve", started, ex == null);
+            if (ex != null) {
+                compensate(sagaId, SagaStep.RESERVING, "재고 예약 실패: " + failureMessage(null, ex));
+            }
+        });
+    }
 
+    private void requestPayment(OrderSaga saga) {
+        UUID sagaId = saga.getSagaId();
+        long started = System.nanoTime();
+        PendingReply<PaymentRequestResponseEvent> reply = sagaReplyRegistry.register(
+                PaymentRequestResponseEventConsumer.REPLY_TYPE, sagaId.toString(),
+                PaymentRequestResponseEvent.class, stepTimeout);
+
+        PaymentRequestEvent requestEvent = PaymentRequestEvent.builder()
+                .orderId(saga.getOrderId())
+                .customerId(saga.getCustomerId())
+                .amount(saga.getPaymentAmount())
+                .sagaId(sagaId.toString())
+                .replyTo(reply.getReplyTo())
+                .correlationId(reply.getCorrelationId())
+                .build();
+
+        reply.stage().whenCompleteAsync((response, ex) -> {
+            boolean success = ex == null && response.isSuccess();
+            recordStep("payment.request", started, success);
+            if (!success) {
+                compensate(sagaId, SagaStep.PAYMENT_REQUESTING, "결제 요청 실패: " + failureMessage(response, ex));
+                return;
+            }
+            log.info("결제 요청 성공: sagaId={}, paymentUrl={}", sagaId, response.getPaymentUrl());
+            advance(sagaId, SagaStep.PAYMENT_REQUESTING, s -> {
+                s.recordPaymentUrl(response.getPaymentUrl());
+                s.owe(SagaCompensation.CANCEL_PAYMENT);
+                s.moveTo(SagaStep.INVENTORY_CONFIRMING, stepDeadline());
+            });
+        }, sagaExecutor);
+
+        sendRequest("payment.request", saga.getOrderId(), requestEvent, reply);
+        log.info("결제 요청 이벤트 발행: orderId={}, customerId={}, amount={}, sagaId={}",
+                saga.getOrderId(), saga.getCustomerId(), saga.getPaymentAmount(), sagaId);
+    }
 
-                log.info("Step 6: Creating payment request");
-                String paymentUrl = createPaymentRequestAsync(order.getOrderId(), customerId, order.getFinalPaymentAmount(), sagaId);
+    // 결제요청 성공 → 주문 라인 일괄 confirm (실패해도 주문 흐름은 계속, 스토어는 멱등 처리 + TTL)
+    private void confirmInventory(OrderSaga saga) {
+        UUID sagaId = saga.getSagaId();
+        SagaRun run = run(sagaId);
+        long started = System.nanoTime();
 
-                saga.addCompensation("Cancel Payment Request",
-                    () -> cancelPaymentRequestAsync(order.getOrderId(), sagaId));
+        CompletableFuture.runAsync(() -> {
+            if (run.aborted.get()) {
+                return;
+            }
+            List<UUID> lineIds = lineIds(saga.getOrderId());
+            if (!externalApiService.confirmInventoryBatch(lineIds, inventoryBearer(run))) {
+                log.warn("Confirm failed (will rely on compensation or TTL) orderId={} lines={}", saga.getOrderId(), lineIds.size());
+            }
+        }, sagaExecutor).whenCompleteAsync((ignored, ex) -> {
+            recordStep("inventory.confirm", started, ex == null);
+            if (ex != null) {
+                compensate(sagaId, SagaStep.INVENTORY_CONFIRMING, "재고 확정 실패: " + failureMessage(null, ex));
+                return;
+            }
 
-                /* === [INSERT #2] 결제요청 성공 → 라인별 재고 confirm 시도 === */
-                for (int i = 0; i < order.getOrderMenuList().size(); i++) {
-                    var line = order.getOrderMenuList().get(i);
-                    UUID menuId = line.getMenuId();
-                    UUID lineId = deriveLineId(order.getOrderId(), menuId, i);
+            OrderSaga done = advance(sagaId, SagaStep.INVENTORY_CONFIRMING, OrderSaga::complete);
+            if (done != null) {
+                runs.remove(sagaId);
+                completedCounter.increment();
+                recordSagaDuration(done, "completed");
+                log.info("Order saga completed successfully: sagaId={}, orderId={}, paymentUrl={}",
+                        sagaId, done.getOrderId(), done.getPaymentUrl());
+            }
+        }, sagaExecutor);
+    }
 
-                    boolean ok = externalApiService.confirmInventory(lineId, authorizationHeader);
-                    if (!ok) {
-                        log.warn("Confirm failed (will rely on compensation or TTL) lineId={}", lineId);
-                        // 실패해도 주문 흐름은 계속. 스토어는 멱등 처리 + TTL/보상 이벤트로 수습.
-                    }
+    /**
+     * 기대 단계에 있는 saga 만 전이시키고, 다음 단계가 있으면 실행한다.
+     * 이미 다른 경로(타임아웃/스위퍼)가 전이시킨 saga 면 null.
+     */
+    private OrderSaga advance(UUID sagaId, SagaStep expected, Consumer<OrderSaga> transition) {
+        OrderSaga saved;
+        try {
+            saved = executeRetryingConflicts(sagaId, "advance:" + expected, status -> {
+                OrderSaga saga = sagaRepository.findById(sagaId).orElse(null);
+                if (saga == null || !saga.isAt(expected)) {
+                    log.info("saga 전이 생략 (이미 처리됨): sagaId={}, expected={}, current={}/{}", sagaId, expected,
+                            saga != null ? saga.getStatus() : null, saga != null ? saga.getStep() : null);
+                    return null;
+                }
+                transition.accept(saga);
+                return sagaRepository.save(saga);
+            });
+        } catch (ObjectOptimisticLockingFailureException e) {
+            log.warn("saga 전이 충돌이 재시도 후에도 계속됨, deadline 후 스위퍼가 회수: sagaId={}, expected={}", sagaId, expected);
+            return null;
+        } catch (Exception e) {
+            log.error("saga 전이 실패: sagaId={}, expected={}", sagaId, expected, e);
+            compensate(sagaId, expected, "saga 전이 실패: " + e.getMessage());
+            return null;
+        }
 
-                    // 보상은 이미 위쪽에서 "Return Inventory after confirm" 등록되어 있음
-                    // cancelInventoryAfterConfirm(...) 호출이 등록되어 있으니 실패시 보상으로 롤백됨.
+        // 단계가 바뀐 경우에만 다음 단계 실행 (보상 등록만 한 전이는 제외)
+        if (saved != null && saved.getStatus() == SagaStatus.RUNNING && saved.getStep() != expected) {
+            runStep(saved);
+        }
+        return saved;
+    }
+
+    // ------------------------------------------------------------------
+    // 보상
+    // ------------------------------------------------------------------
+
+    /**
+     * 실행 중인 saga 를 보상 상태로 전환하고 남은 보상을 실행한다.
+     *
+     * @param expected null 이면 단계와 무관하게 RUNNING 이면 전환 (스위퍼용)
+     */
+    public void compensate(UUID sagaId, SagaStep expected, String reason) {
+        SagaRun run = runs.get(sagaId);
+        if (run != null) {
+            run.aborted.set(true);
+        }
+
+        OrderSaga saga;
+        try {
+            saga = executeRetryingConflicts(sagaId, "compensate", status -> {
+                OrderSaga current = sagaRepository.findById(sagaId).orElse(null);
+                if (current == null || current.getStatus() != SagaStatus.RUNNING
+                        || (expected != null && current.getStep() != expected)) {
+                    return null;
                 }
-                /* === [INSERT #2] 끝 === */
+                current.startCompensating(reason, compensationDeadline());
+                return sagaRepository.save(current);
+            });
+        } catch (ObjectOptimisticLockingFailureException e) {
+            log.warn("saga 보상 전환 충돌이 재시도 후에도 계속됨, deadline 후 스위퍼가 회수: sagaId={}", sagaId);
+            return;
+        }
+        if (saga == null) {
+            return;
+        }
 
-                saga.clearCompensations();
+        log.warn("=== Order saga failed === sagaId={}, step={}, reason={}", sagaId, saga.getStep(), reason);
+        sagaExecutor.execute(() -> runCompensations(saga));
+    }
 
-                log.info("Order saga completed successfully: orderId={}, paymentUrl={}", order.getOrderId(), paymentUrl);
+    /**
+     * 보상 중 멈춘 saga 를 이 인스턴스가 가져와 남은 보상을 이어서 실행한다 (스위퍼용).
+     */
+    public void resumeCompensation(UUID sagaId) {
+        OrderSaga saga;
+        try {
+            saga = executeRetryingConflicts(sagaId, "resumeCompensation", status -> {
+                OrderSaga current = sagaRepository.findById(sagaId).orElse(null);
+                if (current == null || current.getStatus() != SagaStatus.COMPENSATING) {
+                    return null;
+                }
+                current.claim(sagaReplyTopic.getName(), compensationDeadline());
+                return sagaRepository.save(current);
+            });
+        } catch (ObjectOptimisticLockingFailureException e) {
+            log.warn("saga 보상 재개 충돌이 재시도 후에도 계속됨: sagaId={}", sagaId);
+            return;
+        }
+        if (saga != null) {
+            log.info("멈춘 saga 보상 재개: sagaId={}, owed={}", sagaId, saga.getPendingCompensations());
+            sagaExecutor.execute(() -> runCompensations(saga));
+        }
+    }
 
-                return CreateOrderResponse.builder()
-                    .orderId(order.getOrderId())
-                    .orderNumber(order.getOrderNumber())
-                    .totalPrice(order.getTotalPrice())
-                    .finalPaymentAmount(order.getFinalPaymentAmount())
-                    .orderStatus(order.getOrderStatusCode().getCode())
-                    .paymentUrl(paymentUrl)
-                    .message("주문이 생성되었습니다.")
-                    .build();
+    private void runCompensations(OrderSaga saga) {
+        UUID sagaId = saga.getSagaId();
+        List<SagaCompensation> owed = saga.owedInReverse();
+        log.info("보상 로직 실행 시작: sagaId={}, owed={}", sagaId, owed);
 
-            } finally {
-                lockService.unlock(lockKey);
+        for (SagaCompensation compensation : owed) {
+            try {
+                runCompensation(saga, compensation);
+                settle(sagaId, compensation);
+                log.info("보상 로직 실행 완료: sagaId={}, compensation={}", sagaId, compensation);
+            } catch (Exception e) {
+                // 남은 보상은 saga 행에 그대로 남고, deadline 이 지나면 스위퍼가 다시 시도한다
+                log.error("보상 로직 실행 실패: sagaId={}, compensation={}", sagaId, compensation, e);
+                return;
             }
-        } catch (Exception e) {
-            log.error("=== Order saga failed ===");
-            log.error("Exception type: {}, message: {}", e.getClass().getSimpleName(), e.getMessage());
+        }
 
-            saga.executeCompensations();
-            throw e;
+        try {
+            executeRetryingConflicts(sagaId, "fail", status -> {
+                sagaRepository.findById(sagaId).ifPresent(s -> {
+                    s.fail();
+                    sagaRepository.save(s);
+                });
+                return null;
+            });
+            failedCounter.increment();
+            recordSagaDuration(saga, "failed");
+        } catch (ObjectOptimisticLockingFailureException e) {
+            log.warn("saga 실패 기록 충돌이 재시도 후에도 계속됨: sagaId={}", sagaId);
+        } finally {
+            runs.remove(sagaId);
         }
     }
 
-    private String reserveCustomerPointsAsync(UUID customerId, UUID orderId, Integer points, String sagaId) {
-        try {
-            PointReservationRequestEvent requestEvent = PointReservationRequestEvent.builder()
-                    .orderId(orderId)
-                    .customerId(customerId)
-                    .points(points)
-                    .sagaId(sagaId)
-                    .build();
-            
-            kafkaTemplate.send("point.reservation.request", orderId.toString(), requestEvent);
-            log.info("포인트 예약 요청 이벤트 발행: customerId={}, orderId={}, points={}, sagaId={}", 
-                    customerId, orderId, points, sagaId);
-
-            CompletableFuture<PointReservationResponseEvent> responseFuture = 
-                    pointReservationResponseEventConsumer.waitForResponse(sagaId);
-            
-            PointReservationResponseEvent response = responseFuture.get(10, TimeUnit.SECONDS);
-            
-            if (response.isSuccess()) {
-                log.info("포인트 예약 성공: customerId={}, orderId={}, points={}, reservationId={}", 
-                        customerId, orderId, points, response.getReservationId());
-                return response.getReservationId();
-            } else {
-                throw new RuntimeException("포인트 예약 실패: " + response.getErrorMessage());
-            }
-        } catch (TimeoutException e) {
-            log.warn("포인트 예약 타임아웃: customerId={}, orderId={}, points={}", 
-                    customerId, orderId, points);
-            throw new RuntimeException("포인트 예약 요청이 시간 초과되었습니다");
-        } catch (Exception e) {
-            log.error("포인트 예약 실패: customerId={}, orderId={}, points={}", 
-                     customerId, orderId, points);
-            throw new RuntimeException("포인트 예약에 실패했습니다: " + e.getMessage());
+    private void runCompensation(OrderSaga saga, SagaCompensation compensation) {
+        switch (compensation) {
+            case CANCEL_ORDER -> orderService.cancelOrder(saga.getOrderId(), "Saga 실패로 인한 취소");
+            case CANCEL_POINTS -> sendPointReservationCancel(saga);
+            case CANCEL_PAYMENT -> sendPaymentRequestCancel(saga);
+            case RETURN_INVENTORY -> returnInventory(saga);
         }
     }
 
-    private void cancelPointReservationAsync(UUID customerId, UUID orderId, String sagaId) {
-        try {
-            PointReservationCancelEvent cancelEvent = PointReservationCancelEvent.builder()
-                    .orderId(orderId)
-                    .customerId(customerId)
-                    .sagaId(sagaId)
-                    .build();
-            
-            kafkaTemplate.send("point.reservation.cancel", orderId.toString(), cancelEvent);
-            log.info("포인트 예약 취소 이벤트 발행: customerId={}, orderId={}, sagaId={}", 
-                    customerId, orderId, sagaId);
-
-            CompletableFuture<PointReservationCancelResponseEvent> responseFuture = 
-                    pointReservationCancelResponseEventConsumer.waitForResponse(sagaId);
-            
-            PointReservationCancelResponseEvent response = responseFuture.get(5, TimeUnit.SECONDS);
-            
-            if (response.isSuccess()) {
-                log.info("포인트 예약 취소 성공: customerId={}, orderId={}", customerId, orderId);
-            } else {
-                log.error("포인트 예약 취소 실패: customerId={}, orderId={}, error={}", 
-                        customerId, orderId, response.getErrorMessage());
+    private void settle(UUID sagaId, SagaCompensation compensation) {
+        executeRetryingConflicts(sagaId, "settle:" + compensation, status -> {
+            sagaRepository.findById(sagaId).ifPresent(s -> {
+                s.settle(compensation);
+                sagaRepository.save(s);
+            });
+            return null;
+        });
+    }
+
+    /**
+     * saga 행을 읽고 고치는 트랜잭션 실행. 낙관적 락 충돌이면 콜백을 처음부터(행을 다시 읽어) 재실행한다.
+     * 콜백은 읽은 행으로 전이 조건을 다시 확인해야 한다. 재시도를 다 쓰면 마지막 충돌 예외를 던진다.
+     */
+    private <T> T executeRetryingConflicts(UUID sagaId, String action, TransactionCallback<T> callback) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return transactionTemplate.execute(callback);
+            } catch (ObjectOptimisticLockingFailureException e) {
+                if (attempt >= MAX_CONFLICT_ATTEMPTS) {
+                    throw e;
+                }
+                log.info("saga 동시 수정 충돌 → 다시 읽고 재시도: sagaId={}, action={}, attempt={}", sagaId, action, attempt);
             }
-        } catch (TimeoutException e) {
-            log.warn("포인트 예약 취소 타임아웃: customerId={}, orderId={}", customerId, orderId);
-        } catch (Exception e) {
-            log.error("포인트 예약 취소 실패: customerId={}, orderId={}", customerId, orderId);
         }
     }
 
-    private String createPaymentRequestAsync(UUID orderId, UUID customerId, Integer amount, String sagaId) {
-        try {
-            PaymentRequestEvent requestEvent = PaymentRequestEvent.builder()
-                    .orderId(orderId)
-                    .customerId(customerId)
-                    .amount(amount)
-                    .sagaId(sagaId)
-                    .build();
-            
-            kafkaTemplate.send("payment.request", orderId.toString(), requestEvent);
-            log.info("결제 요청 이벤트 발행: orderId={}, customerId={}, amount={}, sagaId={}", 
-                    orderId, customerId, amount, sagaId);
-
-            CompletableFuture<PaymentRequestResponseEvent> responseFuture = 
-                    paymentRequestResponseEventConsumer.waitForResponse(sagaId);
-            
-            PaymentRequestResponseEvent response = responseFuture.get(10, TimeUnit.SECONDS);
-            
-            if (response.isSuccess()) {
-                log.info("결제 요청 성공: orderId={}, customerId={}, amount={}, paymentUrl={}", 
-                        orderId, customerId, amount, response.getPaymentUrl());
-                return response.getPaymentUrl();
-            } else {
-                throw new RuntimeException("결제 요청 실패: " + response.getErrorMessage());
+    // 보상 응답은 기다리지 않는다 (응답 컨슈머에서 로그만 남김)
+    private void sendPointReservationCancel(OrderSaga saga) {
+        PointReservationCancelEvent cancelEvent = PointReservationCancelEvent.builder()
+                .orderId(saga.getOrderId())
+                .customerId(saga.getCustomerId())
+                .sagaId(saga.getSagaId().toString())
+                .build();
+        kafkaTemplate.send("point.reservation.cancel", saga.getOrderId().toString(), cancelEvent);
+        log.info("포인트 예약 취소 이벤트 발행: customerId={}, orderId={}, sagaId={}",
+                saga.getCustomerId(), saga.getOrderId(), saga.getSagaId());
+    }
+
+    private void sendPaymentRequestCancel(OrderSaga saga) {
+        PaymentRequestCancelEvent cancelEvent = PaymentRequestCancelEvent.builder()
+                .orderId(saga.getOrderId())
+                .sagaId(saga.getSagaId().toString())
+                .build();
+        kafkaTemplate.send("payment.request.cancel", saga.getOrderId().toString(), cancelEvent);
+        log.info("결제 요청 취소 이벤트 발행: orderId={}, sagaId={}", saga.getOrderId(), saga.getSagaId());
+    }
+
+    // 반납이 거절/실패하면 예외로 보상을 남겨 두고, deadline 이 지나면 스위퍼가 다시 시도한다
+    private void returnInventory(OrderSaga saga) {
+        SagaRun run = runs.get(saga.getSagaId());
+        String bearer = inventoryBearer(run);
+        if (run != null) {
+            // 진행 중인 예약 호출이 끝난 뒤 반납해야 반납 후 예약되는 라인이 생기지 않는다
+            try {
+                run.inventoryBranch.get(stepTimeout.toMillis(), TimeUnit.MILLISECONDS);
+            } catch (Exception ignore) {
+                log.debug("재고 예약 호출 대기 종료: sagaId={}", saga.getSagaId());
             }
-        } catch (TimeoutException e) {
-            log.warn("결제 요청 타임아웃: orderId={}, customerId={}, amount={}", 
-                    orderId, customerId, amount);
-            throw new RuntimeException("결제 요청이 시간 초과되었습니다");
-        } catch (Exception e) {
-            log.error("결제 요청 실패: orderId={}, customerId={}, amount={}", 
-                     orderId, customerId, amount);
-            throw new RuntimeException("결제 요청에 실패했습니다: " + e.getMessage());
+        }
+        if (!externalApiService.cancelInventoryBatch(lineIds(saga.getOrderId()), "SAGA_COMPENSATION", bearer)) {
+            throw new IllegalStateException("재고 반납 실패: orderId=" + saga.getOrderId());
         }
     }
 
-    private void cancelPaymentRequestAsync(UUID orderId, String sagaId) {
-        try {
-            PaymentRequestCancelEvent cancelEvent = PaymentRequestCancelEvent.builder()
-                    .orderId(orderId)
-                    .sagaId(sagaId)
-                    .build();
-            
-            kafkaTemplate.send("payment.request.cancel", orderId.toString(), cancelEvent);
-            log.info("결제 요청 취소 이벤트 발행: orderId={}, sagaId={}", orderId, sagaId);
-
-            CompletableFuture<PaymentRequestCancelResponseEvent> responseFuture = 
-                    paymentRequestCancelResponseEventConsumer.waitForResponse(sagaId);
-            
-            PaymentRequestCancelResponseEvent response = responseFuture.get(5, TimeUnit.SECONDS);
-            
-            if (response.isSuccess()) {
-                log.info("결제 요청 취소 성공: orderId={}", orderId);
-            } else {
-                log.error("결제 요청 취소 실패: orderId={}, error={}", orderId, response.getErrorMessage());
-            }
-        } catch (TimeoutException e) {
-            log.warn("결제 요청 취소 타임아웃: orderId={}", orderId);
-        } catch (Exception e) {
-            log.error("결제 요청 취소 실패: orderId={}", orderId);
+    /**
+     * 재고 HTTP 호출에 쓸 토큰. 이 인스턴스가 시작한 saga 면 사용자 토큰,
+     * 스위퍼가 회수한 saga 처럼 사용자 토큰이 없으면 서비스 자격 증명을 쓴다.
+     */
+    private String inventoryBearer(SagaRun run) {
+        if (run != null && run.bearer != null && !run.bearer.isBlank()) {
+            return run.bearer;
         }
+        if (inventoryServiceToken == null || inventoryServiceToken.isBlank()) {
+            throw new IllegalStateException("재고 호출에 쓸 토큰 없음 (saga.inventory.service-token 미설정)");
+        }
+        return inventoryServiceToken;
     }
 
-    private static class Saga {
-        private final String sagaId;
-        private final List<Runnable> compensations = new java.util.ArrayList<>();
+    // ------------------------------------------------------------------
 
-        public Saga(String sagaId) {
-            this.sagaId = sagaId;
+    /** 전송이 실패하면 타임아웃까지 기다리지 않고 대기 항목을 바로 실패 처리한다 */
+    private void sendRequest(String topic, UUID orderId, Object event, PendingReply<?> reply) {
+        try {
+            kafkaTemplate.send(topic, orderId.toString(), event)
+                    .whenComplete((result, ex) -> {
+                        if (ex != null) {
+                            reply.fail(ex);
+                        }
+                    });
+        } catch (RuntimeException e) {
+            reply.fail(e);
         }
+    }
 
-        public void addCompensation(String name, Runnable compensation) {
-            log.info("보상 로직 추가: sagaId={}, name={}", sagaId, name);
-            compensations.add(compensation);
-        }
+    private List<OrderMenu> orderLines(UUID orderId) {
+        return orderService.findById(orderId)
+                .map(Order::getOrderMenuList)
+                .orElseThrow(() -> new OrderException(ErrorCode.ORDER_NOT_FOUND));
+    }
 
-        public void executeCompensations() {
-            log.info("보상 로직 실행 시작: sagaId={}, count={}", sagaId, compensations.size());
-            for (int i = compensations.size() - 1; i >= 0; i--) {
-                try {
-                    compensations.get(i).run();
-                    log.info("보상 로직 실행 완료: sagaId={}, index={}", sagaId, i);
-                } catch (Exception e) {
-                    log.error("보상 로직 실행 실패: sagaId={}, index={}", sagaId, i, e);
-                }
-            }
+    private List<UUID> lineIds(UUID orderId) {
+        List<OrderMenu> lines = orderLines(orderId);
+        List<UUID> ids = new ArrayList<>(lines.size());
+        for (int i = 0; i < lines.size(); i++) {
+            ids.add(deriveLineId(orderId, lines.get(i).getMenuId(), i));
         }
+        return ids;
+    }
 
-        public void clearCompensations() {
-            compensations.clear();
+    private static String failureMessage(Object response, Throwable ex) {
+        if (ex != null) {
+            Throwable cause = ex.getCause() != null ? ex.getCause() : ex;
+            return cause instanceof java.util.concurrent.TimeoutException
+                    ? "응답 시간 초과" : cause.getMessage();
+        }
+        if (response instanceof PointReservationResponseEvent r) {
+            return r.getErrorMessage();
         }
+        if (response instanceof PaymentRequestResponseEvent r) {
+            return r.getErrorMessage();
+        }
+        return "알 수 없는 오류";
+    }
+
+    private SagaRun run(UUID sagaId) {
+        return runs.computeIfAbsent(sagaId, id -> new SagaRun(null));
+    }
+
+    private void recordStep(String step, long startNanos, boolean success) {
+        Timer.builder("order.saga.step")
+                .tag("step", step)
+                .tag("outcome", success ? "success" : "failure")
+                .register(meterRegistry)
+                .record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    private void recordSagaDuration(OrderSaga saga, String outcome) {
+        Timer.builder("order.saga.duration")
+                .tag("outcome", outcome)
+                .register(meterRegistry)
+                .record(Duration.between(saga.getCreatedAt(), LocalDateTime.now()));
+    }
+
+    private LocalDateTime stepDeadline() {
+        return LocalDateTime.now().plus(stepTimeout);
+    }
+
+    private LocalDateTime compensationDeadline() {
+        return LocalDateTime.now().plus(compensationTimeout);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        sagaExecutor.shutdown();
     }
 }
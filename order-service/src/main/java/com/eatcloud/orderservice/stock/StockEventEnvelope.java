@@ -1,10 +1,17 @@
 package com.eatcloud.orderservice.stock;
 
+import com.eatcloud.eventcodec.EventEncoding;
+import com.eatcloud.outboxrelay.OutboxHeaders;
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.Getter; import lombok.Setter;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Headers;
+
+import java.io.IOException;
 import java.util.UUID;
 
-/** store-service Outbox→Kafka 메시지와 1:1 매핑 */
+/** store-service Outbox→Kafka 메시지 (메타데이터는 헤더, value 는 payload JSON 그대로) */
 @Getter @Setter
 public class StockEventEnvelope {
     private UUID id;               // p_outbox.id
@@ -13,5 +20,23 @@ public class StockEventEnvelope {
     private UUID aggregateId;      // menuId
     private JsonNode payload;      // { orderId, orderLineId, menuId, qty, ... }
     private String createdAt;      // ISO 문자열(필요시 파싱)
-    // headers 쓰면 필드 추가 가능 (correlationId 등)
+    private String correlationId;  // outbox headers 의 correlationId (없으면 null)
+
+    /** 헤더에서 메타데이터를 읽고 value 는 한 번만 파싱한다 */
+    public static StockEventEnvelope from(ConsumerRecord<String, byte[]> record, ObjectMapper om) throws IOException {
+        Headers h = record.headers();
+        StockEventEnvelope evt = new StockEventEnvelope();
+        evt.setId(uuidOrNull(OutboxHeaders.read(h, OutboxHeaders.EVENT_ID)));
+        evt.setEventType(OutboxHeaders.read(h, OutboxHeaders.EVENT_TYPE));
+        evt.setAggregateType(OutboxHeaders.read(h, OutboxHeaders.AGGREGATE_TYPE));
+        evt.setAggregateId(uuidOrNull(OutboxHeaders.read(h, OutboxHeaders.AGGREGATE_ID)));
+        evt.setCreatedAt(OutboxHeaders.read(h, OutboxHeaders.OCCURRED_AT));
+        evt.setCorrelationId(OutboxHeaders.read(h, "correlationId"));
+        evt.setPayload(EventEncoding.readTree(om, record.value())); // JSON 또는 Smile
+        return evt;
+    }
+
+    private static UUID uuidOrNull(String v) {
+        return v == null ? null : UUID.fromString(v);
+    }
 }
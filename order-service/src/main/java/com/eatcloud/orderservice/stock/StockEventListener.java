@@ -1,129 +1,114 @@
 package com.eatcloud.orderservice.stock;
 
-import com.eatcloud.orderservice.read.*;
-import com.eatcloud.orderservice.service.OrderCompensationService;
+import com.eatcloud.outboxrelay.KeyOrderedDispatcher;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.BatchListenerFailedException;
 import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
-
-import java.time.LocalDateTime;
-import java.util.UUID;
 
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * stock-events 배치 소비 (key-ordered 병렬, 레인당 {@link StockEventProjectionService#applyBatch} 한 트랜잭션).
+ *
+ * 순서/재전달:
+ *  - key=menuId 라 같은 주문 라인의 이벤트는 한 파티션에서 offset 순으로 들어온다
+ *  - poll 분량을 orderId 레인으로 나눠 병렬 반영한다. 같은 주문(따라서 같은 라인)은 한 레인에서
+ *    offset 순으로 처리되고, 재고 부족 보상도 주문당 한 레인에서만 호출된다
+ *  - 모든 레인이 커밋된 뒤 poll 전체를 ack 한다. 그 사이 죽으면 재전달되고 processed_events 로 걸러진다
+ *  - 레인이 실패하면 그 레인만 레코드 단위로 다시 반영한다. 레인 안에서 실패한 레코드 뒤는 건너뛰고,
+ *    실패 레코드 중 가장 앞 offset 을 BatchListenerFailedException 으로 넘겨 그 앞까지만 커밋한다
+ *    (그 뒤에서 이미 반영된 다른 레인 레코드는 재전달 시 processed_events 로 걸러진다)
+ *  - 파싱 실패 레코드가 있으면 그 앞까지만 반영하고 그 레코드를 실패 위치로 넘긴다
+ */
 @Slf4j
 @Component
 @RequiredArgsConstructor
 public class StockEventListener {
 
     private final ObjectMapper om;
-    private final OrderLineProjectionRepository projectionRepo;
-    private final ProcessedEventRepository processedRepo;
-
-    // 필드 주입
-    private final OrderCompensationService compensationService;
+    private final StockEventProjectionService projectionService;
+    private final KeyOrderedDispatcher stockEventDispatcher;
 
     @KafkaListener(
             topics = "${inventory.topic:stock-events}",
             containerFactory = "stockStringKafkaListenerContainerFactory"
     )
-    @Transactional
-    public void onMessage(ConsumerRecord<String, String> record, Acknowledgment ack) {
-        try {
-            String raw = unwrapIfQuotedJson(record.value());
-            if (raw == null || raw.isBlank()) {
+    public void onMessages(List<ConsumerRecord<String, byte[]>> records, Acknowledgment ack) {
+        List<Indexed> events = new ArrayList<>(records.size());
+        int parseFailedAt = -1;
+        Exception parseFailure = null;
+        for (int i = 0; i < records.size(); i++) {
+            ConsumerRecord<String, byte[]> record = records.get(i);
+            byte[] raw = record.value();
+            if (raw == null || raw.length == 0) {
                 log.warn("stock-event skip: empty payload (topic={}, partition={}, offset={})",
                         record.topic(), record.partition(), record.offset());
-                ack.acknowledge();
-                return;
+                continue;
             }
-
-            StockEventEnvelope evt = om.readValue(raw, StockEventEnvelope.class);
-            if (evt.getId() == null) {
-                log.warn("stock-event skip: no id (payload={})", raw);
-                ack.acknowledge();
-                return;
+            try {
+                StockEventEnvelope evt = StockEventEnvelope.from(record, om);
+                if (evt.getId() == null) {
+                    log.warn("stock-event skip: no eventId header (partition={}, offset={})", record.partition(), record.offset());
+                    continue;
+                }
+                events.add(new Indexed(i, evt));
+            } catch (Exception e) {
+                log.error("stock-event parse fail (will retry/DLT): partition={} offset={} error={}",
+                        record.partition(), record.offset(), e.toString());
+                // 앞 레코드를 먼저 반영한 뒤 이 레코드부터 재시도/DLT 로 넘긴다 (바로 던지면 앞 레코드가 커밋만 되고 유실)
+                parseFailedAt = i;
+                parseFailure = e;
+                break;
             }
+        }
 
-            // 멱등 처리
-            if (processedRepo.existsById(evt.getId())) {
-                ack.acknowledge();
-                return;
-            }
+        var lanes = stockEventDispatcher.dispatch(events, Indexed::orderKey,
+                rows -> projectionService.applyBatch(rows.stream().map(Indexed::evt).toList()));
 
-            var p = evt.getPayload();
-            if (p == null ||
-                    !p.hasNonNull("orderLineId") ||
-                    !p.hasNonNull("orderId") ||
-                    !p.hasNonNull("menuId")) {
-                log.warn("stock-event skip: missing required fields (payload={})", raw);
-                ack.acknowledge();
-                return;
+        int lowestFailed = Integer.MAX_VALUE;
+        Exception failure = null;
+        for (var lane : lanes) {
+            if (!lane.failed()) {
+                continue;
             }
-
-            UUID lineId = UUID.fromString(p.get("orderLineId").asText());
-            UUID orderId = UUID.fromString(p.get("orderId").asText());
-            UUID menuId  = UUID.fromString(p.get("menuId").asText());
-            int qty = p.has("qty") ? p.get("qty").asInt() : 0;
-
-            OrderLineProjection view = projectionRepo.findById(lineId).orElse(
-                    OrderLineProjection.builder()
-                            .orderLineId(lineId)
-                            .orderId(orderId)
-                            .menuId(menuId)
-                            .qty(qty)
-                            .build()
-            );
-
-            switch (evt.getEventType()) {
-                case "stock.reserved"      -> view.setStockStatus("RESERVED");
-                case "stock.committed"     -> view.setStockStatus("COMMITTED");
-                case "stock.released",
-                     "stock.returned",
-                     "stock.canceled"      -> view.setStockStatus("RELEASED"); // 반납 계열
-                case "stock.insufficient" -> {
-                    view.setStockStatus("INSUFFICIENT");
-                    // 보상 트리거 (사유는 고정 상수 사용)
-                    compensationService.compensateForStockShortage(orderId, "STOCK_INSUFFICIENT");
-                }
-                default -> {
-                    ack.acknowledge();
-                    return;
+            log.warn("stock-event lane fail → per-record fallback size={} error={}",
+                    lane.items().size(), lane.failure().toString());
+            for (Indexed item : lane.items()) {
+                try {
+                    projectionService.applyOne(item.evt());
+                } catch (Exception e) {
+                    log.error("stock-event consume fail (will retry/DLT): {}", e.toString());
+                    if (item.index() < lowestFailed) {
+                        lowestFailed = item.index();
+                        failure = e;
+                    }
+                    break; // 같은 레인의 뒤 레코드는 순서를 위해 보류
                 }
             }
-
-            if (qty > 0) view.setQty(qty);
-            view.setUpdatedAt(LocalDateTime.now());
-            projectionRepo.save(view);
-
-            processedRepo.save(
-                    ProcessedEvent.builder()
-                            .eventId(evt.getId())
-                            .processedAt(LocalDateTime.now())
-                            .build()
-            );
-
-            ack.acknowledge();
-            log.info("stock-event processed: type={} lineId={}", evt.getEventType(), lineId);
-        } catch (Exception e) {
-            log.error("stock-event consume fail (will retry/DLT): {}", e.toString());
+        }
+        if (failure != null) {
             // 재시도/ DLT 로 넘기기 위해 예외 재던짐
-            throw new RuntimeException(e);
+            throw new BatchListenerFailedException("stock-event apply fail", failure, lowestFailed);
+        }
+        if (parseFailure != null) {
+            // 앞 레코드는 모두 반영됨 → 파싱 실패 레코드부터 재시도/DLT
+            throw new BatchListenerFailedException("stock-event parse fail", parseFailure, parseFailedAt);
         }
+        ack.acknowledge();
     }
 
-    /** JsonSerializer로 이스케이프되어 온 "\"{...}\"" 형태를 정상 JSON으로 복원 */
-    private String unwrapIfQuotedJson(String raw) {
-        if (raw == null) return null;
-        raw = raw.trim();
-        if (raw.length() >= 2 && raw.charAt(0) == '"' && raw.charAt(raw.length() - 1) == '"') {
-            raw = raw.substring(1, raw.length() - 1)
-                    .replace("\\\"", "\"")
-                    .replace("\\\\", "\\");
+    /** poll 안에서의 위치(= offset 순서)와 이벤트 */
+    private record Indexed(int index, StockEventEnvelope evt) {
+
+        String orderKey() {
+            var p = evt.getPayload();
+            return p != null && p.hasNonNull("orderId") ? p.get("orderId").asText() : String.valueOf(evt.getAggregateId());
         }
-        return raw;
     }
 }
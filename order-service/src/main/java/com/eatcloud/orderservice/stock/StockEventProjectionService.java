@@ -0,0 +1,147 @@
+package com.eatcloud.orderservice.stock;
+
+import com.eatcloud.orderservice.read.OrderLineProjection;
+import com.eatcloud.orderservice.read.OrderLineProjectionBulkWriter;
+import com.eatcloud.orderservice.read.OrderLineProjectionBulkWriter.LineState;
+import com.eatcloud.orderservice.read.OrderLineProjectionRepository;
+import com.eatcloud.orderservice.read.ProcessedEvent;
+import com.eatcloud.orderservice.read.ProcessedEventRepository;
+import com.eatcloud.orderservice.service.OrderCompensationService;
+import com.fasterxml.jackson.databind.JsonNode;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * stock-events → order_line_projection 반영.
+ *
+ * 배치: 처리 이력 INSERT ... ON CONFLICT (event_id) DO NOTHING RETURNING 한 번으로 새 이벤트만 골라내고,
+ * orderLine 별로 마지막 상태만 남겨 multi-row upsert 한 번으로 끝낸다. 재고 부족 보상은 주문 단위로 한 번만 호출한다.
+ * 단건({@link #applyOne})은 배치 실패 시 레코드별 재처리용.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class StockEventProjectionService {
+
+    private final OrderLineProjectionRepository projectionRepo;
+    private final ProcessedEventRepository processedRepo;
+    private final OrderLineProjectionBulkWriter bulkWriter;
+    private final OrderCompensationService compensationService;
+
+    @Transactional
+    public int applyBatch(List<StockEventEnvelope> events) {
+        Map<UUID, StockEventEnvelope> byId = new LinkedHashMap<>();
+        for (StockEventEnvelope evt : events) {
+            if (evt.getId() != null) {
+                byId.putIfAbsent(evt.getId(), evt);
+            }
+        }
+        if (byId.isEmpty()) {
+            return 0;
+        }
+        // 처리 이력을 먼저 남겨 이번에 처음 본 이벤트만 반영 (같은 트랜잭션이라 실패하면 함께 롤백)
+        byId.keySet().retainAll(bulkWriter.claim(byId.keySet()));
+
+        // 같은 orderLine 이벤트는 같은 파티션(key=menuId)에서 offset 순으로 오므로 뒤 이벤트가 최종 상태
+        Map<UUID, LineState> lines = new LinkedHashMap<>();
+        Set<UUID> shortageOrders = new LinkedHashSet<>();
+        Set<UUID> processed = new LinkedHashSet<>();
+        for (StockEventEnvelope evt : byId.values()) {
+            LineState line = lineStateOf(evt);
+            if (line == null) {
+                continue;
+            }
+            lines.merge(line.orderLineId(), line, (prev, next) -> next.qty() > 0 ? next
+                    : new LineState(next.orderLineId(), next.orderId(), next.menuId(), prev.qty(), next.stockStatus()));
+            if ("INSUFFICIENT".equals(line.stockStatus())) {
+                shortageOrders.add(line.orderId());
+            }
+            processed.add(evt.getId());
+        }
+
+        bulkWriter.upsert(lines.values());
+        // 보상 트리거 (사유는 고정 상수 사용)
+        shortageOrders.forEach(orderId -> compensationService.compensateForStockShortage(orderId, "STOCK_INSUFFICIENT"));
+
+        log.info("stock-event batch processed: events={} new={} lines={} compensations={}",
+                events.size(), processed.size(), lines.size(), shortageOrders.size());
+        return processed.size();
+    }
+
+    @Transactional
+    public void applyOne(StockEventEnvelope evt) {
+        // 멱등 처리 (동시에 같은 이벤트를 반영하면 event_id PK 충돌로 한쪽이 롤백된다)
+        if (evt.getId() == null || processedRepo.existsById(evt.getId())) {
+            return;
+        }
+        LineState line = lineStateOf(evt);
+        if (line == null) {
+            return;
+        }
+
+        OrderLineProjection view = projectionRepo.findById(line.orderLineId()).orElse(
+                OrderLineProjection.builder()
+                        .orderLineId(line.orderLineId())
+                        .orderId(line.orderId())
+                        .menuId(line.menuId())
+                        .qty(line.qty())
+                        .build()
+        );
+        view.setStockStatus(line.stockStatus());
+        if (line.qty() > 0) view.setQty(line.qty());
+        view.setUpdatedAt(LocalDateTime.now());
+        projectionRepo.save(view);
+
+        if ("INSUFFICIENT".equals(line.stockStatus())) {
+            compensationService.compensateForStockShortage(line.orderId(), "STOCK_INSUFFICIENT");
+        }
+
+        processedRepo.save(
+                ProcessedEvent.builder()
+                        .eventId(evt.getId())
+                        .processedAt(LocalDateTime.now())
+                        .build()
+        );
+        log.info("stock-event processed: type={} lineId={}", evt.getEventType(), line.orderLineId());
+    }
+
+    /** 반영 대상이 아니면(필수 필드 누락, 모르는 타입) null */
+    private LineState lineStateOf(StockEventEnvelope evt) {
+        JsonNode p = evt.getPayload();
+        if (p == null ||
+                !p.hasNonNull("orderLineId") ||
+                !p.hasNonNull("orderId") ||
+                !p.hasNonNull("menuId")) {
+            log.warn("stock-event skip: missing required fields (id={}, payload={})", evt.getId(), p);
+            return null;
+        }
+        String status = switch (evt.getEventType() == null ? "" : evt.getEventType()) {
+            case "stock.reserved"      -> "RESERVED";
+            case "stock.committed"     -> "COMMITTED";
+            case "stock.released",
+                 "stock.returned",
+                 "stock.canceled"      -> "RELEASED"; // 반납 계열
+            case "stock.insufficient"  -> "INSUFFICIENT";
+            default -> null;
+        };
+        if (status == null) {
+            return null;
+        }
+        return new LineState(
+                UUID.fromString(p.get("orderLineId").asText()),
+                UUID.fromString(p.get("orderId").asText()),
+                UUID.fromString(p.get("menuId").asText()),
+                p.has("qty") ? p.get("qty").asInt() : 0,
+                status);
+    }
+}
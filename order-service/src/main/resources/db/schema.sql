@@ -4,6 +4,7 @@ DROP TABLE IF EXISTS p_pickup_orders CASCADE;
 DROP TABLE IF EXISTS p_orders CASCADE;
 DROP TABLE IF EXISTS p_cart CASCADE;
 DROP TABLE IF EXISTS outbox_events CASCADE;
+DROP TABLE IF EXISTS p_order_saga CASCADE;
 DROP TABLE IF EXISTS order_type_codes CASCADE;
 DROP TABLE IF EXISTS order_status_codes CASCADE;
 
@@ -11,6 +12,7 @@ CREATE TABLE IF NOT EXISTS p_cart (
     cart_id     UUID PRIMARY KEY,
     customer_id UUID NOT NULL,
     cart_items  JSONB NOT NULL,
+    cart_version BIGINT NOT NULL DEFAULT 0,
     created_at  TIMESTAMP    NOT NULL DEFAULT now(),
     created_by  VARCHAR(100) NOT NULL,
     updated_at  TIMESTAMP    NOT NULL DEFAULT now(),
@@ -19,6 +21,11 @@ CREATE TABLE IF NOT EXISTS p_cart (
     deleted_by  VARCHAR(100)
 );
 
+CREATE UNIQUE INDEX IF NOT EXISTS ux_cart_customer ON p_cart(customer_id);
+
+-- write-behind 버전 (기존 DB 호환)
+ALTER TABLE p_cart ADD COLUMN IF NOT EXISTS cart_version BIGINT NOT NULL DEFAULT 0;
+
 CREATE TABLE IF NOT EXISTS p_orders (
                                         order_id              UUID PRIMARY KEY,
                                         order_number          VARCHAR(50) UNIQUE NOT NULL,
@@ -103,8 +110,10 @@ CREATE TABLE IF NOT EXISTS order_status_codes (
 );
 
 -- Outbox events table
+-- 일 단위 RANGE 파티션 (created_at). 파티션 생성/만료 drop 은 앱의 DailyPartitionMaintainer 가 맡는다
+-- PK 는 파티션 키를 포함해야 하므로 (id, created_at). DEFAULT 파티션은 미리 만들지 못한 날짜의 안전망
 CREATE TABLE IF NOT EXISTS outbox_events (
-    event_id UUID PRIMARY KEY,
+    event_id UUID NOT NULL,
     aggregate_type VARCHAR(100) NOT NULL,
     aggregate_id VARCHAR(100) NOT NULL,
     event_type VARCHAR(150) NOT NULL,
@@ -113,12 +122,36 @@ CREATE TABLE IF NOT EXISTS outbox_events (
     status VARCHAR(20) NOT NULL,
     retry_count INTEGER NOT NULL DEFAULT 0,
     created_at TIMESTAMP NOT NULL DEFAULT now(),
-    next_attempt_at TIMESTAMP
-);
+    next_attempt_at TIMESTAMP,
+    claimed_by VARCHAR(100),
+    claim_expires_at TIMESTAMPTZ,
+    PRIMARY KEY (event_id, created_at)
+) PARTITION BY RANGE (created_at);
+
+CREATE TABLE IF NOT EXISTS outbox_events_default PARTITION OF outbox_events DEFAULT;
 
 CREATE INDEX IF NOT EXISTS idx_outbox_status ON outbox_events(status);
 CREATE INDEX IF NOT EXISTS idx_outbox_next_attempt_at ON outbox_events(next_attempt_at);
 CREATE INDEX IF NOT EXISTS idx_outbox_aggregate ON outbox_events(aggregate_type, aggregate_id);
+-- 릴레이 claim 용 미발행 부분 인덱스 (SENT 로 채워진 지난 파티션은 거의 비어 있음)
+CREATE INDEX IF NOT EXISTS idx_outbox_unsent ON outbox_events(created_at) WHERE status <> 'SENT';
+-- claim 시 같은 aggregate 의 앞선 미발행 행 확인용
+CREATE INDEX IF NOT EXISTS idx_outbox_unsent_aggregate ON outbox_events(aggregate_id, created_at) WHERE status <> 'SENT';
+
+-- 릴레이 lease (기존 DB 호환)
+ALTER TABLE outbox_events ADD COLUMN IF NOT EXISTS claimed_by VARCHAR(100);
+ALTER TABLE outbox_events ADD COLUMN IF NOT EXISTS claim_expires_at TIMESTAMPTZ;
+CREATE INDEX IF NOT EXISTS idx_outbox_claim_expires ON outbox_events(claim_expires_at);
+
+-- INSERT 시 릴레이를 깨우는 NOTIFY (채널명 = 테이블명, 문장 단위로 한 번)
+-- 함수 본문은 spring.sql.init 의 ';' 분리에 걸리지 않도록 $$ 대신 작은따옴표로 감싼다
+CREATE OR REPLACE FUNCTION notify_outbox_events() RETURNS trigger LANGUAGE plpgsql AS
+'BEGIN PERFORM pg_notify(''outbox_events'', ''''); RETURN NULL; END';
+
+DROP TRIGGER IF EXISTS trg_outbox_events_notify ON outbox_events;
+CREATE TRIGGER trg_outbox_events_notify
+    AFTER INSERT ON outbox_events
+    FOR EACH STATEMENT EXECUTE FUNCTION notify_outbox_events();
 
 CREATE TABLE IF NOT EXISTS order_type_codes (
     code VARCHAR(30) PRIMARY KEY,
@@ -142,11 +175,36 @@ CREATE TABLE IF NOT EXISTS order_line_projection (
                                                      updated_at    TIMESTAMP NOT NULL DEFAULT now()
 );
 
+-- 멱등 처리 기록. 중복 판정은 event_id 유일성에 기대므로 파티션하지 않는다 (PK 에 processed_at 을 넣으면 같은 이벤트가 두 번 들어감)
+-- processed-retention-days 가 지난 행은 ExpiredRowCleaner 가 나눠 지운다
 CREATE TABLE IF NOT EXISTS processed_events (
                                                 event_id     UUID PRIMARY KEY,
                                                 processed_at TIMESTAMP NOT NULL DEFAULT now()
 );
 
+CREATE INDEX IF NOT EXISTS idx_processed_events_processed_at ON processed_events(processed_at);
+
+-- 주문 saga 상태 (현재 단계 + 남은 보상)
+CREATE TABLE IF NOT EXISTS p_order_saga (
+    saga_id               UUID PRIMARY KEY,
+    order_id              UUID NOT NULL UNIQUE,
+    customer_id           UUID NOT NULL,
+    points_to_use         INTEGER NOT NULL DEFAULT 0,
+    payment_amount        INTEGER NOT NULL,
+    step                  VARCHAR(30) NOT NULL,
+    status                VARCHAR(20) NOT NULL,
+    pending_compensations VARCHAR(200) NOT NULL DEFAULT '',
+    payment_url           VARCHAR(1000),
+    failure_reason        VARCHAR(500),
+    owner_instance        VARCHAR(200),
+    deadline_at           TIMESTAMP,
+    created_at            TIMESTAMP NOT NULL DEFAULT now(),
+    updated_at            TIMESTAMP NOT NULL DEFAULT now(),
+    version               BIGINT NOT NULL DEFAULT 0
+);
+
+CREATE INDEX IF NOT EXISTS idx_order_saga_status_deadline ON p_order_saga(status, deadline_at);
+
 -- 조회 최적화(선택)
 CREATE INDEX IF NOT EXISTS idx_olp_order ON order_line_projection(order_id);
 CREATE INDEX IF NOT EXISTS idx_olp_menu  ON order_line_projection(menu_id);
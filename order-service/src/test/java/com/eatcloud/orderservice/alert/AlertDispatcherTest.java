@@ -0,0 +1,135 @@
+package com.eatcloud.orderservice.alert;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("AlertDispatcher 단위 테스트")
+class AlertDispatcherTest {
+
+    private final FakeNotifier notifier = new FakeNotifier();
+    private final MutableClock clock = new MutableClock();
+
+    private AlertDispatcher dispatcher(int capacity, long windowMs, int maxPerMinute) {
+        return new AlertDispatcher(notifier, new SimpleMeterRegistry(), capacity,
+                AlertDispatcher.DropPolicy.DROP_NEWEST, windowMs, maxPerMinute, 200, clock, false);
+    }
+
+    @Test
+    @DisplayName("윈도우의 첫 건은 바로 보내고 나머지는 윈도우 끝에 요약 한 건으로 보낸다")
+    void firstImmediately_restSummarizedAtWindowEnd() {
+        AlertDispatcher dispatcher = dispatcher(100, 60_000, 20);
+
+        dispatcher.dispatch("dlt:a", "DLT a", "첫 번째");
+        dispatcher.dispatch("dlt:a", "DLT a", "두 번째");
+        dispatcher.dispatch("dlt:a", "DLT a", "세 번째");
+        dispatcher.runOnce();
+
+        assertThat(notifier.sent).containsExactly("첫 번째");
+
+        clock.advance(60_000);
+        dispatcher.runOnce();
+
+        assertThat(notifier.sent).hasSize(2);
+        assertThat(notifier.sent.get(1)).contains("DLT a: 최근 60초 동안 3건 (첫 건 알림 후 2건 추가)");
+    }
+
+    @Test
+    @DisplayName("전송 상한으로 요약이 밀리면 실제로 지난 시간을 함께 적는다")
+    void deferredSummary_statesRealInterval() {
+        AlertDispatcher dispatcher = dispatcher(100, 10_000, 1);
+
+        dispatcher.dispatch("dlt:a", "DLT a", "첫 번째");
+        dispatcher.dispatch("dlt:a", "DLT a", "두 번째");
+        dispatcher.runOnce();
+        assertThat(notifier.sent).containsExactly("첫 번째");
+
+        clock.advance(10_000);
+        dispatcher.runOnce();
+        assertThat(notifier.sent).hasSize(1);
+
+        clock.advance(20_000);
+        dispatcher.dispatch("dlt:a", "DLT a", "세 번째");
+        dispatcher.runOnce();
+        assertThat(notifier.sent).hasSize(1);
+
+        clock.advance(40_000);
+        dispatcher.runOnce();
+
+        assertThat(notifier.sent).hasSize(2);
+        assertThat(notifier.sent.get(1)).contains("DLT a: 최근 70초 동안 3건 (첫 건 알림 후 2건 추가)");
+    }
+
+    @Test
+    @DisplayName("요약을 보낸 뒤 다음 윈도우의 첫 건은 다시 바로 보낸다")
+    void nextWindow_startsFresh() {
+        AlertDispatcher dispatcher = dispatcher(100, 60_000, 20);
+
+        dispatcher.dispatch("dlt:a", "DLT a", "첫 번째");
+        dispatcher.runOnce();
+        clock.advance(60_000);
+        dispatcher.runOnce();
+
+        clock.advance(1_000);
+        dispatcher.dispatch("dlt:a", "DLT a", "다음 윈도우");
+        dispatcher.runOnce();
+
+        assertThat(notifier.sent).containsExactly("첫 번째", "다음 윈도우");
+    }
+
+    @Test
+    @DisplayName("큐가 가득 차서 버린 건수를 윈도우 끝에 알린다")
+    void overflow_reportsDroppedCount() {
+        AlertDispatcher dispatcher = dispatcher(1, 60_000, 20);
+
+        dispatcher.dispatch("dlt:a", "DLT a", "첫 번째");
+        dispatcher.dispatch("dlt:a", "DLT a", "버려짐 1");
+        dispatcher.dispatch("dlt:a", "DLT a", "버려짐 2");
+        clock.advance(60_000);
+        dispatcher.runOnce();
+
+        assertThat(notifier.sent).first().isEqualTo("첫 번째");
+        assertThat(notifier.sent).anyMatch(m -> m.contains("2건의 알림이 누락"));
+    }
+
+    private static final class FakeNotifier extends DiscordNotifier {
+        private final List<String> sent = new ArrayList<>();
+
+        @Override
+        public void sendText(String text) {
+            sent.add(text);
+        }
+    }
+
+    private static final class MutableClock extends Clock {
+        private Instant now = Instant.parse("2025-01-01T00:00:00Z");
+
+        void advance(long millis) {
+            now = now.plusMillis(millis);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return now;
+        }
+    }
+}
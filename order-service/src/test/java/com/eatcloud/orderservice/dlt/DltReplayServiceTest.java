@@ -0,0 +1,160 @@
+package com.eatcloud.orderservice.dlt;
+
+import com.eatcloud.orderservice.dto.request.DltReplayRequest;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.clients.consumer.MockConsumer;
+import org.apache.kafka.clients.consumer.OffsetResetStrategy;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.Node;
+import org.apache.kafka.common.PartitionInfo;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.TimestampType;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.KafkaHeaders;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.StreamSupport;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.*;
+
+@DisplayName("DltReplayService 단위 테스트")
+class DltReplayServiceTest {
+
+    private static final String DLT = "order.created.dlt";
+    private static final TopicPartition TP = new TopicPartition(DLT, 0);
+
+    private KafkaTemplate<String, byte[]> template;
+    private DltReplayService service;
+
+    // offset i: key = "k" + i, eventType = 짝수면 OrderCreated, 홀수면 OrderCancelled
+    private final List<ConsumerRecord<String, byte[]>> dlt = new ArrayList<>();
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        template = mock(KafkaTemplate.class);
+        willAnswer(inv -> CompletableFuture.completedFuture(null)).given(template).send(any(ProducerRecord.class));
+        service = new DltReplayService(template, this::consumer, 0, 5_000, 1, 8, 10, 50);
+
+        for (int i = 0; i < 5; i++) {
+            RecordHeaders headers = new RecordHeaders();
+            headers.add("eventType", (i % 2 == 0 ? "OrderCreated" : "OrderCancelled").getBytes(StandardCharsets.UTF_8));
+            headers.add(KafkaHeaders.DLT_ORIGINAL_TOPIC, "order.created".getBytes(StandardCharsets.UTF_8));
+            headers.add(KafkaHeaders.DLT_EXCEPTION_MESSAGE, "boom".getBytes(StandardCharsets.UTF_8));
+            dlt.add(new ConsumerRecord<>(DLT, 0, i, 1_000L + i, TimestampType.CREATE_TIME, 0, 0,
+                    "k" + i, ("v" + i).getBytes(StandardCharsets.UTF_8), headers, Optional.empty()));
+        }
+    }
+
+    @Test
+    @DisplayName("fromOffset 부터 읽고 eventType 이 맞는 레코드만 원래 토픽으로 재발행")
+    void replaysMatchingRecordsFromOffset() {
+        DltReplayRequest request = request();
+        request.setFromOffset(1L);
+        request.setEventTypes(List.of("OrderCreated"));
+
+        DltReplayJob job = runToEnd(request);
+
+        List<ProducerRecord<String, byte[]>> sent = sentRecords();
+        assertThat(sent).extracting(ProducerRecord::key).containsExactly("k2", "k4");
+        assertThat(sent).allSatisfy(record -> {
+            assertThat(record.topic()).isEqualTo("order.created");
+            assertThat(headerKeys(record)).noneMatch(key -> key.startsWith("kafka_dlt-"));
+            assertThat(new String(record.headers().lastHeader(DltReplayService.REPLAY_JOB_HEADER).value(), StandardCharsets.UTF_8))
+                    .isEqualTo(job.getJobId().toString());
+        });
+        assertThat(sent.get(0).value()).isEqualTo("v2".getBytes(StandardCharsets.UTF_8));
+        assertThat(job.getStatus()).isEqualTo(DltReplayJob.Status.COMPLETED);
+        assertThat(job.getScanned().get()).isEqualTo(4);
+        assertThat(job.getMatched().get()).isEqualTo(2);
+        assertThat(job.getPublished().get()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("toOffset 까지만 읽고 key 필터와 targetTopic 을 적용")
+    void appliesKeyFilterUpToOffset() {
+        DltReplayRequest request = request();
+        request.setToOffset(2L);
+        request.setKeys(List.of("k1", "k3"));
+        request.setTargetTopic("order.created.retry");
+
+        DltReplayJob job = runToEnd(request);
+
+        List<ProducerRecord<String, byte[]>> sent = sentRecords();
+        assertThat(sent).extracting(ProducerRecord::key).containsExactly("k1");
+        assertThat(sent).extracting(ProducerRecord::topic).containsOnly("order.created.retry");
+        assertThat(job.getScanned().get()).isEqualTo(3);
+    }
+
+    @Test
+    @DisplayName("dryRun 이면 대상 건수만 세고 발행하지 않음")
+    void dryRunDoesNotPublish() {
+        DltReplayRequest request = request();
+        request.setDryRun(true);
+
+        DltReplayJob job = runToEnd(request);
+
+        verify(template, never()).send(any(ProducerRecord.class));
+        assertThat(job.getMatched().get()).isEqualTo(5);
+        assertThat(job.getPublished().get()).isZero();
+    }
+
+    @Test
+    @DisplayName("DLT 토픽으로는 재발행 불가")
+    void rejectsNonDltTargets() {
+        DltReplayRequest request = request();
+        request.setTargetTopic("order.created.dlt");
+
+        assertThatThrownBy(() -> service.start(request)).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private DltReplayRequest request() {
+        DltReplayRequest request = new DltReplayRequest();
+        request.setDltTopic(DLT);
+        return request;
+    }
+
+    private DltReplayJob runToEnd(DltReplayRequest request) {
+        DltReplayJob job = service.start(request);
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (job.isRunning() && System.currentTimeMillis() < deadline) {
+            Thread.onSpinWait();
+        }
+        assertThat(job.isRunning()).isFalse();
+        return job;
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<ProducerRecord<String, byte[]>> sentRecords() {
+        ArgumentCaptor<ProducerRecord<String, byte[]>> captor = ArgumentCaptor.forClass(ProducerRecord.class);
+        verify(template, atLeast(0)).send(captor.capture());
+        return captor.getAllValues();
+    }
+
+    private static List<String> headerKeys(ProducerRecord<String, byte[]> record) {
+        return StreamSupport.stream(record.headers().spliterator(), false).map(Header::key).toList();
+    }
+
+    /** 작업마다 새 consumer 를 만들므로 매번 같은 DLT 내용으로 채운다. 레코드는 assign 뒤 첫 poll 에 들어온다 */
+    private MockConsumer<String, byte[]> consumer() {
+        MockConsumer<String, byte[]> consumer = new MockConsumer<>(OffsetResetStrategy.EARLIEST);
+        consumer.updatePartitions(DLT, List.of(new PartitionInfo(DLT, 0, null, new Node[0], new Node[0])));
+        consumer.updateBeginningOffsets(Map.of(TP, 0L));
+        consumer.updateEndOffsets(Map.of(TP, (long) dlt.size()));
+        consumer.schedulePollTask(() -> dlt.forEach(consumer::addRecord));
+        return consumer;
+    }
+}
@@ -0,0 +1,77 @@
+package com.eatcloud.orderservice.kafka.consumer;
+
+import com.eatcloud.eventcodec.EventEncoding;
+import com.eatcloud.orderservice.event.PointReservationResponseEvent;
+import com.eatcloud.orderservice.kafka.reply.PendingReply;
+import com.eatcloud.orderservice.kafka.reply.SagaReplyRegistry;
+import com.eatcloud.orderservice.kafka.reply.SagaReplyTopic;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.BDDMockito.*;
+
+@DisplayName("SagaReplyConsumer 단위 테스트")
+class SagaReplyConsumerTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private SagaReplyRegistry registry;
+    private SagaReplyConsumer consumer;
+
+    @BeforeEach
+    void setUp() {
+        SagaReplyTopic topic = mock(SagaReplyTopic.class);
+        given(topic.getName()).willReturn("order-service.saga.reply.test");
+        registry = new SagaReplyRegistry(topic, objectMapper, new SimpleMeterRegistry());
+        consumer = new SagaReplyConsumer(registry, objectMapper);
+    }
+
+    @Test
+    @DisplayName("JSON 응답을 correlationId 로 매칭")
+    void handleReply_Json() throws Exception {
+        PendingReply<PointReservationResponseEvent> pending = register();
+
+        consumer.handleReply(record(objectMapper.writeValueAsBytes(reply(pending.getCorrelationId()))));
+
+        assertThat(pending.await())
+                .extracting(PointReservationResponseEvent::isSuccess).isEqualTo(true);
+    }
+
+    @Test
+    @DisplayName("Smile 응답(binary-topics 대상)도 판별해 매칭")
+    void handleReply_Smile() throws Exception {
+        PendingReply<PointReservationResponseEvent> pending = register();
+        byte[] smile = EventEncoding.smileMapper().writeValueAsBytes(reply(pending.getCorrelationId()));
+        assertThat(EventEncoding.isSmile(smile)).isTrue();
+
+        consumer.handleReply(record(smile));
+
+        assertThat(pending.await())
+                .extracting(PointReservationResponseEvent::getSagaId).isEqualTo("saga-1");
+    }
+
+    private PendingReply<PointReservationResponseEvent> register() {
+        return registry.register(PointReservationResponseEventConsumer.REPLY_TYPE, "saga-1",
+                PointReservationResponseEvent.class, Duration.ofSeconds(5));
+    }
+
+    private static Map<String, Object> reply(String correlationId) {
+        return Map.of(
+                "orderId", UUID.randomUUID().toString(),
+                "sagaId", "saga-1",
+                "correlationId", correlationId,
+                "success", true);
+    }
+
+    private static ConsumerRecord<String, byte[]> record(byte[] value) {
+        return new ConsumerRecord<>("order-service.saga.reply.test", 0, 0L, "key", value);
+    }
+}
@@ -1,22 +1,29 @@
 package com.eatcloud.orderservice.service;
 
+import com.eatcloud.orderservice.cart.CartSnapshot;
+import com.eatcloud.orderservice.cart.CartWriteBehindWorker;
+import com.eatcloud.orderservice.cart.RedisCartStore;
 import com.eatcloud.orderservice.dto.CartItem;
 import com.eatcloud.orderservice.dto.request.AddCartItemRequest;
 import com.eatcloud.orderservice.dto.request.UpdateCartItemRequest;
+import com.eatcloud.orderservice.entity.Cart;
 import com.eatcloud.orderservice.exception.CartException;
 import com.eatcloud.orderservice.repository.CartRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
-import org.springframework.data.redis.core.RedisTemplate;
-import org.springframework.data.redis.core.ValueOperations;
+import org.springframework.data.redis.RedisConnectionFailureException;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.Optional;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.*;
@@ -28,13 +35,16 @@ import static org.mockito.BDDMockito.*;
 class CartServiceTest {
 
     @Mock
-    private RedisTemplate<String, Object> redisTemplate;
+    private CartRepository cartRepository;
 
     @Mock
-    private CartRepository cartRepository;
+    private RedisCartStore redisCartStore;
+
+    @Mock
+    private RedisHealthTracker redisHealthTracker;
 
     @Mock
-    private ValueOperations<String, Object> valueOperations;
+    private CartWriteBehindWorker cartWriteBehindWorker;
 
     @InjectMocks
     private CartService cartService;
@@ -53,7 +63,7 @@ class CartServiceTest {
         menuId = UUID.randomUUID();
 
 
-        given(redisTemplate.opsForValue()).willReturn(valueOperations);
+        lenient().when(redisHealthTracker.isAvailable()).thenReturn(true);
 
         addRequest = AddCartItemRequest.builder()
                 .storeId(storeId)
@@ -92,26 +102,29 @@ class CartServiceTest {
                 .price(7000)
                 .build();
 
-        given(valueOperations.get(anyString())).willReturn(cartItems);
-
+        given(redisCartStore.addItem(eq(customerId), any(CartItem.class), anyLong())).willReturn(1L);
 
-        assertThatNoException().isThrownBy(() -> 
+        assertThatNoException().isThrownBy(() ->
             cartService.addItem(customerId, newItemRequest)
         );
 
-        verify(redisTemplate).opsForValue();
+        verify(redisCartStore).addItem(eq(customerId), any(CartItem.class), anyLong());
+        verify(cartRepository, never()).save(any());
     }
 
     @Test
-    @DisplayName("장바구니 아이템 추가 - 기존 아이템 수량 증가")
-    void addItem_ExistingItem_IncreaseQuantity() {
-        given(valueOperations.get(anyString())).willReturn(cartItems);
+    @DisplayName("장바구니 아이템 추가 - 캐시 미적재 시 DB에서 적재 후 재시도")
+    void addItem_NotLoaded_HydratesAndRetries() {
+        given(redisCartStore.addItem(eq(customerId), any(CartItem.class), anyLong()))
+                .willReturn(RedisCartStore.NOT_LOADED, 3L);
+        given(cartRepository.findByCustomerId(customerId)).willReturn(Optional.empty());
 
         assertThatNoException().isThrownBy(() ->
             cartService.addItem(customerId, addRequest)
         );
 
-        verify(redisTemplate).opsForValue();
+        verify(redisCartStore).hydrate(eq(customerId), any(CartSnapshot.class));
+        verify(redisCartStore, times(2)).addItem(eq(customerId), any(CartItem.class), anyLong());
     }
 
     @Test
@@ -126,12 +139,99 @@ class CartServiceTest {
                 .price(5000)
                 .build();
 
-        given(valueOperations.get(anyString())).willReturn(cartItems);
+        given(redisCartStore.addItem(eq(customerId), any(CartItem.class), anyLong()))
+                .willReturn(RedisCartStore.STORE_MISMATCH);
 
         assertThatThrownBy(() -> cartService.addItem(customerId, differentStoreRequest))
                 .isInstanceOf(CartException.class);
     }
 
+    @Test
+    @DisplayName("장바구니 아이템 추가 - Redis 장애 시 DB 직접 반영")
+    void addItem_RedisDown_WritesDatabase() {
+        given(redisHealthTracker.isAvailable()).willReturn(false);
+        given(cartRepository.findByCustomerId(customerId)).willReturn(Optional.empty());
+
+        assertThatNoException().isThrownBy(() ->
+            cartService.addItem(customerId, addRequest)
+        );
+
+        verify(cartRepository).save(any());
+        verifyNoInteractions(redisCartStore);
+    }
+
+    @Test
+    @DisplayName("장바구니 아이템 추가 - Redis 명령 연결 실패 시 DB로 폴백")
+    void addItem_RedisCommandFails_FallsBackToDatabase() {
+        RedisConnectionFailureException failure = new RedisConnectionFailureException("connection reset");
+        given(redisCartStore.addItem(eq(customerId), any(CartItem.class), anyLong())).willThrow(failure);
+        given(redisHealthTracker.recordFailure(failure)).willReturn(true);
+        given(cartRepository.findByCustomerId(customerId)).willReturn(Optional.empty());
+
+        assertThatNoException().isThrownBy(() ->
+            cartService.addItem(customerId, addRequest)
+        );
+
+        verify(redisHealthTracker).recordFailure(failure);
+        verify(cartRepository).save(any());
+        verify(redisCartStore).evict(customerId);
+    }
+
+    @Test
+    @DisplayName("장바구니 아이템 추가 - Redis 장애 중 DB 반영 시 버전을 올려 다른 인스턴스도 옛 캐시를 알아봄")
+    void addItem_RedisDown_BumpsDatabaseVersionAsSharedStaleMarker() {
+        Cart existing = Cart.builder()
+                .customerId(customerId)
+                .cartItems(new ArrayList<>())
+                .cartVersion(100L)
+                .build();
+        given(redisHealthTracker.isAvailable()).willReturn(false);
+        given(cartRepository.findByCustomerId(customerId)).willReturn(Optional.of(existing));
+
+        cartService.addItem(customerId, addRequest);
+
+        ArgumentCaptor<Cart> saved = ArgumentCaptor.forClass(Cart.class);
+        verify(cartRepository).save(saved.capture());
+        assertThat(saved.getValue().getCartVersion()).isGreaterThan(100L);
+        verifyNoInteractions(redisCartStore);
+    }
+
+    @Test
+    @DisplayName("장바구니 조회 - Redis 복구 후 DB 버전을 기준으로 캐시를 읽음(인스턴스 메모리 표식 없음)")
+    void getCart_AfterRecovery_ReadsWithDatabaseVersion() {
+        long fallbackVersion = System.currentTimeMillis();
+        given(cartRepository.findCartVersionByCustomerId(customerId)).willReturn(Optional.of(fallbackVersion));
+        given(redisCartStore.load(customerId, fallbackVersion)).willReturn(Optional.empty());
+        given(cartRepository.findByCustomerId(customerId)).willReturn(Optional.of(Cart.builder()
+                .customerId(customerId)
+                .cartItems(new ArrayList<>(cartItems))
+                .cartVersion(fallbackVersion)
+                .build()));
+
+        List<CartItem> result = cartService.getCart(customerId);
+
+        assertThat(result).hasSize(1);
+        ArgumentCaptor<CartSnapshot> hydrated = ArgumentCaptor.forClass(CartSnapshot.class);
+        verify(redisCartStore).hydrate(eq(customerId), hydrated.capture());
+        assertThat(hydrated.getValue().version()).isEqualTo(fallbackVersion);
+    }
+
+    @Test
+    @DisplayName("장바구니 아이템 추가 - Redis 스크립트에 DB 버전을 넘겨 옛 캐시면 재적재 후 재시도")
+    void addItem_PassesDatabaseVersionToRedis() {
+        given(cartRepository.findCartVersionByCustomerId(customerId)).willReturn(Optional.of(500L));
+        given(redisCartStore.addItem(eq(customerId), any(CartItem.class), eq(500L)))
+                .willReturn(RedisCartStore.NOT_LOADED, 2L);
+        given(cartRepository.findByCustomerId(customerId)).willReturn(Optional.empty());
+
+        cartService.addItem(customerId, addRequest);
+
+        InOrder inOrder = inOrder(redisCartStore);
+        inOrder.verify(redisCartStore).addItem(eq(customerId), any(CartItem.class), eq(500L));
+        inOrder.verify(redisCartStore).hydrate(eq(customerId), any(CartSnapshot.class));
+        inOrder.verify(redisCartStore).addItem(eq(customerId), any(CartItem.class), eq(500L));
+    }
+
     @Test
     @DisplayName("장바구니 아이템 추가 - 잘못된 수량 예외")
     void addItem_InvalidQuantity_ThrowsException() {
@@ -151,13 +251,13 @@ class CartServiceTest {
     @Test
     @DisplayName("장바구니 아이템 수량 수정 - 성공")
     void updateItemQuantity_Success() {
-        given(valueOperations.get(anyString())).willReturn(cartItems);
+        given(redisCartStore.setQuantity(customerId, menuId, 3, 0L)).willReturn(3L);
 
         assertThatNoException().isThrownBy(() ->
             cartService.updateItemQuantity(customerId, updateRequest)
         );
 
-        verify(redisTemplate).opsForValue();
+        verify(redisCartStore).setQuantity(customerId, menuId, 3, 0L);
     }
 
     @Test
@@ -169,7 +269,8 @@ class CartServiceTest {
                 .quantity(5)
                 .build();
 
-        given(valueOperations.get(anyString())).willReturn(cartItems);
+        given(redisCartStore.setQuantity(customerId, nonExistentMenuId, 5, 0L))
+                .willReturn(RedisCartStore.ITEM_NOT_FOUND);
 
         assertThatThrownBy(() -> cartService.updateItemQuantity(customerId, notFoundRequest))
                 .isInstanceOf(CartException.class);
@@ -178,28 +279,29 @@ class CartServiceTest {
     @Test
     @DisplayName("장바구니 아이템 삭제 - 성공")
     void removeItem_Success() {
-        given(valueOperations.get(anyString())).willReturn(cartItems);
+        given(redisCartStore.removeItem(customerId, menuId, 0L)).willReturn(0L);
 
         assertThatNoException().isThrownBy(() ->
             cartService.removeItem(customerId, menuId)
         );
 
-        verify(redisTemplate).opsForValue();
+        verify(redisCartStore).removeItem(customerId, menuId, 0L);
     }
 
     @Test
     @DisplayName("장바구니 아이템 삭제 - 존재하지 않는 아이템 예외")
     void removeItem_ItemNotFound_ThrowsException() {
         UUID nonExistentMenuId = UUID.randomUUID();
-        given(valueOperations.get(anyString())).willReturn(cartItems);
-        assertThatThrownBy(() -> cartService.removeItem(customerId, nonExistentMenuId))
+        given(redisCartStore.removeItem(customerId, nonExistentMenuId, 0L))
+                .willReturn(RedisCartStore.ITEM_NOT_FOUND);
+        assertThatThrownBy(() -> cartService.removeItem(customerId, nonExistentMenuId, 0L))
                 .isInstanceOf(CartException.class);
     }
 
     @Test
     @DisplayName("장바구니 조회 - 성공")
     void getCart_Success() {
-        given(valueOperations.get(anyString())).willReturn(cartItems);
+        given(redisCartStore.load(customerId, 0L)).willReturn(Optional.of(new ArrayList<>(cartItems)));
 
         List<CartItem> result = cartService.getCart(customerId);
 
@@ -212,12 +314,14 @@ class CartServiceTest {
     @Test
     @DisplayName("장바구니 조회 - 빈 장바구니")
     void getCart_EmptyCart() {
-        given(valueOperations.get(anyString())).willReturn(null);
+        given(redisCartStore.load(customerId, 0L)).willReturn(Optional.empty());
+        given(cartRepository.findByCustomerId(customerId)).willReturn(Optional.empty());
 
         List<CartItem> result = cartService.getCart(customerId);
 
         assertThat(result).isNotNull();
         assertThat(result).isEmpty();
+        verify(redisCartStore).hydrate(eq(customerId), any(CartSnapshot.class));
     }
 
     @Test
@@ -228,7 +332,7 @@ class CartServiceTest {
             cartService.clearCart(customerId)
         );
 
-        verify(cartRepository).deleteByCustomerId(customerId);
+        verify(redisCartStore).clear(customerId, 0L);
     }
 
     @Test
@@ -247,7 +351,7 @@ class CartServiceTest {
                 .quantity(0)
                 .build();
 
-        given(valueOperations.get(anyString())).willReturn(cartItems);
+        given(redisCartStore.setQuantity(customerId, menuId, 0, 0L)).willReturn(0L);
 
 
         assertThatNoException().isThrownBy(() ->
@@ -255,7 +359,7 @@ class CartServiceTest {
         );
 
 
-        verify(redisTemplate).opsForValue();
+        verify(redisCartStore).setQuantity(customerId, menuId, 0, 0L);
     }
 
     @Test
@@ -265,6 +369,16 @@ class CartServiceTest {
         assertThatNoException().isThrownBy(() ->
             cartService.invalidateCartAfterOrder(customerId)
         );
-        verify(cartRepository).deleteByCustomerId(customerId);
+        verify(redisCartStore).clear(customerId, 0L);
+    }
+
+    @Test
+    @DisplayName("배치 강제 처리 - write-behind 워커에 위임")
+    void forceBatchProcessing_DelegatesToWorker() {
+        given(cartWriteBehindWorker.forceFlush()).willReturn(2);
+
+        cartService.forceBatchProcessing();
+
+        verify(cartWriteBehindWorker).forceFlush();
     }
 }
@@ -0,0 +1,138 @@
+package com.eatcloud.orderservice.service;
+
+import com.eatcloud.locktelemetry.LockContentionTracker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.redisson.api.RLock;
+import org.redisson.api.RReadWriteLock;
+import org.redisson.api.RedissonClient;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("DistributedLockService 단위 테스트")
+class DistributedLockServiceTest {
+
+    @Mock
+    private RedissonClient redissonClient;
+
+    @Mock
+    private RedisHealthTracker redisHealthTracker;
+
+    @Mock
+    private LockContentionTracker telemetry;
+
+    @InjectMocks
+    private DistributedLockService lockService;
+
+    @Mock
+    private RLock lockA;
+
+    @Mock
+    private RLock lockB;
+
+    @Mock
+    private RLock multiLock;
+
+    @BeforeEach
+    void setUp() {
+        lenient().when(redisHealthTracker.isAvailable()).thenReturn(true);
+    }
+
+    @Test
+    @DisplayName("tryLock 핸들을 닫으면 한 번만 해제하고 보유 시간을 기록한다")
+    void tryLock_handleReleasesOnce() throws Exception {
+        given(redissonClient.getFairLock("lock:order:1")).willReturn(lockA);
+        given(lockA.tryLock(0, 5, TimeUnit.SECONDS)).willReturn(true);
+        given(lockA.isHeldByCurrentThread()).willReturn(true);
+
+        DistributedLockService.LockHandle handle = lockService.tryLock("order:1", 5, TimeUnit.SECONDS);
+        assertThat(handle).isNotNull();
+        handle.close();
+        handle.close();
+
+        then(lockA).should(times(1)).unlock();
+        then(telemetry).should().acquired(eq("order:1"), anyLong());
+        then(telemetry).should(times(1)).released(eq("order:1"), anyLong(), eq(true));
+    }
+
+    @Test
+    @DisplayName("tryLock 실패 시 null 을 돌려주고 해제할 것이 없다")
+    void tryLock_notAcquired_returnsNull() throws Exception {
+        given(redissonClient.getFairLock("lock:order:1")).willReturn(lockA);
+        given(lockA.tryLock(0, 5, TimeUnit.SECONDS)).willReturn(false);
+
+        assertThat(lockService.tryLock("order:1", 5, TimeUnit.SECONDS)).isNull();
+
+        then(telemetry).should().failed(eq("order:1"), anyLong(), eq("timeout"));
+        then(telemetry).should(never()).released(anyString(), anyLong(), anyBoolean());
+    }
+
+    @Test
+    @DisplayName("Redis 장애 시 읽기/쓰기/멀티 락은 Redis 를 호출하지 않고 실패한다")
+    void unavailable_failsFastForAllLockKinds() {
+        given(redisHealthTracker.isAvailable()).willReturn(false);
+        RReadWriteLock rwLock = mock(RReadWriteLock.class);
+        given(redissonClient.getReadWriteLock("lock:menu:1")).willReturn(rwLock);
+        given(rwLock.readLock()).willReturn(lockA);
+        given(rwLock.writeLock()).willReturn(lockB);
+
+        assertThatThrownBy(() -> lockService.executeWithReadLock("menu:1", 1, 5, TimeUnit.SECONDS, () -> "ok"))
+                .hasMessageContaining("Redis unavailable");
+        assertThatThrownBy(() -> lockService.executeWithWriteLock("menu:1", 1, 5, TimeUnit.SECONDS, () -> "ok"))
+                .hasMessageContaining("Redis unavailable");
+        assertThatThrownBy(() -> lockService.executeWithMultiLock(new String[]{"a:1"}, 1, 5, TimeUnit.SECONDS, () -> "ok"))
+                .hasMessageContaining("Redis unavailable");
+
+        then(lockA).shouldHaveNoInteractions();
+        then(lockB).shouldHaveNoInteractions();
+    }
+
+    @Test
+    @DisplayName("멀티 락은 키마다 계측하고, lease 가 일부 만료되면 남은 락만 해제한다")
+    void multiLock_recordsPerKeyAndReleasesHeldParts() throws Exception {
+        given(redissonClient.getFairLock("lock:a:1")).willReturn(lockA);
+        given(redissonClient.getFairLock("lock:b:1")).willReturn(lockB);
+        given(redissonClient.getMultiLock(lockA, lockB)).willReturn(multiLock);
+        given(multiLock.tryLock(1, 5, TimeUnit.SECONDS)).willReturn(true);
+        given(lockA.isHeldByCurrentThread()).willReturn(true);
+        given(lockB.isHeldByCurrentThread()).willReturn(false);
+
+        String result = lockService.executeWithMultiLock(new String[]{"a:1", "b:1"}, 1, 5, TimeUnit.SECONDS, () -> "ok");
+
+        assertThat(result).isEqualTo("ok");
+        then(multiLock).should(never()).unlock();
+        then(lockA).should().unlock();
+        then(lockB).should(never()).unlock();
+        then(telemetry).should().acquired(eq("a:1"), anyLong());
+        then(telemetry).should().acquired(eq("b:1"), anyLong());
+        then(telemetry).should().released(eq("a:1"), anyLong(), eq(true));
+        then(telemetry).should().released(eq("b:1"), anyLong(), eq(false));
+    }
+
+    @Test
+    @DisplayName("쓰기 락 작업이 예외를 던져도 락을 풀고 보유 시간을 기록한다")
+    void writeLock_releasesOnTaskFailure() throws Exception {
+        RReadWriteLock rwLock = mock(RReadWriteLock.class);
+        given(redissonClient.getReadWriteLock("lock:menu:1")).willReturn(rwLock);
+        given(rwLock.writeLock()).willReturn(lockB);
+        given(lockB.tryLock(1, 5, TimeUnit.SECONDS)).willReturn(true);
+        given(lockB.isHeldByCurrentThread()).willReturn(true);
+
+        assertThatThrownBy(() -> lockService.executeWithWriteLock("menu:1", 1, 5, TimeUnit.SECONDS, () -> {
+            throw new IllegalStateException("boom");
+        })).isInstanceOf(IllegalStateException.class);
+
+        then(lockB).should().unlock();
+        then(telemetry).should().released(eq("menu:1"), anyLong(), eq(true));
+    }
+}
@@ -0,0 +1,137 @@
+package com.eatcloud.orderservice.service;
+
+import com.eatcloud.orderservice.dto.request.CreateOrderRequest;
+import com.eatcloud.orderservice.dto.response.CreateOrderResponse;
+import com.eatcloud.orderservice.exception.ErrorCode;
+import com.eatcloud.orderservice.exception.OrderException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.script.RedisScript;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("OrderIdempotencyService 단위 테스트")
+class OrderIdempotencyServiceTest {
+
+    @Mock
+    private RedisTemplate<String, Object> redisTemplate;
+
+    @Mock
+    private RedisHealthTracker redisHealthTracker;
+
+    private OrderIdempotencyService service;
+
+    // Lua 스크립트 동작을 흉내 내는 인메모리 Redis
+    private final Map<String, String> redis = new HashMap<>();
+
+    private UUID customerId;
+    private CreateOrderRequest request;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        service = new OrderIdempotencyService(redisTemplate, redisHealthTracker, new ObjectMapper(),
+                new SimpleMeterRegistry(), 30_000, 86_400_000);
+        customerId = UUID.randomUUID();
+        request = CreateOrderRequest.builder()
+                .storeId(UUID.randomUUID())
+                .orderType("DELIVERY")
+                .usePoints(false)
+                .pointsToUse(0)
+                .build();
+
+        lenient().when(redisHealthTracker.isAvailable()).willReturn(true);
+        lenient().when(redisTemplate.execute(any(RedisScript.class), any(), any(), anyList(), any(Object[].class)))
+                .willAnswer(inv -> {
+                    RedisScript<?> script = inv.getArgument(0);
+                    String key = ((List<String>) inv.getArgument(3)).get(0);
+                    Object[] args = (Object[]) inv.getRawArguments()[4];
+                    String lua = script.getScriptAsString();
+                    if (script.getResultType() == String.class) {          // claim
+                        String cur = redis.get(key);
+                        if (cur != null) return cur;
+                        redis.put(key, (String) args[0]);
+                        return "";
+                    }
+                    if (!args[0].equals(redis.get(key))) return 0L;
+                    if (lua.contains("ARGV[3]")) redis.put(key, (String) args[1]);   // complete
+                    else redis.remove(key);                                          // release
+                    return 1L;
+                });
+    }
+
+    @Test
+    @DisplayName("같은 키로 재시도하면 주문을 다시 만들지 않고 저장된 응답을 반환한다")
+    void retryReturnsCachedResponse() {
+        AtomicInteger created = new AtomicInteger();
+        UUID orderId = UUID.randomUUID();
+
+        CreateOrderResponse first = service.execute(customerId, "orders", "key-1", request, () -> {
+            created.incrementAndGet();
+            return CreateOrderResponse.builder().orderId(orderId).orderNumber("ORD-1").build();
+        });
+        CreateOrderResponse retry = service.execute(customerId, "orders", "key-1", request, () -> {
+            created.incrementAndGet();
+            return CreateOrderResponse.builder().orderId(UUID.randomUUID()).build();
+        });
+
+        assertThat(created).hasValue(1);
+        assertThat(retry.getOrderId()).isEqualTo(first.getOrderId());
+        assertThat(retry.getOrderNumber()).isEqualTo("ORD-1");
+    }
+
+    @Test
+    @DisplayName("처리 중인 같은 키의 중복 요청은 409")
+    void concurrentDuplicateIsRejected() {
+        assertThatThrownBy(() -> service.execute(customerId, "orders", "key-2", request,
+                () -> service.execute(customerId, "orders", "key-2", request, CreateOrderResponse::new)))
+                .isInstanceOf(OrderException.class)
+                .extracting(e -> ((OrderException) e).getErrorCode())
+                .isEqualTo(ErrorCode.ORDER_PROCESSING);
+    }
+
+    @Test
+    @DisplayName("같은 키로 다른 요청을 보내면 422")
+    void keyReuseWithDifferentRequestIsRejected() {
+        service.execute(customerId, "orders", "key-3", request, CreateOrderResponse::new);
+        CreateOrderRequest other = CreateOrderRequest.builder()
+                .storeId(UUID.randomUUID())
+                .orderType("PICKUP")
+                .build();
+
+        assertThatThrownBy(() -> service.execute(customerId, "orders", "key-3", other, CreateOrderResponse::new))
+                .isInstanceOf(OrderException.class)
+                .extracting(e -> ((OrderException) e).getErrorCode())
+                .isEqualTo(ErrorCode.IDEMPOTENCY_KEY_REUSED);
+    }
+
+    @Test
+    @DisplayName("주문 생성이 실패하면 선점을 풀어 같은 키로 다시 시도할 수 있다")
+    void failureReleasesKey() {
+        assertThatThrownBy(() -> service.execute(customerId, "orders", "key-4", request, () -> {
+            throw new OrderException(ErrorCode.EMPTY_CART);
+        })).isInstanceOf(OrderException.class);
+
+        CreateOrderResponse response = service.execute(customerId, "orders", "key-4", request,
+                () -> CreateOrderResponse.builder().orderNumber("ORD-4").build());
+
+        assertThat(response.getOrderNumber()).isEqualTo("ORD-4");
+        assertThat(redis).hasSize(1);
+    }
+}
@@ -0,0 +1,348 @@
+package com.eatcloud.orderservice.service;
+
+import com.eatcloud.orderservice.dto.CartItem;
+import com.eatcloud.orderservice.dto.OrderMenu;
+import com.eatcloud.orderservice.dto.request.CreateOrderRequest;
+import com.eatcloud.orderservice.dto.response.CreateOrderResponse;
+import com.eatcloud.orderservice.entity.Order;
+import com.eatcloud.orderservice.entity.OrderStatusCode;
+import com.eatcloud.orderservice.event.PaymentRequestEvent;
+import com.eatcloud.orderservice.event.PaymentRequestResponseEvent;
+import com.eatcloud.orderservice.event.PointReservationRequestEvent;
+import com.eatcloud.orderservice.event.PointReservationResponseEvent;
+import com.eatcloud.orderservice.kafka.reply.SagaReplyRegistry;
+import com.eatcloud.orderservice.kafka.reply.SagaReplyTopic;
+import com.eatcloud.orderservice.saga.OrderSaga;
+import com.eatcloud.orderservice.saga.OrderSagaRepository;
+import com.eatcloud.orderservice.saga.SagaCompensation;
+import com.eatcloud.orderservice.saga.SagaStatus;
+import com.eatcloud.orderservice.saga.SagaStep;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.beans.BeanUtils;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.ReflectionUtils;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.*;
+
+@DisplayName("SagaOrchestrator 상태 머신 테스트")
+class SagaOrchestratorTest {
+
+    private static final String USER_BEARER = "user-token";
+    private static final String SERVICE_TOKEN = "service-token";
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private CartService cartService;
+    private OrderService orderService;
+    private KafkaTemplate<String, Object> kafkaTemplate;
+    private SagaReplyTopic sagaReplyTopic;
+    private SagaReplyRegistry sagaReplyRegistry;
+    private OutboxService outboxService;
+    private OrderSagaRepository sagaRepository;
+    private TransactionTemplate transactionTemplate;
+    private ExternalApiService externalApiService;
+    private MenuValidationService menuValidationService;
+
+    // 저장 시점 상태를 복사해 두는 saga 저장소 (같은 객체를 돌려주면 실패한 저장의 변경이 남는다)
+    private final Map<UUID, OrderSaga> sagas = new ConcurrentHashMap<>();
+    private final AtomicInteger conflictsToThrow = new AtomicInteger();
+
+    private SagaOrchestrator orchestrator;
+
+    private UUID customerId;
+    private UUID storeId;
+    private Order order;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        cartService = mock(CartService.class);
+        orderService = mock(OrderService.class);
+        kafkaTemplate = mock(KafkaTemplate.class);
+        sagaReplyTopic = mock(SagaReplyTopic.class);
+        outboxService = mock(OutboxService.class);
+        sagaRepository = mock(OrderSagaRepository.class);
+        transactionTemplate = mock(TransactionTemplate.class);
+        externalApiService = mock(ExternalApiService.class);
+        menuValidationService = mock(MenuValidationService.class);
+
+        given(sagaReplyTopic.getName()).willReturn("order-service.saga-reply.test");
+        sagaReplyRegistry = new SagaReplyRegistry(sagaReplyTopic, objectMapper, new SimpleMeterRegistry());
+        given(kafkaTemplate.send(anyString(), anyString(), any())).willReturn(new CompletableFuture<>());
+        given(transactionTemplate.execute(any())).willAnswer(inv ->
+                inv.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        given(sagaRepository.findById(any(UUID.class))).willAnswer(inv ->
+                Optional.ofNullable(sagas.get(inv.<UUID>getArgument(0))).map(SagaOrchestratorTest::copy));
+        given(sagaRepository.save(any(OrderSaga.class))).willAnswer(inv -> {
+            OrderSaga saga = inv.getArgument(0);
+            if (conflictsToThrow.getAndUpdate(n -> Math.max(0, n - 1)) > 0) {
+                throw new ObjectOptimisticLockingFailureException(OrderSaga.class, saga.getSagaId());
+            }
+            sagas.put(saga.getSagaId(), copy(saga));
+            return saga;
+        });
+
+        customerId = UUID.randomUUID();
+        storeId = UUID.randomUUID();
+        UUID menuId = UUID.randomUUID();
+        List<OrderMenu> menus = List.of(OrderMenu.builder()
+                .menuId(menuId).menuName("치킨").quantity(2).price(10_000).build());
+        order = Order.builder()
+                .orderId(UUID.randomUUID())
+                .orderNumber("ORD-1")
+                .customerId(customerId)
+                .storeId(storeId)
+                .orderMenuList(menus)
+                .totalPrice(20_000)
+                .finalPaymentAmount(20_000)
+                .orderStatusCode(OrderStatusCode.builder().code("PENDING").displayName("대기중").build())
+                .build();
+
+        given(cartService.getCart(customerId)).willReturn(List.of(CartItem.builder()
+                .menuId(menuId).menuName("치킨").quantity(2).price(10_000).storeId(storeId).build()));
+        given(menuValidationService.validateAndPrice(eq(storeId), anyList(), any())).willReturn(menus);
+        given(orderService.createPendingOrder(any(), any(), anyList(), any(), any(), any())).willReturn(order);
+        given(orderService.findById(order.getOrderId())).willReturn(Optional.of(order));
+
+        orchestrator = newOrchestrator(SERVICE_TOKEN);
+    }
+
+    @AfterEach
+    void tearDown() {
+        orchestrator.shutdown();
+    }
+
+    @Test
+    @DisplayName("재고 예약 → 결제 요청 → 재고 확정 순으로 전이해 완료된다")
+    void happyPath_CompletesSaga() {
+        given(externalApiService.reserveInventoryBatch(any(), anyList(), any())).willReturn(reserved(true));
+        given(externalApiService.confirmInventoryBatch(anyList(), any())).willReturn(true);
+
+        CreateOrderResponse response = orchestrator.createOrderSaga(customerId, request(), USER_BEARER);
+        UUID sagaId = response.getSagaId();
+
+        completePayment(true);
+
+        OrderSaga done = awaitStatus(sagaId, SagaStatus.COMPLETED);
+        assertThat(done.getStep()).isEqualTo(SagaStep.DONE);
+        assertThat(done.getPaymentUrl()).isEqualTo("https://pay/1");
+        then(externalApiService).should().reserveInventoryBatch(eq(order.getOrderId()), anyList(), eq(USER_BEARER));
+        then(externalApiService).should().confirmInventoryBatch(anyList(), eq(USER_BEARER));
+        then(externalApiService).should(never()).cancelInventoryBatch(anyList(), any(), any());
+    }
+
+    @Test
+    @DisplayName("재고 예약 통신 실패(null) - 결제로 넘어가지 않고 보상한다")
+    void reserveTransportFailure_CompensatesWithoutPayment() {
+        given(externalApiService.reserveInventoryBatch(any(), anyList(), any())).willReturn(null);
+        given(externalApiService.cancelInventoryBatch(anyList(), any(), any())).willReturn(true);
+
+        UUID sagaId = orchestrator.createOrderSaga(customerId, request(), USER_BEARER).getSagaId();
+
+        OrderSaga failed = awaitStatus(sagaId, SagaStatus.FAILED);
+        assertThat(failed.getStep()).isEqualTo(SagaStep.RESERVING);
+        assertThat(failed.getPendingCompensations()).isEmpty();
+        then(externalApiService).should().cancelInventoryBatch(anyList(), eq("SAGA_COMPENSATION"), eq(USER_BEARER));
+        then(orderService).should().cancelOrder(eq(order.getOrderId()), anyString());
+        then(kafkaTemplate).should(never()).send(eq("payment.request"), anyString(), any());
+    }
+
+    @Test
+    @DisplayName("포인트·재고 예약 병렬 진행 중 포인트가 실패하면 재고를 반납하고 결제로 넘어가지 않는다")
+    void pointsFailWhileInventoryReserved_ReturnsInventory() {
+        order.setUsePoints(true);
+        order.setPointsToUse(1_000);
+        given(externalApiService.reserveInventoryBatch(any(), anyList(), any())).willReturn(reserved(true));
+        given(externalApiService.cancelInventoryBatch(anyList(), any(), any())).willReturn(true);
+
+        UUID sagaId = orchestrator.createOrderSaga(customerId, request(), USER_BEARER).getSagaId();
+
+        ArgumentCaptor<Object> event = ArgumentCaptor.forClass(Object.class);
+        then(kafkaTemplate).should(timeout(5_000)).send(eq("point.reservation.request"), anyString(), event.capture());
+        PointReservationRequestEvent request = (PointReservationRequestEvent) event.getValue();
+        PointReservationResponseEvent reply = PointReservationResponseEvent.builder()
+                .orderId(request.getOrderId())
+                .sagaId(request.getSagaId())
+                .correlationId(request.getCorrelationId())
+                .success(false)
+                .errorMessage("포인트 부족")
+                .build();
+        sagaReplyRegistry.complete(request.getCorrelationId(), objectMapper.valueToTree(reply));
+
+        OrderSaga failed = awaitStatus(sagaId, SagaStatus.FAILED);
+        assertThat(failed.getFailureReason()).contains("포인트 예약 실패");
+        then(externalApiService).should().cancelInventoryBatch(anyList(), eq("SAGA_COMPENSATION"), eq(USER_BEARER));
+        then(kafkaTemplate).should(never()).send(eq("payment.request"), anyString(), any());
+        then(kafkaTemplate).should(never()).send(eq("point.reservation.cancel"), anyString(), any());
+    }
+
+    @Test
+    @DisplayName("재고 반납이 실패하면 보상을 완료로 기록하지 않는다")
+    void returnInventoryRejected_KeepsCompensationOwed() {
+        given(externalApiService.reserveInventoryBatch(any(), anyList(), any())).willReturn(reserved(false));
+        given(externalApiService.cancelInventoryBatch(anyList(), any(), any())).willReturn(false);
+
+        UUID sagaId = orchestrator.createOrderSaga(customerId, request(), USER_BEARER).getSagaId();
+
+        then(externalApiService).should(timeout(5_000)).cancelInventoryBatch(anyList(), any(), any());
+        awaitStatus(sagaId, SagaStatus.COMPENSATING);
+        // 실패 직후 이어지는 보상/실패 기록이 없음을 확인할 시간을 준다
+        sleep(200);
+        OrderSaga saga = sagas.get(sagaId);
+        assertThat(saga.getStatus()).isEqualTo(SagaStatus.COMPENSATING);
+        assertThat(saga.owedInReverse()).contains(SagaCompensation.RETURN_INVENTORY, SagaCompensation.CANCEL_ORDER);
+        then(orderService).should(never()).cancelOrder(any(), anyString());
+    }
+
+    @Test
+    @DisplayName("saga 저장이 낙관적 락에 걸리면 다시 읽고 전이를 재시도한다")
+    void optimisticLockConflict_RetriesTransition() {
+        given(externalApiService.reserveInventoryBatch(any(), anyList(), any())).willAnswer(inv -> {
+            conflictsToThrow.set(1); // RESERVING → PAYMENT_REQUESTING 저장이 한 번 충돌
+            return reserved(true);
+        });
+
+        UUID sagaId = orchestrator.createOrderSaga(customerId, request(), USER_BEARER).getSagaId();
+
+        then(kafkaTemplate).should(timeout(5_000)).send(eq("payment.request"), anyString(), any());
+        OrderSaga saga = sagas.get(sagaId);
+        assertThat(saga.getStatus()).isEqualTo(SagaStatus.RUNNING);
+        assertThat(saga.getStep()).isEqualTo(SagaStep.PAYMENT_REQUESTING);
+        assertThat(conflictsToThrow.get()).isZero();
+    }
+
+    @Test
+    @DisplayName("다른 인스턴스가 보상을 재개하면 서비스 토큰으로 재고를 반납하고 실패로 마무리한다")
+    void resumeCompensationOnOtherInstance_UsesServiceToken() {
+        UUID sagaId = stuckCompensatingSaga();
+        given(externalApiService.cancelInventoryBatch(anyList(), any(), any())).willReturn(true);
+
+        SagaOrchestrator other = newOrchestrator(SERVICE_TOKEN);
+        try {
+            other.resumeCompensation(sagaId);
+
+            OrderSaga failed = awaitStatus(sagaId, SagaStatus.FAILED);
+            assertThat(failed.getPendingCompensations()).isEmpty();
+            then(externalApiService).should().cancelInventoryBatch(anyList(), eq("SAGA_COMPENSATION"), eq(SERVICE_TOKEN));
+            then(orderService).should().cancelOrder(eq(order.getOrderId()), anyString());
+        } finally {
+            other.shutdown();
+        }
+    }
+
+    @Test
+    @DisplayName("서비스 토큰이 없으면 토큰 없이 반납을 호출하지 않고 보상을 남겨 둔다")
+    void resumeCompensationWithoutCredential_KeepsCompensationOwed() {
+        UUID sagaId = stuckCompensatingSaga();
+
+        SagaOrchestrator other = newOrchestrator("");
+        try {
+            other.resumeCompensation(sagaId);
+
+            sleep(300);
+            OrderSaga saga = sagas.get(sagaId);
+            assertThat(saga.getStatus()).isEqualTo(SagaStatus.COMPENSATING);
+            assertThat(saga.owedInReverse()).contains(SagaCompensation.RETURN_INVENTORY);
+            then(externalApiService).should(never()).cancelInventoryBatch(anyList(), any(), any());
+        } finally {
+            other.shutdown();
+        }
+    }
+
+    // ------------------------------------------------------------------
+
+    private SagaOrchestrator newOrchestrator(String serviceToken) {
+        return new SagaOrchestrator(cartService, orderService, kafkaTemplate, sagaReplyRegistry, sagaReplyTopic,
+                outboxService, sagaRepository, transactionTemplate, externalApiService, menuValidationService,
+                new SimpleMeterRegistry(), 2_000, 2_000, serviceToken);
+    }
+
+    private UUID stuckCompensatingSaga() {
+        UUID sagaId = UUID.randomUUID();
+        OrderSaga saga = OrderSaga.start(sagaId, order, SagaStep.RESERVING, "dead-instance",
+                LocalDateTime.now().minusMinutes(1));
+        saga.owe(SagaCompensation.CANCEL_ORDER);
+        saga.owe(SagaCompensation.RETURN_INVENTORY);
+        saga.startCompensating("단계 시간 초과", LocalDateTime.now().minusMinutes(1));
+        sagas.put(sagaId, copy(saga));
+        return sagaId;
+    }
+
+    private CreateOrderRequest request() {
+        return CreateOrderRequest.builder()
+                .storeId(storeId)
+                .orderType("DELIVERY")
+                .usePoints(false)
+                .pointsToUse(0)
+                .build();
+    }
+
+    private void completePayment(boolean success) {
+        ArgumentCaptor<Object> event = ArgumentCaptor.forClass(Object.class);
+        then(kafkaTemplate).should(timeout(5_000)).send(eq("payment.request"), anyString(), event.capture());
+        PaymentRequestEvent request = (PaymentRequestEvent) event.getValue();
+        PaymentRequestResponseEvent reply = PaymentRequestResponseEvent.builder()
+                .orderId(request.getOrderId())
+                .sagaId(request.getSagaId())
+                .correlationId(request.getCorrelationId())
+                .paymentUrl("https://pay/1")
+                .success(success)
+                .build();
+        assertThat(sagaReplyRegistry.complete(request.getCorrelationId(), objectMapper.valueToTree(reply))).isTrue();
+    }
+
+    private static ExternalApiService.BatchReserveRes reserved(boolean reserved) {
+        ExternalApiService.BatchReserveRes res = new ExternalApiService.BatchReserveRes();
+        res.setReserved(reserved);
+        res.setInsufficientMenuIds(List.of());
+        return res;
+    }
+
+    private OrderSaga awaitStatus(UUID sagaId, SagaStatus status) {
+        long until = System.currentTimeMillis() + 5_000;
+        while (System.currentTimeMillis() < until) {
+            OrderSaga saga = sagas.get(sagaId);
+            if (saga != null && saga.getStatus() == status) {
+                return saga;
+            }
+            sleep(20);
+        }
+        OrderSaga saga = sagas.get(sagaId);
+        fail("saga 상태 대기 시간 초과: expected=%s, actual=%s", status, saga != null ? saga.getStatus() : null);
+        return saga;
+    }
+
+    private static OrderSaga copy(OrderSaga source) {
+        OrderSaga copy = BeanUtils.instantiateClass(OrderSaga.class);
+        ReflectionUtils.shallowCopyFieldState(source, copy);
+        return copy;
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
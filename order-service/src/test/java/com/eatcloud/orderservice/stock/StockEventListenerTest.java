@@ -0,0 +1,138 @@
+package com.eatcloud.orderservice.stock;
+
+import com.eatcloud.outboxrelay.KeyOrderedDispatcher;
+import com.eatcloud.outboxrelay.OutboxHeaders;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.TimestampType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.support.Acknowledgment;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.BDDMockito.*;
+
+@DisplayName("StockEventListener 단위 테스트")
+class StockEventListenerTest {
+
+    private static final String TOPIC = "stock-events";
+
+    private StockEventProjectionService projectionService;
+    private KeyOrderedDispatcher dispatcher;
+    private StockEventListener listener;
+    private Acknowledgment ack;
+
+    @BeforeEach
+    void setUp() {
+        projectionService = mock(StockEventProjectionService.class);
+        dispatcher = new KeyOrderedDispatcher("stock-test", 1);
+        listener = new StockEventListener(new ObjectMapper(), projectionService, dispatcher);
+        ack = mock(Acknowledgment.class);
+    }
+
+    @AfterEach
+    void tearDown() {
+        dispatcher.close();
+    }
+
+    @Test
+    @DisplayName("배치 중간 레코드 파싱 실패 - 앞 레코드를 반영한 뒤 그 위치로 실패를 넘긴다")
+    @SuppressWarnings("unchecked")
+    void malformedRecordInMiddle_AppliesEarlierRecordsFirst() {
+        UUID orderId = UUID.randomUUID();
+        List<ConsumerRecord<String, byte[]>> records = List.of(
+                record(0, UUID.randomUUID().toString(), orderId),
+                record(1, UUID.randomUUID().toString(), orderId),
+                record(2, "not-a-uuid", orderId),
+                record(3, UUID.randomUUID().toString(), orderId));
+
+        assertThatThrownBy(() -> listener.onMessages(records, ack))
+                .isInstanceOfSatisfying(BatchListenerFailedException.class,
+                        e -> assertThat(e.getIndex()).isEqualTo(2));
+
+        ArgumentCaptor<List<StockEventEnvelope>> applied = ArgumentCaptor.forClass(List.class);
+        then(projectionService).should().applyBatch(applied.capture());
+        assertThat(applied.getValue()).extracting(StockEventEnvelope::getId)
+                .containsExactly(idOf(records.get(0)), idOf(records.get(1)));
+        then(ack).shouldHaveNoInteractions();
+    }
+
+    @Test
+    @DisplayName("첫 레코드 파싱 실패 - 아무것도 반영하지 않고 0번으로 실패를 넘긴다")
+    void malformedFirstRecord_AppliesNothing() {
+        UUID orderId = UUID.randomUUID();
+        List<ConsumerRecord<String, byte[]>> records = List.of(
+                record(0, "not-a-uuid", orderId),
+                record(1, UUID.randomUUID().toString(), orderId));
+
+        assertThatThrownBy(() -> listener.onMessages(records, ack))
+                .isInstanceOfSatisfying(BatchListenerFailedException.class,
+                        e -> assertThat(e.getIndex()).isZero());
+
+        then(projectionService).shouldHaveNoInteractions();
+    }
+
+    @Test
+    @DisplayName("앞 레코드 반영 실패 - 파싱 실패보다 앞선 반영 실패 위치를 넘긴다")
+    void applyFailureBeforeMalformedRecord_ReportsLowestIndex() {
+        UUID orderId = UUID.randomUUID();
+        List<ConsumerRecord<String, byte[]>> records = List.of(
+                record(0, UUID.randomUUID().toString(), orderId),
+                record(1, UUID.randomUUID().toString(), orderId),
+                record(2, "not-a-uuid", orderId));
+        willThrow(new IllegalStateException("batch")).given(projectionService).applyBatch(anyList());
+        willThrow(new IllegalStateException("row"))
+                .given(projectionService).applyOne(argThat(e -> e.getId().equals(idOf(records.get(1)))));
+
+        assertThatThrownBy(() -> listener.onMessages(records, ack))
+                .isInstanceOfSatisfying(BatchListenerFailedException.class,
+                        e -> assertThat(e.getIndex()).isEqualTo(1));
+
+        then(projectionService).should(times(2)).applyOne(any());
+        then(ack).shouldHaveNoInteractions();
+    }
+
+    @Test
+    @DisplayName("모두 정상 - 한 번에 반영하고 ack 한다")
+    void allValid_AppliesAndAcks() {
+        UUID orderId = UUID.randomUUID();
+        List<ConsumerRecord<String, byte[]>> records = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            records.add(record(i, UUID.randomUUID().toString(), orderId));
+        }
+
+        listener.onMessages(records, ack);
+
+        then(projectionService).should().applyBatch(argThat(list -> list.size() == 3));
+        then(ack).should().acknowledge();
+    }
+
+    private static UUID idOf(ConsumerRecord<String, byte[]> record) {
+        return UUID.fromString(OutboxHeaders.read(record.headers(), OutboxHeaders.EVENT_ID));
+    }
+
+    private static ConsumerRecord<String, byte[]> record(long offset, String eventId, UUID orderId) {
+        UUID menuId = UUID.randomUUID();
+        RecordHeaders headers = new RecordHeaders();
+        headers.add(OutboxHeaders.EVENT_ID, eventId.getBytes(StandardCharsets.UTF_8));
+        headers.add(OutboxHeaders.EVENT_TYPE, "stock.reserved".getBytes(StandardCharsets.UTF_8));
+        headers.add(OutboxHeaders.AGGREGATE_TYPE, "INVENTORY_ITEM".getBytes(StandardCharsets.UTF_8));
+        headers.add(OutboxHeaders.AGGREGATE_ID, menuId.toString().getBytes(StandardCharsets.UTF_8));
+        byte[] payload = ("{\"orderId\":\"" + orderId + "\",\"menuId\":\"" + menuId + "\",\"qty\":1}")
+                .getBytes(StandardCharsets.UTF_8);
+        return new ConsumerRecord<>(TOPIC, 0, offset, 1_000L + offset, TimestampType.CREATE_TIME, 0, payload.length,
+                menuId.toString(), payload, headers, Optional.empty());
+    }
+}
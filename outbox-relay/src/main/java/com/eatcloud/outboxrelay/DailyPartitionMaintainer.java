@@ -0,0 +1,249 @@
+package com.eatcloud.outboxrelay;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.SingleConnectionDataSource;
+
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 일 단위 RANGE 파티션 유지 작업.
+ *
+ * 한 번 실행할 때:
+ *  1) 어제 ~ 오늘+premake-days 파티션을 미리 만든다 (CREATE TABLE IF NOT EXISTS ... PARTITION OF)
+ *     DEFAULT 파티션에 그 날짜 행이 이미 있으면(선생성이 밀린 경우) 한 트랜잭션에서 DEFAULT 를 detach →
+ *     새 파티션 생성 → 그 날짜 행 이동 → DEFAULT 재attach 한다
+ *  2) retention 이 지난 파티션을 통째로 drop 한다 (archive=true 면 detach 만). 행 단위 DELETE 가 없다
+ *  - activeRowsGuard 에 걸리는 행(미발행 outbox 등)이 남은 파티션은 지우지 않고 경고만 남긴다
+ *  - 파티션 테이블이 아니면(로컬 ddl-auto, 기존 DB) 아무것도 하지 않는다
+ *  - 끝나면 DEFAULT 파티션 행 수를 outbox.partition.default.rows 게이지로 남긴다 (0 이 아니면 선생성 범위 밖 날짜가 들어온 것)
+ *
+ * 여러 인스턴스가 동시에 돌지 않도록 세션 advisory lock 을 잡고, DDL 은 lock_timeout 안에서만 기다린다.
+ */
+@Slf4j
+public class DailyPartitionMaintainer {
+
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.BASIC_ISO_DATE;
+    private static final String LOCK_TIMEOUT = "5s";
+
+    private final String name;
+    private final JdbcTemplate jdbcTemplate;
+    private final List<PartitionedTable> tables;
+    private final OutboxPartitionProperties properties;
+    private final Map<String, AtomicLong> defaultRows = new ConcurrentHashMap<>();
+
+    public DailyPartitionMaintainer(String name, JdbcTemplate jdbcTemplate,
+                                    List<PartitionedTable> tables, OutboxPartitionProperties properties,
+                                    MeterRegistry meterRegistry) {
+        for (PartitionedTable table : tables) {
+            if (!table.name().matches("[a-z_][a-z0-9_]*")) {
+                throw new IllegalArgumentException("파티션 테이블명이 올바르지 않습니다: " + table.name());
+            }
+        }
+        this.name = name;
+        this.jdbcTemplate = jdbcTemplate;
+        this.tables = List.copyOf(tables);
+        this.properties = properties;
+        for (PartitionedTable table : this.tables) {
+            AtomicLong rows = defaultRows.computeIfAbsent(table.name(), t -> new AtomicLong());
+            Gauge.builder("outbox.partition.default.rows", rows, AtomicLong::get)
+                    .tag("maintainer", name)
+                    .tag("table", table.name())
+                    .register(meterRegistry);
+        }
+    }
+
+    public void runOnce() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        // advisory lock / lock_timeout 은 세션 단위라 한 커넥션에서 끝까지 실행한다
+        jdbcTemplate.execute((ConnectionCallback<Void>) con -> {
+            JdbcTemplate session = new JdbcTemplate(new SingleConnectionDataSource(con, true));
+            Boolean locked = session.queryForObject(
+                    "SELECT pg_try_advisory_lock(hashtext(?))", Boolean.class, "partition-maintenance:" + name);
+            if (!Boolean.TRUE.equals(locked)) {
+                log.debug("[{}] 다른 인스턴스가 파티션 관리 중 → 건너뜀", name);
+                return null;
+            }
+            try {
+                session.execute("SET lock_timeout = '" + LOCK_TIMEOUT + "'");
+                LocalDate today = LocalDate.now();
+                for (PartitionedTable table : tables) {
+                    maintain(con, session, table, today);
+                }
+            } finally {
+                session.execute("RESET lock_timeout");
+                session.queryForObject("SELECT pg_advisory_unlock(hashtext(?))", Boolean.class,
+                        "partition-maintenance:" + name);
+            }
+            return null;
+        });
+    }
+
+    private void maintain(Connection con, JdbcTemplate session, PartitionedTable table, LocalDate today) {
+        Boolean partitioned = session.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM pg_partitioned_table WHERE partrelid = to_regclass(?))",
+                Boolean.class, table.name());
+        if (!Boolean.TRUE.equals(partitioned)) {
+            log.debug("[{}] {} 는 파티션 테이블이 아님 → 건너뜀", name, table.name());
+            return;
+        }
+
+        String defaultPartition = defaultPartition(session, table.name());
+        for (LocalDate day = today.minusDays(1); !day.isAfter(today.plusDays(properties.getPremakeDays())); day = day.plusDays(1)) {
+            createPartition(con, session, table.name(), defaultPartition, day);
+        }
+
+        LocalDate cutoff = today.minusDays(table.retentionDays());
+        List<String> children = session.queryForList("""
+                SELECT c.relname
+                  FROM pg_inherits i
+                  JOIN pg_class c ON c.oid = i.inhrelid
+                 WHERE i.inhparent = to_regclass(?)
+                 ORDER BY c.relname
+                """, String.class, table.name());
+        for (String child : children) {
+            LocalDate day = dayOf(table.name(), child);
+            if (day != null && day.isBefore(cutoff)) {
+                expire(session, table, child);
+            }
+        }
+
+        countDefaultRows(session, table.name(), defaultPartition);
+    }
+
+    private void createPartition(Connection con, JdbcTemplate session, String parent,
+                                 String defaultPartition, LocalDate day) {
+        String child = parent + "_p" + day.format(SUFFIX);
+        String create = "CREATE TABLE IF NOT EXISTS %s PARTITION OF %s FOR VALUES FROM ('%s') TO ('%s')"
+                .formatted(child, parent, day, day.plusDays(1));
+        try {
+            if (Boolean.TRUE.equals(session.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, child))) {
+                return;
+            }
+            String key = defaultPartition == null ? null : partitionKey(session, parent);
+            boolean stranded = key != null && Boolean.TRUE.equals(session.queryForObject(
+                    "SELECT EXISTS (SELECT 1 FROM %s WHERE %s >= ?::date AND %s < ?::date)"
+                            .formatted(defaultPartition, key, key),
+                    Boolean.class, day.toString(), day.plusDays(1).toString()));
+            if (stranded) {
+                moveFromDefault(con, session, parent, defaultPartition, key, child, create, day);
+            } else {
+                session.execute(create);
+            }
+        } catch (RuntimeException | SQLException e) {
+            // lock_timeout 등. 다음 주기에 다시 시도한다
+            log.warn("[{}] 파티션 생성 실패: {} error={}", name, child, e.getMessage());
+        }
+    }
+
+    // DEFAULT 에 그 날짜 행이 있으면 CREATE ... PARTITION OF 가 실패하므로 한 트랜잭션 안에서 DEFAULT 를 떼고
+    // 새 파티션을 만든 뒤 행을 옮기고 다시 붙인다. detach 가 부모 테이블 잠금을 잡아 그동안의 INSERT 는 커밋을 기다린다
+    private void moveFromDefault(Connection con, JdbcTemplate session, String parent, String defaultPartition,
+                                 String key, String child, String create, LocalDate day) throws SQLException {
+        boolean autoCommit = con.getAutoCommit();
+        con.setAutoCommit(false);
+        try {
+            session.execute("ALTER TABLE %s DETACH PARTITION %s".formatted(parent, defaultPartition));
+            session.execute(create);
+            int moved = session.update("""
+                    WITH moved AS (DELETE FROM %s WHERE %s >= ?::date AND %s < ?::date RETURNING *)
+                    INSERT INTO %s SELECT * FROM moved
+                    """.formatted(defaultPartition, key, key, child), day.toString(), day.plusDays(1).toString());
+            session.execute("ALTER TABLE %s ATTACH PARTITION %s DEFAULT".formatted(parent, defaultPartition));
+            con.commit();
+            log.warn("[{}] DEFAULT 파티션의 {} 행 {}건을 {} 로 옮김", name, day, moved, child);
+        } catch (RuntimeException | SQLException e) {
+            con.rollback();
+            throw e;
+        } finally {
+            con.setAutoCommit(autoCommit);
+        }
+    }
+
+    private void countDefaultRows(JdbcTemplate session, String parent, String defaultPartition) {
+        if (defaultPartition == null) {
+            return;
+        }
+        try {
+            Long rows = session.queryForObject("SELECT count(*) FROM " + defaultPartition, Long.class);
+            long n = rows == null ? 0 : rows;
+            defaultRows.get(parent).set(n);
+            if (n > 0) {
+                log.warn("[{}] {} 에 행 {}건이 남아 있음 (선생성 범위 밖 날짜)", name, defaultPartition, n);
+            }
+        } catch (RuntimeException e) {
+            log.warn("[{}] DEFAULT 파티션 행 수 확인 실패: {} error={}", name, defaultPartition, e.getMessage());
+        }
+    }
+
+    private void expire(JdbcTemplate session, PartitionedTable table, String child) {
+        try {
+            if (table.activeRowsGuard() != null) {
+                Boolean active = session.queryForObject(
+                        "SELECT EXISTS (SELECT 1 FROM %s WHERE %s)".formatted(child, table.activeRowsGuard()),
+                        Boolean.class);
+                if (Boolean.TRUE.equals(active)) {
+                    log.warn("[{}] 만료 파티션에 처리되지 않은 행이 남아 보관: {}", name, child);
+                    return;
+                }
+            }
+            if (properties.isArchive()) {
+                session.execute("ALTER TABLE %s DETACH PARTITION %s".formatted(table.name(), child));
+                log.info("[{}] 만료 파티션 detach (archive): {}", name, child);
+            } else {
+                session.execute("DROP TABLE IF EXISTS " + child);
+                log.info("[{}] 만료 파티션 drop: {}", name, child);
+            }
+        } catch (RuntimeException e) {
+            log.warn("[{}] 만료 파티션 정리 실패: {} error={}", name, child, e.getMessage());
+        }
+    }
+
+    /** 부모 테이블의 DEFAULT 파티션 이름. 없으면 null */
+    private static String defaultPartition(JdbcTemplate session, String parent) {
+        List<String> names = session.queryForList("""
+                SELECT c.relname
+                  FROM pg_inherits i
+                  JOIN pg_class c ON c.oid = i.inhrelid
+                 WHERE i.inhparent = to_regclass(?)
+                   AND pg_get_expr(c.relpartbound, c.oid) = 'DEFAULT'
+                """, String.class, parent);
+        return names.isEmpty() ? null : names.get(0);
+    }
+
+    /** RANGE 파티션 키 컬럼 (단일 컬럼) */
+    private static String partitionKey(JdbcTemplate session, String parent) {
+        return session.queryForObject("""
+                SELECT a.attname
+                  FROM pg_partitioned_table p
+                  JOIN pg_attribute a ON a.attrelid = p.partrelid AND a.attnum = p.partattrs[0]
+                 WHERE p.partrelid = to_regclass(?)
+                """, String.class, parent);
+    }
+
+    /** {@code <parent>_pYYYYMMDD} 이름에서 날짜를 꺼낸다. DEFAULT 등 다른 이름은 null */
+    private static LocalDate dayOf(String parent, String child) {
+        String prefix = parent + "_p";
+        if (!child.startsWith(prefix) || child.length() != prefix.length() + 8) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(child.substring(prefix.length()), SUFFIX);
+        } catch (DateTimeParseException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package com.eatcloud.outboxrelay;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+/**
+ * 파티션하지 않는 보관 테이블의 만료 행 정리 (멱등 처리 기록 등).
+ *
+ * processed_events 처럼 event_id 하나로 유일해야 하는 테이블은 PK 에 시각을 넣을 수 없어 일 단위 파티션 대신
+ * 작은 일반 테이블로 두고, retentionDays 가 지난 행을 batchSize 씩 나눠 지운다 (긴 잠금·큰 WAL 한 번을 피함).
+ * 한 번 실행에 maxBatches 까지만 지우고 나머지는 다음 주기로 넘긴다.
+ */
+@Slf4j
+public class ExpiredRowCleaner {
+
+    private static final int DEFAULT_BATCH_SIZE = 5_000;
+    private static final int DEFAULT_MAX_BATCHES = 100;
+
+    private final String name;
+    private final JdbcTemplate jdbcTemplate;
+    private final String table;
+    private final int retentionDays;
+    private final OutboxPartitionProperties properties;
+    private final String deleteSql;
+
+    /**
+     * @param table         정리할 테이블
+     * @param timeColumn    만료 판단 시각 컬럼 (인덱스가 있어야 한다)
+     * @param retentionDays 이 일수보다 오래된 행을 지운다
+     */
+    public ExpiredRowCleaner(String name, JdbcTemplate jdbcTemplate, String table, String timeColumn,
+                             int retentionDays, OutboxPartitionProperties properties) {
+        if (!table.matches("[a-z_][a-z0-9_]*") || !timeColumn.matches("[a-z_][a-z0-9_]*")) {
+            throw new IllegalArgumentException("테이블/컬럼명이 올바르지 않습니다: " + table + "." + timeColumn);
+        }
+        this.name = name;
+        this.jdbcTemplate = jdbcTemplate;
+        this.table = table;
+        this.retentionDays = retentionDays;
+        this.properties = properties;
+        this.deleteSql = """
+                DELETE FROM %1$s
+                 WHERE ctid = ANY (ARRAY(
+                       SELECT ctid FROM %1$s
+                        WHERE %2$s < now() - make_interval(days => ?)
+                        LIMIT ?))
+                """.formatted(table, timeColumn);
+    }
+
+    /** @return 이번 실행에서 지운 행 수 */
+    public int runOnce() {
+        if (!properties.isEnabled()) {
+            return 0;
+        }
+        int total = 0;
+        for (int i = 0; i < DEFAULT_MAX_BATCHES; i++) {
+            int deleted = jdbcTemplate.update(deleteSql, retentionDays, DEFAULT_BATCH_SIZE);
+            total += deleted;
+            if (deleted < DEFAULT_BATCH_SIZE) {
+                break;
+            }
+        }
+        if (total > 0) {
+            log.info("[{}] {} 만료 행 정리: {}건 ({}일 경과)", name, table, total, retentionDays);
+        }
+        return total;
+    }
+}
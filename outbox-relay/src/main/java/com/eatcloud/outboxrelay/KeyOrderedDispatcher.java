@@ -0,0 +1,99 @@
+package com.eatcloud.outboxrelay;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * 키 순서를 지키는 병렬 처리 (소비 측, {@link OutboxRelay} 의 레인 분배와 같은 방식).
+ *
+ * 한 poll 분량을 키 해시로 workers 개 레인에 나누고, 레인끼리는 고정 크기 풀에서 동시에,
+ * 레인 안에서는 들어온 순서(offset 순)대로 처리한다. 같은 키는 항상 같은 레인이라 순서가 유지된다.
+ * 모든 레인이 끝나야 반환하므로 호출부는 그 뒤에 offset 을 커밋하면 된다.
+ * 실패한 레인은 예외와 함께 돌려주고, 다른 레인의 결과에는 영향을 주지 않는다.
+ */
+@Slf4j
+public class KeyOrderedDispatcher implements AutoCloseable {
+
+    private final String name;
+    private final int workers;
+    private final ExecutorService pool;
+
+    public KeyOrderedDispatcher(String name, int workers) {
+        this.name = name;
+        this.workers = Math.max(1, workers);
+        this.pool = Executors.newFixedThreadPool(this.workers,
+                Thread.ofPlatform().name(name + "-lane-", 0).daemon().factory());
+    }
+
+    /**
+     * items 를 키별 레인으로 나눠 laneHandler 에 넘긴다 (레인당 한 번 호출).
+     * 레인이 하나뿐이면 호출 스레드에서 바로 실행한다.
+     */
+    public <T> List<Lane<T>> dispatch(List<T> items, Function<T, String> keyOf, Consumer<List<T>> laneHandler) {
+        List<List<T>> partitions = partition(items, keyOf);
+        if (partitions.size() <= 1) {
+            return partitions.stream().map(rows -> run(rows, laneHandler)).toList();
+        }
+
+        List<Future<Lane<T>>> futures = new ArrayList<>(partitions.size());
+        for (List<T> rows : partitions) {
+            futures.add(pool.submit(() -> run(rows, laneHandler)));
+        }
+        List<Lane<T>> lanes = new ArrayList<>(futures.size());
+        for (int i = 0; i < futures.size(); i++) {
+            try {
+                lanes.add(futures.get(i).get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                lanes.add(new Lane<>(partitions.get(i), e));
+            } catch (ExecutionException e) {
+                lanes.add(new Lane<>(partitions.get(i), e.getCause()));
+            }
+        }
+        return lanes;
+    }
+
+    private <T> Lane<T> run(List<T> rows, Consumer<List<T>> laneHandler) {
+        try {
+            laneHandler.accept(rows);
+            return new Lane<>(rows, null);
+        } catch (RuntimeException e) {
+            log.warn("[{}] 레인 처리 실패: size={}, error={}", name, rows.size(), e.toString());
+            return new Lane<>(rows, e);
+        }
+    }
+
+    private <T> List<List<T>> partition(List<T> items, Function<T, String> keyOf) {
+        List<List<T>> lanes = new ArrayList<>(workers);
+        for (int i = 0; i < workers; i++) {
+            lanes.add(new ArrayList<>());
+        }
+        for (T item : items) {
+            String key = keyOf.apply(item);
+            lanes.get(Math.floorMod(key == null ? 0 : key.hashCode(), workers)).add(item);
+        }
+        lanes.removeIf(List::isEmpty);
+        return lanes;
+    }
+
+    @Override
+    public void close() {
+        pool.shutdown();
+    }
+
+    /** 레인 처리 결과. failure 가 null 이면 성공 */
+    public record Lane<T>(List<T> items, Throwable failure) {
+
+        public boolean failed() {
+            return failure != null;
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.eatcloud.outboxrelay;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * outbox 행 lease 획득.
+ *
+ * 발행 가능한 행 중 lease 가 없거나 만료된 행을 골라 claimed_by / claim_expires_at 을
+ * UPDATE 한 문장으로 기록한다. 후보 선택에 FOR UPDATE SKIP LOCKED 를 써서 동시에 claim 하는
+ * 인스턴스끼리 같은 행을 가져가지 않는다. 트랜잭션이 끝나도 lease 는 남으므로 발행이 끝날 때까지
+ * 다른 인스턴스가 건드리지 않고, 인스턴스가 죽으면 lease 만료 후 회수된다.
+ *
+ * 다른 인스턴스가 lease 중인 aggregate 는 건너뛴다 (인스턴스 간 aggregate 내 순서 보장).
+ * 같은 aggregate 에 아직 발행 대상인 앞 행(backoff 대기 중, 다른 트랜잭션이 잠가 SKIP LOCKED 로 빠진 행,
+ * LIMIT 밖으로 밀린 행)이 이번 후보에 없으면 뒤 행도 잡지 않는다. 재시도를 다 쓴 행은 발행 대상이 아니므로 막지 않는다.
+ * status <> 'SENT' 는 리터럴로 둬서 미발행 부분 인덱스(idx_*_unsent)를 타게 한다.
+ * 파티션이 SENT 로 채워진 과거 날짜는 이 인덱스가 거의 비어 있어 스캔 비용이 없다.
+ */
+public class OutboxClaimer {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final OutboxTable table;
+    private final OutboxRelayProperties properties;
+    private final String claimSql;
+
+    public OutboxClaimer(JdbcTemplate jdbcTemplate, OutboxTable table, OutboxRelayProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.table = table;
+        this.properties = properties;
+        this.claimSql = """
+            WITH candidates AS (
+                SELECT o.%2$s AS id, o.aggregate_id, o.created_at
+                  FROM %1$s o
+                 WHERE o.status <> 'SENT'
+                   AND o.status IN ('PENDING', ?)
+                   AND (o.next_attempt_at IS NULL OR o.next_attempt_at <= now())
+                   AND (? <= 0 OR o.retry_count < ?)
+                   AND (o.claim_expires_at IS NULL OR o.claim_expires_at < now())
+                   AND NOT EXISTS (
+                       SELECT 1 FROM %1$s x
+                        WHERE x.aggregate_id = o.aggregate_id
+                          AND x.claim_expires_at >= now()
+                          AND x.claimed_by <> ?
+                   )
+                 ORDER BY o.created_at ASC
+                 LIMIT ?
+                 FOR UPDATE SKIP LOCKED
+            ),
+            picked AS (
+                SELECT c.id
+                  FROM candidates c
+                 WHERE NOT EXISTS (
+                       SELECT 1 FROM %1$s p
+                        WHERE p.aggregate_id = c.aggregate_id
+                          AND p.status <> 'SENT'
+                          AND p.status IN ('PENDING', ?)
+                          AND (? <= 0 OR p.retry_count < ?)
+                          AND p.created_at < c.created_at
+                          AND p.%2$s NOT IN (SELECT id FROM candidates)
+                 )
+            )
+            UPDATE %1$s t
+               SET claimed_by = ?,
+                   claim_expires_at = now() + ? * interval '1 millisecond'
+              FROM picked
+             WHERE t.%2$s = picked.id
+            RETURNING t.%2$s
+            """.formatted(table.name(), table.idColumn());
+    }
+
+    /** 최대 limit 건에 lease 를 잡고 id 를 반환한다. */
+    public List<UUID> claim(String owner, int limit) {
+        int maxRetry = properties.getMaxRetry();
+        return jdbcTemplate.query(claimSql, ps -> {
+            ps.setString(1, table.retryStatus());
+            ps.setInt(2, maxRetry);
+            ps.setInt(3, maxRetry);
+            ps.setString(4, owner);
+            ps.setInt(5, limit);
+            ps.setString(6, table.retryStatus());
+            ps.setInt(7, maxRetry);
+            ps.setInt(8, maxRetry);
+            ps.setString(9, owner);
+            ps.setLong(10, properties.getLeaseMs());
+        }, (rs, rowNum) -> rs.getObject(1, UUID.class));
+    }
+}
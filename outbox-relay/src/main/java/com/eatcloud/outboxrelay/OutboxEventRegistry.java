@@ -0,0 +1,52 @@
+package com.eatcloud.outboxrelay;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * outbox 이벤트 타입 → (토픽, payload 타입) 등록부.
+ *
+ * 저장 시점에 {@link #require(String, Object)} 로 타입을 검증하고 한 번만 직렬화하며,
+ * 발행 시점에는 {@link #topicOf(String)} 로 토픽만 찾는다 (payload 는 다시 읽지 않는다).
+ */
+public class OutboxEventRegistry {
+
+    private final Map<String, Registration> registrations = new ConcurrentHashMap<>();
+
+    public OutboxEventRegistry register(String eventType, String topic, Class<?> payloadType) {
+        if (topic == null || topic.isBlank()) {
+            throw new IllegalStateException("Outbox 토픽 매핑 누락: eventType=" + eventType);
+        }
+        registrations.put(eventType, new Registration(topic, payloadType));
+        return this;
+    }
+
+    public String topicOf(String eventType) {
+        return lookup(eventType).topic();
+    }
+
+    public Class<?> payloadTypeOf(String eventType) {
+        return lookup(eventType).payloadType();
+    }
+
+    /** 등록된 타입인지, payload 가 등록된 클래스인지 확인한다. */
+    public void require(String eventType, Object payload) {
+        Registration registration = lookup(eventType);
+        if (payload == null || !registration.payloadType().isInstance(payload)) {
+            throw new IllegalArgumentException("Outbox payload 타입 불일치: eventType=" + eventType
+                    + ", expected=" + registration.payloadType().getSimpleName()
+                    + ", actual=" + (payload == null ? "null" : payload.getClass().getSimpleName()));
+        }
+    }
+
+    private Registration lookup(String eventType) {
+        Registration registration = registrations.get(eventType);
+        if (registration == null) {
+            throw new IllegalStateException("등록되지 않은 outbox 이벤트 타입: " + eventType);
+        }
+        return registration;
+    }
+
+    private record Registration(String topic, Class<?> payloadType) {
+    }
+}
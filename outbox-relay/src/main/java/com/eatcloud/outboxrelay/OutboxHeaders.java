@@ -0,0 +1,33 @@
+package com.eatcloud.outboxrelay;
+
+import org.apache.kafka.common.header.Header;
+import org.apache.kafka.common.header.Headers;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 릴레이가 붙이는 Kafka 헤더 이름.
+ * value 는 outbox 에 저장된 payload JSON 그대로이고, 이벤트 메타데이터는 전부 헤더로 전달된다.
+ */
+public final class OutboxHeaders {
+
+    private OutboxHeaders() {}
+
+    public static final String EVENT_ID       = "eventId";
+    public static final String EVENT_TYPE     = "eventType";
+    public static final String AGGREGATE_TYPE = "aggregateType";
+    public static final String AGGREGATE_ID   = "aggregateId";
+    public static final String OCCURRED_AT    = "occurredAt";
+    public static final String PRODUCER       = "producer";
+    public static final String CONTENT_TYPE   = "contentType";
+
+    public static final String JSON = "application/json";
+
+    /** 소비 측 헬퍼: 마지막 값을 UTF-8 문자열로 읽는다 (없으면 null). */
+    public static String read(Headers headers, String name) {
+        Header header = headers.lastHeader(name);
+        return header == null || header.value() == null
+                ? null
+                : new String(header.value(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,115 @@
+package com.eatcloud.outboxrelay;
+
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.context.SmartLifecycle;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Statement;
+
+/**
+ * Postgres LISTEN 으로 outbox INSERT 알림을 받아 릴레이를 깨운다.
+ *
+ * outbox 테이블의 AFTER INSERT 트리거가 pg_notify(channel) 을 호출하고 (schema.sql),
+ * 여기서는 전용 커넥션 하나로 LISTEN 하다가 알림이 오면 onNotify 를 실행한다.
+ * 같은 트랜잭션의 알림은 Postgres 가 하나로 합치고, 커밋된 뒤에만 전달된다.
+ * 커넥션이 끊기면 reconnect 후 한 번 onNotify 를 실행해 놓친 알림을 메운다.
+ * 주기 폴링은 안전망으로만 남긴다.
+ */
+@Slf4j
+public class OutboxNotificationListener implements SmartLifecycle {
+
+    private static final int POLL_TIMEOUT_MS = 1_000;
+    private static final long RECONNECT_DELAY_MS = 5_000;
+
+    private final String name;
+    private final DataSource dataSource;
+    private final String channel;
+    private final Runnable onNotify;
+    private final boolean enabled;
+
+    private volatile boolean running;
+    private Thread worker;
+
+    public OutboxNotificationListener(String name, DataSource dataSource, String channel,
+                                      Runnable onNotify, OutboxRelayProperties properties) {
+        if (!channel.matches("[a-z_][a-z0-9_]*")) {
+            throw new IllegalArgumentException("LISTEN 채널명이 올바르지 않습니다: " + channel);
+        }
+        this.name = name;
+        this.dataSource = dataSource;
+        this.channel = channel;
+        this.onNotify = onNotify;
+        this.enabled = properties.isListen();
+    }
+
+    @Override
+    public void start() {
+        if (!enabled) {
+            log.info("[{}] outbox LISTEN 비활성화 → 폴링만 사용", name);
+            return;
+        }
+        running = true;
+        worker = Thread.ofPlatform().daemon().name(name + "-listener").start(this::listenLoop);
+    }
+
+    @Override
+    public void stop() {
+        running = false;
+        if (worker != null) {
+            worker.interrupt();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+
+    private void listenLoop() {
+        while (running) {
+            try (Connection con = dataSource.getConnection()) {
+                con.setAutoCommit(true);
+                try (Statement st = con.createStatement()) {
+                    st.execute("LISTEN " + channel);
+                }
+                PGConnection pg = con.unwrap(PGConnection.class);
+                log.info("[{}] outbox LISTEN 시작: channel={}", name, channel);
+
+                wake();
+                while (running) {
+                    PGNotification[] notifications = pg.getNotifications(POLL_TIMEOUT_MS);
+                    if (notifications != null && notifications.length > 0) {
+                        wake();
+                    }
+                }
+            } catch (Exception e) {
+                if (!running) {
+                    break;
+                }
+                log.warn("[{}] outbox LISTEN 연결 실패, {}ms 후 재시도: {}", name, RECONNECT_DELAY_MS, e.toString());
+                sleepQuietly();
+            }
+        }
+        log.info("[{}] outbox LISTEN 종료", name);
+    }
+
+    private void wake() {
+        try {
+            onNotify.run();
+        } catch (Exception e) {
+            log.error("[{}] outbox 알림 처리 실패: {}", name, e.toString(), e);
+        }
+    }
+
+    private void sleepQuietly() {
+        try {
+            Thread.sleep(RECONNECT_DELAY_MS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            running = false;
+        }
+    }
+}
@@ -0,0 +1,30 @@
+package com.eatcloud.outboxrelay;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * outbox / 멱등 처리 테이블의 일 단위 파티션 관리 설정.
+ */
+@Getter
+@Setter
+public class OutboxPartitionProperties {
+
+    /** false 면 파티션 생성/정리를 하지 않는다 */
+    private boolean enabled = true;
+
+    /** 오늘 이후 미리 만들어 둘 파티션 일수 */
+    private int premakeDays = 3;
+
+    /** outbox 파티션 보관 일수 (미발행 행이 남은 파티션은 지우지 않는다) */
+    private int retentionDays = 7;
+
+    /** 멱등 처리 테이블 보관 일수. 지난 행은 {@link ExpiredRowCleaner} 가 지운다 (재전달이 이보다 늦으면 중복 반영될 수 있음) */
+    private int processedRetentionDays = 14;
+
+    /** true 면 만료 파티션을 drop 대신 detach 해서 별도 테이블로 남긴다 (외부 아카이브용) */
+    private boolean archive = false;
+
+    /** 관리 작업 주기 */
+    private long intervalMs = 3_600_000;
+}
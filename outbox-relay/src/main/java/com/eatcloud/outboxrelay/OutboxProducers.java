@@ -0,0 +1,32 @@
+package com.eatcloud.outboxrelay;
+
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
+import org.apache.kafka.common.serialization.StringSerializer;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * 릴레이 전용 byte[] 프로듀서.
+ * 서비스의 기본 KafkaTemplate(JsonSerializer)을 거치면 이미 JSON 인 payload 가 다시 문자열로 감싸지므로 따로 둔다.
+ * 빈으로 등록하면 Boot 의 기본 KafkaTemplate 자동 구성이 빠지므로 릴레이가 직접 소유한다.
+ */
+public final class OutboxProducers {
+
+    private OutboxProducers() {}
+
+    public static KafkaTemplate<String, byte[]> bytesTemplate(String bootstrapServers) {
+        Map<String, Object> props = new HashMap<>();
+        props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrapServers);
+        props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class);
+        // 같은 aggregate 키 안에서 재시도로 순서가 뒤바뀌지 않도록
+        props.put(ProducerConfig.ACKS_CONFIG, "all");
+        props.put(ProducerConfig.ENABLE_IDEMPOTENCE_CONFIG, true);
+        props.put(ProducerConfig.LINGER_MS_CONFIG, 5);
+        return new KafkaTemplate<>(new DefaultKafkaProducerFactory<>(props));
+    }
+}
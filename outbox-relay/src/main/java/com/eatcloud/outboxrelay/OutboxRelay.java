@@ -0,0 +1,320 @@
+package com.eatcloud.outboxrelay;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Outbox → Kafka 파이프라인 릴레이.
+ *
+ * 한 주기:
+ *  1) {@link OutboxClaimer} 로 batch-size 만큼 lease 를 잡는다 (인스턴스 간 중복 발행 방지)
+ *  2) 행을 aggregate 키 해시로 workers 개 레인에 나눠 병렬로 send 한다.
+ *     레인 안에서는 created_at 순서대로 보내므로 aggregate 내 순서가 유지된다
+ *  3) future 들을 한꺼번에 기다리고 성공/실패/미발행을 각각 UPDATE 한 번으로 반영한다
+ *  - in-flight 슬롯(max-in-flight)이 없거나 같은 aggregate 의 앞 행이 실패하면 뒤 행은 lease 만 돌려놓는다
+ *  - send-timeout 안에 ack 가 오지 않은 행은 재시도로 돌린다 (at-least-once)
+ *
+ * 호출은 {@link #drain()} 으로 한다 ({@link OutboxNotificationListener} 의 NOTIFY + 느린 안전망 폴링).
+ *
+ * 메트릭 (relay 태그):
+ *  outbox.relay.batch.size, outbox.relay.publish.lag, outbox.relay.sent,
+ *  outbox.relay.failures{reason=serialize|send|timeout}, outbox.relay.inflight
+ */
+@Slf4j
+public class OutboxRelay<E, V> implements AutoCloseable {
+
+    private final String name;
+    private final String owner;
+    private final OutboxSource<E, V> source;
+    private final KafkaTemplate<String, V> kafkaTemplate;
+    private final OutboxClaimer claimer;
+    private final OutboxStatusWriter statusWriter;
+    private final OutboxRelayProperties properties;
+    private final Semaphore inFlight;
+    private final ExecutorService workerPool = Executors.newVirtualThreadPerTaskExecutor();
+    private final AtomicBoolean draining = new AtomicBoolean();
+    private final AtomicBoolean wakeRequested = new AtomicBoolean();
+
+    private final DistributionSummary batchSize;
+    private final Timer publishLag;
+    private final Counter sentCounter;
+    private final Counter serializeFailures;
+    private final Counter sendFailures;
+    private final Counter timeoutFailures;
+
+    public OutboxRelay(String name,
+                       OutboxSource<E, V> source,
+                       KafkaTemplate<String, V> kafkaTemplate,
+                       JdbcTemplate jdbcTemplate,
+                       OutboxTable table,
+                       OutboxRelayProperties properties,
+                       MeterRegistry meterRegistry) {
+        this(name, source, kafkaTemplate, new OutboxClaimer(jdbcTemplate, table, properties),
+                new OutboxStatusWriter(jdbcTemplate, table, properties), properties, meterRegistry);
+    }
+
+    // 테스트에서 claimer/statusWriter 를 바꿔 끼울 때 쓴다
+    OutboxRelay(String name,
+                OutboxSource<E, V> source,
+                KafkaTemplate<String, V> kafkaTemplate,
+                OutboxClaimer claimer,
+                OutboxStatusWriter statusWriter,
+                OutboxRelayProperties properties,
+                MeterRegistry meterRegistry) {
+        this.name = name;
+        this.owner = resolveOwner(name, properties.getOwnerId());
+        this.source = source;
+        this.kafkaTemplate = kafkaTemplate;
+        this.claimer = claimer;
+        this.statusWriter = statusWriter;
+        this.properties = properties;
+        this.inFlight = new Semaphore(properties.getMaxInFlight());
+
+        this.batchSize = DistributionSummary.builder("outbox.relay.batch.size")
+                .tag("relay", name)
+                .register(meterRegistry);
+        this.publishLag = Timer.builder("outbox.relay.publish.lag")
+                .description("outbox 행 생성 → Kafka ack 까지 걸린 시간")
+                .tag("relay", name)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.sentCounter = Counter.builder("outbox.relay.sent")
+                .tag("relay", name)
+                .register(meterRegistry);
+        this.serializeFailures = failureCounter(meterRegistry, "serialize");
+        this.sendFailures = failureCounter(meterRegistry, "send");
+        this.timeoutFailures = failureCounter(meterRegistry, "timeout");
+        Gauge.builder("outbox.relay.inflight", inFlight,
+                        s -> properties.getMaxInFlight() - s.availablePermits())
+                .tag("relay", name)
+                .register(meterRegistry);
+
+        log.info("[{}] outbox relay 시작: owner={}, workers={}", name, owner, properties.getWorkers());
+    }
+
+    /**
+     * 대기열이 빌 때까지 relayOnce 를 반복한다 (NOTIFY 수신/안전망 폴링에서 호출).
+     * 이미 다른 스레드가 drain 중이면 한 바퀴 더 돌도록 표시만 하고 바로 돌아온다.
+     */
+    public void drain() {
+        wakeRequested.set(true);
+        while (wakeRequested.get() && draining.compareAndSet(false, true)) {
+            try {
+                wakeRequested.set(false);
+                while (relayOnce() >= properties.getBatchSize()) {
+                    // 가득 찬 배치 → 남은 행이 더 있을 수 있음
+                }
+            } finally {
+                draining.set(false);
+            }
+        }
+    }
+
+    /**
+     * 한 주기 실행. lease 를 잡은 행 수를 반환한다 (0 이면 대기열이 비어 있음).
+     */
+    public int relayOnce() {
+        List<UUID> claimed = claimer.claim(owner, properties.getBatchSize());
+        if (claimed.isEmpty()) {
+            return 0;
+        }
+
+        List<E> batch = new ArrayList<>(source.load(claimed));
+        batch.sort(Comparator.comparing(source::createdAtOf));
+        batchSize.record(batch.size());
+
+        List<Lane<E>> lanes = new ArrayList<>();
+        for (List<E> rows : partition(batch)) {
+            lanes.add(new Lane<>(rows, workerPool.submit(() -> publishLane(rows))));
+        }
+
+        Map<UUID, CompletableFuture<?>> pending = new LinkedHashMap<>();
+        List<UUID> failed = new ArrayList<>();
+        List<UUID> skipped = new ArrayList<>();
+        for (Lane<E> lane : lanes) {
+            try {
+                LaneResult result = lane.future().get();
+                pending.putAll(result.pending());
+                failed.addAll(result.failed());
+                skipped.addAll(result.skipped());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                lane.rows().forEach(row -> skipped.add(source.idOf(row)));
+            } catch (ExecutionException e) {
+                log.error("[{}] outbox 워커 실패: {}", name, e.getCause().toString());
+                lane.rows().forEach(row -> skipped.add(source.idOf(row)));
+            }
+        }
+
+        awaitAll(pending.values());
+
+        List<UUID> sent = new ArrayList<>(pending.size());
+        pending.forEach((id, future) -> {
+            if (!future.isDone()) {
+                timeoutFailures.increment();
+                failed.add(id);
+            } else if (future.isCompletedExceptionally()) {
+                sendFailures.increment();
+                failed.add(id);
+            } else {
+                sent.add(id);
+            }
+        });
+
+        statusWriter.markSent(sent, owner);
+        statusWriter.markRetry(failed, owner);
+        statusWriter.release(skipped, owner);
+        sentCounter.increment(sent.size());
+
+        if (failed.isEmpty() && skipped.isEmpty()) {
+            log.debug("[{}] outbox 발행 완료: sent={}", name, sent.size());
+        } else {
+            log.warn("[{}] outbox 발행 일부 실패: sent={}, retry={}, deferred={}",
+                    name, sent.size(), failed.size(), skipped.size());
+        }
+        return claimed.size();
+    }
+
+    /** 한 레인(같은 aggregate 키들)의 행을 순서대로 send 한다. ack 는 기다리지 않는다. */
+    private LaneResult publishLane(List<E> rows) {
+        LaneResult result = new LaneResult(new LinkedHashMap<>(), new ArrayList<>(), new ArrayList<>());
+        Set<String> blocked = new HashSet<>();
+        boolean saturated = false;
+
+        for (E entry : rows) {
+            UUID id = source.idOf(entry);
+            String key = source.partitionKeyOf(entry);
+            if (saturated || blocked.contains(key)) {
+                // 앞 행보다 먼저 나가지 않도록 이번 주기에는 보내지 않는다
+                result.skipped().add(id);
+                continue;
+            }
+
+            ProducerRecord<String, V> record;
+            try {
+                record = source.toRecord(entry);
+            } catch (Exception e) {
+                serializeFailures.increment();
+                result.failed().add(id);
+                blocked.add(key);
+                log.error("[{}] outbox 레코드 변환 실패: id={}, error={}", name, id, e.toString());
+                continue;
+            }
+
+            if (!acquireSlot()) {
+                log.warn("[{}] in-flight 한도 초과 → 남은 행은 다음 주기에 발행", name);
+                saturated = true;
+                result.skipped().add(id);
+                continue;
+            }
+
+            LocalDateTime createdAt = source.createdAtOf(entry);
+            try {
+                result.pending().put(id, kafkaTemplate.send(record).whenComplete((r, ex) -> {
+                    inFlight.release();
+                    if (ex == null) {
+                        publishLag.record(Duration.between(createdAt, LocalDateTime.now()));
+                    }
+                }));
+            } catch (RuntimeException e) {
+                inFlight.release();
+                sendFailures.increment();
+                result.failed().add(id);
+                blocked.add(key);
+                log.error("[{}] outbox 전송 요청 실패: id={}, error={}", name, id, e.toString());
+            }
+        }
+        return result;
+    }
+
+    private List<List<E>> partition(List<E> batch) {
+        int workers = Math.max(1, properties.getWorkers());
+        List<List<E>> lanes = new ArrayList<>(workers);
+        for (int i = 0; i < workers; i++) {
+            lanes.add(new ArrayList<>());
+        }
+        for (E entry : batch) {
+            lanes.get(Math.floorMod(source.partitionKeyOf(entry).hashCode(), workers)).add(entry);
+        }
+        lanes.removeIf(List::isEmpty);
+        return lanes;
+    }
+
+    private boolean acquireSlot() {
+        try {
+            return inFlight.tryAcquire(properties.getSendTimeoutMs(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private void awaitAll(Collection<CompletableFuture<?>> futures) {
+        if (futures.isEmpty()) {
+            return;
+        }
+        try {
+            CompletableFuture.allOf(futures.toArray(CompletableFuture[]::new))
+                    .get(properties.getSendTimeoutMs(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException | TimeoutException e) {
+            // 개별 결과는 호출부에서 future 상태로 판정
+        }
+    }
+
+    private Counter failureCounter(MeterRegistry meterRegistry, String reason) {
+        return Counter.builder("outbox.relay.failures")
+                .tag("relay", name)
+                .tag("reason", reason)
+                .register(meterRegistry);
+    }
+
+    private static String resolveOwner(String name, String configured) {
+        if (configured != null && !configured.isBlank()) {
+            return configured;
+        }
+        String host = System.getenv().getOrDefault("HOSTNAME", "local");
+        return name + "@" + host + "-" + UUID.randomUUID().toString().substring(0, 8);
+    }
+
+    @Override
+    public void close() {
+        workerPool.shutdown();
+        kafkaTemplate.getProducerFactory().reset();
+    }
+
+    private record Lane<T>(List<T> rows, Future<LaneResult> future) {
+    }
+
+    private record LaneResult(Map<UUID, CompletableFuture<?>> pending, List<UUID> failed, List<UUID> skipped) {
+    }
+}
@@ -0,0 +1,41 @@
+package com.eatcloud.outboxrelay;
+
+import lombok.Getter;
+import lombok.Setter;
+
+/**
+ * 릴레이 설정. 서비스에서 @ConfigurationProperties 로 바인딩해 넘긴다.
+ */
+@Getter
+@Setter
+public class OutboxRelayProperties {
+
+    /** Postgres LISTEN/NOTIFY 로 즉시 발행. false 면 주기 폴링만 사용 */
+    private boolean listen = true;
+
+    /** 한 주기에 가져오는 최대 행 수 */
+    private int batchSize = 50;
+
+    /** 인스턴스당 발행 워커 수. 행은 aggregate 키 해시로 워커에 고정 분배된다 */
+    private int workers = 4;
+
+    /** 동시에 ack 를 기다리는 최대 레코드 수 (주기 간 공유) */
+    private int maxInFlight = 500;
+
+    /** 배치 전체 ack 대기 및 in-flight 슬롯 대기 한도 */
+    private long sendTimeoutMs = 10_000;
+
+    /** lease 유지 시간. send-timeout 보다 넉넉해야 발행 중인 행을 다른 인스턴스가 회수하지 않는다 */
+    private long leaseMs = 30_000;
+
+    /** lease 소유자 식별자. 비우면 호스트명 + 임의 접미사로 생성 */
+    private String ownerId;
+
+    /** 이 횟수에 도달하면 FAILED 로 종결. 0 이하면 무제한 재시도 */
+    private int maxRetry = 0;
+
+    /** 재시도 간격: min(maxBackoffMs, baseBackoffMs * 2^min(retryCount, 5)) + [0, jitterMs) */
+    private long baseBackoffMs = 2_000;
+    private long maxBackoffMs = 60_000;
+    private long jitterMs = 0;
+}
@@ -0,0 +1,16 @@
+package com.eatcloud.outboxrelay;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * 발행용으로 읽은 outbox 행. payload 는 DB 에 저장된 JSON 텍스트의 UTF-8 바이트 그대로다.
+ */
+public record OutboxRow(UUID id,
+                        String eventType,
+                        String aggregateType,
+                        String aggregateId,
+                        byte[] payload,
+                        String headers,
+                        LocalDateTime createdAt) {
+}
@@ -0,0 +1,32 @@
+package com.eatcloud.outboxrelay;
+
+import org.apache.kafka.clients.producer.ProducerRecord;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * 서비스별 outbox 행 로딩과 Kafka 레코드 변환.
+ * 어떤 행을 발행할지는 릴레이가 lease 로 정하고, 여기서는 lease 를 잡은 행만 읽는다.
+ *
+ * @param <E> outbox 행 타입 (엔티티)
+ * @param <V> Kafka value 타입
+ */
+public interface OutboxSource<E, V> {
+
+    /** lease 를 잡은 행들을 읽는다 (순서 무관, 릴레이가 created_at 순으로 정렬). */
+    List<E> load(Collection<UUID> ids);
+
+    UUID idOf(E entry);
+
+    /** 발행 지연(publish lag) 계산 및 같은 aggregate 내 발행 순서 기준 */
+    LocalDateTime createdAtOf(E entry);
+
+    /** 워커 분배 키. 같은 키는 항상 같은 워커가 순서대로 발행한다 (보통 aggregateId). */
+    String partitionKeyOf(E entry);
+
+    /** 변환 실패는 해당 행만 재시도 대상으로 돌린다. */
+    ProducerRecord<String, V> toRecord(E entry) throws Exception;
+}
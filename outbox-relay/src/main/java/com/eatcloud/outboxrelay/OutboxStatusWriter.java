@@ -0,0 +1,101 @@
+package com.eatcloud.outboxrelay;
+
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Collection;
+import java.util.UUID;
+
+/**
+ * 발행 결과를 배치 단위로 반영한다 (결과 종류별 UPDATE ... WHERE id = ANY(?) 한 번).
+ * 재시도 간격/종결 판단도 SQL 안에서 행별 retry_count 로 계산한다.
+ * 아직 내 lease 인 행만 갱신하고 lease 를 비운다 (만료 후 다른 인스턴스가 회수한 행은 건드리지 않음).
+ */
+public class OutboxStatusWriter {
+
+    private final JdbcTemplate jdbcTemplate;
+    private final OutboxTable table;
+    private final OutboxRelayProperties properties;
+    private final String sentSql;
+    private final String retrySql;
+    private final String releaseSql;
+
+    public OutboxStatusWriter(JdbcTemplate jdbcTemplate, OutboxTable table, OutboxRelayProperties properties) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.table = table;
+        this.properties = properties;
+
+        String extra = table.sentColumns() == null || table.sentColumns().isBlank()
+                ? "" : ", " + table.sentColumns();
+        this.sentSql = """
+            UPDATE %s
+               SET status = 'SENT', next_attempt_at = NULL,
+                   claimed_by = NULL, claim_expires_at = NULL%s
+             WHERE %s = ANY(?)
+               AND claimed_by = ?
+            """.formatted(table.name(), extra, table.idColumn());
+
+        // SET 절의 retry_count 는 갱신 전 값
+        this.retrySql = """
+            UPDATE %s
+               SET retry_count = retry_count + 1,
+                   status = CASE WHEN ? > 0 AND retry_count + 1 >= ? THEN 'FAILED' ELSE ? END,
+                   next_attempt_at = CASE
+                       WHEN ? > 0 AND retry_count + 1 >= ? THEN NULL
+                       ELSE now() + LEAST(?, ? * power(2, LEAST(retry_count, 5)) + floor(random() * ?))
+                                    * interval '1 millisecond'
+                   END,
+                   claimed_by = NULL,
+                   claim_expires_at = NULL
+             WHERE %s = ANY(?)
+               AND claimed_by = ?
+            """.formatted(table.name(), table.idColumn());
+
+        this.releaseSql = """
+            UPDATE %s
+               SET claimed_by = NULL, claim_expires_at = NULL
+             WHERE %s = ANY(?)
+               AND claimed_by = ?
+            """.formatted(table.name(), table.idColumn());
+    }
+
+    public int markSent(Collection<UUID> ids, String owner) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        return jdbcTemplate.update(sentSql, ps -> {
+            ps.setArray(1, ps.getConnection().createArrayOf("uuid", ids.toArray()));
+            ps.setString(2, owner);
+        });
+    }
+
+    /** 재시도 예약. max-retry 에 도달한 행은 FAILED 로 종결된다. */
+    public int markRetry(Collection<UUID> ids, String owner) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        int maxRetry = properties.getMaxRetry();
+        return jdbcTemplate.update(retrySql, ps -> {
+            ps.setInt(1, maxRetry);
+            ps.setInt(2, maxRetry);
+            ps.setString(3, table.retryStatus());
+            ps.setInt(4, maxRetry);
+            ps.setInt(5, maxRetry);
+            ps.setLong(6, properties.getMaxBackoffMs());
+            ps.setLong(7, properties.getBaseBackoffMs());
+            ps.setLong(8, properties.getJitterMs());
+            ps.setArray(9, ps.getConnection().createArrayOf("uuid", ids.toArray()));
+            ps.setString(10, owner);
+        });
+    }
+
+    /** 이번 주기에 발행하지 못한 행의 lease 를 돌려놓는다 (재시도 횟수는 그대로). */
+    public int release(Collection<UUID> ids, String owner) {
+        if (ids.isEmpty()) {
+            return 0;
+        }
+        return jdbcTemplate.update(releaseSql, ps -> {
+            ps.setArray(1, ps.getConnection().createArrayOf("uuid", ids.toArray()));
+            ps.setString(2, owner);
+        });
+    }
+}
@@ -0,0 +1,18 @@
+package com.eatcloud.outboxrelay;
+
+/**
+ * 릴레이 대상 outbox 테이블 정보.
+ * status / retry_count / created_at / next_attempt_at / aggregate_id / claimed_by / claim_expires_at
+ * 컬럼은 두 서비스 공통 이름을 그대로 쓴다.
+ *
+ * @param name        테이블명 (예: outbox_events, p_outbox)
+ * @param idColumn    UUID PK 컬럼명
+ * @param retryStatus 재시도 예약 시 둘 상태 (서비스마다 PENDING / FAILED 로 다름)
+ * @param sentColumns SENT 마킹 시 추가로 갱신할 SET 절 (없으면 빈 문자열, 예: "published_at = now()")
+ */
+public record OutboxTable(String name, String idColumn, String retryStatus, String sentColumns) {
+
+    public OutboxTable(String name, String idColumn, String retryStatus) {
+        this(name, idColumn, retryStatus, "");
+    }
+}
@@ -0,0 +1,16 @@
+package com.eatcloud.outboxrelay;
+
+/**
+ * 일 단위 RANGE 파티션 테이블 정보 ({@link DailyPartitionMaintainer} 대상).
+ * 자식 파티션 이름은 {@code <name>_pYYYYMMDD} 로 고정한다.
+ *
+ * @param name            부모 테이블명 (예: outbox_events, p_outbox)
+ * @param retentionDays   이 일수보다 오래된 파티션은 drop(또는 archive 시 detach)
+ * @param activeRowsGuard 남아 있으면 drop 하지 않을 행 조건 (예: "status <> 'SENT'"). 없으면 null
+ */
+public record PartitionedTable(String name, int retentionDays, String activeRowsGuard) {
+
+    public PartitionedTable(String name, int retentionDays) {
+        this(name, retentionDays, null);
+    }
+}
@@ -0,0 +1,123 @@
+package com.eatcloud.outboxrelay;
+
+import com.eatcloud.eventcodec.EventEncoding;
+import com.eatcloud.eventcodec.EventSchemaRegistry;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.apache.kafka.common.header.Headers;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * payload 를 역직렬화하지 않고 저장된 JSON 바이트를 그대로 보내는 {@link OutboxSource}.
+ *
+ * JDBC 로 payload::text 만 읽어 value 로 쓰고, 이벤트 메타데이터(eventId/eventType/aggregate/occurredAt)와
+ * outbox headers 컬럼의 항목(correlationId, sagaId 등)은 Kafka 헤더로 붙인다.
+ * 토픽은 {@link OutboxEventRegistry} 에서 찾는다.
+ *
+ * binaryTopics 에 있는 토픽은 저장된 JSON 을 토큰 단위로 Smile 로 옮겨 보낸다 ({@link EventEncoding}).
+ * payload 클래스가 event-schemas.properties 에 있으면 eventSchema 헤더도 붙인다.
+ */
+public class WireOutboxSource implements OutboxSource<OutboxRow, byte[]> {
+
+    private static final TypeReference<Map<String, Object>> HEADER_MAP = new TypeReference<>() {};
+
+    private final JdbcTemplate jdbcTemplate;
+    private final OutboxEventRegistry registry;
+    private final ObjectMapper objectMapper;
+    private final String producer;
+    private final Set<String> binaryTopics;
+    private final EventSchemaRegistry schemas = EventSchemaRegistry.load(EventSchemaRegistry.DEFAULT_LOCATION);
+    private final String loadSql;
+
+    public WireOutboxSource(JdbcTemplate jdbcTemplate, OutboxTable table, OutboxEventRegistry registry,
+                            ObjectMapper objectMapper, String producer) {
+        this(jdbcTemplate, table, registry, objectMapper, producer, Set.of());
+    }
+
+    public WireOutboxSource(JdbcTemplate jdbcTemplate, OutboxTable table, OutboxEventRegistry registry,
+                            ObjectMapper objectMapper, String producer, Set<String> binaryTopics) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.registry = registry;
+        this.objectMapper = objectMapper;
+        this.producer = producer;
+        this.binaryTopics = Set.copyOf(binaryTopics);
+        this.loadSql = """
+            SELECT %2$s, event_type, aggregate_type, CAST(aggregate_id AS text) AS aggregate_id,
+                   CAST(payload AS text) AS payload, CAST(headers AS text) AS headers, created_at
+              FROM %1$s
+             WHERE %2$s = ANY(?)
+            """.formatted(table.name(), table.idColumn());
+    }
+
+    @Override
+    public List<OutboxRow> load(Collection<UUID> ids) {
+        return jdbcTemplate.query(loadSql,
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("uuid", ids.toArray())),
+                (rs, rowNum) -> new OutboxRow(
+                        rs.getObject(1, UUID.class),
+                        rs.getString("event_type"),
+                        rs.getString("aggregate_type"),
+                        rs.getString("aggregate_id"),
+                        rs.getString("payload").getBytes(StandardCharsets.UTF_8),
+                        rs.getString("headers"),
+                        rs.getTimestamp("created_at").toLocalDateTime()));
+    }
+
+    @Override
+    public UUID idOf(OutboxRow row) {
+        return row.id();
+    }
+
+    @Override
+    public LocalDateTime createdAtOf(OutboxRow row) {
+        return row.createdAt();
+    }
+
+    @Override
+    public String partitionKeyOf(OutboxRow row) {
+        return row.aggregateId();
+    }
+
+    @Override
+    public ProducerRecord<String, byte[]> toRecord(OutboxRow row) throws Exception {
+        String topic = registry.topicOf(row.eventType());
+        boolean binary = binaryTopics.contains(topic);
+        ProducerRecord<String, byte[]> record = new ProducerRecord<>(topic, row.aggregateId(),
+                binary ? EventEncoding.jsonToSmile(row.payload()) : row.payload());
+
+        Headers headers = record.headers();
+        if (row.headers() != null) {
+            for (Map.Entry<String, Object> e : objectMapper.readValue(row.headers(), HEADER_MAP).entrySet()) {
+                if (e.getValue() != null) {
+                    headers.add(e.getKey(), String.valueOf(e.getValue()).getBytes(StandardCharsets.UTF_8));
+                }
+            }
+        }
+        add(headers, OutboxHeaders.EVENT_ID, row.id().toString());
+        add(headers, OutboxHeaders.EVENT_TYPE, row.eventType());
+        add(headers, OutboxHeaders.AGGREGATE_TYPE, row.aggregateType());
+        add(headers, OutboxHeaders.AGGREGATE_ID, row.aggregateId());
+        add(headers, OutboxHeaders.OCCURRED_AT, row.createdAt().toString());
+        add(headers, OutboxHeaders.PRODUCER, producer);
+        add(headers, OutboxHeaders.CONTENT_TYPE, binary ? EventEncoding.SMILE : OutboxHeaders.JSON);
+        EventSchemaRegistry.Schema schema = schemas.schemaOf(registry.payloadTypeOf(row.eventType()));
+        if (schema != null) {
+            add(headers, EventEncoding.SCHEMA_HEADER, schema.toString());
+        }
+        return record;
+    }
+
+    private static void add(Headers headers, String name, String value) {
+        headers.remove(name);
+        headers.add(name, value.getBytes(StandardCharsets.UTF_8));
+    }
+}
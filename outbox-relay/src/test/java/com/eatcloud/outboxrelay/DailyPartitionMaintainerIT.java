@@ -0,0 +1,142 @@
+package com.eatcloud.outboxrelay;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 파티션 선생성 시 DEFAULT 에 남은 행 이동, 만료 파티션의 미발행 행 보호, archive(detach) 를 실제 DDL 로 확인한다.
+ * Docker 가 필요하므로 ./gradlew :outbox-relay:integrationTest 로 돌린다.
+ */
+@Tag("integration")
+@Testcontainers(disabledWithoutDocker = true)
+class DailyPartitionMaintainerIT {
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    static JdbcTemplate jdbc;
+
+    final LocalDate today = LocalDate.now();
+    final OutboxPartitionProperties properties = new OutboxPartitionProperties();
+    final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @BeforeAll
+    static void createSchema() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+        new ResourceDatabasePopulator(new FileSystemResource(System.getProperty("outbox.schema")))
+                .execute(dataSource);
+        jdbc = new JdbcTemplate(dataSource);
+    }
+
+    @BeforeEach
+    void setUp() {
+        // 일자 파티션(붙어 있든 detach 됐든)을 모두 지우고 DEFAULT 만 남긴다
+        List<String> days = jdbc.queryForList(
+                "SELECT relname FROM pg_class WHERE relname LIKE 'outbox\\_events\\_p%' AND relkind IN ('r', 'p')",
+                String.class);
+        days.forEach(t -> jdbc.execute("DROP TABLE IF EXISTS " + t));
+        jdbc.update("DELETE FROM outbox_events");
+        properties.setPremakeDays(3);
+    }
+
+    @Test
+    void stranded_default_rows_move_into_new_partition() {
+        UUID stranded = insert(today.plusDays(1), "PENDING");
+        UUID outOfRange = insert(today.plusDays(30), "PENDING");
+
+        maintainer(7).runOnce();
+
+        String tomorrow = partition(today.plusDays(1));
+        assertThat(attached()).contains(partition(today.minusDays(1)), partition(today), tomorrow,
+                partition(today.plusDays(3)));
+        assertThat(jdbc.queryForList("SELECT event_id FROM " + tomorrow, UUID.class)).containsExactly(stranded);
+        assertThat(jdbc.queryForList("SELECT event_id FROM outbox_events_default", UUID.class))
+                .containsExactly(outOfRange);
+        assertThat(attached()).contains("outbox_events_default");
+        assertThat(meterRegistry.get("outbox.partition.default.rows").tag("table", "outbox_events")
+                .gauge().value()).isEqualTo(1.0);
+    }
+
+    @Test
+    void expired_partition_with_unsent_rows_is_kept_until_sent() {
+        LocalDate old = today.minusDays(10);
+        createPartition(old);
+        UUID pending = insert(old, "PENDING");
+        DailyPartitionMaintainer maintainer = maintainer(7);
+
+        maintainer.runOnce();
+        assertThat(attached()).contains(partition(old));
+
+        jdbc.update("UPDATE outbox_events SET status = 'SENT' WHERE event_id = ?", pending);
+        maintainer.runOnce();
+        assertThat(exists(partition(old))).isFalse();
+    }
+
+    @Test
+    void archive_detaches_instead_of_dropping() {
+        properties.setArchive(true);
+        LocalDate old = today.minusDays(10);
+        createPartition(old);
+        insert(old, "SENT");
+
+        maintainer(7).runOnce();
+
+        assertThat(attached()).doesNotContain(partition(old));
+        assertThat(exists(partition(old))).isTrue();
+        assertThat(jdbc.queryForObject("SELECT count(*) FROM " + partition(old), Long.class)).isEqualTo(1L);
+    }
+
+    private DailyPartitionMaintainer maintainer(int retentionDays) {
+        return new DailyPartitionMaintainer("test", jdbc,
+                List.of(new PartitionedTable("outbox_events", retentionDays, "status <> 'SENT'")),
+                properties, meterRegistry);
+    }
+
+    private List<String> attached() {
+        return jdbc.queryForList("""
+                SELECT c.relname FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid
+                 WHERE i.inhparent = 'outbox_events'::regclass
+                """, String.class);
+    }
+
+    private boolean exists(String table) {
+        return Boolean.TRUE.equals(jdbc.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, table));
+    }
+
+    private void createPartition(LocalDate day) {
+        jdbc.execute("CREATE TABLE %s PARTITION OF outbox_events FOR VALUES FROM ('%s') TO ('%s')"
+                .formatted(partition(day), day, day.plusDays(1)));
+    }
+
+    private static String partition(LocalDate day) {
+        return "outbox_events_p" + day.format(DateTimeFormatter.BASIC_ISO_DATE);
+    }
+
+    private UUID insert(LocalDate day, String status) {
+        UUID id = UUID.randomUUID();
+        jdbc.update("""
+                INSERT INTO outbox_events(event_id, aggregate_type, aggregate_id, event_type, payload, status, created_at)
+                VALUES (?, 'ORDER', 'order-1', 'order.created', '{}'::jsonb, ?, ?)
+                """, id, status, Timestamp.valueOf(day.atTime(12, 0)));
+        return id;
+    }
+}
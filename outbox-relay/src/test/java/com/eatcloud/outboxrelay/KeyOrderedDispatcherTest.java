@@ -0,0 +1,131 @@
+package com.eatcloud.outboxrelay;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class KeyOrderedDispatcherTest {
+
+    private KeyOrderedDispatcher dispatcher;
+
+    @AfterEach
+    void tearDown() {
+        dispatcher.close();
+    }
+
+    @Test
+    void keepsOrderWithinKeyAndPinsEachKeyToOneLane() {
+        dispatcher = new KeyOrderedDispatcher("test", 4);
+        List<Item> items = new ArrayList<>();
+        for (int seq = 0; seq < 50; seq++) {
+            for (int k = 0; k < 10; k++) {
+                items.add(new Item("menu-" + k, seq));
+            }
+        }
+        Map<String, List<Integer>> seen = new ConcurrentHashMap<>();
+        List<List<Item>> laneInputs = Collections.synchronizedList(new ArrayList<>());
+
+        List<KeyOrderedDispatcher.Lane<Item>> lanes = dispatcher.dispatch(items, Item::key, rows -> {
+            laneInputs.add(rows);
+            rows.forEach(r -> seen.computeIfAbsent(r.key(), k -> Collections.synchronizedList(new ArrayList<>()))
+                    .add(r.seq()));
+        });
+
+        assertThat(lanes).noneMatch(KeyOrderedDispatcher.Lane::failed);
+        assertThat(lanes.stream().mapToInt(l -> l.items().size()).sum()).isEqualTo(items.size());
+        assertThat(seen).hasSize(10);
+        seen.values().forEach(seqs -> assertThat(seqs).isEqualTo(IntStream.range(0, 50).boxed().toList()));
+        // 한 키는 한 레인에만 들어간다
+        Map<String, Set<Integer>> lanesOfKey = new HashMap<>();
+        for (int i = 0; i < laneInputs.size(); i++) {
+            for (Item item : laneInputs.get(i)) {
+                lanesOfKey.computeIfAbsent(item.key(), k -> new HashSet<>()).add(i);
+            }
+        }
+        assertThat(lanesOfKey.values()).allSatisfy(laneIds -> assertThat(laneIds).hasSize(1));
+    }
+
+    @Test
+    void runsLanesConcurrently() {
+        dispatcher = new KeyOrderedDispatcher("test", 2);
+        // 두 레인이 동시에 돌아야만 barrier 를 통과한다
+        CyclicBarrier barrier = new CyclicBarrier(2);
+        List<Item> items = List.of(new Item(keyForLane(0, 2), 0), new Item(keyForLane(1, 2), 0));
+
+        List<KeyOrderedDispatcher.Lane<Item>> lanes = dispatcher.dispatch(items, Item::key, rows -> {
+            try {
+                barrier.await(5, TimeUnit.SECONDS);
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        assertThat(lanes).hasSize(2).noneMatch(KeyOrderedDispatcher.Lane::failed);
+    }
+
+    @Test
+    void failedLaneDoesNotAffectOthers() {
+        dispatcher = new KeyOrderedDispatcher("test", 2);
+        String bad = keyForLane(0, 2);
+        String good = keyForLane(1, 2);
+        List<Item> handled = Collections.synchronizedList(new ArrayList<>());
+
+        List<KeyOrderedDispatcher.Lane<Item>> lanes = dispatcher.dispatch(
+                List.of(new Item(bad, 0), new Item(good, 0), new Item(good, 1)), Item::key, rows -> {
+                    if (rows.get(0).key().equals(bad)) {
+                        throw new IllegalStateException("boom");
+                    }
+                    handled.addAll(rows);
+                });
+
+        KeyOrderedDispatcher.Lane<Item> failed = lanes.stream().filter(KeyOrderedDispatcher.Lane::failed).findFirst().orElseThrow();
+        assertThat(failed.items()).containsExactly(new Item(bad, 0));
+        assertThat(failed.failure()).hasMessage("boom");
+        assertThat(handled).containsExactly(new Item(good, 0), new Item(good, 1));
+    }
+
+    @Test
+    void singleLaneRunsOnCallerThreadAndToleratesNullKey() {
+        dispatcher = new KeyOrderedDispatcher("test", 1);
+        Thread caller = Thread.currentThread();
+        List<Thread> ranOn = new ArrayList<>();
+
+        List<KeyOrderedDispatcher.Lane<Item>> lanes = dispatcher.dispatch(
+                List.of(new Item(null, 0), new Item("menu-1", 1)), Item::key, rows -> ranOn.add(Thread.currentThread()));
+
+        assertThat(lanes).singleElement().satisfies(l -> assertThat(l.items()).hasSize(2));
+        assertThat(ranOn).containsExactly(caller);
+    }
+
+    @Test
+    void emptyInputProducesNoLanes() {
+        dispatcher = new KeyOrderedDispatcher("test", 4);
+
+        assertThat(dispatcher.dispatch(List.<Item>of(), Item::key, rows -> { })).isEmpty();
+    }
+
+    private static String keyForLane(int lane, int workers) {
+        for (int i = 0; ; i++) {
+            String key = "menu-" + i;
+            if (Math.floorMod(key.hashCode(), workers) == lane) {
+                return key;
+            }
+        }
+    }
+
+    private record Item(String key, int seq) {
+    }
+}
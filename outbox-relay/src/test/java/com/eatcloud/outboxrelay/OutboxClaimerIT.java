@@ -0,0 +1,120 @@
+package com.eatcloud.outboxrelay;
+
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.FileSystemResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.init.ResourceDatabasePopulator;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * 두 인스턴스(claimer)가 같은 aggregate 의 행을 나눠 잡을 때 aggregate 내 순서가 지켜지는지 확인한다.
+ * 테이블은 order-service 의 실제 schema.sql(일 단위 파티션, 미발행 부분 인덱스, NOTIFY 트리거)로 만든다.
+ * Docker 가 필요하므로 기본 test 에서 빼고 ./gradlew :outbox-relay:integrationTest 로 돌린다.
+ */
+@Tag("integration")
+@Testcontainers(disabledWithoutDocker = true)
+class OutboxClaimerIT {
+
+    @Container
+    static final PostgreSQLContainer<?> POSTGRES = new PostgreSQLContainer<>("postgres:16-alpine");
+
+    static JdbcTemplate jdbc;
+
+    OutboxClaimer claimerA;
+    OutboxClaimer claimerB;
+
+    @BeforeAll
+    static void createSchema() {
+        DriverManagerDataSource dataSource = new DriverManagerDataSource(
+                POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+        new ResourceDatabasePopulator(new FileSystemResource(System.getProperty("outbox.schema")))
+                .execute(dataSource);
+        jdbc = new JdbcTemplate(dataSource);
+    }
+
+    @BeforeEach
+    void setUp() {
+        jdbc.update("DELETE FROM outbox_events");
+        OutboxRelayProperties properties = new OutboxRelayProperties();
+        properties.setMaxRetry(3);
+        OutboxTable table = new OutboxTable("outbox_events", "event_id", "PENDING");
+        claimerA = new OutboxClaimer(jdbc, table, properties);
+        claimerB = new OutboxClaimer(jdbc, table, properties);
+    }
+
+    @Test
+    void later_row_waits_while_earlier_row_is_leased_by_other_claimer() {
+        LocalDateTime now = LocalDateTime.now();
+        UUID first = insert("order-1", now.minusSeconds(2), null, 0);
+        UUID second = insert("order-1", now.minusSeconds(1), null, 0);
+
+        assertThat(claimerA.claim("a", 1)).containsExactly(first);
+        assertThat(claimerB.claim("b", 10)).isEmpty();
+
+        jdbc.update("UPDATE outbox_events SET status = 'SENT', claimed_by = NULL, claim_expires_at = NULL WHERE event_id = ?", first);
+        assertThat(claimerB.claim("b", 10)).containsExactly(second);
+    }
+
+    @Test
+    void later_row_waits_while_earlier_row_is_locked_by_concurrent_claim() throws Exception {
+        LocalDateTime now = LocalDateTime.now();
+        UUID first = insert("order-1", now.minusSeconds(2), null, 0);
+        UUID second = insert("order-1", now.minusSeconds(1), null, 0);
+        UUID other = insert("order-2", now.minusSeconds(1), null, 0);
+
+        // 다른 인스턴스의 claim 이 앞 행을 잠근 채 아직 커밋하지 않은 상황 → SKIP LOCKED 로 빠진다
+        try (Connection con = DriverManager.getConnection(
+                POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword())) {
+            con.setAutoCommit(false);
+            try (PreparedStatement ps = con.prepareStatement("SELECT 1 FROM outbox_events WHERE event_id = ? FOR UPDATE")) {
+                ps.setObject(1, first);
+                ps.executeQuery();
+            }
+
+            assertThat(claimerB.claim("b", 10)).containsExactly(other);
+            con.rollback();
+        }
+
+        assertThat(claimerA.claim("a", 10)).containsExactlyInAnyOrder(first, second);
+    }
+
+    @Test
+    void later_row_waits_for_earlier_row_in_backoff_but_not_for_exhausted_row() {
+        LocalDateTime now = LocalDateTime.now();
+        UUID backoff = insert("order-1", now.minusSeconds(3), now.plusMinutes(1), 1);
+        UUID afterBackoff = insert("order-1", now.minusSeconds(2), null, 0);
+        insert("order-2", now.minusSeconds(3), null, 3);
+        UUID afterExhausted = insert("order-2", now.minusSeconds(2), null, 0);
+
+        assertThat(claimerA.claim("a", 10)).containsExactly(afterExhausted);
+
+        jdbc.update("UPDATE outbox_events SET next_attempt_at = NULL WHERE event_id = ?", backoff);
+        assertThat(claimerB.claim("b", 10)).containsExactlyInAnyOrder(backoff, afterBackoff);
+    }
+
+    private UUID insert(String aggregateId, LocalDateTime createdAt, LocalDateTime nextAttemptAt, int retryCount) {
+        UUID id = UUID.randomUUID();
+        jdbc.update("""
+                INSERT INTO outbox_events(event_id, aggregate_type, aggregate_id, event_type, payload,
+                                          status, retry_count, created_at, next_attempt_at)
+                VALUES (?, 'ORDER', ?, 'order.created', '{}'::jsonb, 'PENDING', ?, ?, ?)
+                """, id, aggregateId, retryCount, Timestamp.valueOf(createdAt),
+                nextAttemptAt == null ? null : Timestamp.valueOf(nextAttemptAt));
+        return id;
+    }
+}
@@ -0,0 +1,192 @@
+package com.eatcloud.outboxrelay;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.junit.jupiter.api.Test;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.BDDMockito.willAnswer;
+import static org.mockito.Mockito.atLeast;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.times;
+
+/**
+ * NOTIFY 로 깨어나는 drain 경로: 가득 찬 배치면 이어서 돌고, drain 중에 들어온 알림은 한 바퀴로 합친다.
+ */
+class OutboxDrainTest {
+
+    private final OutboxClaimer claimer = mock(OutboxClaimer.class);
+    private final OutboxStatusWriter statusWriter = mock(OutboxStatusWriter.class);
+    private final OutboxRelayProperties properties = new OutboxRelayProperties();
+
+    @Test
+    void drain_keepsGoingWhileBatchesAreFull() {
+        properties.setBatchSize(2);
+        given(claimer.claim(anyString(), anyInt())).willReturn(ids(2), ids(2), ids(1));
+
+        relay().drain();
+
+        then(claimer).should(times(3)).claim(anyString(), anyInt());
+    }
+
+    @Test
+    void drain_coalescesWakeUpsDuringARunIntoOnePass() throws Exception {
+        CountDownLatch inFirstPass = new CountDownLatch(1);
+        CountDownLatch releaseFirstPass = new CountDownLatch(1);
+        AtomicInteger passes = new AtomicInteger();
+        willAnswer(inv -> {
+            if (passes.incrementAndGet() == 1) {
+                inFirstPass.countDown();
+                releaseFirstPass.await(5, TimeUnit.SECONDS);
+            }
+            return List.of();
+        }).given(claimer).claim(anyString(), anyInt());
+        OutboxRelay<UUID, String> relay = relay();
+
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            Future<?> first = pool.submit(relay::drain);
+            assertThat(inFirstPass.await(5, TimeUnit.SECONDS)).isTrue();
+
+            // drain 중에 들어온 알림들은 바로 돌아온다
+            for (int i = 0; i < 5; i++) {
+                pool.submit(relay::drain).get(5, TimeUnit.SECONDS);
+            }
+            assertThat(first.isDone()).isFalse();
+
+            releaseFirstPass.countDown();
+            first.get(5, TimeUnit.SECONDS);
+        } finally {
+            pool.shutdownNow();
+        }
+
+        // 첫 바퀴 + 밀린 알림을 합친 한 바퀴
+        assertThat(passes.get()).isEqualTo(2);
+    }
+
+    @Test
+    void listener_wakesOnConnectAndOncePerNotificationBatch() throws Exception {
+        CountDownLatch woken = new CountDownLatch(2);
+        AtomicInteger wakes = new AtomicInteger();
+        Runnable onNotify = () -> {
+            wakes.incrementAndGet();
+            woken.countDown();
+        };
+
+        PGConnection pg = mock(PGConnection.class);
+        PGNotification notification = mock(PGNotification.class);
+        AtomicInteger polls = new AtomicInteger();
+        willAnswer(inv -> {
+            if (polls.incrementAndGet() == 1) {
+                // 여러 건이 한 번에 와도 깨우는 건 한 번
+                return new PGNotification[]{notification, notification, notification};
+            }
+            Thread.sleep(10);
+            return null;
+        }).given(pg).getNotifications(anyInt());
+        DataSource dataSource = dataSource(pg);
+
+        OutboxNotificationListener listener =
+                new OutboxNotificationListener("test", dataSource, "outbox_events_new", onNotify, properties);
+        listener.start();
+        try {
+            assertThat(woken.await(5, TimeUnit.SECONDS)).isTrue();
+            then(pg).should(atLeast(2)).getNotifications(anyInt());
+        } finally {
+            listener.stop();
+        }
+        assertThat(wakes.get()).isEqualTo(2);
+    }
+
+    @Test
+    void listener_disabledDoesNotConnect() throws Exception {
+        properties.setListen(false);
+        DataSource dataSource = mock(DataSource.class);
+
+        OutboxNotificationListener listener =
+                new OutboxNotificationListener("test", dataSource, "outbox_events_new", () -> { }, properties);
+        listener.start();
+
+        assertThat(listener.isRunning()).isFalse();
+        then(dataSource).should(never()).getConnection();
+    }
+
+    @Test
+    void listener_rejectsUnsafeChannelName() {
+        assertThatThrownBy(() -> new OutboxNotificationListener("test", mock(DataSource.class),
+                "outbox; DROP TABLE x", () -> { }, properties))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private DataSource dataSource(PGConnection pg) throws Exception {
+        Connection con = mock(Connection.class);
+        given(con.createStatement()).willReturn(mock(Statement.class));
+        given(con.unwrap(PGConnection.class)).willReturn(pg);
+        DataSource dataSource = mock(DataSource.class);
+        given(dataSource.getConnection()).willReturn(con);
+        return dataSource;
+    }
+
+    @SuppressWarnings("unchecked")
+    private OutboxRelay<UUID, String> relay() {
+        return new OutboxRelay<>("test", new IdSource(), mock(KafkaTemplate.class), claimer, statusWriter,
+                properties, new SimpleMeterRegistry());
+    }
+
+    private static List<UUID> ids(int n) {
+        return Stream.generate(UUID::randomUUID).limit(n).toList();
+    }
+
+    // 행 자체가 id 인 소스. drain 테스트에서는 send 결과를 보지 않는다
+    private static final class IdSource implements OutboxSource<UUID, String> {
+
+        @Override
+        public List<UUID> load(Collection<UUID> ids) {
+            return List.of();
+        }
+
+        @Override
+        public UUID idOf(UUID entry) {
+            return entry;
+        }
+
+        @Override
+        public LocalDateTime createdAtOf(UUID entry) {
+            return LocalDateTime.now();
+        }
+
+        @Override
+        public String partitionKeyOf(UUID entry) {
+            return entry.toString();
+        }
+
+        @Override
+        public ProducerRecord<String, String> toRecord(UUID entry) {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,175 @@
+package com.eatcloud.outboxrelay;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.kafka.clients.producer.ProducerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.kafka.support.SendResult;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.BDDMockito.given;
+import static org.mockito.BDDMockito.then;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+
+/**
+ * 한 주기의 결과 반영(sent / retry / release)과 in-flight 한도를 claimer·statusWriter 를 목으로 바꿔 확인한다.
+ */
+class OutboxRelayTest {
+
+    private static final String OWNER = "relay-test";
+
+    private final OutboxClaimer claimer = mock(OutboxClaimer.class);
+    private final OutboxStatusWriter statusWriter = mock(OutboxStatusWriter.class);
+    @SuppressWarnings("unchecked")
+    private final KafkaTemplate<String, String> kafkaTemplate = mock(KafkaTemplate.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final OutboxRelayProperties properties = new OutboxRelayProperties();
+
+    private final LocalDateTime base = LocalDateTime.now().minusSeconds(10);
+
+    @BeforeEach
+    void setUp() {
+        properties.setOwnerId(OWNER);
+        properties.setWorkers(1);
+    }
+
+    @Test
+    void relayOnce_writesEachOutcomeInOneCall() {
+        Row ok = row("agg-1", 1);
+        Row sendFails = row("agg-2", 2);
+        Row broken = row("agg-3", 3);
+        Row afterBroken = row("agg-3", 4);
+        TestSource source = new TestSource(List.of(ok, sendFails, broken.asBroken(), afterBroken));
+        claim(source);
+
+        given(kafkaTemplate.send(record(ok))).willReturn(CompletableFuture.completedFuture(null));
+        given(kafkaTemplate.send(record(sendFails)))
+                .willReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")));
+
+        int claimed = relay(source).relayOnce();
+
+        assertThat(claimed).isEqualTo(4);
+        then(statusWriter).should().markSent(List.of(ok.id()), OWNER);
+        then(statusWriter).should().markRetry(List.of(broken.id(), sendFails.id()), OWNER);
+        // 같은 aggregate 의 앞 행이 실패하면 뒤 행은 보내지 않고 lease 만 돌려놓는다
+        then(statusWriter).should().release(List.of(afterBroken.id()), OWNER);
+        then(kafkaTemplate).should(never()).send(record(afterBroken));
+        assertThat(meterRegistry.get("outbox.relay.sent").counter().count()).isEqualTo(1.0);
+        assertThat(failures("serialize")).isEqualTo(1.0);
+        assertThat(failures("send")).isEqualTo(1.0);
+    }
+
+    @Test
+    void relayOnce_defersRowsWhenInFlightSlotsRunOut() {
+        properties.setMaxInFlight(1);
+        properties.setSendTimeoutMs(50);
+        Row first = row("agg-1", 1);
+        Row second = row("agg-2", 2);
+        Row third = row("agg-3", 3);
+        TestSource source = new TestSource(List.of(first, second, third));
+        claim(source);
+
+        // ack 가 오지 않아 슬롯이 반환되지 않는다
+        given(kafkaTemplate.send(record(first))).willReturn(new CompletableFuture<SendResult<String, String>>());
+
+        relay(source).relayOnce();
+
+        then(kafkaTemplate).should().send(record(first));
+        then(kafkaTemplate).should(never()).send(record(second));
+        then(statusWriter).should().markSent(List.of(), OWNER);
+        then(statusWriter).should().markRetry(List.of(first.id()), OWNER);
+        then(statusWriter).should().release(List.of(second.id(), third.id()), OWNER);
+        assertThat(failures("timeout")).isEqualTo(1.0);
+        assertThat(meterRegistry.get("outbox.relay.inflight").gauge().value()).isEqualTo(1.0);
+    }
+
+    @Test
+    void relayOnce_emptyClaimWritesNothing() {
+        given(claimer.claim(anyString(), eq(properties.getBatchSize()))).willReturn(List.of());
+
+        int claimed = relay(new TestSource(List.of())).relayOnce();
+
+        assertThat(claimed).isZero();
+        then(statusWriter).shouldHaveNoInteractions();
+        then(kafkaTemplate).should(never()).send(any(ProducerRecord.class));
+    }
+
+    private OutboxRelay<Row, String> relay(TestSource source) {
+        return new OutboxRelay<>("test", source, kafkaTemplate, claimer, statusWriter, properties, meterRegistry);
+    }
+
+    private void claim(TestSource source) {
+        given(claimer.claim(OWNER, properties.getBatchSize())).willReturn(List.copyOf(source.rows.keySet()));
+    }
+
+    private double failures(String reason) {
+        return meterRegistry.get("outbox.relay.failures").tag("reason", reason).counter().count();
+    }
+
+    private Row row(String key, int secondsAfterBase) {
+        return new Row(UUID.randomUUID(), key, base.plusSeconds(secondsAfterBase), false);
+    }
+
+    private static ProducerRecord<String, String> record(Row row) {
+        return new ProducerRecord<>("topic", row.key(), row.id().toString());
+    }
+
+    private record Row(UUID id, String key, LocalDateTime createdAt, boolean broken) {
+        Row asBroken() {
+            return new Row(id, key, createdAt, true);
+        }
+    }
+
+    private static final class TestSource implements OutboxSource<Row, String> {
+
+        private final Map<UUID, Row> rows;
+
+        private TestSource(List<Row> rows) {
+            this.rows = rows.stream().collect(Collectors.toMap(Row::id, Function.identity(),
+                    (a, b) -> a, LinkedHashMap::new));
+        }
+
+        @Override
+        public List<Row> load(Collection<UUID> ids) {
+            return ids.stream().map(rows::get).toList();
+        }
+
+        @Override
+        public UUID idOf(Row entry) {
+            return entry.id();
+        }
+
+        @Override
+        public LocalDateTime createdAtOf(Row entry) {
+            return entry.createdAt();
+        }
+
+        @Override
+        public String partitionKeyOf(Row entry) {
+            return entry.key();
+        }
+
+        @Override
+        public ProducerRecord<String, String> toRecord(Row entry) {
+            if (entry.broken()) {
+                throw new IllegalArgumentException("직렬화 실패");
+            }
+            return record(entry);
+        }
+    }
+}
@@ -12,4 +12,6 @@ public class PaymentRequestCancelEvent {
     
     private UUID orderId;
     private String sagaId;
+    private String replyTo;
+    private String correlationId;
 }
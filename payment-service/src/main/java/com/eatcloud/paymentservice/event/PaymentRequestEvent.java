@@ -14,4 +14,6 @@ public class PaymentRequestEvent {
     private UUID customerId;
     private Integer amount;
     private String sagaId;
+    private String replyTo;
+    private String correlationId;
 }
@@ -13,6 +13,7 @@ public class PaymentRequestResponseEvent {
     private UUID orderId;
     private UUID customerId;
     private String sagaId;
+    private String correlationId;
     private String paymentUrl;
     private boolean success;
     private String errorMessage;
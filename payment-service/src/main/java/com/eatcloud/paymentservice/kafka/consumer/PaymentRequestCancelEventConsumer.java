@@ -30,11 +30,12 @@ public class PaymentRequestCancelEventConsumer {
             PaymentRequestCancelResponseEvent responseEvent = PaymentRequestCancelResponseEvent.builder()
                     .orderId(event.getOrderId())
                     .sagaId(event.getSagaId())
+                    .correlationId(event.getCorrelationId())
                     .success(true)
                     .errorMessage(null)
                     .build();
             
-            kafkaTemplate.send("payment.request.cancel.response", event.getOrderId().toString(), responseEvent);
+            kafkaTemplate.send(replyTopic(event.getReplyTo(), "payment.request.cancel.response"), event.getOrderId().toString(), responseEvent);
             log.info("결제 요청 취소 성공 응답 발행: orderId={}, sagaId={}", event.getOrderId(), event.getSagaId());
             
         } catch (Exception e) {
@@ -44,12 +45,18 @@ public class PaymentRequestCancelEventConsumer {
             PaymentRequestCancelResponseEvent responseEvent = PaymentRequestCancelResponseEvent.builder()
                     .orderId(event.getOrderId())
                     .sagaId(event.getSagaId())
+                    .correlationId(event.getCorrelationId())
                     .success(false)
                     .errorMessage(e.getMessage())
                     .build();
             
-            kafkaTemplate.send("payment.request.cancel.response", event.getOrderId().toString(), responseEvent);
+            kafkaTemplate.send(replyTopic(event.getReplyTo(), "payment.request.cancel.response"), event.getOrderId().toString(), responseEvent);
             log.info("결제 요청 취소 실패 응답 발행: orderId={}, sagaId={}", event.getOrderId(), event.getSagaId());
         }
     }
+
+    // 요청자가 응답 토픽(replyTo)을 지정했으면 그 토픽으로, 아니면 공용 응답 토픽으로 보낸다
+    private String replyTopic(String replyTo, String defaultTopic) {
+        return replyTo != null && !replyTo.isBlank() ? replyTo : defaultTopic;
+    }
 }
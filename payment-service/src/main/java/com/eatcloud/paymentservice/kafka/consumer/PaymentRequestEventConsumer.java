@@ -34,12 +34,13 @@ public class PaymentRequestEventConsumer {
                     .orderId(event.getOrderId())
                     .customerId(event.getCustomerId())
                     .sagaId(event.getSagaId())
+                    .correlationId(event.getCorrelationId())
                     .paymentUrl(paymentRequest.getRedirectUrl())
                     .success(true)
                     .errorMessage(null)
                     .build();
 
-            kafkaTemplate.send("payment.request.response", event.getOrderId().toString(), responseEvent);
+            kafkaTemplate.send(replyTopic(event.getReplyTo(), "payment.request.response"), event.getOrderId().toString(), responseEvent);
             log.info("결제 요청 성공 응답 발행: orderId={}, sagaId={}, paymentUrl={}",
                     event.getOrderId(), event.getSagaId(), paymentRequest.getRedirectUrl());
 
@@ -51,13 +52,19 @@ public class PaymentRequestEventConsumer {
                     .orderId(event.getOrderId())
                     .customerId(event.getCustomerId())
                     .sagaId(event.getSagaId())
+                    .correlationId(event.getCorrelationId())
                     .paymentUrl(null)
                     .success(false)
                     .errorMessage(e.getMessage())
                     .build();
 
-            kafkaTemplate.send("payment.request.response", event.getOrderId().toString(), responseEvent);
+            kafkaTemplate.send(replyTopic(event.getReplyTo(), "payment.request.response"), event.getOrderId().toString(), responseEvent);
             log.info("결제 요청 실패 응답 발행: orderId={}, sagaId={}", event.getOrderId(), event.getSagaId());
         }
     }
+
+    // 요청자가 응답 토픽(replyTo)을 지정했으면 그 토픽으로, 아니면 공용 응답 토픽으로 보낸다
+    private String replyTopic(String replyTo, String defaultTopic) {
+        return replyTo != null && !replyTo.isBlank() ? replyTo : defaultTopic;
+    }
 }
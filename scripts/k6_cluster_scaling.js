@@ -0,0 +1,102 @@
+import http from 'k6/http';
+import { check } from 'k6';
+import { Counter, Trend } from 'k6/metrics';
+
+// Redis Cluster 노드 수에 따른 핫패스 예약 처리량 비교.
+//
+// 1) scripts/redis-cluster/docker-compose.yml 로 MASTERS=1/3/6 클러스터를 띄우고
+// 2) store-service 를 REDIS_CLUSTER_NODES + inventory.hotpath.keys.layout=tagged 로 (가능하면 여러 인스턴스) 기동한 뒤
+// 3) 같은 MENUS(재고가 넉넉한 메뉴 여러 개, 파티션이 고르게 섞이도록 partitions 이상 권장)로 각각 실행해
+//    reserve_ok/s 와 p95 를 비교한다. 메뉴가 하나면 슬롯도 하나라 노드 수와 무관하다.
+//
+//   k6 run -e BASE=http://localhost:8080 -e MENUS=uuid1,uuid2,... -e NODES=3 scripts/k6_cluster_scaling.js
+
+const BASE  = __ENV.BASE || 'http://localhost:8080';
+const API   = `${BASE}/api/v1/stores/inventory`;
+const ADMIN = `${BASE}/api/v1/stores/admin/hotpath`;
+const MENUS = (__ENV.MENUS || '').split(',').map((s) => s.trim()).filter((s) => s.length > 0);
+const NODES = __ENV.NODES || '?';
+const AUTH  = __ENV.AUTH_TOKEN || '';
+const PEAK  = parseInt(__ENV.PEAK_RPS || '20000');
+
+export const options = {
+    scenarios: {
+        ramp: {
+            executor: 'ramping-arrival-rate',
+            startRate: Math.floor(PEAK / 10),
+            timeUnit: '1s',
+            preAllocatedVUs: 200,
+            maxVUs: 2000,
+            stages: [
+                { duration: '30s', target: Math.floor(PEAK / 2) },
+                { duration: '60s', target: PEAK },
+                { duration: '30s', target: PEAK },
+            ],
+        },
+    },
+};
+
+const m_ok    = new Counter('reserve_ok');
+const m_short = new Counter('reserve_insufficient');
+const m_err   = new Counter('reserve_err');
+const t_res   = new Trend('latency_reserve');
+
+function uuid() {
+    const rnd = () => Math.floor((1 + Math.random()) * 0x10000).toString(16).substring(1);
+    return `${rnd()}${rnd()}-${rnd()}-${rnd()}-${rnd()}-${rnd()}${rnd()}${rnd()}`;
+}
+
+function headers() {
+    const h = { 'Content-Type': 'application/json' };
+    if (AUTH) h['Authorization'] = `Bearer ${AUTH}`;
+    return h;
+}
+
+export function setup() {
+    if (MENUS.length === 0) throw new Error('MENUS 에 메뉴 UUID 를 콤마로 넘겨야 합니다');
+    for (const menuId of MENUS) {
+        const seeded = http.post(`${ADMIN}/seed/${menuId}`, null, { headers: headers() });
+        const toggled = http.post(`${ADMIN}/toggle/${menuId}/on`, null, { headers: headers() });
+        check(seeded, { 'seed 2xx': (r) => r.status >= 200 && r.status < 300 });
+        check(toggled, { 'toggle 2xx': (r) => r.status >= 200 && r.status < 300 });
+    }
+    return {};
+}
+
+export default function () {
+    const menuId = MENUS[Math.floor(Math.random() * MENUS.length)];
+    const body = JSON.stringify({ orderId: uuid(), orderLineId: uuid(), menuId, qty: 1 });
+
+    const t0 = Date.now();
+    const res = http.post(`${API}/reserve`, body, { headers: headers() });
+    t_res.add(Date.now() - t0);
+
+    if (res.status === 200) m_ok.add(1);
+    else if (res.status === 409) m_short.add(1);
+    else m_err.add(1);
+}
+
+export function handleSummary(data) {
+    const sec = (data.state.testRunDurationMs || 1) / 1000;
+    const ok = data.metrics.reserve_ok?.values?.count || 0;
+    const p95 = data.metrics.latency_reserve?.values?.['p(95)'] || 0;
+    const lines = [
+        '--- REDIS CLUSTER SCALING ---',
+        `BASE=${BASE}`,
+        `NODES=${NODES} MENUS=${MENUS.length}`,
+        '',
+        `reserve_ok:           ${ok}`,
+        `reserve_ok_per_sec:   ${(ok / sec).toFixed(1)}`,
+        `reserve_insufficient: ${data.metrics.reserve_insufficient?.values?.count || 0}`,
+        `reserve_err:          ${data.metrics.reserve_err?.values?.count || 0}`,
+        `reserve_p95:          ${p95.toFixed(2)} ms`,
+        '-----------------------------',
+    ].join('\n');
+    const csv = `nodes,menus,reserve_ok_per_sec,reserve_p95\n${NODES},${MENUS.length},${(ok / sec).toFixed(1)},${p95.toFixed(2)}`;
+
+    return {
+        stdout: lines,
+        [`cluster_scaling_${NODES}nodes.txt`]: lines,
+        [`cluster_scaling_${NODES}nodes.csv`]: csv,
+    };
+}
@@ -1,13 +1,20 @@
 // package: com.eatcloud.storeservice.config
 package com.eatcloud.storeservice.config;
 
+import com.eatcloud.outboxrelay.KeyOrderedDispatcher;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.producer.ProducerConfig;
+import org.apache.kafka.common.TopicPartition;
+import org.apache.kafka.common.serialization.ByteArrayDeserializer;
+import org.apache.kafka.common.serialization.ByteArraySerializer;
 import org.apache.kafka.common.serialization.StringDeserializer;
+import org.apache.kafka.common.serialization.StringSerializer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.*;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.*;
 import org.springframework.kafka.listener.ContainerProperties;
+import org.springframework.kafka.listener.DeadLetterPublishingRecoverer;
 import org.springframework.kafka.listener.DefaultErrorHandler;
 import org.springframework.util.backoff.FixedBackOff;
 
@@ -16,43 +23,62 @@ import java.util.*;
 @Configuration
 public class KafkaStockStringConfig {
 
+    // value 는 byte[] 로 받고 JSON/Smile 판별은 StockEventEnvelope 가 한다
     @Bean
-    public ConsumerFactory<String, String> stockStringConsumerFactory(
+    public ConsumerFactory<String, byte[]> stockStringConsumerFactory(
             @Value("${spring.kafka.bootstrap-servers}") String bootstrap,
-            @Value("${spring.kafka.consumer.group-id:store-service}") String groupId
+            @Value("${spring.kafka.consumer.group-id:store-service}") String groupId,
+            @Value("${inventory.projector.max-poll-records:500}") int maxPollRecords
     ) {
         Map<String, Object> props = new HashMap<>();
         props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrap);
         props.put(ConsumerConfig.GROUP_ID_CONFIG, groupId + "-projector");
         props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
-        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, ByteArrayDeserializer.class);
         props.put(ConsumerConfig.AUTO_OFFSET_RESET_CONFIG, "earliest");
+        props.put(ConsumerConfig.MAX_POLL_RECORDS_CONFIG, maxPollRecords); // 배치 크기 상한
         return new DefaultKafkaConsumerFactory<>(props);
     }
 
     @Bean
-    public ConcurrentKafkaListenerContainerFactory<String, String> stockStringKafkaListenerContainerFactory(
-            ConsumerFactory<String, String> stockStringConsumerFactory
+    public ConcurrentKafkaListenerContainerFactory<String, byte[]> stockStringKafkaListenerContainerFactory(
+            ConsumerFactory<String, byte[]> stockStringConsumerFactory,
+            @Value("${spring.kafka.bootstrap-servers}") String bootstrap
     ) {
-        var factory = new ConcurrentKafkaListenerContainerFactory<String, String>();
+        var factory = new ConcurrentKafkaListenerContainerFactory<String, byte[]>();
         factory.setConsumerFactory(stockStringConsumerFactory);
 
+        // ✅ 배치 리스너: poll 한 번 분량을 StockProjectorListener 가 한 트랜잭션으로 반영
+        factory.setBatchListener(true);
+
         // ✅ MANUAL ack 모드 (ack.acknowledge()를 직접 호출할 수 있게)
         factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.MANUAL_IMMEDIATE);
 
-        // ✅ 에러 시 재시도 없이 스킵하고 오프셋 커밋(무한 재시도 방지)
-        var eh = new DefaultErrorHandler(
-                (record, ex) -> {
-                    // 로그만 남기고 스킵
-                    // log.error("[Projector] skip: topic={} offset={} err={}", record.topic(), record.offset(), ex.toString());
-                },
-                new FixedBackOff(0L, 0L) // 재시도 0회
+        // ✅ 리스너가 BatchListenerFailedException 으로 넘긴 레코드부터 3회 재시도 후 <topic>.dlt 로 보내고 커밋
+        var recoverer = new DeadLetterPublishingRecoverer(
+                dltTemplate(bootstrap),
+                (record, ex) -> new TopicPartition(record.topic() + ".dlt", record.partition())
         );
-        eh.setCommitRecovered(true);
+        var eh = new DefaultErrorHandler(recoverer, new FixedBackOff(1000L, 3L));
         factory.setCommonErrorHandler(eh);
 
         factory.setConcurrency(2);
         return factory;
     }
 
+    // DLT 로 원본 바이트를 그대로 옮기는 전용 템플릿. 기본 템플릿은 JsonSerializer 라 byte[] 가 변형되고,
+    // KafkaTemplate 빈을 하나 더 두면 기본 템플릿 자동 구성이 꺼지므로 빈으로 등록하지 않는다
+    private static KafkaTemplate<String, byte[]> dltTemplate(String bootstrap) {
+        Map<String, Object> props = new HashMap<>();
+        props.put(ProducerConfig.BOOTSTRAP_SERVERS_CONFIG, bootstrap);
+        props.put(ProducerConfig.KEY_SERIALIZER_CLASS_CONFIG, StringSerializer.class);
+        props.put(ProducerConfig.VALUE_SERIALIZER_CLASS_CONFIG, ByteArraySerializer.class);
+        return new KafkaTemplate<>(new DefaultKafkaProducerFactory<>(props));
+    }
+
+    // ✅ 배치를 menuId 레인으로 나눠 병렬 반영 (같은 메뉴는 같은 레인 → offset 순서 유지)
+    @Bean
+    public KeyOrderedDispatcher projectorDispatcher(@Value("${inventory.projector.workers:4}") int workers) {
+        return new KeyOrderedDispatcher("stock-projector", workers);
+    }
 }
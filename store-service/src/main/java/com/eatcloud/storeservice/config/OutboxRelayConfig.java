@@ -0,0 +1,105 @@
+package com.eatcloud.storeservice.config;
+
+import com.eatcloud.eventcodec.EventEncoding;
+import com.eatcloud.outboxrelay.DailyPartitionMaintainer;
+import com.eatcloud.outboxrelay.ExpiredRowCleaner;
+import com.eatcloud.outboxrelay.OutboxEventRegistry;
+import com.eatcloud.outboxrelay.OutboxNotificationListener;
+import com.eatcloud.outboxrelay.OutboxPartitionProperties;
+import com.eatcloud.outboxrelay.OutboxProducers;
+import com.eatcloud.outboxrelay.OutboxRelay;
+import com.eatcloud.outboxrelay.OutboxRelayProperties;
+import com.eatcloud.outboxrelay.OutboxRow;
+import com.eatcloud.outboxrelay.OutboxTable;
+import com.eatcloud.outboxrelay.PartitionedTable;
+import com.eatcloud.outboxrelay.WireOutboxSource;
+import com.eatcloud.storeservice.domain.inventory.StockEvents;
+import com.eatcloud.storeservice.domain.outbox.entity.Outbox;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.util.List;
+import java.util.Map;
+
+@Configuration
+public class OutboxRelayConfig {
+
+    private static final OutboxTable OUTBOX_TABLE = new OutboxTable("p_outbox", "id",
+            Outbox.Status.PENDING.name(), "published_at = now(), sent = true");
+
+    /** inventory.outbox.publisher.* 바인딩. 기본값은 기존 퍼블리셔(30s 지수 백오프, 10회 후 FAILED)와 동일 */
+    @Bean
+    @ConfigurationProperties(prefix = "inventory.outbox.publisher")
+    public OutboxRelayProperties stockOutboxRelayProperties() {
+        OutboxRelayProperties props = new OutboxRelayProperties();
+        props.setMaxRetry(10);
+        props.setBaseBackoffMs(30_000);
+        props.setMaxBackoffMs(1_800_000);
+        props.setJitterMs(15_000);
+        return props;
+    }
+
+    /** 재고 이벤트는 모두 stock-events 토픽, payload 는 Map 으로 기록된다 */
+    @Bean
+    public OutboxEventRegistry stockOutboxEventRegistry(
+            @Value("${inventory.outbox.publisher.topic:stock-events}") String topic) {
+        OutboxEventRegistry registry = new OutboxEventRegistry();
+        StockEvents.ALL.forEach(type -> registry.register(type, topic, Map.class));
+        return registry;
+    }
+
+    /** 저장된 payload JSON 을 그대로 value 로(kafka.codec.binary-topics 토픽은 Smile 로 변환), id/eventType/aggregate/createdAt 은 헤더로 보낸다 */
+    @Bean
+    public OutboxRelay<OutboxRow, byte[]> stockOutboxRelay(@Value("${spring.kafka.bootstrap-servers}") String bootstrapServers,
+                                                           @Value("${kafka.codec.binary-topics:}") String binaryTopics,
+                                                           OutboxEventRegistry stockOutboxEventRegistry,
+                                                           ObjectMapper objectMapper,
+                                                           JdbcTemplate jdbcTemplate,
+                                                           OutboxRelayProperties stockOutboxRelayProperties,
+                                                           MeterRegistry meterRegistry) {
+        WireOutboxSource source = new WireOutboxSource(jdbcTemplate, OUTBOX_TABLE,
+                stockOutboxEventRegistry, objectMapper, "store-service", EventEncoding.parseTopics(binaryTopics));
+        return new OutboxRelay<>("stock-outbox", source, OutboxProducers.bytesTemplate(bootstrapServers),
+                jdbcTemplate, OUTBOX_TABLE, stockOutboxRelayProperties, meterRegistry);
+    }
+
+    /** p_outbox INSERT 트리거(trg_p_outbox_notify)의 NOTIFY 로 즉시 발행 */
+    @Bean
+    public OutboxNotificationListener stockOutboxListener(DataSource dataSource,
+                                                          OutboxRelay<OutboxRow, byte[]> stockOutboxRelay,
+                                                          OutboxRelayProperties stockOutboxRelayProperties) {
+        return new OutboxNotificationListener("stock-outbox", dataSource, "p_outbox",
+                stockOutboxRelay::drain, stockOutboxRelayProperties);
+    }
+
+    /** inventory.outbox.partition.* 바인딩 (일 단위 파티션 보관/선생성) */
+    @Bean
+    @ConfigurationProperties(prefix = "inventory.outbox.partition")
+    public OutboxPartitionProperties stockOutboxPartitionProperties() {
+        return new OutboxPartitionProperties();
+    }
+
+    /** p_outbox 의 FAILED 는 종결 상태라 PENDING 이 남은 파티션만 보관한다 */
+    @Bean
+    public DailyPartitionMaintainer stockPartitionMaintainer(JdbcTemplate jdbcTemplate,
+                                                             OutboxPartitionProperties stockOutboxPartitionProperties,
+                                                             MeterRegistry meterRegistry) {
+        return new DailyPartitionMaintainer("stock-partition", jdbcTemplate, List.of(
+                new PartitionedTable("p_outbox", stockOutboxPartitionProperties.getRetentionDays(), "status = 'PENDING'")
+        ), stockOutboxPartitionProperties, meterRegistry);
+    }
+
+    /** stock_proj_processed 는 event_id 유일성이 멱등 판정이라 파티션하지 않고 행 단위로 만료시킨다 */
+    @Bean
+    public ExpiredRowCleaner stockProcessedEventCleaner(JdbcTemplate jdbcTemplate,
+                                                        OutboxPartitionProperties stockOutboxPartitionProperties) {
+        return new ExpiredRowCleaner("stock-processed", jdbcTemplate, "stock_proj_processed", "processed_at",
+                stockOutboxPartitionProperties.getProcessedRetentionDays(), stockOutboxPartitionProperties);
+    }
+}
@@ -12,9 +12,23 @@ public class RedissonConfig {
 
     @Bean
     public RedissonClient redissonClient(
-            @Value("${redis.url}") String redisUrl
+            @Value("${redis.url}") String redisUrl,
+            @Value("${redis.cluster.nodes:}") String clusterNodes
     ) {
         Config cfg = new Config();
+        if (!clusterNodes.isBlank()) {
+            // Redis Cluster: 재고 키는 inventory.hotpath.keys.layout=tagged 로 써야 Lua 가 CROSSSLOT 없이 돈다
+            cfg.useClusterServers()
+                    .addNodeAddress(clusterNodes.split("\\s*,\\s*"))   // e.g. redis://node1:7000,redis://node2:7001
+                    .setMasterConnectionPoolSize(32)
+                    .setMasterConnectionMinimumIdleSize(24)
+                    .setIdleConnectionTimeout(10000)
+                    .setConnectTimeout(10000)
+                    .setTimeout(10000)
+                    .setRetryAttempts(2)
+                    .setRetryInterval(200);
+            return Redisson.create(cfg);
+        }
         cfg.useSingleServer()
                 .setAddress(redisUrl)             // e.g. redis://localhost:6379 (ElastiCache 엔드포인트)
                 .setConnectionPoolSize(32)         // >= 24
@@ -1,5 +1,6 @@
 package com.eatcloud.storeservice.domain.inventory;
 
+import com.eatcloud.storeservice.domain.inventory.hotpath.HotPathFencedException;
 import com.eatcloud.storeservice.domain.inventory.service.InventoryServiceImpl;
 import com.eatcloud.storeservice.support.lock.RedisLockExecutor;
 import jakarta.servlet.http.HttpServletRequest;
@@ -29,6 +30,13 @@ public class GlobalExceptionHandler {
         return Map.of("code", 503, "error", "LOCK_TIMEOUT", "message", e.getMessage());
     }
 
+    @ExceptionHandler(HotPathFencedException.class)
+    @ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE) // 503: 핫/비핫 전환 중, 잠시 뒤 재시도
+    public Map<String,Object> menuSwitching(Exception e, HttpServletRequest req) {
+        log.warn("[INV][503] {} {}", req.getRequestURI(), e.toString());
+        return Map.of("code", 503, "error", "MENU_SWITCHING", "message", e.getMessage());
+    }
+
     @ExceptionHandler(IllegalArgumentException.class)
     @ResponseStatus(HttpStatus.BAD_REQUEST) // 필요시 404 등으로 분기
     public Map<String,Object> badRequest(IllegalArgumentException e, HttpServletRequest req) {
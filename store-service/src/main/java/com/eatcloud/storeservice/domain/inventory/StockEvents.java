@@ -1,5 +1,7 @@
 package com.eatcloud.storeservice.domain.inventory;
 
+import java.util.List;
+
 public final class StockEvents {
     private StockEvents() {}
 
@@ -8,4 +10,9 @@ public final class StockEvents {
     public static final String ADJUSTED     = "stock.adjusted";
     public static final String COMMITTED    = "stock.committed";    // ✅ rename (was confirmed)
     public static final String INSUFFICIENT = "stock.insufficient"; // ✅ new
+    public static final String RETURNED     = "stock.returned";     // 확정 후 환불 반납
+
+    /** outbox 에 기록되는 전체 이벤트 타입 (OutboxEventRegistry 등록용) */
+    public static final List<String> ALL =
+            List.of(RESERVED, RELEASED, ADJUSTED, COMMITTED, INSUFFICIENT, RETURNED);
 }
\ No newline at end of file
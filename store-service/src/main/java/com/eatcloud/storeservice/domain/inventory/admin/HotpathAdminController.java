@@ -1,7 +1,12 @@
 package com.eatcloud.storeservice.domain.inventory.admin;
 
-import com.eatcloud.storeservice.domain.inventory.hot.HotKeyDecider;
+import com.eatcloud.storeservice.domain.inventory.hot.HotMenuDetector;
+import com.eatcloud.storeservice.domain.inventory.hotpath.FlashSaleRegistry;
+import com.eatcloud.storeservice.domain.inventory.hotpath.FlashSaleService;
+import com.eatcloud.storeservice.domain.inventory.hotpath.HotPathDriftChecker;
 import com.eatcloud.storeservice.domain.inventory.hotpath.HotPathLuaService;
+import com.eatcloud.storeservice.domain.inventory.hotpath.InventoryKeyMigrator;
+import com.eatcloud.storeservice.domain.inventory.hotpath.InventoryKeys;
 import com.eatcloud.storeservice.domain.inventory.service.InventoryQueryService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.web.bind.annotation.*;
@@ -15,22 +20,71 @@ import java.util.UUID;
 public class HotpathAdminController {
 
     private final HotPathLuaService hotpath;
-    private final HotKeyDecider hot;
+    private final HotMenuDetector detector;
+    private final HotPathDriftChecker driftChecker;
+    private final InventoryKeys inventoryKeys;
+    private final InventoryKeyMigrator keyMigrator;
+    private final FlashSaleService flashSale;
+    private final FlashSaleRegistry flashSales;
     private final InventoryQueryService queries; // DB에서 현재 재고 읽어오는 기존 서비스
 
-    /** DB 수치를 읽어 Redis 키(inv:{menuId}:avail/reserved)로 시드 */
+    /** DB 수치를 읽어 Redis 키(avail/reserved, 배치는 InventoryKeys)로 시드 */
     @PostMapping("/seed/{menuId}")
     public void seed(@PathVariable UUID menuId) {
         var v = queries.getStock(menuId); // available/reserved를 리턴하는 메서드여야 함
         hotpath.seedRedisStock(menuId, v.getAvailable(), v.getReserved());
     }
 
-    /** 핫키 on/off 토글 */
+    /** 핫키 on/off 토글 (Redis 우선 모드면 시드·전환 울타리까지 함께) */
     @PostMapping("/toggle/{menuId}/on")
-    public void markHot(@PathVariable UUID menuId) { hot.markHot(menuId); }
+    public void markHot(@PathVariable UUID menuId) { detector.markHot(menuId); }
 
     @PostMapping("/toggle/{menuId}/off")
-    public void unmarkHot(@PathVariable UUID menuId) { hot.unmarkHot(menuId); }
+    public void unmarkHot(@PathVariable UUID menuId) { detector.unmarkHot(menuId); }
+
+    /** 자동 감지 상태: 현재 핫 메뉴, 자동 승격분, 후보 메뉴별 추정 비율(점검용) */
+    @GetMapping("/auto")
+    public Map<String, Object> autoDetection(@RequestParam(defaultValue = "20") int top) {
+        return detector.snapshot(top);
+    }
+
+    /** Redis 우선 모드: 마지막 드리프트 점검 결과 (Redis available/reserved vs DB + 미반영 저널) */
+    @GetMapping("/drift")
+    public HotPathDriftChecker.DriftReport drift() {
+        return driftChecker.lastReport();
+    }
+
+    /** 키 배치 전환: 남은 legacy 키를 tagged 배치로 모두 옮긴다 (inventory.hotpath.keys.layout=tagged 일 때만) */
+    @PostMapping("/keys/migrate")
+    public Map<String, Object> migrateKeys() {
+        int moved = keyMigrator.migrateAll();
+        return Map.of("layout", inventoryKeys.layout(), "migratedMenus", moved);
+    }
+
+    /** 플래시 세일 모드 켜기: 핫 메뉴 재고를 shards 개 샤드 카운터로 나눈다 (max-shards, tagged 배치면 파티션 수까지) */
+    @PostMapping("/flash/{menuId}/on")
+    public FlashSaleService.FlashTotal flashOn(@PathVariable UUID menuId,
+                                               @RequestParam(defaultValue = "8") int shards) {
+        return flashSale.enable(menuId, shards);
+    }
+
+    /** 플래시 세일 모드 끄기: 새 예약은 메인 키로, 샤드 재고는 메인으로 모은다 (샤드 예약이 끝나면 정리) */
+    @PostMapping("/flash/{menuId}/off")
+    public FlashSaleService.FlashTotal flashOff(@PathVariable UUID menuId) {
+        return flashSale.disable(menuId);
+    }
+
+    /** 메인 키 + 샤드별 available/reserved/이동 중 수량과 정확한 합계 */
+    @GetMapping("/flash/{menuId}")
+    public FlashSaleService.FlashTotal flashTotal(@PathVariable UUID menuId) {
+        return flashSale.total(menuId);
+    }
+
+    /** 플래시 세일 메뉴 목록: menuId → 샤드 수 (음수는 해제 중) */
+    @GetMapping("/flash")
+    public Map<UUID, Integer> flashMenus() {
+        return flashSales.snapshot();
+    }
 
     /** Redis 현재 값 확인(점검용) */
     @GetMapping("/cache/{menuId}")
@@ -1,18 +1,24 @@
 package com.eatcloud.storeservice.domain.inventory.controller;
 
 import com.eatcloud.storeservice.domain.inventory.dto.request.AdjustRequestDto;
+import com.eatcloud.storeservice.domain.inventory.dto.request.BatchCancelRequestDto;
+import com.eatcloud.storeservice.domain.inventory.dto.request.BatchConfirmRequestDto;
+import com.eatcloud.storeservice.domain.inventory.dto.request.BatchReserveRequestDto;
 import com.eatcloud.storeservice.domain.inventory.dto.request.CancelRequestDto;
 import com.eatcloud.storeservice.domain.inventory.dto.request.ConfirmRequestDto;
 import com.eatcloud.storeservice.domain.inventory.dto.request.ReserveRequestDto;
+import com.eatcloud.storeservice.domain.inventory.dto.response.BatchReserveResponseDto;
 import com.eatcloud.storeservice.domain.inventory.dto.response.StockResponseDto;
 import com.eatcloud.storeservice.domain.inventory.service.InventoryQueryService;
 import com.eatcloud.storeservice.domain.inventory.service.InventoryService;
+import com.eatcloud.storeservice.domain.inventory.service.ReserveLine;
 import com.eatcloud.storeservice.support.lock.RedisLockExecutor;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
 import java.util.UUID;
 
 @RestController
@@ -41,6 +47,28 @@ public class MenuStockController {
         inventoryService.cancel(req.getOrderLineId(), req.getReason());
     }
 
+    // 주문 단위 일괄 API: 라인 N개를 한 번의 호출로 처리 (예약은 all-or-nothing)
+    @PostMapping("/reserve/batch")
+    public BatchReserveResponseDto reserveBatch(@Valid @RequestBody BatchReserveRequestDto req) {
+        List<ReserveLine> lines = req.getLines().stream()
+                .map(l -> new ReserveLine(l.getOrderLineId(), l.getMenuId(), l.getQty()))
+                .toList();
+        List<UUID> insufficient = inventoryService.reserveBatch(req.getOrderId(), lines);
+        return new BatchReserveResponseDto(insufficient.isEmpty(), insufficient);
+    }
+
+    @PostMapping("/confirm/batch")
+    @ResponseStatus(HttpStatus.OK)
+    public void confirmBatch(@Valid @RequestBody BatchConfirmRequestDto req) {
+        inventoryService.confirmBatch(req.getOrderLineIds());
+    }
+
+    @PostMapping("/cancel/batch")
+    @ResponseStatus(HttpStatus.OK)
+    public void cancelBatch(@Valid @RequestBody BatchCancelRequestDto req) {
+        inventoryService.cancelBatch(req.getOrderLineIds(), req.getReason());
+    }
+
     @PostMapping("/adjust")
     @ResponseStatus(HttpStatus.OK)
     public void adjust(@Valid @RequestBody AdjustRequestDto req) {
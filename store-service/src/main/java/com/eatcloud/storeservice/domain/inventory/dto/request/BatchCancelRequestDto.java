@@ -0,0 +1,14 @@
+package com.eatcloud.storeservice.domain.inventory.dto.request;
+
+import jakarta.validation.constraints.NotEmpty;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+import java.util.UUID;
+
+@Getter @Setter
+public class BatchCancelRequestDto {
+    @NotEmpty private List<UUID> orderLineIds;
+    private String reason;
+}
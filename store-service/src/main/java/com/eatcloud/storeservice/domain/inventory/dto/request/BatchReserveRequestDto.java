@@ -0,0 +1,25 @@
+package com.eatcloud.storeservice.domain.inventory.dto.request;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.NotNull;
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+import java.util.UUID;
+
+@Getter @Setter
+public class BatchReserveRequestDto {
+
+    @NotNull private UUID orderId;
+    @NotEmpty @Valid private List<Line> lines;
+
+    @Getter @Setter
+    public static class Line {
+        @NotNull private UUID orderLineId;
+        @NotNull private UUID menuId;
+        @Min(1) private int qty;
+    }
+}
@@ -0,0 +1,16 @@
+package com.eatcloud.storeservice.domain.inventory.dto.response;
+
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.util.List;
+import java.util.UUID;
+
+@Getter
+@AllArgsConstructor
+public class BatchReserveResponseDto {
+    /** 모든 라인이 예약되었는지 (all-or-nothing) */
+    private boolean reserved;
+    /** 재고가 부족했던 메뉴 (reserved=false 일 때만) */
+    private List<UUID> insufficientMenuIds;
+}
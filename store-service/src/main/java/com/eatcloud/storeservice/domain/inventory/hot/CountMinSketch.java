@@ -0,0 +1,53 @@
+package com.eatcloud.storeservice.domain.inventory.hot;
+
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * 메뉴별 카운트를 고정 메모리로 근사하는 count-min sketch.
+ * 추정치는 실제 값보다 작아지지 않고(과대 추정만 있음), 여러 스레드가 동시에 add 해도 된다.
+ */
+class CountMinSketch {
+
+    private static final long[] SEEDS = {
+            0x9E3779B97F4A7C15L, 0xC2B2AE3D27D4EB4FL, 0x165667B19E3779F9L, 0xD6E8FEB86659FD93L
+    };
+
+    private final AtomicLongArray[] rows;
+    private final int mask;
+
+    /** @param width 행당 칸 수 (2의 거듭제곱으로 올림) */
+    CountMinSketch(int width) {
+        int w = Integer.highestOneBit(Math.max(16, width - 1) << 1);
+        this.mask = w - 1;
+        this.rows = new AtomicLongArray[SEEDS.length];
+        for (int i = 0; i < rows.length; i++) {
+            rows[i] = new AtomicLongArray(w);
+        }
+    }
+
+    void add(UUID key, long delta) {
+        long h = key.getMostSignificantBits() ^ key.getLeastSignificantBits();
+        for (int i = 0; i < rows.length; i++) {
+            rows[i].addAndGet(index(h, i), delta);
+        }
+    }
+
+    long estimate(UUID key) {
+        long h = key.getMostSignificantBits() ^ key.getLeastSignificantBits();
+        long min = Long.MAX_VALUE;
+        for (int i = 0; i < rows.length; i++) {
+            min = Math.min(min, rows[i].get(index(h, i)));
+        }
+        return min;
+    }
+
+    // splitmix64 finalizer
+    private int index(long h, int row) {
+        long z = h + SEEDS[row];
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        z = z ^ (z >>> 31);
+        return (int) z & mask;
+    }
+}
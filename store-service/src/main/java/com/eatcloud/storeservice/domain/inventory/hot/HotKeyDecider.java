@@ -1,5 +1,6 @@
 package com.eatcloud.storeservice.domain.inventory.hot;
 
+import java.util.Set;
 import java.util.UUID;
 
 public interface HotKeyDecider {
@@ -8,4 +9,7 @@ public interface HotKeyDecider {
     // 운영 토글 API에서 쓸 수 있게 기본 no-op 제공
     default void markHot(UUID menuId) {}
     default void unmarkHot(UUID menuId) {}
+
+    // 점검용: 현재 핫 메뉴 목록
+    default Set<UUID> hotMenus() { return Set.of(); }
 }
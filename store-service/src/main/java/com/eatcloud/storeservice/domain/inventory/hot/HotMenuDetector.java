@@ -0,0 +1,321 @@
+package com.eatcloud.storeservice.domain.inventory.hot;
+
+import com.eatcloud.storeservice.domain.inventory.hotpath.HotPathFence;
+import com.eatcloud.storeservice.domain.inventory.hotpath.HotPathLuaService;
+import com.eatcloud.storeservice.domain.inventory.hotpath.HotPathReconciler;
+import com.eatcloud.storeservice.domain.inventory.repository.InventoryStockRepository;
+import com.eatcloud.locktelemetry.LockWaitListener;
+import com.eatcloud.storeservice.support.lock.RedisLockExecutor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * 핫 메뉴 자동 감지.
+ *
+ * 메뉴별 예약 요청 수와 메뉴 락(lock:menu:{menuId}) 대기 시간을 slice-ms 단위 count-min sketch 링으로 모아
+ * 최근 window-ms 동안의 초당 비율을 본다.
+ *  - 둘 중 하나라도 promote-* 임계치를 넘으면 DB 재고를 Redis 에 시드한 뒤 Lua 경로로 승격
+ *  - 승격된 메뉴가 임계치 × demote-ratio 이상이면 "아직 뜨거움"으로 기록하고,
+ *    클러스터 어디에서도 cool-down-ms 동안 기록이 없으면 강등 (승격/강등 사이 히스테리시스)
+ * 비율은 인스턴스별로 잰다. 결정은 {@link RedisHotKeyDecider} 를 통해 모든 인스턴스에 전파된다.
+ *
+ * Redis 우선 모드에서는 전파가 늦은 인스턴스가 옛 경로로 같은 재고를 팔지 않도록 {@link HotPathFence} 를 함께 바꾼다.
+ * 승격은 시드와 같은 메뉴 락 안에서 HOT 으로, 강등은 SWITCHING 으로 막은 뒤 저널이 모두 반영되면 비핫키로 넘긴다.
+ * 관리자 토글도 이 클래스({@link #markHot}/{@link #unmarkHot})를 거친다.
+ */
+@Slf4j
+@Component
+public class HotMenuDetector implements LockWaitListener {
+
+    private static final String MENU_LOCK_PREFIX = "lock:menu:";
+    private static final long DRAIN_WAIT_MS = 1000;
+    private static final int UNAPPLIED_SCAN_LIMIT = 10_000;
+
+    private final RedisHotKeyDecider decider;
+    private final RedisLockExecutor locks;
+    private final InventoryStockRepository stockRepo;
+    private final HotPathLuaService hotPath;
+    private final HotPathReconciler reconciler;
+    private final HotPathFence fence;
+
+    private final boolean enabled;
+    private final double windowSec;
+    private final double promoteRps;
+    private final double promoteWaitMsPerSec;
+    private final double demoteRatio;
+    private final long coolDownMs;
+    private final int sketchWidth;
+    private final int maxCandidates;
+
+    private final Slice[] ring;
+    private volatile int head;
+    private final Set<UUID> candidates = ConcurrentHashMap.newKeySet();
+    private final LongAdder untrackedMenus = new LongAdder();
+
+    private final Counter promotions;
+    private final Counter demotions;
+    private final Counter promotionFailures;
+
+    public HotMenuDetector(RedisHotKeyDecider decider,
+                           RedisLockExecutor locks,
+                           InventoryStockRepository stockRepo,
+                           HotPathLuaService hotPath,
+                           HotPathReconciler reconciler,
+                           HotPathFence fence,
+                           MeterRegistry meterRegistry,
+                           @Value("${inventory.hot.auto.enabled:true}") boolean enabled,
+                           @Value("${inventory.hot.auto.window-ms:60000}") long windowMs,
+                           @Value("${inventory.hot.auto.slice-ms:5000}") long sliceMs,
+                           @Value("${inventory.hot.auto.promote-rps:20}") double promoteRps,
+                           @Value("${inventory.hot.auto.promote-lock-wait-ms-per-sec:100}") double promoteWaitMsPerSec,
+                           @Value("${inventory.hot.auto.demote-ratio:0.5}") double demoteRatio,
+                           @Value("${inventory.hot.auto.cool-down-ms:120000}") long coolDownMs,
+                           @Value("${inventory.hot.auto.sketch-width:1024}") int sketchWidth,
+                           @Value("${inventory.hot.auto.max-candidates:10000}") int maxCandidates) {
+        this.decider = decider;
+        this.locks = locks;
+        this.stockRepo = stockRepo;
+        this.hotPath = hotPath;
+        this.reconciler = reconciler;
+        this.fence = fence;
+        this.enabled = enabled;
+        this.promoteRps = promoteRps;
+        this.promoteWaitMsPerSec = promoteWaitMsPerSec;
+        this.demoteRatio = demoteRatio;
+        this.coolDownMs = coolDownMs;
+        this.sketchWidth = sketchWidth;
+        this.maxCandidates = maxCandidates;
+
+        int slices = (int) Math.max(1, windowMs / sliceMs);
+        this.windowSec = slices * sliceMs / 1000.0;
+        this.ring = new Slice[slices];
+        for (int i = 0; i < slices; i++) {
+            ring[i] = new Slice(sketchWidth);
+        }
+
+        this.promotions = Counter.builder("inventory.hot.promotions").register(meterRegistry);
+        this.demotions = Counter.builder("inventory.hot.demotions").register(meterRegistry);
+        this.promotionFailures = Counter.builder("inventory.hot.promotion.failures").register(meterRegistry);
+        Gauge.builder("inventory.hot.menus", decider, d -> d.hotMenus().size()).register(meterRegistry);
+        Gauge.builder("inventory.hot.candidates", candidates, Set::size).register(meterRegistry);
+    }
+
+    /** 예약 요청 1건 (재고 부족·멱등 여부와 무관하게 요청 빈도만 센다) */
+    public void recordReserve(UUID menuId) {
+        if (!enabled) return;
+        ring[head].reserves.add(menuId, 1);
+        track(menuId);
+    }
+
+    @Override
+    public void onLockWait(String key, long waitNanos) {
+        if (!enabled || !key.startsWith(MENU_LOCK_PREFIX)) return;
+        UUID menuId;
+        try {
+            menuId = UUID.fromString(key.substring(MENU_LOCK_PREFIX.length()));
+        } catch (IllegalArgumentException e) {
+            return;
+        }
+        long waitMs = TimeUnit.NANOSECONDS.toMillis(waitNanos);
+        if (waitMs > 0) {
+            ring[head].lockWaitMs.add(menuId, waitMs);
+        }
+        track(menuId);
+    }
+
+    /** slice 하나가 끝날 때마다 판정하고 가장 오래된 slice 를 비운다 */
+    @Scheduled(fixedDelayString = "${inventory.hot.auto.slice-ms:5000}")
+    public void evaluate() {
+        syncFence();
+        if (!enabled) return;
+        try {
+            for (UUID menuId : List.copyOf(candidates)) {
+                Rates r = rates(menuId);
+                if (r.atLeast(promoteRps, promoteWaitMsPerSec)) {
+                    if (decider.isHot(menuId)) decider.touch(menuId);
+                    else promote(menuId, r);
+                } else if (r.atLeast(promoteRps * demoteRatio, promoteWaitMsPerSec * demoteRatio)) {
+                    if (decider.isHot(menuId)) decider.touch(menuId);
+                } else {
+                    candidates.remove(menuId);   // 다시 요청이 오면 후보로 돌아온다
+                }
+            }
+            List<UUID> demoted = decider.demoteCooled(coolDownMs, this::beginClose);
+            for (UUID menuId : demoted) {
+                demotions.increment();
+                log.info("[HotKey] auto-demoted menuId={} (cool-down {}ms)", menuId, coolDownMs);
+            }
+            // Redis 우선 모드: 비핫키 경로는 DB 로 판정하므로 남은 저널을 바로 반영하고 울타리를 푼다
+            demoted.forEach(this::finishClose);
+        } catch (Exception e) {
+            log.warn("[HotKey] 핫 메뉴 판정 실패: {}", e.toString());
+        } finally {
+            rotate();
+        }
+    }
+
+    /** 관리자 토글: 수동 핫키로 등록. Redis 우선 모드면 먼저 DB 값을 시드하고 울타리를 HOT 으로 연다 */
+    public void markHot(UUID menuId) {
+        if (fence.isEnabled()) seed(menuId);
+        decider.markHot(menuId);
+    }
+
+    /** 관리자 토글: 핫키 해제. Redis 우선 모드면 SWITCHING 으로 막은 뒤 저널이 반영되면 비핫키로 넘긴다 */
+    public void unmarkHot(UUID menuId) {
+        beginClose(menuId);
+        decider.unmarkHot(menuId);
+        finishClose(menuId);
+    }
+
+    /** 점검용: 현재 핫 메뉴와 후보별 추정 비율 (상위 topN) */
+    public Map<String, Object> snapshot(int topN) {
+        List<Map<String, Object>> top = new ArrayList<>();
+        for (UUID menuId : List.copyOf(candidates)) {
+            Rates r = rates(menuId);
+            top.add(Map.of("menuId", menuId, "reserveRps", r.reserveRps(), "lockWaitMsPerSec", r.waitMsPerSec(),
+                    "hot", decider.isHot(menuId)));
+        }
+        top.sort(Comparator.comparingDouble((Map<String, Object> m) -> (double) m.get("reserveRps")).reversed());
+
+        Map<String, Object> view = new LinkedHashMap<>();
+        view.put("enabled", enabled);
+        view.put("windowSec", windowSec);
+        view.put("promoteRps", promoteRps);
+        view.put("promoteLockWaitMsPerSec", promoteWaitMsPerSec);
+        view.put("hot", decider.hotMenus());
+        view.put("autoPromoted", decider.autoPromoted());
+        view.put("untrackedMenus", untrackedMenus.sum());
+        view.put("candidates", top.subList(0, Math.min(topN, top.size())));
+        return view;
+    }
+
+    private void promote(UUID menuId, Rates r) {
+        try {
+            boolean promoted = decider.promote(menuId, () -> seed(menuId));
+            if (promoted) {
+                promotions.increment();
+                log.info("[HotKey] auto-promoted menuId={} reserveRps={} lockWaitMsPerSec={}",
+                        menuId, String.format("%.1f", r.reserveRps()), String.format("%.1f", r.waitMsPerSec()));
+            }
+        } catch (Exception e) {
+            promotionFailures.increment();
+            log.warn("[HotKey] 자동 승격 실패 menuId={}: {}", menuId, e.toString());
+        }
+    }
+
+    // Lua 경로는 Redis 수치로 차감하므로 승격 전에 DB 값을 시드한다.
+    // 비핫키 경로와 같은 메뉴 락 안에서 읽고 써서 그 사이 예약이 빠지지 않게 한다.
+    // Redis 우선 모드면 이전 핫 구간의 저널이 DB 에 다 들어간 뒤의 값을 써야 하므로 먼저 반영하고,
+    // 같은 락 안에서 울타리를 HOT 으로 열어 락 밖 비핫키 경로(checkCold)와 엇갈리지 않게 한다
+    private void seed(UUID menuId) {
+        reconciler.drainNow(DRAIN_WAIT_MS);
+        locks.withMenuLock(menuId.toString(), () -> {
+            String mode = fence.mode(menuId);
+            if (HotPathFence.HOT.equals(mode)) return null;   // 이미 Redis 가 원장 (다른 인스턴스가 먼저 승격)
+            if (HotPathFence.SWITCHING.equals(mode) && reconciler.hasUnapplied(menuId, UNAPPLIED_SCAN_LIMIT)) {
+                throw new IllegalStateException("MENU_SWITCHING");
+            }
+            var stock = stockRepo.findById(menuId)
+                    .orElseThrow(() -> new IllegalStateException("NO_STOCK_ROW"));
+            if (stock.isUnlimited()) {
+                throw new IllegalStateException("UNLIMITED_STOCK");
+            }
+            hotPath.seedRedisStock(menuId, stock.getAvailableQty(), stock.getReservedQty());
+            fence.open(menuId);
+            return null;
+        });
+    }
+
+    private void beginClose(UUID menuId) {
+        if (!fence.isEnabled()) return;
+        locks.withMenuLock(menuId.toString(), () -> {
+            fence.beginClose(menuId);
+            return null;
+        });
+    }
+
+    // 이 메뉴의 저널이 모두 DB 에 들어갔을 때만 비핫키로 넘긴다. 아니면 switching 에 남아 다음 주기에 다시 본다
+    private void finishClose(UUID menuId) {
+        reconciler.drainNow(DRAIN_WAIT_MS);
+        if (!fence.isEnabled() || reconciler.hasUnapplied(menuId, UNAPPLIED_SCAN_LIMIT)) return;
+        locks.withMenuLock(menuId.toString(), () -> fence.finishClose(menuId));
+    }
+
+    // Redis 우선 모드: 끝나지 않은 강등을 마무리하고, 핫 목록에 있지만 울타리가 닫힌 메뉴
+    // (설정 키, 시드 전 재기동 등)는 시드해 연다. 자동 감지를 꺼도 돈다
+    private void syncFence() {
+        if (!fence.isEnabled()) return;
+        try {
+            fence.switching().forEach(this::finishClose);
+            // 로컬 캐시가 아니라 Redis 세트 기준: 전파가 늦은 인스턴스가 방금 강등된 메뉴를 다시 열지 않도록
+            for (UUID menuId : decider.sharedHotMenus()) {
+                if (fence.mode(menuId) != null) continue;
+                try {
+                    seed(menuId);
+                } catch (Exception e) {
+                    log.warn("[HotKey] 핫 메뉴 울타리 열기 실패 menuId={}: {}", menuId, e.toString());
+                }
+            }
+        } catch (Exception e) {
+            log.warn("[HotKey] 전환 울타리 동기화 실패: {}", e.toString());
+        }
+    }
+
+    private Rates rates(UUID menuId) {
+        long reserves = 0;
+        long waitMs = 0;
+        for (Slice s : ring) {
+            reserves += s.reserves.estimate(menuId);
+            waitMs += s.lockWaitMs.estimate(menuId);
+        }
+        return new Rates(reserves / windowSec, waitMs / windowSec);
+    }
+
+    private void track(UUID menuId) {
+        if (candidates.contains(menuId)) return;
+        if (candidates.size() >= maxCandidates) {
+            untrackedMenus.increment();
+            return;
+        }
+        candidates.add(menuId);
+    }
+
+    // 다음 칸을 새 sketch 로 바꾼 뒤 head 를 옮긴다 (volatile head 쓰기로 새 칸이 보이게 됨)
+    private void rotate() {
+        int next = (head + 1) % ring.length;
+        ring[next] = new Slice(sketchWidth);
+        head = next;
+    }
+
+    private static final class Slice {
+        private final CountMinSketch reserves;
+        private final CountMinSketch lockWaitMs;
+
+        private Slice(int width) {
+            this.reserves = new CountMinSketch(width);
+            this.lockWaitMs = new CountMinSketch(width);
+        }
+    }
+
+    private record Rates(double reserveRps, double waitMsPerSec) {
+        boolean atLeast(double rps, double waitMsPerSec) {
+            return reserveRps >= rps || this.waitMsPerSec >= waitMsPerSec;
+        }
+    }
+}
@@ -0,0 +1,212 @@
+package com.eatcloud.storeservice.domain.inventory.hot;
+
+import jakarta.annotation.PostConstruct;
+import lombok.Setter;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RMap;
+import org.redisson.api.RSet;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Primary;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * 클러스터 공용 핫키 목록.
+ *
+ * 상태는 Redis 에 두고(inv:hot:menus = 전체 핫 메뉴, inv:hot:auto = 자동 승격분과 마지막으로 뜨거웠던 시각),
+ * 변경은 inv:hot:events 토픽으로 모든 인스턴스에 알린다. isHot 은 로컬 캐시만 보므로 Redis 를 타지 않고,
+ * pub/sub 메시지를 놓쳐도 sync-ms 주기로 Redis 세트를 다시 읽어 맞춘다.
+ *
+ * inventory.hot.keys 로 지정한 메뉴와 관리자 토글로 켠 메뉴는 수동 핫키라 자동 강등 대상이 아니다.
+ */
+@Slf4j
+@Component
+@Primary // ← 여러 구현체가 있으면 이걸 기본으로 주입
+@ConfigurationProperties(prefix = "inventory.hot")
+public class RedisHotKeyDecider implements HotKeyDecider {
+
+    static final String HOT_SET = "inv:hot:menus";
+    static final String AUTO_MAP = "inv:hot:auto";
+    static final String EVENTS_TOPIC = "inv:hot:events";
+
+    private static final String ON = "ON:";
+    private static final String OFF = "OFF:";
+
+    private final RedissonClient redisson;
+    private final Set<UUID> hot = ConcurrentHashMap.newKeySet();
+    private final List<String> configured = new ArrayList<>();
+    private volatile boolean configuredSynced;
+
+    @Setter private List<String> keys = List.of();   // yml 바인딩
+
+    @Autowired
+    public RedisHotKeyDecider(RedissonClient redisson) {
+        this.redisson = redisson;
+    }
+
+    @PostConstruct
+    void init() {
+        if (keys != null) {
+            for (String k : keys) {
+                try { hot.add(UUID.fromString(k)); configured.add(k); }
+                catch (Exception e) { log.warn("Invalid hot key UUID: {}", k); }
+            }
+        }
+        try {
+            redisson.getTopic(EVENTS_TOPIC, StringCodec.INSTANCE).addListener(String.class, (channel, msg) -> apply(msg));
+            resync();
+        } catch (Exception e) {
+            log.warn("[HotKey] Redis 핫키 목록 연동 실패, 설정 키만 사용: {}", e.toString());
+        }
+        log.info("[HotKey] loaded {} keys", hot.size());
+    }
+
+    @Override public boolean isHot(UUID menuId) { return hot.contains(menuId); }
+
+    /** 관리자 토글: 수동 핫키로 등록 (자동 승격 상태였다면 수동으로 바뀌어 자동 강등되지 않는다) */
+    @Override
+    public void markHot(UUID id) {
+        hot.add(id);
+        try {
+            autoMap().fastRemove(id.toString());
+            hotSet().add(id.toString());
+            publish(ON, id);
+        } catch (Exception e) {
+            log.warn("[HotKey] 핫키 전파 실패 (다음 동기화 전까지 이 인스턴스에만 적용): menuId={}, err={}", id, e.toString());
+        }
+    }
+
+    @Override
+    public void unmarkHot(UUID id) {
+        hot.remove(id);
+        try {
+            autoMap().fastRemove(id.toString());
+            hotSet().remove(id.toString());
+            publish(OFF, id);
+        } catch (Exception e) {
+            log.warn("[HotKey] 핫키 해제 전파 실패 (다음 동기화 전까지 이 인스턴스에만 적용): menuId={}, err={}", id, e.toString());
+        }
+    }
+
+    /**
+     * 자동 승격. inv:hot:auto 에 먼저 등록한 인스턴스 하나만 seed(예: Redis 재고 시드)를 실행하고 전파한다.
+     *
+     * @return 이번 호출로 승격했으면 true (이미 핫이거나 다른 인스턴스가 먼저 승격했으면 false)
+     */
+    boolean promote(UUID id, Runnable seed) {
+        if (isHot(id)) return false;
+        String k = id.toString();
+        if (!autoMap().fastPutIfAbsent(k, Long.toString(System.currentTimeMillis()))) return false;
+        try {
+            seed.run();
+        } catch (RuntimeException e) {
+            autoMap().fastRemove(k);
+            throw e;
+        }
+        hotSet().add(k);
+        hot.add(id);
+        publish(ON, id);
+        return true;
+    }
+
+    /** 자동 승격된 메뉴가 아직 뜨겁다고 기록 (수동 핫키는 inv:hot:auto 에 없으므로 무시된다) */
+    void touch(UUID id) {
+        autoMap().replace(id.toString(), Long.toString(System.currentTimeMillis()));
+    }
+
+    /**
+     * 모든 인스턴스에서 coolDownMs 동안 뜨겁다는 기록이 없던 자동 승격 메뉴를 강등한다.
+     * 조건부 삭제라 여러 인스턴스가 동시에 돌아도 한 곳만 강등·전파한다.
+     *
+     * @param beforeDemote 강등을 맡은 인스턴스에서 핫 세트를 바꾸기 전에 실행 (예: Redis 우선 모드의 전환 울타리)
+     */
+    List<UUID> demoteCooled(long coolDownMs, Consumer<UUID> beforeDemote) {
+        long now = System.currentTimeMillis();
+        List<UUID> demoted = new ArrayList<>();
+        for (Map.Entry<String, String> e : autoMap().readAllMap().entrySet()) {
+            if (now - Long.parseLong(e.getValue()) < coolDownMs) continue;
+            if (!autoMap().remove(e.getKey(), e.getValue())) continue;   // 그 사이 갱신됨
+            UUID id = UUID.fromString(e.getKey());
+            beforeDemote.accept(id);
+            hotSet().remove(e.getKey());
+            hot.remove(id);
+            publish(OFF, id);
+            demoted.add(id);
+        }
+        return demoted;
+    }
+
+    @Override
+    public Set<UUID> hotMenus() {
+        return Set.copyOf(hot);
+    }
+
+    /** 로컬 캐시가 아닌 Redis 세트 기준의 핫 메뉴 (클러스터 전체 결정) */
+    Set<UUID> sharedHotMenus() {
+        Set<UUID> ids = new HashSet<>();
+        for (String k : hotSet().readAll()) {
+            try { ids.add(UUID.fromString(k)); }
+            catch (IllegalArgumentException e) { log.warn("[HotKey] invalid menuId in {}: {}", HOT_SET, k); }
+        }
+        return ids;
+    }
+
+    Set<UUID> autoPromoted() {
+        Set<UUID> ids = new HashSet<>();
+        autoMap().readAllKeySet().forEach(k -> ids.add(UUID.fromString(k)));
+        return ids;
+    }
+
+    /** pub/sub 유실 대비: Redis 세트를 기준으로 로컬 캐시를 맞춘다 */
+    @Scheduled(fixedDelayString = "${inventory.hot.sync-ms:30000}")
+    public void resync() {
+        try {
+            if (!configuredSynced) {
+                // 설정 키는 기동 후 처음 Redis 에 닿았을 때 한 번만 등록한다 (이후 관리자 해제를 되살리지 않도록)
+                if (!configured.isEmpty()) hotSet().addAll(configured);
+                configuredSynced = true;
+            }
+            Set<UUID> current = sharedHotMenus();
+            hot.retainAll(current);
+            hot.addAll(current);
+        } catch (Exception e) {
+            log.warn("[HotKey] 핫키 목록 동기화 실패: {}", e.toString());
+        }
+    }
+
+    private void apply(String msg) {
+        try {
+            if (msg.startsWith(ON)) {
+                hot.add(UUID.fromString(msg.substring(ON.length())));
+            } else if (msg.startsWith(OFF)) {
+                hot.remove(UUID.fromString(msg.substring(OFF.length())));
+            }
+        } catch (IllegalArgumentException e) {
+            log.warn("[HotKey] invalid hot key event: {}", msg);
+        }
+    }
+
+    private void publish(String op, UUID id) {
+        redisson.getTopic(EVENTS_TOPIC, StringCodec.INSTANCE).publish(op + id);
+    }
+
+    private RSet<String> hotSet() {
+        return redisson.getSet(HOT_SET, StringCodec.INSTANCE);
+    }
+
+    private RMap<String, String> autoMap() {
+        return redisson.getMap(AUTO_MAP, StringCodec.INSTANCE);
+    }
+}
@@ -0,0 +1,115 @@
+package com.eatcloud.storeservice.domain.inventory.hotpath;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RMap;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 클러스터 공용 플래시 세일 메뉴 목록.
+ *
+ * inv:flash:menus 에 menuId → 샤드 수를 둔다. 양수는 활성(예약을 샤드로), 음수는 해제 중
+ * (새 예약은 메인 키로 가지만, 샤드에서 예약된 라인의 확정/취소는 아직 샤드를 본다).
+ * RedisHotKeyDecider 와 같이 변경은 inv:flash:events 로 알리고 sync-ms 주기로 다시 읽어 맞춘다.
+ */
+@Slf4j
+@Component
+public class FlashSaleRegistry {
+
+    static final String MODE_MAP = "inv:flash:menus";
+    static final String EVENTS_TOPIC = "inv:flash:events";
+
+    private final RedissonClient redisson;
+    private final Map<UUID, Integer> modes = new ConcurrentHashMap<>();
+
+    public FlashSaleRegistry(RedissonClient redisson) {
+        this.redisson = redisson;
+    }
+
+    @PostConstruct
+    void init() {
+        try {
+            redisson.getTopic(EVENTS_TOPIC, StringCodec.INSTANCE).addListener(String.class, (channel, msg) -> apply(msg));
+            resync();
+        } catch (Exception e) {
+            log.warn("[FLASH] Redis 플래시 세일 목록 연동 실패: {}", e.toString());
+        }
+    }
+
+    /** 예약을 나눌 샤드 수. 활성이 아니면 0 */
+    public int activeShards(UUID menuId) {
+        return Math.max(0, modes.getOrDefault(menuId, 0));
+    }
+
+    /** 샤드가 남아 있는 메뉴(활성 또는 해제 중)의 샤드 수. 없으면 0 */
+    public int shards(UUID menuId) {
+        return Math.abs(modes.getOrDefault(menuId, 0));
+    }
+
+    public Map<UUID, Integer> snapshot() {
+        return Map.copyOf(modes);
+    }
+
+    void activate(UUID menuId, int shards) {
+        put(menuId, shards);
+    }
+
+    void drain(UUID menuId, int shards) {
+        put(menuId, -shards);
+    }
+
+    void remove(UUID menuId) {
+        modes.remove(menuId);
+        modeMap().fastRemove(menuId.toString());
+        publish(menuId, 0);
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.hot.sync-ms:30000}")
+    public void resync() {
+        try {
+            Map<UUID, Integer> current = new HashMap<>();
+            modeMap().readAllMap().forEach((k, v) -> {
+                try { current.put(UUID.fromString(k), Integer.parseInt(v)); }
+                catch (IllegalArgumentException e) { log.warn("[FLASH] invalid entry in {}: {}={}", MODE_MAP, k, v); }
+            });
+            modes.keySet().retainAll(current.keySet());
+            modes.putAll(current);
+        } catch (Exception e) {
+            log.warn("[FLASH] 플래시 세일 목록 동기화 실패: {}", e.toString());
+        }
+    }
+
+    private void put(UUID menuId, int mode) {
+        modes.put(menuId, mode);
+        modeMap().fastPut(menuId.toString(), Integer.toString(mode));
+        publish(menuId, mode);
+    }
+
+    private void apply(String msg) {
+        try {
+            int sep = msg.indexOf('=');
+            UUID menuId = UUID.fromString(msg.substring(0, sep));
+            int mode = Integer.parseInt(msg.substring(sep + 1));
+            if (mode == 0) modes.remove(menuId);
+            else modes.put(menuId, mode);
+        } catch (RuntimeException e) {
+            log.warn("[FLASH] invalid flash sale event: {}", msg);
+        }
+    }
+
+    private void publish(UUID menuId, int mode) {
+        redisson.getTopic(EVENTS_TOPIC, StringCodec.INSTANCE).publish(menuId + "=" + mode);
+    }
+
+    private RMap<String, String> modeMap() {
+        return redisson.getMap(MODE_MAP, StringCodec.INSTANCE);
+    }
+}
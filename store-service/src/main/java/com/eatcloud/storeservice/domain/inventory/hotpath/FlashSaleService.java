@@ -0,0 +1,330 @@
+package com.eatcloud.storeservice.domain.inventory.hotpath;
+
+import com.eatcloud.storeservice.domain.inventory.hot.HotKeyDecider;
+import com.eatcloud.storeservice.domain.inventory.hotpath.InventoryKeys.MenuKeys;
+import com.eatcloud.storeservice.support.lock.RedisLockExecutor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RLock;
+import org.redisson.api.RScript;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * 플래시 세일 모드: 초고빈도 메뉴의 available 을 N 개 샤드 카운터로 나눠 Lua 부하를 여러 키(슬롯)로 분산한다.
+ *
+ *  - 예약은 orderLineId 해시로 고른 홈 샤드에서 차감하고, 모자라면 메인 키·이웃 샤드에서 가져와(steal) 한 번 더 시도
+ *  - 라인의 예약/확정/취소 상태는 모두 홈 샤드에 있어 라인별 멱등은 그대로다
+ *  - rebalance-ms 마다 샤드 available 을 고르게 맞추고, 취소로 메인 키에 돌아온 재고도 샤드로 보낸다
+ *  - 샤드 간 이동은 원본 샤드 transit 해시에 먼저 기록한 뒤 옮기므로 total() 은 이동 중인 수량까지 정확히 합산한다.
+ *    옮기다 죽은 이동은 transit-timeout-ms 뒤 원본 샤드로 되돌린다 (받는 쪽 moves 세트로 중복 반영을 막음)
+ *
+ * 켜기 전 메뉴가 핫키로 시드돼 있어야 한다. 켜고 끄는 동안에는 재고가 메인/샤드 사이를 옮겨 다녀 잠깐 부족 응답이 날 수 있다.
+ */
+@Slf4j
+@Component
+public class FlashSaleService {
+
+    /** 샤드 인덱스 대신 메인 키(inv:...:avail)를 뜻한다 */
+    static final int MAIN = -1;
+
+    private static final String REBALANCE_LOCK = "lock:inv:flash:rebalance";
+
+    // KEYS[1]=avail, KEYS[2]=transit(hash). ARGV[1]=최대 수량, ARGV[2]=moveId. 가져간 수량을 transit 에 남긴다
+    private static final String LUA_TAKE = """
+        local avail = tonumber(redis.call('GET', KEYS[1]) or '0')
+        local take = math.min(avail, tonumber(ARGV[1]))
+        if take <= 0 then
+          return 0
+        end
+        redis.call('DECRBY', KEYS[1], take)
+        redis.call('HSET', KEYS[2], ARGV[2], take)
+        return take
+        """;
+
+    // KEYS[1]=avail, KEYS[2]=moves(set). ARGV[1]=moveId, ARGV[2]=수량. 같은 moveId 는 한 번만 반영
+    private static final String LUA_PUT = """
+        if redis.call('SADD', KEYS[2], ARGV[1]) == 1 then
+          redis.call('INCRBY', KEYS[1], ARGV[2])
+        end
+        redis.call('EXPIRE', KEYS[2], 86400)
+        return 1
+        """;
+
+    // KEYS[1]=avail, KEYS[2]=transit(hash). ARGV[1]=moveId. 끝나지 못한 이동을 원본 샤드로 되돌린다
+    private static final String LUA_RESTORE = """
+        local n = redis.call('HGET', KEYS[2], ARGV[1])
+        if not n then
+          return 0
+        end
+        redis.call('HDEL', KEYS[2], ARGV[1])
+        redis.call('INCRBY', KEYS[1], n)
+        return tonumber(n)
+        """;
+
+    // KEYS[1]=avail, KEYS[2]=reserved, KEYS[3]=transit. 샤드 하나의 {available, reserved, 이동 중} 스냅샷
+    private static final String LUA_READ = """
+        local t = 0
+        for _, v in ipairs(redis.call('HVALS', KEYS[3])) do
+          t = t + tonumber(v)
+        end
+        return {tonumber(redis.call('GET', KEYS[1]) or '0'), tonumber(redis.call('GET', KEYS[2]) or '0'), t}
+        """;
+
+    private final RedissonClient redisson;
+    private final InventoryKeys inventoryKeys;
+    private final FlashSaleRegistry registry;
+    private final HotPathFence fence;
+    private final HotKeyDecider hotKeyDecider;
+    private final RedisLockExecutor locks;
+
+    private final int maxShards;
+    private final int stealMin;
+    private final int rebalanceMinSkew;
+    private final long transitTimeoutMs;
+
+    private final Counter steals;
+    private final Counter rebalanceMoves;
+
+    public FlashSaleService(RedissonClient redisson,
+                            InventoryKeys inventoryKeys,
+                            FlashSaleRegistry registry,
+                            HotPathFence fence,
+                            HotKeyDecider hotKeyDecider,
+                            RedisLockExecutor locks,
+                            MeterRegistry meterRegistry,
+                            @Value("${inventory.hotpath.flash.max-shards:16}") int maxShards,
+                            @Value("${inventory.hotpath.flash.steal-min:10}") int stealMin,
+                            @Value("${inventory.hotpath.flash.rebalance-min-skew:2}") int rebalanceMinSkew,
+                            @Value("${inventory.hotpath.flash.transit-timeout-ms:60000}") long transitTimeoutMs) {
+        this.redisson = redisson;
+        this.inventoryKeys = inventoryKeys;
+        this.registry = registry;
+        this.fence = fence;
+        this.hotKeyDecider = hotKeyDecider;
+        this.locks = locks;
+        this.maxShards = maxShards;
+        this.stealMin = stealMin;
+        this.rebalanceMinSkew = rebalanceMinSkew;
+        this.transitTimeoutMs = transitTimeoutMs;
+
+        this.steals = Counter.builder("inventory.hotpath.flash.steals").register(meterRegistry);
+        this.rebalanceMoves = Counter.builder("inventory.hotpath.flash.rebalance.moves").register(meterRegistry);
+    }
+
+    /** 라인의 홈 샤드 */
+    public static int homeShard(UUID orderLineId, int shards) {
+        return Math.floorMod(orderLineId.hashCode(), shards);
+    }
+
+    /**
+     * 플래시 세일 모드 켜기: 메인 available 을 샤드로 고르게 나눈 뒤 전체 인스턴스에 알린다.
+     *
+     * @param shards 요청 샤드 수 (max-shards, tagged 배치면 파티션 수까지)
+     */
+    public FlashTotal enable(UUID menuId, int shards) {
+        if (!hotKeyDecider.isHot(menuId)) throw new IllegalStateException("NOT_HOT");
+        int n = Math.min(shards, Math.min(maxShards, inventoryKeys.maxShards()));
+        if (n < 2) throw new IllegalArgumentException("SHARDS_TOO_FEW");
+
+        return locks.withMenuLock(menuId.toString(), () -> {
+            int current = registry.shards(menuId);
+            if (current != 0 && current != n) {
+                throw new IllegalStateException("FLASH_SALE_DRAINING");   // 이전 샤드 정리가 끝난 뒤 다시
+            }
+            int avail = read(menuId, MAIN).available();
+            for (int i = 0; i < n; i++) {
+                move(menuId, MAIN, i, share(avail, n, i));
+            }
+            fence.syncShards(menuId, n);   // 샤드 Lua 도 메뉴와 같은 전환 울타리를 보도록
+            registry.activate(menuId, n);
+            log.info("[FLASH] 플래시 세일 시작 menuId={} shards={} available={}", menuId, n, avail);
+            return total(menuId);
+        });
+    }
+
+    /** 끄기: 새 예약을 메인 키로 돌리고 샤드 available 을 메인으로 모은다. 샤드 예약이 모두 끝나면 목록에서 빠진다 */
+    public FlashTotal disable(UUID menuId) {
+        int n = registry.activeShards(menuId);
+        if (n == 0) return total(menuId);
+
+        return locks.withMenuLock(menuId.toString(), () -> {
+            registry.drain(menuId, n);
+            drainShards(menuId, n);
+            log.info("[FLASH] 플래시 세일 종료 menuId={} shards={}", menuId, n);
+            return total(menuId);
+        });
+    }
+
+    /** 메인 키 + 모든 샤드 합계 (이동 중인 수량은 available 에 포함) */
+    public FlashTotal total(UUID menuId) {
+        int n = registry.shards(menuId);
+        List<ShardView> parts = new ArrayList<>(n + 1);
+        parts.add(read(menuId, MAIN));
+        for (int i = 0; i < n; i++) {
+            parts.add(read(menuId, i));
+        }
+        int available = parts.stream().mapToInt(p -> p.available() + p.inTransit()).sum();
+        int reserved = parts.stream().mapToInt(ShardView::reserved).sum();
+        return new FlashTotal(menuId, n, registry.activeShards(menuId) > 0, available, reserved, parts);
+    }
+
+    /**
+     * 홈 샤드에 need 만큼 available 이 있도록 메인 키와 이웃 샤드(home+1, home+2, ...)에서 가져온다.
+     * 한 번에 최소 steal-min 씩 가져와 같은 샤드가 곧바로 다시 훔치러 가지 않게 한다.
+     *
+     * @return 홈 샤드가 need 이상이 됐으면 true (호출자가 예약을 한 번 더 시도)
+     */
+    boolean steal(UUID menuId, int home, int shards, int need) {
+        int missing = need - read(menuId, home).available();
+        if (missing <= 0) return true;
+        int want = Math.max(missing, stealMin);
+        int moved = move(menuId, MAIN, home, want);
+        for (int step = 1; step < shards && moved < missing; step++) {
+            moved += move(menuId, (home + step) % shards, home, want - moved);
+        }
+        if (moved > 0) steals.increment();
+        return moved >= missing;
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.hotpath.flash.rebalance-ms:1000}")
+    public void rebalance() {
+        Map<UUID, Integer> menus = registry.snapshot();
+        if (menus.isEmpty()) return;
+        RLock lock = redisson.getLock(REBALANCE_LOCK);
+        if (!lock.tryLock()) return;   // 클러스터에서 한 인스턴스만
+        try {
+            menus.forEach((menuId, mode) -> {
+                try {
+                    int n = Math.abs(mode);
+                    recoverStale(menuId, n);
+                    if (mode > 0) evenOut(menuId, n);
+                    else drainShards(menuId, n);
+                } catch (Exception e) {
+                    log.warn("[FLASH] 샤드 재분배 실패 menuId={}: {}", menuId, e.toString());
+                }
+            });
+        } finally {
+            if (lock.isHeldByCurrentThread()) lock.unlock();
+        }
+    }
+
+    // 메인 키에 돌아온 재고와 샤드별 편차를 목표치(total / n)에 맞춘다
+    private void evenOut(UUID menuId, int n) {
+        int mainAvail = read(menuId, MAIN).available();
+        int[] avail = new int[n];
+        int total = mainAvail;
+        int min = Integer.MAX_VALUE;
+        int max = Integer.MIN_VALUE;
+        for (int i = 0; i < n; i++) {
+            avail[i] = read(menuId, i).available();
+            total += avail[i];
+            min = Math.min(min, avail[i]);
+            max = Math.max(max, avail[i]);
+        }
+        if (mainAvail <= 0 && max - min < rebalanceMinSkew) return;
+
+        if (mainAvail > 0) {
+            rebalanceMoves.increment();
+            int moved = 0;
+            for (int i = 0; i < n && moved < mainAvail; i++) {
+                int deficit = share(total, n, i) - avail[i];
+                if (deficit <= 0) continue;
+                int m = move(menuId, MAIN, i, Math.min(deficit, mainAvail - moved));
+                avail[i] += m;
+                moved += m;
+            }
+        }
+        for (int from = 0; from < n; from++) {
+            for (int to = 0; to < n && avail[from] > share(total, n, from); to++) {
+                int deficit = share(total, n, to) - avail[to];
+                if (deficit <= 0) continue;
+                int m = move(menuId, from, to, Math.min(deficit, avail[from] - share(total, n, from)));
+                avail[from] -= m;
+                avail[to] += m;
+                if (m > 0) rebalanceMoves.increment();
+            }
+        }
+    }
+
+    // 해제 중인 메뉴: 샤드 available 을 메인으로 모으고, 샤드에 예약·이동 중 수량이 남지 않으면 목록에서 뺀다
+    private void drainShards(UUID menuId, int n) {
+        boolean empty = true;
+        for (int i = 0; i < n; i++) {
+            move(menuId, i, MAIN, Integer.MAX_VALUE);
+            ShardView v = read(menuId, i);
+            empty &= v.available() == 0 && v.reserved() == 0 && v.inTransit() == 0;
+        }
+        if (empty && registry.activeShards(menuId) == 0) {
+            registry.remove(menuId);
+            log.info("[FLASH] 샤드 정리 완료 menuId={}", menuId);
+        }
+    }
+
+    // transit-timeout-ms 가 지난 이동: 받는 쪽에 반영됐으면 기록만 지우고, 아니면 원본으로 되돌린다
+    private void recoverStale(UUID menuId, int n) {
+        long now = System.currentTimeMillis();
+        for (int i = MAIN; i < n; i++) {
+            MenuKeys src = keysOf(menuId, i);
+            for (String moveId : redisson.<String, String>getMap(src.transit(), StringCodec.INSTANCE).readAllKeySet()) {
+                String[] parts = moveId.split(":");
+                if (parts.length < 3 || now - Long.parseLong(parts[1]) < transitTimeoutMs) continue;
+                MenuKeys dst = keysOf(menuId, Integer.parseInt(parts[0]));
+                if (redisson.<String>getSet(dst.moves(), StringCodec.INSTANCE).contains(moveId)) {
+                    redisson.getMap(src.transit(), StringCodec.INSTANCE).fastRemove(moveId);
+                } else {
+                    eval(LUA_RESTORE, RScript.ReturnType.INTEGER, List.of(src.avail(), src.transit()), moveId);
+                    log.warn("[FLASH] 끝나지 않은 샤드 이동 복구 menuId={} moveId={}", menuId, moveId);
+                }
+            }
+        }
+    }
+
+    // from → to 로 최대 want 만큼 옮기고 실제로 옮긴 수량을 돌려준다
+    private int move(UUID menuId, int from, int to, int want) {
+        if (want <= 0 || from == to) return 0;
+        MenuKeys src = keysOf(menuId, from);
+        MenuKeys dst = keysOf(menuId, to);
+        String moveId = to + ":" + System.currentTimeMillis() + ":" + UUID.randomUUID().toString().substring(0, 8);
+
+        Long taken = eval(LUA_TAKE, RScript.ReturnType.INTEGER, List.of(src.avail(), src.transit()),
+                String.valueOf(want), moveId);
+        if (taken == null || taken <= 0) return 0;
+        eval(LUA_PUT, RScript.ReturnType.INTEGER, List.of(dst.avail(), dst.moves()), moveId, String.valueOf(taken));
+        redisson.getMap(src.transit(), StringCodec.INSTANCE).fastRemove(moveId);
+        return taken.intValue();
+    }
+
+    private ShardView read(UUID menuId, int shard) {
+        MenuKeys k = keysOf(menuId, shard);
+        List<Long> v = eval(LUA_READ, RScript.ReturnType.MULTI, List.of(k.avail(), k.reserved(), k.transit()));
+        return new ShardView(shard, v.get(0).intValue(), v.get(1).intValue(), v.get(2).intValue());
+    }
+
+    private MenuKeys keysOf(UUID menuId, int shard) {
+        return shard == MAIN ? inventoryKeys.menu(menuId) : inventoryKeys.shard(menuId, shard);
+    }
+
+    private <T> T eval(String script, RScript.ReturnType type, List<Object> keys, Object... args) {
+        return redisson.getScript(StringCodec.INSTANCE).eval(RScript.Mode.READ_WRITE, script, type, keys, args);
+    }
+
+    // total 을 n 개로 나눈 i 번째 몫 (앞쪽 샤드가 나머지를 하나씩)
+    private static int share(int total, int n, int i) {
+        return total / n + (i < total % n ? 1 : 0);
+    }
+
+    /** shard = -1 은 메인 키 */
+    public record ShardView(int shard, int available, int reserved, int inTransit) {}
+
+    public record FlashTotal(UUID menuId, int shards, boolean active, int available, int reserved, List<ShardView> parts) {}
+}
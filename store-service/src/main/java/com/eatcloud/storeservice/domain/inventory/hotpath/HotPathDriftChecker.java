@@ -0,0 +1,115 @@
+package com.eatcloud.storeservice.domain.inventory.hotpath;
+
+import com.eatcloud.storeservice.domain.inventory.entity.InventoryStock;
+import com.eatcloud.storeservice.domain.inventory.hot.HotKeyDecider;
+import com.eatcloud.storeservice.domain.inventory.hotpath.HotPathJournalWriter.StockDelta;
+import com.eatcloud.storeservice.domain.inventory.repository.InventoryStockRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Redis 우선 모드 드리프트 점검.
+ *
+ * 핫 메뉴마다 Redis available/reserved 와 "DB 값 + 아직 반영 안 된 저널 증감" 을 비교한다.
+ * 저널 반영 타이밍 때문에 한 번 어긋나는 건 흔하므로 연속 두 번 같은 메뉴가 어긋날 때만 드리프트로 보고한다.
+ * 자동 보정은 하지 않는다 (어느 쪽이 맞는지는 운영자가 판단 후 seed/refresh).
+ */
+@Slf4j
+@Component
+public class HotPathDriftChecker {
+
+    private final HotKeyDecider hotKeyDecider;
+    private final HotPathLuaService hotPath;
+    private final HotPathReconciler reconciler;
+    private final InventoryStockRepository stockRepo;
+    private final int tolerance;
+    private final int scanLimit;
+
+    private final Counter detected;
+    private final AtomicInteger driftedMenus = new AtomicInteger();
+
+    private Map<UUID, Integer> suspects = new HashMap<>();
+    private volatile DriftReport lastReport = new DriftReport(null, 0, List.of());
+
+    public HotPathDriftChecker(HotKeyDecider hotKeyDecider,
+                               HotPathLuaService hotPath,
+                               HotPathReconciler reconciler,
+                               InventoryStockRepository stockRepo,
+                               MeterRegistry meterRegistry,
+                               @Value("${inventory.hotpath.redis-first.drift-tolerance:0}") int tolerance,
+                               @Value("${inventory.hotpath.redis-first.drift-scan-limit:10000}") int scanLimit) {
+        this.hotKeyDecider = hotKeyDecider;
+        this.hotPath = hotPath;
+        this.reconciler = reconciler;
+        this.stockRepo = stockRepo;
+        this.tolerance = tolerance;
+        this.scanLimit = scanLimit;
+
+        this.detected = Counter.builder("inventory.hotpath.drift.detected").register(meterRegistry);
+        Gauge.builder("inventory.hotpath.drift.menus", driftedMenus, AtomicInteger::get).register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.hotpath.redis-first.drift-check-ms:60000}")
+    public void check() {
+        if (!reconciler.isEnabled()) return;
+        try {
+            Set<UUID> menus = hotKeyDecider.hotMenus();
+            Map<UUID, StockDelta> unapplied = menus.isEmpty() ? Map.of() : reconciler.unappliedByMenu(scanLimit);
+            Map<UUID, InventoryStock> db = new HashMap<>();
+            stockRepo.findAllById(menus).forEach(s -> db.put(s.getMenuId(), s));
+
+            Map<UUID, Integer> nextSuspects = new HashMap<>();
+            List<Drift> drifts = new ArrayList<>();
+            for (UUID menuId : menus) {
+                InventoryStock stock = db.get(menuId);
+                if (stock == null || stock.isUnlimited()) continue;
+
+                Map<String, Integer> redis = hotPath.readRedisStock(menuId);
+                int redisAvail = redis.get("available");
+                int redisReserved = redis.get("reserved");
+                StockDelta pending = unapplied.getOrDefault(menuId, StockDelta.ZERO);
+                int availDiff = redisAvail - (stock.getAvailableQty() + pending.available());
+                int reservedDiff = redisReserved - (stock.getReservedQty() + pending.reserved());
+                if (Math.abs(availDiff) <= tolerance && Math.abs(reservedDiff) <= tolerance) continue;
+
+                nextSuspects.put(menuId, availDiff);
+                if (suspects.containsKey(menuId)) {
+                    drifts.add(new Drift(menuId, redisAvail, stock.getAvailableQty(), redisReserved, stock.getReservedQty(),
+                            pending, availDiff, reservedDiff));
+                    detected.increment();
+                    log.warn("[DRIFT] menuId={} redisAvail={} dbAvail={} redisReserved={} dbReserved={} unapplied={} diff=({}, {})",
+                            menuId, redisAvail, stock.getAvailableQty(), redisReserved, stock.getReservedQty(),
+                            pending, availDiff, reservedDiff);
+                }
+            }
+            suspects = nextSuspects;
+            driftedMenus.set(drifts.size());
+            lastReport = new DriftReport(LocalDateTime.now(), menus.size(), drifts);
+        } catch (Exception e) {
+            log.warn("[DRIFT] 드리프트 점검 실패: {}", e.toString());
+        }
+    }
+
+    public DriftReport lastReport() {
+        return lastReport;
+    }
+
+    public record Drift(UUID menuId, int redisAvailable, int dbAvailable, int redisReserved, int dbReserved,
+                        StockDelta unapplied, int availableDiff, int reservedDiff) {}
+
+    public record DriftReport(LocalDateTime checkedAt, int checkedMenus, List<Drift> drifts) {}
+}
@@ -0,0 +1,171 @@
+package com.eatcloud.storeservice.domain.inventory.hotpath;
+
+import com.eatcloud.storeservice.domain.inventory.hotpath.InventoryKeys.MenuKeys;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RBucket;
+import org.redisson.api.RSet;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Redis 우선 모드의 핫/비핫 전환 울타리.
+ *
+ * 메뉴 키와 같은 슬롯의 mode 키({@code ...:<menuId>:mode}, 플래시 세일 샤드마다 한 벌)에
+ *  - HOT: Redis 가 원장. Lua 예약/전이만 받고, 비핫키(메뉴 락 + DB) 경로는 거절
+ *  - SWITCHING: 강등 중. 남은 저널을 DB 에 반영하는 동안 양쪽 경로 모두 거절
+ *  - FENCED: 격리. 저널을 DB 에 반영하지 못해(dead-letter) Redis 와 DB 가 어긋난 메뉴. 양쪽 경로 모두 거절하고
+ *            강등도 하지 않는다. 운영자가 맞춘 뒤 seed 후 {@link #open} 으로 다시 연다
+ *  - 없음: DB 가 원장. Lua 는 호출자를 비핫키 경로로 돌려보낸다
+ * 를 둔다. Lua 는 저널을 남기는 같은 스크립트 안에서 mode 를 보므로 SWITCHING 을 쓴 뒤에는 어느 인스턴스도
+ * 이 메뉴의 저널을 더 쌓지 못하고, 비핫키 경로는 메뉴 락 안에서 mode 를 보므로 같은 락 안에서 시드 후 HOT 을 쓰는
+ * 승격과 엇갈리지 않는다. 그래서 pub/sub·resync 로 로컬 핫키 캐시가 늦게 바뀐 인스턴스도 같은 재고를 두 번 팔지 못한다.
+ *
+ * 전환(open / beginClose / finishClose)은 메뉴 락 안에서 호출한다. Redis 우선 모드가 아니면 DB CAS 가 항상
+ * 최종 판정이라 아무것도 하지 않는다.
+ */
+@Slf4j
+@Component
+public class HotPathFence {
+
+    public static final String HOT = "HOT";
+    public static final String SWITCHING = "SWITCHING";
+    public static final String FENCED = "FENCED";
+
+    static final String SWITCHING_SET = "inv:hot:switching";
+
+    private final RedissonClient redisson;
+    private final InventoryKeys inventoryKeys;
+    private final FlashSaleRegistry flashSales;
+    private final boolean enabled;
+
+    public HotPathFence(RedissonClient redisson,
+                        InventoryKeys inventoryKeys,
+                        FlashSaleRegistry flashSales,
+                        @Value("${inventory.hotpath.redis-first.enabled:false}") boolean enabled) {
+        this.redisson = redisson;
+        this.inventoryKeys = inventoryKeys;
+        this.flashSales = flashSales;
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    /**
+     * 비핫키 경로: 메뉴 락 안에서 DB 를 바꾸기 전에 호출.
+     *
+     * @throws HotPathFencedException Redis 가 이 메뉴를 핫(또는 전환 중)으로 보고 있을 때
+     */
+    public void checkCold(Collection<UUID> menuIds) {
+        if (!enabled) return;
+        for (UUID menuId : menuIds) {
+            String mode = bucket(inventoryKeys.menu(menuId)).get();
+            if (mode == null && inventoryKeys.isDualRead()) mode = bucket(inventoryKeys.legacy(menuId)).get();
+            if (mode != null) throw new HotPathFencedException(menuId, mode);
+        }
+    }
+
+    /** 메뉴 키의 현재 mode (HOT / SWITCHING / null). 비활성이면 항상 null */
+    public String mode(UUID menuId) {
+        if (!enabled) return null;
+        return bucket(inventoryKeys.menu(menuId)).get();
+    }
+
+    /** 승격: DB 값을 Redis 에 시드한 직후 호출. 이제 Redis 가 원장 */
+    public void open(UUID menuId) {
+        if (!enabled) return;
+        keysOf(menuId, flashSales.shards(menuId)).forEach(k -> bucket(k).set(HOT));
+        switchingSet().remove(menuId.toString());
+        log.info("[FENCE] 핫 전환 menuId={}", menuId);
+    }
+
+    /** 플래시 세일 샤드 shards 개의 mode 를 메뉴 키와 맞춘다 (샤드로 예약을 돌리기 전에) */
+    public void syncShards(UUID menuId, int shards) {
+        if (!enabled) return;
+        String mode = bucket(inventoryKeys.menu(menuId)).get();
+        for (int i = 0; i < shards; i++) {
+            RBucket<String> b = bucket(inventoryKeys.shard(menuId, i));
+            if (mode == null) b.delete();
+            else b.set(mode);
+        }
+    }
+
+    /**
+     * 격리: Redis 와 DB 가 어긋나 어느 쪽도 원장으로 믿을 수 없는 메뉴의 예약·전이를 막는다.
+     * 강등 중이었으면 강등도 멈춘다 (강등을 마치면 어긋난 DB 가 원장이 되므로).
+     */
+    public void fence(UUID menuId) {
+        if (!enabled) return;
+        keysOf(menuId, flashSales.shards(menuId)).forEach(k -> bucket(k).set(FENCED));
+        switchingSet().remove(menuId.toString());
+        log.error("[FENCE] 메뉴 격리 menuId={} (Redis/DB 불일치, 운영자 확인 후 seed·open 필요)", menuId);
+    }
+
+    /** 강등 1단계: 이후 어느 인스턴스도 이 메뉴로 Lua 를 돌리거나 저널을 쌓지 못한다 */
+    public void beginClose(UUID menuId) {
+        if (!enabled) return;
+        if (FENCED.equals(bucket(inventoryKeys.menu(menuId)).get())) {
+            log.warn("[FENCE] 격리된 메뉴는 강등하지 않음 menuId={}", menuId);
+            return;
+        }
+        switchingSet().add(menuId.toString());
+        keysOf(menuId, flashSales.shards(menuId)).forEach(k -> bucket(k).set(SWITCHING));
+        log.info("[FENCE] 강등 시작 menuId={}", menuId);
+    }
+
+    /**
+     * 강등 2단계: 이 메뉴의 저널이 모두 DB 에 반영된 뒤 호출. 이제 DB 가 원장.
+     * 그 사이 다시 승격됐으면(mode 가 HOT) 아무것도 하지 않는다.
+     *
+     * @return 비핫키로 바뀌었으면 true
+     */
+    public boolean finishClose(UUID menuId) {
+        if (!enabled) return false;
+        if (!SWITCHING.equals(bucket(inventoryKeys.menu(menuId)).get())) {
+            switchingSet().remove(menuId.toString());
+            return false;
+        }
+        keysOf(menuId, flashSales.shards(menuId)).forEach(k -> bucket(k).delete());
+        switchingSet().remove(menuId.toString());
+        log.info("[FENCE] 강등 완료 menuId={}", menuId);
+        return true;
+    }
+
+    /** 강등을 시작했지만 끝내지 못한 메뉴 (저널 반영 지연 등) */
+    public Set<UUID> switching() {
+        if (!enabled) return Set.of();
+        Set<UUID> ids = new HashSet<>();
+        for (String k : switchingSet().readAll()) {
+            try { ids.add(UUID.fromString(k)); }
+            catch (IllegalArgumentException e) { log.warn("[FENCE] invalid menuId in {}: {}", SWITCHING_SET, k); }
+        }
+        return ids;
+    }
+
+    private List<MenuKeys> keysOf(UUID menuId, int shards) {
+        List<MenuKeys> keys = new ArrayList<>(shards + 1);
+        keys.add(inventoryKeys.menu(menuId));
+        for (int i = 0; i < shards; i++) {
+            keys.add(inventoryKeys.shard(menuId, i));
+        }
+        return keys;
+    }
+
+    private RBucket<String> bucket(MenuKeys keys) {
+        return redisson.getBucket(keys.mode(), StringCodec.INSTANCE);
+    }
+
+    private RSet<String> switchingSet() {
+        return redisson.getSet(SWITCHING_SET, StringCodec.INSTANCE);
+    }
+}
@@ -0,0 +1,34 @@
+package com.eatcloud.storeservice.domain.inventory.hotpath;
+
+import java.util.UUID;
+
+/**
+ * Redis 우선 모드에서 메뉴의 핫/비핫 상태({@link HotPathFence})가 호출한 경로와 맞지 않을 때.
+ * 로컬 핫키 캐시가 아직 바뀌지 않았거나 전환 중이라는 뜻이므로 잠시 뒤 다시 시도하면 된다.
+ * 격리({@link HotPathFence#FENCED})된 메뉴도 같은 예외로 거절되며, 운영자가 풀 때까지 계속된다.
+ */
+public class HotPathFencedException extends RuntimeException {
+
+    private final UUID menuId;
+    private final String mode;
+
+    /** @param mode Redis 의 현재 mode (null = 비핫키, DB 가 원장) */
+    public HotPathFencedException(UUID menuId, String mode) {
+        super((mode == null ? "MENU_COLD" : "MENU_" + mode) + " menuId=" + menuId);
+        this.menuId = menuId;
+        this.mode = mode;
+    }
+
+    public UUID getMenuId() {
+        return menuId;
+    }
+
+    public String getMode() {
+        return mode;
+    }
+
+    /** Lua 경로로 왔지만 이미 비핫키: 메뉴 락 경로로 처리하면 된다 */
+    public boolean isCold() {
+        return mode == null;
+    }
+}
@@ -0,0 +1,126 @@
+package com.eatcloud.storeservice.domain.inventory.hotpath;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.sql.Timestamp;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * 핫패스 저널 → DB 일괄 반영용 JDBC.
+ * StockProjectionBulkWriter 와 같이 배열 파라미터 + unnest 로 묶어 행 수와 상관없이 문장 수를 고정한다.
+ */
+@Repository
+@RequiredArgsConstructor
+public class HotPathJournalWriter {
+
+    static final String VOID_REASON = "HOTPATH_VOID";
+
+    // 새 라인은 PENDING 으로 넣고, VOID 로 취소됐던 라인이 다시 예약되면 되살린다. 반영된 행만 돌려준다
+    private static final String RESERVE_SQL = """
+            INSERT INTO inventory_reservations
+                   (reservation_id, menu_id, order_id, order_line_id, qty, status, reason, expires_at, created_at)
+            SELECT r.reservation_id, r.menu_id, r.order_id, r.order_line_id, r.qty, 'PENDING', NULL, r.expires_at, r.created_at
+              FROM unnest(?::uuid[], ?::uuid[], ?::uuid[], ?::uuid[], ?::int[], ?::timestamp[], ?::timestamp[])
+                   AS r(reservation_id, menu_id, order_id, order_line_id, qty, expires_at, created_at)
+            ON CONFLICT (order_line_id) DO UPDATE
+               SET status = 'PENDING', reason = NULL, qty = EXCLUDED.qty, expires_at = EXCLUDED.expires_at
+             WHERE inventory_reservations.status = 'CANCELED'
+               AND inventory_reservations.reason = '%s'
+            RETURNING menu_id, qty
+            """.formatted(VOID_REASON);
+
+    // from 상태인 라인만 to 로 바꾸고(재전달 시 멱등), 바뀐 행만 돌려준다. 빈 사유는 기존 값 유지
+    private static final String TRANSITION_SQL = """
+            UPDATE inventory_reservations r
+               SET status = ?, reason = COALESCE(NULLIF(v.reason, ''), r.reason)
+              FROM unnest(?::uuid[], ?::text[]) AS v(order_line_id, reason)
+             WHERE r.order_line_id = v.order_line_id
+               AND r.status = ?
+            RETURNING r.menu_id, r.qty
+            """;
+
+    // 메뉴당 한 행씩 한 문장으로 반영. Redis 가 이미 판정했으므로 CAS 없이 적용한다.
+    // 0 으로 자르지 않는다: 음수가 되면 ck_inventory_stock_non_negative 로 배치가 실패해 초과 판매가 드러나고
+    // 재시도·격리된다 (조용히 0 으로 맞추면 DB 가 Redis 와 어긋난 채 드리프트가 사라진다)
+    private static final String STOCK_SQL = """
+            UPDATE inventory_stock s
+               SET available_qty = s.available_qty + d.da,
+                   reserved_qty  = s.reserved_qty + d.dr,
+                   updated_at    = now()
+              FROM unnest(?::uuid[], ?::int[], ?::int[]) AS d(menu_id, da, dr)
+             WHERE s.menu_id = d.menu_id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    /** @return 실제로 PENDING 이 된 라인의 (menuId, qty) */
+    public List<MenuQty> insertReserved(List<HotPathReconciler.Entry> entries, int ttlMinutes) {
+        UUID[] ids = entries.stream().map(e -> UUID.randomUUID()).toArray(UUID[]::new);
+        UUID[] menuIds = entries.stream().map(HotPathReconciler.Entry::menuId).toArray(UUID[]::new);
+        UUID[] orderIds = entries.stream().map(HotPathReconciler.Entry::orderId).toArray(UUID[]::new);
+        UUID[] lineIds = entries.stream().map(HotPathReconciler.Entry::orderLineId).toArray(UUID[]::new);
+        Integer[] qty = entries.stream().map(HotPathReconciler.Entry::qty).toArray(Integer[]::new);
+        Timestamp[] expiresAt = entries.stream()
+                .map(e -> Timestamp.valueOf(e.createdAt().plusMinutes(ttlMinutes))).toArray(Timestamp[]::new);
+        Timestamp[] createdAt = entries.stream()
+                .map(e -> Timestamp.valueOf(e.createdAt())).toArray(Timestamp[]::new);
+
+        return jdbcTemplate.query(RESERVE_SQL, ps -> {
+            ps.setArray(1, ps.getConnection().createArrayOf("uuid", ids));
+            ps.setArray(2, ps.getConnection().createArrayOf("uuid", menuIds));
+            ps.setArray(3, ps.getConnection().createArrayOf("uuid", orderIds));
+            ps.setArray(4, ps.getConnection().createArrayOf("uuid", lineIds));
+            ps.setArray(5, ps.getConnection().createArrayOf("integer", qty));
+            ps.setArray(6, ps.getConnection().createArrayOf("timestamp", expiresAt));
+            ps.setArray(7, ps.getConnection().createArrayOf("timestamp", createdAt));
+        }, (rs, i) -> new MenuQty(rs.getObject("menu_id", UUID.class), rs.getInt("qty")));
+    }
+
+    /**
+     * @param reasonByLine orderLineId → 사유 (빈 문자열이면 기존 사유 유지)
+     * @return from → to 로 바뀐 라인의 (menuId, qty)
+     */
+    public List<MenuQty> transition(Map<UUID, String> reasonByLine, String from, String to) {
+        UUID[] lineIds = reasonByLine.keySet().toArray(UUID[]::new);
+        String[] reasons = reasonByLine.values().toArray(String[]::new);
+        return jdbcTemplate.query(TRANSITION_SQL, ps -> {
+            ps.setString(1, to);
+            ps.setArray(2, ps.getConnection().createArrayOf("uuid", lineIds));
+            ps.setArray(3, ps.getConnection().createArrayOf("text", reasons));
+            ps.setString(4, from);
+        }, (rs, i) -> new MenuQty(rs.getObject("menu_id", UUID.class), rs.getInt("qty")));
+    }
+
+    /** 메뉴별 순증감을 메뉴당 한 행 UPDATE 로 반영 */
+    public void applyStock(Map<UUID, StockDelta> byMenu) {
+        if (byMenu.isEmpty()) {
+            return;
+        }
+        UUID[] menuIds = byMenu.keySet().toArray(UUID[]::new);
+        Integer[] available = byMenu.values().stream().map(StockDelta::available).toArray(Integer[]::new);
+        Integer[] reserved = byMenu.values().stream().map(StockDelta::reserved).toArray(Integer[]::new);
+        jdbcTemplate.update(STOCK_SQL, ps -> {
+            ps.setArray(1, ps.getConnection().createArrayOf("uuid", menuIds));
+            ps.setArray(2, ps.getConnection().createArrayOf("integer", available));
+            ps.setArray(3, ps.getConnection().createArrayOf("integer", reserved));
+        });
+    }
+
+    public record MenuQty(UUID menuId, int qty) {}
+
+    public record StockDelta(int available, int reserved) {
+        public static final StockDelta ZERO = new StockDelta(0, 0);
+
+        public StockDelta plus(StockDelta o) {
+            return new StockDelta(available + o.available, reserved + o.reserved);
+        }
+
+        public boolean isZero() {
+            return available == 0 && reserved == 0;
+        }
+    }
+}
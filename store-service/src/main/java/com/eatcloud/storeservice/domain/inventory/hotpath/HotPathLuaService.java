@@ -3,17 +3,23 @@ package com.eatcloud.storeservice.domain.inventory.hotpath;
 import com.eatcloud.storeservice.domain.inventory.entity.InventoryReservation;
 import com.eatcloud.storeservice.domain.inventory.repository.InventoryReservationRepository;
 import com.eatcloud.storeservice.domain.inventory.repository.InventoryStockRepository;
+import com.eatcloud.storeservice.domain.inventory.service.ReserveLine;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.redisson.api.RScript;
 import org.redisson.api.RedissonClient;
+import org.redisson.client.RedisException;
 import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.Map;
+import java.util.TreeMap;
 import java.util.UUID;
 
 @Slf4j
@@ -24,9 +30,18 @@ public class HotPathLuaService {
     private final RedissonClient redisson;
     private final InventoryStockRepository stockRepo;
     private final InventoryReservationRepository resRepo;
+    private final InventoryKeys inventoryKeys;
+    private final InventoryKeyMigrator keyMigrator;
+    private final FlashSaleRegistry flashSales;
+    private final FlashSaleService flashSale;
 
-    // KEYS[1]=avail, KEYS[2]=reserved, KEYS[3]=orders(set)
+    // Redis 우선 모드: 핫 메뉴는 Redis 가 원장이고, 예약/재고 변경은 저널 스트림으로 남겨 HotPathReconciler 가 DB 에 일괄 반영
+    @Value("${inventory.hotpath.redis-first.enabled:false}")
+    private boolean redisFirst;
+
+    // KEYS[1]=avail, KEYS[2]=reserved, KEYS[3]=orders(set), Redis 우선 모드에서만 KEYS[4]=저널 스트림, KEYS[5]=mode
     // ARGV[1]=menuId, ARGV[2]=orderId, ARGV[3]=orderLineId, ARGV[4]=qty
+    // 반환: 1=예약, 2=멱등, 0=부족, -2=핫/비핫 전환 중 또는 격리, -3=비핫키 (HotPathFence)
     private static final String LUA_RESERVE = """
         local availKey   = KEYS[1]
         local reservedKey= KEYS[2]
@@ -37,6 +52,13 @@ public class HotPathLuaService {
         local orderLineId = ARGV[3]
         local qty         = tonumber(ARGV[4])
 
+        if KEYS[5] then
+          local mode = redis.call('GET', KEYS[5])
+          if mode ~= 'HOT' then
+            return (mode == 'SWITCHING' or mode == 'FENCED') and -2 or -3
+          end
+        end
+
         -- idempotency
         if redis.call('SISMEMBER', ordersKey, orderLineId) == 1 then
           return 2     -- already processed (idempotent success)
@@ -50,6 +72,10 @@ public class HotPathLuaService {
         redis.call('DECRBY', availKey, qty)
         redis.call('INCRBY', reservedKey, qty)
         redis.call('SADD', ordersKey, orderLineId)
+        if KEYS[4] then
+          redis.call('XADD', KEYS[4], '*', 'op', 'RESERVE', 'menuId', menuId, 'orderId', orderId,
+                     'orderLineId', orderLineId, 'qty', ARGV[4])
+        end
 
         return 1       -- success
         """;
@@ -71,34 +97,221 @@ public class HotPathLuaService {
         return 1
         """;
 
-    private List<String> keys(UUID menuId) {
-        String prefix = "inv:" + menuId;
-        return List.of(prefix + ":avail", prefix + ":reserved", prefix + ":orders");
+    // 한 주문의 여러 라인을 한 번에 all-or-nothing 예약
+    // KEYS: 키 묶음 m(1..M, 메뉴 또는 플래시 세일 샤드)마다 [3m-2]=avail, [3m-1]=reserved, [3m]=orders(set),
+    //       Redis 우선 모드에서만 [3M+1]=저널 스트림, 키 묶음 m마다 [3M+1+m]=mode
+    // ARGV[1]=라인 수 N, 라인 j(0..N-1)마다 [2+3j]=orderLineId, [3+3j]=메뉴 인덱스 m, [4+3j]=qty,
+    //         [2+3N]=orderId, 메뉴 m마다 [2+3N+m]=menuId (저널 기록용)
+    // 반환: {1, 새로 예약한 라인 인덱스...} | {0, 부족한 메뉴 인덱스...} | {-2} 전환 중 | {-3} 비핫키
+    private static final String LUA_RESERVE_BATCH = """
+        local n = tonumber(ARGV[1])
+        local menus = #ARGV - 2 - n * 3
+        local journal = KEYS[menus * 3 + 1]
+        if journal then
+          for m = 1, menus do
+            local mode = redis.call('GET', KEYS[menus * 3 + 1 + m])
+            if mode ~= 'HOT' then
+              return {(mode == 'SWITCHING' or mode == 'FENCED') and -2 or -3}
+            end
+          end
+        end
+        local need = {}
+        local fresh = {}
+
+        -- idempotency: 이미 처리된 라인은 건너뛴다
+        for j = 0, n - 1 do
+          local m = tonumber(ARGV[3 + j * 3])
+          if redis.call('SISMEMBER', KEYS[m * 3], ARGV[2 + j * 3]) == 0 then
+            need[m] = (need[m] or 0) + tonumber(ARGV[4 + j * 3])
+            table.insert(fresh, j)
+          end
+        end
+
+        local result = {0}
+        for m = 1, menus do
+          if need[m] and tonumber(redis.call('GET', KEYS[m * 3 - 2]) or '0') < need[m] then
+            table.insert(result, m)
+          end
+        end
+        if #result > 1 then
+          return result      -- insufficient: 아무것도 차감하지 않음
+        end
+
+        for m = 1, menus do
+          if need[m] then
+            redis.call('DECRBY', KEYS[m * 3 - 2], need[m])
+            redis.call('INCRBY', KEYS[m * 3 - 1], need[m])
+          end
+        end
+        result = {1}
+        for _, j in ipairs(fresh) do
+          local m = tonumber(ARGV[3 + j * 3])
+          redis.call('SADD', KEYS[m * 3], ARGV[2 + j * 3])
+          if journal then
+            redis.call('XADD', journal, '*', 'op', 'RESERVE', 'menuId', ARGV[2 + n * 3 + m],
+                       'orderId', ARGV[2 + n * 3], 'orderLineId', ARGV[2 + j * 3], 'qty', ARGV[4 + j * 3])
+          end
+          table.insert(result, j)
+        end
+        return result
+        """;
+
+    // 일괄 보상: LUA_RESERVE_BATCH 와 같은 KEYS/ARGV 배치. set 에 남아 있는 라인만 수량 복구
+    // 저널 키가 있으면 되돌린 라인마다 VOID 를 남겨 DB 반영분도 취소되게 한다
+    private static final String LUA_ROLLBACK_BATCH = """
+        local n = tonumber(ARGV[1])
+        local journal = KEYS[(#ARGV - 2 - n * 3) * 3 + 1]
+        for j = 0, n - 1 do
+          local m = tonumber(ARGV[3 + j * 3])
+          local qty = tonumber(ARGV[4 + j * 3])
+          if redis.call('SREM', KEYS[m * 3], ARGV[2 + j * 3]) == 1 then
+            redis.call('INCRBY', KEYS[m * 3 - 2], qty)
+            redis.call('DECRBY', KEYS[m * 3 - 1], qty)
+            if journal then
+              redis.call('XADD', journal, '*', 'op', 'VOID', 'menuId', ARGV[2 + n * 3 + m],
+                         'orderId', ARGV[2 + n * 3], 'orderLineId', ARGV[2 + j * 3], 'qty', ARGV[4 + j * 3])
+            end
+          end
+        end
+        return 1
+        """;
+
+    // 저널 반영이 영구 실패(dead-letter)한 RESERVE 되돌리기. DB 에 예약 row 가 없으므로 저널은 남기지 않는다
+    // KEYS[1]=avail, KEYS[2]=reserved, KEYS[3]=lines(hash), KEYS[4]=orders(set), ARGV[1]=orderLineId, ARGV[2]=qty
+    // 반환: 호출 전 라인 상태. 'P' 면 이번 호출이 되돌린 것(라인도 잊는다), 'N' = 이 키 묶음의 라인이 아님
+    private static final String LUA_VOID_ORPHAN = """
+        if redis.call('SISMEMBER', KEYS[4], ARGV[1]) == 0 then
+          return 'N'
+        end
+        local prev = redis.call('HGET', KEYS[3], ARGV[1]) or 'P'
+        if prev == 'P' then
+          local qty = tonumber(ARGV[2])
+          redis.call('SREM', KEYS[4], ARGV[1])
+          redis.call('HDEL', KEYS[3], ARGV[1])
+          redis.call('INCRBY', KEYS[1], qty)
+          if redis.call('DECRBY', KEYS[2], qty) < 0 then
+            redis.call('SET', KEYS[2], '0')
+          end
+        end
+        return prev
+        """;
+
+    // 주문 라인 상태 전이 (라인별 멱등). 라인 상태는 메뉴별 lines 해시에 둔다: C=확정, X=취소, F=반품
+    // 해시에 없으면 호출자가 DB 기준으로 알려준 현재 상태(ARGV[7], P=PENDING 또는 C)를 쓴다.
+    // 마지막 전이 후 2일이 지나면 해시째 만료된다 (그때쯤이면 DB 상태가 기준)
+    // KEYS[1]=avail, KEYS[2]=reserved, KEYS[3]=lines(hash), KEYS[4]=orders(set), Redis 우선 모드에서만 KEYS[5]=저널 스트림, KEYS[6]=mode
+    // ARGV[1]=orderLineId, [2]=qty, [3]=전이 전 상태, [4]=전이 후 상태, [5]=avail 증감 부호, [6]=reserved 증감 부호,
+    //     [7]=해시에 없을 때 상태, [8]=저널 op, [9]=menuId, [10]=orderId, [11]=reason,
+    //     [12]='1' 이면 이 키 묶음(플래시 세일 샤드)에서 예약된 라인만 전이
+    // 반환: 호출 전 라인 상태. ARGV[3] 과 같으면 이번 호출이 전이한 것. 'N' = 이 샤드의 라인이 아님,
+    //       'S' = 핫/비핫 전환 중, 'D' = 비핫키 (HotPathFence)
+    private static final String LUA_TRANSITION = """
+        if KEYS[6] then
+          local mode = redis.call('GET', KEYS[6])
+          if mode ~= 'HOT' then
+            return (mode == 'SWITCHING' or mode == 'FENCED') and 'S' or 'D'
+          end
+        end
+        if ARGV[12] == '1' and redis.call('SISMEMBER', KEYS[4], ARGV[1]) == 0 then
+          return 'N'
+        end
+        local prev = redis.call('HGET', KEYS[3], ARGV[1]) or ARGV[7]
+        if prev ~= ARGV[3] then
+          return prev
+        end
+
+        local qty = tonumber(ARGV[2])
+        local da = tonumber(ARGV[5]) * qty
+        local dr = tonumber(ARGV[6]) * qty
+        redis.call('HSET', KEYS[3], ARGV[1], ARGV[4])
+        redis.call('EXPIRE', KEYS[3], 172800)
+        if da ~= 0 then
+          redis.call('INCRBY', KEYS[1], da)
+        end
+        if dr ~= 0 and redis.call('INCRBY', KEYS[2], dr) < 0 then
+          redis.call('SET', KEYS[2], '0')
+        end
+        if KEYS[5] then
+          redis.call('XADD', KEYS[5], '*', 'op', ARGV[8], 'menuId', ARGV[9], 'orderId', ARGV[10],
+                     'orderLineId', ARGV[1], 'qty', ARGV[2], 'reason', ARGV[11])
+        end
+        return prev
+        """;
+
+    public static final String PENDING = "P";
+    public static final String CONFIRMED = "C";
+    public static final String CANCELED = "X";
+    public static final String REFUNDED = "F";
+    private static final String NOT_ON_SHARD = "N";
+    private static final String FENCE_SWITCHING = "S";
+    private static final String FENCE_COLD = "D";
+
+    /** 핫 메뉴 라인 전이. 전이 전/후 상태와 Redis 재고 증감 */
+    public enum LineTransition {
+        CONFIRM(PENDING, CONFIRMED, 0, -1),
+        CANCEL(PENDING, CANCELED, 1, -1),
+        RETURN(CONFIRMED, REFUNDED, 1, 0);
+
+        private final String from;
+        private final String to;
+        private final int availSign;
+        private final int reservedSign;
+
+        LineTransition(String from, String to, int availSign, int reservedSign) {
+            this.from = from;
+            this.to = to;
+            this.availSign = availSign;
+            this.reservedSign = reservedSign;
+        }
+
+        public String from() { return from; }
+        public String to() { return to; }
+    }
+
+    // 키 배치는 InventoryKeys 참고. tagged 배치면 처음 다루는 메뉴의 legacy 키를 먼저 옮긴다
+    private Target target(UUID menuId, int shard) {
+        if (shard == FlashSaleService.MAIN) {
+            keyMigrator.ensureMigrated(menuId);
+            return new Target(menuId, shard, inventoryKeys.menu(menuId),
+                    inventoryKeys.journal(menuId), inventoryKeys.slotGroup(menuId));
+        }
+        return new Target(menuId, shard, inventoryKeys.shard(menuId, shard),
+                inventoryKeys.shardJournal(menuId, shard), inventoryKeys.shardSlotGroup(menuId, shard));
+    }
+
+    // 새 예약을 차감할 키: 플래시 세일 중이면 라인의 홈 샤드, 아니면 메뉴 키
+    private Target reserveTarget(UUID menuId, UUID orderLineId, int shards) {
+        return target(menuId, shards > 0 ? FlashSaleService.homeShard(orderLineId, shards) : FlashSaleService.MAIN);
+    }
+
+    public boolean isRedisFirst() {
+        return redisFirst;
     }
 
     /**
      * 핫키 경로:
      * 1) Redis Lua로 원자 차감
      * 2) DB CAS로 확정, DB 실패 시 Lua 롤백
+     * Redis 우선 모드면 2) 대신 같은 Lua 안에서 저널 스트림에 기록하고 바로 끝낸다 (DB 는 비동기 반영)
+     * 플래시 세일 중이면 1) 은 라인의 홈 샤드에서 차감하고, 모자라면 이웃 샤드에서 가져와 한 번 더 시도한다
      *
      * @return true  = 예약 성공(or 멱등 성공)
      *         false = 부족/롤백 등으로 예약 실패
+     * @throws RedisException Redis 오류. 호출자 트랜잭션을 rollback-only 로 만들지 않으므로 호출자가 폴백 여부를 정한다
+     * @throws HotPathFencedException Redis 우선 모드에서 이 메뉴가 전환 중이거나 이미 비핫키일 때
      */
-    @Transactional
+    @Transactional(noRollbackFor = {RedisException.class, HotPathFencedException.class})
     public boolean reserveViaLua(UUID orderId, UUID orderLineId, UUID menuId, int qty) {
         // 1) Lua 선차감
-        RScript script = redisson.getScript(StringCodec.INSTANCE);
-        Long r = script.eval(
-                RScript.Mode.READ_WRITE,
-                LUA_RESERVE,
-                RScript.ReturnType.INTEGER,
-                new java.util.ArrayList<>(keys(menuId)),
-                menuId.toString(),
-                orderId.toString(),
-                orderLineId.toString(),
-                String.valueOf(qty)
-        );
-        if (r == null) r = -1L;
+        int shards = flashSales.activeShards(menuId);
+        Target target = reserveTarget(menuId, orderLineId, shards);
+        long r = reserveLua(target, orderId, orderLineId, qty);
+        if (r == 0 && target.isShard() && flashSale.steal(menuId, target.shard(), shards, qty)) {
+            r = reserveLua(target, orderId, orderLineId, qty);
+        }
+        if (r == -2 || r == -3) {
+            throw new HotPathFencedException(menuId, r == -2 ? HotPathFence.SWITCHING : null);
+        }
 
         if (r == 0) {           // 부족
             return false;
@@ -111,12 +324,15 @@ public class HotPathLuaService {
             log.warn("[HOTPATH] unexpected lua return: {}", r);
             return false;
         }
+        if (redisFirst) {       // 예약 row·DB 재고는 HotPathReconciler 가 반영
+            return true;
+        }
 
         // 2) DB 반영(CAS). 실패 시 Lua 롤백하고 실패 반환
         int updated = stockRepo.reserve(menuId, qty);
         if (updated == 0) {
             log.warn("[HOTPATH] DB CAS failed. rolling back Lua. menuId={}, qty={}", menuId, qty);
-            rollbackLua(orderLineId, menuId, qty);
+            rollbackLua(orderLineId, target, qty);
             return false;
         }
 
@@ -142,36 +358,321 @@ public class HotPathLuaService {
         return true;
     }
 
-    private void rollbackLua(UUID orderLineId, UUID menuId, int qty) {
+    private long reserveLua(Target target, UUID orderId, UUID orderLineId, int qty) {
+        List<Object> keys = new ArrayList<>(target.reserveKeys());
+        if (redisFirst) {
+            keys.add(target.journal());
+            keys.add(target.keys().mode());
+        }
+        Long r = redisson.getScript(StringCodec.INSTANCE).eval(
+                RScript.Mode.READ_WRITE,
+                LUA_RESERVE,
+                RScript.ReturnType.INTEGER,
+                keys,
+                target.menuId().toString(),
+                orderId.toString(),
+                orderLineId.toString(),
+                String.valueOf(qty)
+        );
+        return r == null ? -1L : r;
+    }
+
+    /**
+     * 핫키 일괄 경로: 한 주문의 핫 메뉴 라인들을 Lua 한 번으로 검사·차감한 뒤,
+     * 메뉴 순서대로 DB CAS. DB 실패 시 이미 반영한 메뉴를 되돌리고 Lua 롤백.
+     * tagged 키 배치에서 메뉴들이 여러 슬롯에 걸치면 슬롯 묶음마다 한 번씩 실행하고,
+     * 뒤 묶음이 부족하면 앞 묶음에서 새로 차감한 라인을 되돌린다.
+     * 플래시 세일 메뉴 라인은 홈 샤드 키로 들어가고, 샤드가 부족하면 이웃 샤드에서 가져와 그 묶음을 한 번 더 실행한다.
+     *
+     * 호출자 트랜잭션 안에서 호출한다. Redis 오류는 이번 호출이 차감한 라인만 되돌린 뒤 그대로 던져
+     * 호출자가 비핫키 경로로 폴백할 수 있게 한다. 결과를 모르는 묶음(스크립트 실행 중 오류)은 되돌리지 않는다.
+     * Redis 우선 모드면 Lua 가 라인별 저널을 남기고, DB CAS·예약 row 저장은 건너뛴다.
+     *
+     * @return 재고가 부족한 메뉴 목록. 비어 있으면 예약 성공(or 멱등 성공)
+     * @throws HotPathFencedException Redis 우선 모드에서 메뉴가 전환 중이거나 이미 비핫키일 때 (앞 묶음은 되돌린 뒤)
+     */
+    public List<UUID> reserveBatchViaLua(UUID orderId, List<ReserveLine> lines) {
+        // 이번 호출이 새로 차감한 라인. 실패 시 이것만 되돌린다 (이전 호출이 예약한 라인은 건드리지 않는다)
+        List<ReserveLine> fresh = new ArrayList<>();
+        try {
+            for (List<LineTarget> group : slotGroups(lines)) {
+                List<Target> targets = targetsOf(group);
+                List<Object> r = evalBatch(LUA_RESERVE_BATCH, RScript.ReturnType.MULTI, orderId, targets, group);
+                if (isShort(r) && steal(shortTargets(r, targets), group)) {
+                    r = evalBatch(LUA_RESERVE_BATCH, RScript.ReturnType.MULTI, orderId, targets, group);
+                }
+                if (r != null && !r.isEmpty() && ((Number) r.get(0)).longValue() < 0) {
+                    if (!fresh.isEmpty()) rollbackBatchLua(orderId, fresh);
+                    boolean switching = ((Number) r.get(0)).longValue() == -2;
+                    throw new HotPathFencedException(targets.get(0).menuId(), switching ? HotPathFence.SWITCHING : null);
+                }
+                List<UUID> shortMenus;
+                if (r == null || r.isEmpty()) {
+                    log.warn("[HOTPATH] unexpected batch lua return: {}", r);
+                    shortMenus = menusOf(targets);
+                } else if (isShort(r)) {     // 부족
+                    shortMenus = menusOf(shortTargets(r, targets));
+                } else {
+                    r.subList(1, r.size()).forEach(j -> fresh.add(group.get(((Number) j).intValue()).line()));
+                    continue;
+                }
+                if (!fresh.isEmpty()) rollbackBatchLua(orderId, fresh);
+                return shortMenus;
+            }
+        } catch (RedisException e) {
+            if (!fresh.isEmpty()) rollbackBatchLua(orderId, fresh);
+            throw e;
+        }
+
+        if (fresh.isEmpty()) {
+            log.debug("[HOTPATH] batch idempotent hit. orderId={}", orderId);
+            return List.of();
+        }
+        if (redisFirst) {
+            return List.of();
+        }
+
+        // DB 반영(CAS). 메뉴 순서를 고정해 행 락 순서가 항상 같게 한다
+        Map<UUID, Integer> qtyByMenu = new TreeMap<>();
+        fresh.forEach(l -> qtyByMenu.merge(l.menuId(), l.qty(), Integer::sum));
+        List<Map.Entry<UUID, Integer>> applied = new ArrayList<>();
+        for (Map.Entry<UUID, Integer> e : qtyByMenu.entrySet()) {
+            if (stockRepo.reserve(e.getKey(), e.getValue()) == 0) {
+                log.warn("[HOTPATH] batch DB CAS failed. rolling back. orderId={}, menuId={}", orderId, e.getKey());
+                applied.forEach(a -> stockRepo.release(a.getKey(), a.getValue()));
+                rollbackBatchLua(orderId, fresh);
+                return List.of(e.getKey());
+            }
+            applied.add(e);
+        }
+
+        for (ReserveLine line : fresh) {
+            if (resRepo.findByOrderLineId(line.orderLineId()).isPresent()) continue;
+            resRepo.save(InventoryReservation.builder()
+                    .reservationId(UUID.randomUUID())
+                    .menuId(line.menuId())
+                    .orderId(orderId)
+                    .orderLineId(line.orderLineId())
+                    .qty(line.qty())
+                    .status("PENDING")
+                    .expiresAt(LocalDateTime.now().plusMinutes(10))
+                    .createdAt(LocalDateTime.now())
+                    .build());
+        }
+        return List.of();
+    }
+
+    /** reserveBatchViaLua 로 차감한 라인들을 되돌린다 (상위 트랜잭션 실패 시 보상용) */
+    public void rollbackBatchLua(UUID orderId, List<ReserveLine> lines) {
+        for (List<LineTarget> group : slotGroups(lines)) {
+            try {
+                evalBatch(LUA_ROLLBACK_BATCH, RScript.ReturnType.INTEGER, orderId, targetsOf(group), group);
+            } catch (Exception e) {
+                log.error("[HOTPATH] batch rollback lua failed! lines={}, err={}", group.size(), e.toString());
+            }
+        }
+    }
+
+    // 한 스크립트에 함께 넣을 수 있는 라인 묶음 (legacy 배치면 전체가 한 묶음)
+    private List<List<LineTarget>> slotGroups(List<ReserveLine> lines) {
+        Map<Integer, List<LineTarget>> groups = new TreeMap<>();
+        for (ReserveLine l : lines) {
+            Target t = reserveTarget(l.menuId(), l.orderLineId(), flashSales.activeShards(l.menuId()));
+            groups.computeIfAbsent(t.group(), g -> new ArrayList<>()).add(new LineTarget(l, t));
+        }
+        return List.copyOf(groups.values());
+    }
+
+    private static List<Target> targetsOf(List<LineTarget> group) {
+        return group.stream()
+                .map(LineTarget::target)
+                .distinct()
+                .sorted(Comparator.comparing(Target::menuId).thenComparingInt(Target::shard))
+                .toList();
+    }
+
+    private static List<UUID> menusOf(List<Target> targets) {
+        return targets.stream().map(Target::menuId).distinct().toList();
+    }
+
+    private static boolean isShort(List<Object> r) {
+        return r != null && !r.isEmpty() && ((Number) r.get(0)).longValue() == 0;
+    }
+
+    private static List<Target> shortTargets(List<Object> r, List<Target> targets) {
+        return r.subList(1, r.size()).stream()
+                .map(m -> targets.get(((Number) m).intValue() - 1))
+                .toList();
+    }
+
+    // 부족한 플래시 세일 샤드마다 이 묶음에 필요한 수량만큼 이웃 샤드에서 가져온다. 하나라도 채웠으면 true
+    private boolean steal(List<Target> shortTargets, List<LineTarget> group) {
+        boolean refilled = false;
+        for (Target t : shortTargets) {
+            if (!t.isShard()) continue;
+            int need = group.stream().filter(l -> l.target().equals(t)).mapToInt(l -> l.line().qty()).sum();
+            refilled |= flashSale.steal(t.menuId(), t.shard(), flashSales.activeShards(t.menuId()), need);
+        }
+        return refilled;
+    }
+
+    // 묶음 안 키는 모두 같은 슬롯이라 저널도 첫 키 묶음 기준 한 스트림
+    private <T> T evalBatch(String script, RScript.ReturnType type, UUID orderId,
+                            List<Target> targets, List<LineTarget> lines) {
+        List<Object> keys = new ArrayList<>(targets.size() * 4 + 1);
+        targets.forEach(t -> keys.addAll(t.reserveKeys()));
+        if (redisFirst) {
+            keys.add(targets.get(0).journal());
+            targets.forEach(t -> keys.add(t.keys().mode()));
+        }
+
+        List<Object> args = new ArrayList<>(2 + lines.size() * 3 + targets.size());
+        args.add(String.valueOf(lines.size()));
+        for (LineTarget l : lines) {
+            args.add(l.line().orderLineId().toString());
+            args.add(String.valueOf(targets.indexOf(l.target()) + 1));
+            args.add(String.valueOf(l.line().qty()));
+        }
+        args.add(orderId.toString());
+        targets.forEach(t -> args.add(t.menuId().toString()));
+
+        return redisson.getScript(StringCodec.INSTANCE).eval(RScript.Mode.READ_WRITE, script, type, keys, args.toArray());
+    }
+
+    private void rollbackLua(UUID orderLineId, Target target, int qty) {
         try {
             redisson.getScript(StringCodec.INSTANCE).eval(
                     RScript.Mode.READ_WRITE,
                     LUA_ROLLBACK,
                     RScript.ReturnType.INTEGER,
-                    new java.util.ArrayList<>(keys(menuId)),
+                    new ArrayList<Object>(target.reserveKeys()),
                     orderLineId.toString(),
                     String.valueOf(qty)
             );
         } catch (Exception e) {
             log.error("[HOTPATH] rollback lua failed! menuId={}, orderLineId={}, qty={}, err={}",
-                    menuId, orderLineId, qty, e.toString());
+                    target.menuId(), orderLineId, qty, e.toString());
         }
     }
 
+    /**
+     * 핫 메뉴 라인 상태 전이를 Lua 한 번으로 (메뉴 락 없음).
+     * Redis 우선 모드면 같은 스크립트에서 저널을 남겨 DB 상태·재고는 HotPathReconciler 가 반영한다.
+     * 플래시 세일(해제 중 포함) 메뉴는 라인의 홈 샤드를 먼저 보고, 그 샤드에서 예약된 라인이 아니면 메뉴 키에서 전이한다.
+     *
+     * @param r      DB 예약 row (qty, 해시에 기록이 없을 때의 현재 상태)
+     * @param reason 취소/반품 사유 (확정은 null)
+     * @return 호출 전 라인 상태 (P/C/X/F). t.from() 과 같으면 이번 호출이 전이한 것
+     * @throws HotPathFencedException Redis 우선 모드에서 메뉴가 전환 중이거나 이미 비핫키일 때
+     */
+    public String transitionViaLua(LineTransition t, InventoryReservation r, String reason) {
+        int shards = flashSales.shards(r.getMenuId());
+        if (shards > 0) {
+            Target home = target(r.getMenuId(), FlashSaleService.homeShard(r.getOrderLineId(), shards));
+            String prev = transitionLua(t, r, reason, home, true);
+            if (!NOT_ON_SHARD.equals(prev)) return prev;
+        }
+        return transitionLua(t, r, reason, target(r.getMenuId(), FlashSaleService.MAIN), false);
+    }
+
+    private String transitionLua(LineTransition t, InventoryReservation r, String reason,
+                                 Target target, boolean shardOnly) {
+        InventoryKeys.MenuKeys k = target.keys();
+        List<Object> keys = new ArrayList<>(List.of(k.avail(), k.reserved(), k.lines(), k.orders()));
+        if (redisFirst) {
+            keys.add(target.journal());
+            keys.add(k.mode());
+        }
+        String prev = redisson.getScript(StringCodec.INSTANCE).eval(
+                RScript.Mode.READ_WRITE,
+                LUA_TRANSITION,
+                RScript.ReturnType.VALUE,
+                keys,
+                r.getOrderLineId().toString(),
+                String.valueOf(r.getQty()),
+                t.from,
+                t.to,
+                String.valueOf(t.availSign),
+                String.valueOf(t.reservedSign),
+                "CONFIRMED".equals(r.getStatus()) ? CONFIRMED : PENDING,
+                t.name(),
+                r.getMenuId().toString(),
+                r.getOrderId().toString(),
+                reason == null ? "" : reason,
+                shardOnly ? "1" : "0"
+        );
+        if (FENCE_SWITCHING.equals(prev)) throw new HotPathFencedException(r.getMenuId(), HotPathFence.SWITCHING);
+        if (FENCE_COLD.equals(prev)) throw new HotPathFencedException(r.getMenuId(), null);
+        return prev;
+    }
+
+    /**
+     * DB 에 반영하지 못하고 dead-letter 로 옮긴 RESERVE 저널의 라인을 Redis 에서 되돌린다 (HotPathReconciler).
+     * 아직 PENDING 이면 재고를 돌려놓고 라인을 잊는다. 멱등이라 다시 불러도 두 번 되돌리지 않는다.
+     * 플래시 세일 메뉴는 라인의 홈 샤드를 먼저 본다.
+     *
+     * @return 되돌리기 전 라인 상태 (P/C/X/F). PENDING 이면 이번 호출이 되돌린 것, null 이면 Redis 에 없는 라인
+     */
+    public String voidOrphanedReserve(UUID menuId, UUID orderLineId, int qty) {
+        int shards = flashSales.shards(menuId);
+        if (shards > 0) {
+            String prev = voidOrphanLua(target(menuId, FlashSaleService.homeShard(orderLineId, shards)), orderLineId, qty);
+            if (!NOT_ON_SHARD.equals(prev)) return prev;
+        }
+        String prev = voidOrphanLua(target(menuId, FlashSaleService.MAIN), orderLineId, qty);
+        return NOT_ON_SHARD.equals(prev) ? null : prev;
+    }
+
+    private String voidOrphanLua(Target target, UUID orderLineId, int qty) {
+        InventoryKeys.MenuKeys k = target.keys();
+        return redisson.getScript(StringCodec.INSTANCE).eval(
+                RScript.Mode.READ_WRITE,
+                LUA_VOID_ORPHAN,
+                RScript.ReturnType.VALUE,
+                List.of(k.avail(), k.reserved(), k.lines(), k.orders()),
+                orderLineId.toString(),
+                String.valueOf(qty)
+        );
+    }
+
     /** 초기 sync: Redis에 재고 시드(필요 시 Admin에서 호출) */
     public void seedRedisStock(UUID menuId, int available, int reserved) {
-        String prefix = "inv:" + menuId;
-        redisson.getBucket(prefix + ":avail", StringCodec.INSTANCE).set(Integer.toString(available));
-        redisson.getBucket(prefix + ":reserved", StringCodec.INSTANCE).set(Integer.toString(reserved));
+        if (flashSales.shards(menuId) > 0) {
+            throw new IllegalStateException("FLASH_SALE_ACTIVE");   // 샤드에 나뉜 재고를 덮어쓰지 않게
+        }
+        keyMigrator.ensureMigrated(menuId);
+        InventoryKeys.MenuKeys k = inventoryKeys.menu(menuId);
+        redisson.getBucket(k.avail(), StringCodec.INSTANCE).set(Integer.toString(available));
+        redisson.getBucket(k.reserved(), StringCodec.INSTANCE).set(Integer.toString(reserved));
     }
 
-    // Redis에 현재 값 조회(점검용)
+    // Redis에 현재 값 조회(점검용). 전환 중이면 아직 안 옮긴 legacy 키도 본다. 플래시 세일 메뉴는 샤드까지 합산
     public Map<String, Integer> readRedisStock(UUID menuId) {
-        String p = "inv:" + menuId;
-        var a = redisson.getBucket(p + ":avail", StringCodec.INSTANCE).get();
-        var r = redisson.getBucket(p + ":reserved", StringCodec.INSTANCE).get();
+        if (flashSales.shards(menuId) > 0) {
+            var total = flashSale.total(menuId);
+            return Map.of("available", total.available(), "reserved", total.reserved());
+        }
+        InventoryKeys.MenuKeys k = inventoryKeys.menu(menuId);
+        if (inventoryKeys.isDualRead() && !redisson.getBucket(k.avail(), StringCodec.INSTANCE).isExists()) {
+            k = inventoryKeys.legacy(menuId);
+        }
+        var a = redisson.getBucket(k.avail(), StringCodec.INSTANCE).get();
+        var r = redisson.getBucket(k.reserved(), StringCodec.INSTANCE).get();
         int avail = (a == null) ? 0 : Integer.parseInt(a.toString());
         int resvd = (r == null) ? 0 : Integer.parseInt(r.toString());
         return Map.of("available", avail, "reserved", resvd);
     }
+
+    /** Lua 한 번이 다루는 키 묶음: 메뉴 키(shard = -1) 또는 플래시 세일 샤드 */
+    private record Target(UUID menuId, int shard, InventoryKeys.MenuKeys keys, String journal, int group) {
+        boolean isShard() {
+            return shard != FlashSaleService.MAIN;
+        }
+
+        List<Object> reserveKeys() {
+            return List.of(keys.avail(), keys.reserved(), keys.orders());
+        }
+    }
+
+    private record LineTarget(ReserveLine line, Target target) {}
 }
@@ -0,0 +1,421 @@
+package com.eatcloud.storeservice.domain.inventory.hotpath;
+
+import com.eatcloud.storeservice.domain.inventory.hotpath.HotPathJournalWriter.MenuQty;
+import com.eatcloud.storeservice.domain.inventory.hotpath.HotPathJournalWriter.StockDelta;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.PendingEntry;
+import org.redisson.api.RLock;
+import org.redisson.api.RStream;
+import org.redisson.api.RedissonClient;
+import org.redisson.api.StreamMessageId;
+import org.redisson.api.stream.PendingListArgs;
+import org.redisson.api.stream.StreamAddArgs;
+import org.redisson.api.stream.StreamCreateGroupArgs;
+import org.redisson.api.stream.StreamReadGroupArgs;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.NonTransientDataAccessException;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Redis 우선 모드의 저널 스트림 → Postgres 비동기 반영.
+ * 스트림은 키 배치에 따라 inv:journal 하나(legacy) 또는 파티션별 {@code inv:{<p>}:journal} 이다 ({@link InventoryKeys}).
+ *
+ * 핫 메뉴 예약·확정·취소·반품은 Lua 가 Redis 재고를 바꾸면서 같은 스크립트 안에서 저널 엔트리({@link Op})를 남긴다.
+ * 이 워커가 flush-interval-ms 마다 batch-size 만큼 읽어 한 트랜잭션으로
+ *  - 예약 row 삽입/상태 전이를 op 구간마다 unnest 한 문장으로 (멱등, 이미 전이된 라인은 무시)
+ *  - 실제로 바뀐 라인의 메뉴별 순증감을 합쳐 inventory_stock 을 메뉴당 한 번만 UPDATE
+ * 한 뒤 ACK/삭제한다. 커밋 후 ACK 전에 죽으면 같은 엔트리가 다시 오지만 row 기준 멱등이라 두 번 반영되지 않는다.
+ *
+ * 스트림 순서(예약 → 보상 → 재예약)를 지키기 위해 클러스터에서 한 인스턴스만 분산 락을 잡고 읽으며,
+ * 컨슈머 이름도 하나로 고정해 직전 소유자가 반영하지 못한 pending 엔트리부터 다시 처리한다.
+ * 한 주문 라인의 엔트리는 항상 같은 메뉴 → 같은 스트림에 있으므로 스트림 사이 순서는 상관없다.
+ *
+ * 배치가 실패하면 한 건씩 다시 반영해 실패한 엔트리를 찾는다. 제약 위반처럼 다시 해도 실패할 엔트리는
+ * max-deliveries 번 전달된 뒤 {@code <스트림>:dead} 로 옮기고 지표·DLT 알림을 남긴다.
+ * 옮기기 전에 Redis 쪽을 DB 에 맞춘다: 아직 PENDING 인 RESERVE 는 Redis 에서 되돌리고(DB 에 row 가 없으므로),
+ * 그 밖의 op 나 이미 확정·반품된 라인은 되돌릴 수 없으므로 메뉴를 격리({@link HotPathFence#fence})해 어긋남이 커지지 않게 한다.
+ * 일시적 오류(DB 연결 등)는 옮기지 않고 그 자리에서 멈춰 다음 주기에 이어서 한다.
+ */
+@Slf4j
+@Component
+public class HotPathReconciler {
+
+    static final String GROUP = "inv-reconciler";
+    static final String CONSUMER = "reconciler";
+
+    /** 저널 op: DB 예약 상태 전이와 그때의 재고 증감 부호 */
+    enum Op {
+        RESERVE(null, "PENDING", -1, 1),
+        VOID("PENDING", "CANCELED", 1, -1),       // 예약 직후 상위 트랜잭션 실패 보상 (재예약되면 되살아남)
+        CONFIRM("PENDING", "CONFIRMED", 0, -1),
+        CANCEL("PENDING", "CANCELED", 1, -1),
+        RETURN("CONFIRMED", "REFUNDED", 1, 0);
+
+        private final String from;
+        private final String to;
+        private final int availSign;
+        private final int reservedSign;
+
+        Op(String from, String to, int availSign, int reservedSign) {
+            this.from = from;
+            this.to = to;
+            this.availSign = availSign;
+            this.reservedSign = reservedSign;
+        }
+
+        StockDelta delta(int qty) {
+            return new StockDelta(availSign * qty, reservedSign * qty);
+        }
+    }
+
+    private static final String DRAIN_LOCK = "lock:inv:journal";
+    static final String DEAD_SUFFIX = ":dead";
+    static final String DEAD_LETTER_TOPIC = "inventory-journal.dlt";
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final RedissonClient redisson;
+    private final InventoryKeys inventoryKeys;
+    private final HotPathJournalWriter writer;
+    private final TransactionTemplate tx;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final HotPathLuaService hotPath;
+    private final HotPathFence fence;
+
+    private final boolean enabled;
+    private final int batchSize;
+    private final int maxBatchesPerRun;
+    private final int reservationTtlMinutes;
+    private final int maxDeliveries;
+
+    private final AtomicLong lag = new AtomicLong();
+    private final Counter applied;
+    private final Counter failures;
+    private final Counter deadLettered;
+    private final Counter voided;
+    private final Counter fenced;
+    private final Timer flushTimer;
+
+    public HotPathReconciler(RedissonClient redisson,
+                             InventoryKeys inventoryKeys,
+                             HotPathJournalWriter writer,
+                             TransactionTemplate tx,
+                             KafkaTemplate<String, Object> kafkaTemplate,
+                             HotPathLuaService hotPath,
+                             HotPathFence fence,
+                             MeterRegistry meterRegistry,
+                             @Value("${inventory.hotpath.redis-first.enabled:false}") boolean enabled,
+                             @Value("${inventory.hotpath.redis-first.batch-size:500}") int batchSize,
+                             @Value("${inventory.hotpath.redis-first.max-batches-per-run:20}") int maxBatchesPerRun,
+                             @Value("${inventory.hotpath.redis-first.reservation-ttl-minutes:10}") int reservationTtlMinutes,
+                             @Value("${inventory.hotpath.redis-first.max-deliveries:5}") int maxDeliveries) {
+        this.redisson = redisson;
+        this.inventoryKeys = inventoryKeys;
+        this.writer = writer;
+        this.tx = tx;
+        this.kafkaTemplate = kafkaTemplate;
+        this.hotPath = hotPath;
+        this.fence = fence;
+        this.enabled = enabled;
+        this.batchSize = batchSize;
+        this.maxBatchesPerRun = maxBatchesPerRun;
+        this.reservationTtlMinutes = reservationTtlMinutes;
+        this.maxDeliveries = maxDeliveries;
+
+        this.applied = Counter.builder("inventory.hotpath.journal.applied").register(meterRegistry);
+        this.failures = Counter.builder("inventory.hotpath.journal.failures").register(meterRegistry);
+        this.deadLettered = Counter.builder("inventory.hotpath.journal.dead_lettered").register(meterRegistry);
+        this.voided = Counter.builder("inventory.hotpath.journal.compensated").tag("action", "void").register(meterRegistry);
+        this.fenced = Counter.builder("inventory.hotpath.journal.compensated").tag("action", "fence").register(meterRegistry);
+        this.flushTimer = Timer.builder("inventory.hotpath.journal.flush").register(meterRegistry);
+        Gauge.builder("inventory.hotpath.journal.lag", lag, AtomicLong::get).register(meterRegistry);
+    }
+
+    @PostConstruct
+    void init() {
+        if (!enabled) return;
+        inventoryKeys.journals().forEach(this::createGroup);
+    }
+
+    private void createGroup(String name) {
+        try {
+            stream(name).createGroup(StreamCreateGroupArgs.name(GROUP).id(new StreamMessageId(0, 0)).makeStream());
+        } catch (Exception e) {
+            if (!String.valueOf(e.getMessage()).contains("BUSYGROUP")) {
+                log.warn("[JOURNAL] 컨슈머 그룹 생성 실패 (첫 flush 때 재시도): {}", e.toString());
+            }
+        }
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @Scheduled(fixedDelayString = "${inventory.hotpath.redis-first.flush-interval-ms:200}")
+    public void flush() {
+        if (!enabled) return;
+        drain(0);
+    }
+
+    /**
+     * 지금까지 쌓인 저널을 바로 반영한다 (핫 메뉴 승격/강등 전, 예약 row 가 아직 없을 때 등).
+     * 다른 인스턴스가 반영 중이면 waitMs 만큼 기다렸다가 그래도 못 잡으면 0 을 돌려준다.
+     *
+     * @return 이번 호출로 처리한 엔트리 수
+     */
+    public int drainNow(long waitMs) {
+        if (!enabled) return 0;
+        return drain(waitMs);
+    }
+
+    /** Redis 에는 반영됐지만 아직 DB 에 반영되지 않은 메뉴별 재고 증감 (드리프트 점검용 추정치) */
+    public Map<UUID, StockDelta> unappliedByMenu(int limit) {
+        Map<UUID, StockDelta> net = new HashMap<>();
+        if (!enabled) return net;
+        for (String name : inventoryKeys.journals()) {
+            stream(name).range(limit, StreamMessageId.MIN, StreamMessageId.MAX).values().forEach(fields -> {
+                Entry e = parse(null, fields);
+                if (e != null) net.merge(e.menuId(), e.op().delta(e.qty()), StockDelta::plus);
+            });
+        }
+        return net;
+    }
+
+    /**
+     * 이 메뉴의 저널이 아직 스트림에 남아 있는지 (핫→비핫 강등 마무리 전 확인용).
+     * 스트림이 limit 보다 길어 끝까지 보지 못하면 남아 있다고 본다.
+     */
+    public boolean hasUnapplied(UUID menuId, int limit) {
+        if (!enabled) return false;
+        String id = menuId.toString();
+        for (String name : inventoryKeys.journals()) {
+            RStream<String, String> s = stream(name);
+            if (s.size() > limit) return true;
+            boolean found = s.range(limit, StreamMessageId.MIN, StreamMessageId.MAX).values().stream()
+                    .anyMatch(f -> id.equals(f.get("menuId")));
+            if (found) return true;
+        }
+        return false;
+    }
+
+    private int drain(long waitMs) {
+        RLock lock = redisson.getLock(DRAIN_LOCK);
+        boolean locked = false;
+        int total = 0;
+        String current = null;
+        try {
+            locked = lock.tryLock(waitMs, TimeUnit.MILLISECONDS);   // 워치독이 lease 를 연장
+            if (!locked) return 0;
+
+            long remaining = 0;
+            for (String name : inventoryKeys.journals()) {
+                current = name;
+                // 1) 직전 소유자가 반영하지 못한 pending 부터 (스트림 순서 유지)
+                total += drainBatches(name, StreamReadGroupArgs.greaterThan(new StreamMessageId(0, 0)));
+                // 2) 새 엔트리
+                total += drainBatches(name, StreamReadGroupArgs.neverDelivered());
+                remaining += stream(name).size();
+            }
+            lag.set(remaining);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            failures.increment();
+            log.warn("[JOURNAL] 저널 반영 실패 (다음 주기에 pending 부터 재시도) stream={}: {}", current, e.toString());
+            if (current != null && String.valueOf(e.getMessage()).contains("NOGROUP")) createGroup(current);
+        } finally {
+            if (locked && lock.isHeldByCurrentThread()) lock.unlock();
+        }
+        return total;
+    }
+
+    private int drainBatches(String name, StreamReadGroupArgs args) {
+        int total = 0;
+        for (int i = 0; i < maxBatchesPerRun; i++) {
+            Map<StreamMessageId, Map<String, String>> batch = stream(name).readGroup(GROUP, CONSUMER, args.count(batchSize));
+            if (batch == null || batch.isEmpty()) break;
+
+            try {
+                flushTimer.record(() -> apply(name, batch));
+            } catch (RuntimeException e) {
+                failures.increment();
+                log.warn("[JOURNAL] 배치 반영 실패, 한 건씩 다시 시도 stream={} size={}: {}", name, batch.size(), e.toString());
+                applyEach(name, batch);
+            }
+            total += batch.size();
+            if (batch.size() < batchSize) break;
+        }
+        return total;
+    }
+
+    private void apply(String name, Map<StreamMessageId, Map<String, String>> batch) {
+        List<Entry> entries = new ArrayList<>(batch.size());
+        sorted(batch).forEach(m -> {
+            Entry e = parse(m.getKey(), m.getValue());
+            if (e != null) entries.add(e);
+            else log.warn("[JOURNAL] 잘못된 저널 엔트리 건너뜀: id={}, fields={}", m.getKey(), m.getValue());
+        });
+
+        tx.executeWithoutResult(status -> write(entries));
+
+        ack(name, batch.keySet().toArray(StreamMessageId[]::new));
+        applied.increment(entries.size());
+    }
+
+    // 스트림 순서대로 한 건씩. 반영한 엔트리는 바로 ACK 하고, 멈춰야 하면 예외를 그대로 던져 남은 엔트리는 다음 주기로
+    private void applyEach(String name, Map<StreamMessageId, Map<String, String>> batch) {
+        for (Map.Entry<StreamMessageId, Map<String, String>> m : sorted(batch)) {
+            Entry e = parse(m.getKey(), m.getValue());
+            if (e != null) {
+                try {
+                    tx.executeWithoutResult(status -> write(List.of(e)));
+                    applied.increment();
+                } catch (RuntimeException ex) {
+                    if (!isPoison(ex) || deliveries(name, m.getKey()) < maxDeliveries) throw ex;
+                    compensate(e);
+                    deadLetter(name, m.getKey(), m.getValue(), ex);
+                    continue;
+                }
+            }
+            ack(name, m.getKey());
+        }
+    }
+
+    // 같은 데이터로 다시 해도 실패하는 오류 (제약 위반, 잘못된 값 등). 연결·타임아웃 같은 일시적 오류는 아니다
+    private static boolean isPoison(RuntimeException e) {
+        return e instanceof NonTransientDataAccessException && !(e instanceof DataAccessResourceFailureException);
+    }
+
+    // XPENDING 의 전달 횟수 (readGroup 으로 다시 읽을 때마다 1 씩 는다)
+    private long deliveries(String name, StreamMessageId id) {
+        List<PendingEntry> pending = stream(name).listPending(
+                PendingListArgs.groupName(GROUP).startId(id).endId(id).count(1));
+        return pending.isEmpty() ? 0 : pending.get(0).getLastTimeDelivered();
+    }
+
+    // DB 에 반영하지 못한 엔트리만큼 Redis 를 DB 쪽으로 맞추거나 메뉴를 격리. 실패하면 예외로 멈춰 다음 주기에 다시 (둘 다 멱등)
+    private void compensate(Entry e) {
+        if (e.op() == Op.RESERVE) {
+            String prev = hotPath.voidOrphanedReserve(e.menuId(), e.orderLineId(), e.qty());
+            if (prev == null || HotPathLuaService.PENDING.equals(prev) || HotPathLuaService.CANCELED.equals(prev)) {
+                // 되돌렸거나, 이미 롤백·취소돼 Redis 재고가 돌아와 있다 (DB 에도 row 가 없으니 일치)
+                if (HotPathLuaService.PENDING.equals(prev)) voided.increment();
+                log.warn("[JOURNAL] 반영 못 한 예약을 Redis 에서 되돌림 menuId={} orderLineId={} qty={} prev={}",
+                        e.menuId(), e.orderLineId(), e.qty(), prev);
+                return;
+            }
+        }
+        fence.fence(e.menuId());
+        fenced.increment();
+    }
+
+    // 원본 필드 + 원래 id·오류를 dead-letter 스트림에 남긴 뒤 원본을 ACK/삭제. 알림은 best-effort
+    private void deadLetter(String name, StreamMessageId id, Map<String, String> fields, RuntimeException cause) {
+        String error = truncate(String.valueOf(cause.getMessage()));
+        Map<String, String> dead = new LinkedHashMap<>(fields);
+        dead.put("sourceId", id.toString());
+        dead.put("error", error);
+        stream(name + DEAD_SUFFIX).add(StreamAddArgs.entries(dead));
+        ack(name, id);
+        deadLettered.increment();
+        log.error("[JOURNAL] 저널 엔트리 dead-letter stream={} id={} fields={}: {}", name, id, fields, cause.toString());
+
+        try {
+            kafkaTemplate.send(DEAD_LETTER_TOPIC, fields.getOrDefault("menuId", name), Map.of(
+                    "stream", name,
+                    "deadLetterStream", name + DEAD_SUFFIX,
+                    "entryId", id.toString(),
+                    "entry", fields,
+                    "error", error,
+                    "occurredAt", LocalDateTime.now().toString()));
+        } catch (Exception e) {
+            log.warn("[JOURNAL] dead-letter 알림 발행 실패 stream={} id={}: {}", name, id, e.toString());
+        }
+    }
+
+    private void ack(String name, StreamMessageId... ids) {
+        stream(name).ack(GROUP, ids);
+        stream(name).remove(ids);
+    }
+
+    private static List<Map.Entry<StreamMessageId, Map<String, String>>> sorted(Map<StreamMessageId, Map<String, String>> batch) {
+        return batch.entrySet().stream()
+                .sorted(Comparator.comparingLong((Map.Entry<StreamMessageId, Map<String, String>> m) -> m.getKey().getId0())
+                        .thenComparingLong(m -> m.getKey().getId1()))
+                .toList();
+    }
+
+    private static String truncate(String s) {
+        return s.length() <= MAX_ERROR_LENGTH ? s : s.substring(0, MAX_ERROR_LENGTH) + "...";
+    }
+
+    // 같은 op 가 이어지는 구간별로 한 문장씩, 재고는 배치 전체를 메뉴별로 합쳐 마지막에 한 번
+    private void write(List<Entry> entries) {
+        Map<UUID, StockDelta> byMenu = new TreeMap<>();
+        int from = 0;
+        while (from < entries.size()) {
+            Op op = entries.get(from).op();
+            int to = from;
+            while (to < entries.size() && entries.get(to).op() == op) to++;
+
+            // 한 문장 안에서 같은 라인이 두 번 나오면 ON CONFLICT/UPDATE 가 실패하므로 구간 내 중복은 첫 건만
+            Map<UUID, Entry> run = new LinkedHashMap<>();
+            entries.subList(from, to).forEach(e -> run.putIfAbsent(e.orderLineId(), e));
+
+            List<MenuQty> changed;
+            if (op == Op.RESERVE) {
+                changed = writer.insertReserved(List.copyOf(run.values()), reservationTtlMinutes);
+            } else {
+                Map<UUID, String> reasons = new LinkedHashMap<>();
+                run.forEach((line, e) -> reasons.put(line, op == Op.VOID ? HotPathJournalWriter.VOID_REASON : e.reason()));
+                changed = writer.transition(reasons, op.from, op.to);
+            }
+            changed.forEach(m -> byMenu.merge(m.menuId(), op.delta(m.qty()), StockDelta::plus));
+            from = to;
+        }
+        byMenu.values().removeIf(StockDelta::isZero);
+        writer.applyStock(byMenu);
+    }
+
+    private Entry parse(StreamMessageId id, Map<String, String> f) {
+        try {
+            Op op = Op.valueOf(f.get("op"));
+            LocalDateTime createdAt = id == null ? LocalDateTime.now()
+                    : LocalDateTime.ofInstant(Instant.ofEpochMilli(id.getId0()), ZoneId.systemDefault());
+            return new Entry(op, UUID.fromString(f.get("menuId")), UUID.fromString(f.get("orderId")),
+                    UUID.fromString(f.get("orderLineId")), Integer.parseInt(f.get("qty")),
+                    f.getOrDefault("reason", ""), createdAt);
+        } catch (RuntimeException e) {
+            return null;
+        }
+    }
+
+    private RStream<String, String> stream(String name) {
+        return redisson.getStream(name, StringCodec.INSTANCE);
+    }
+
+    record Entry(Op op, UUID menuId, UUID orderId, UUID orderLineId, int qty, String reason, LocalDateTime createdAt) {}
+}
@@ -0,0 +1,114 @@
+package com.eatcloud.storeservice.domain.inventory.hotpath;
+
+import com.eatcloud.storeservice.domain.inventory.hotpath.InventoryKeys.MenuKeys;
+import com.eatcloud.storeservice.support.lock.RedisLockExecutor;
+import lombok.extern.slf4j.Slf4j;
+import org.redisson.api.RBucket;
+import org.redisson.api.RMap;
+import org.redisson.api.RSet;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * legacy → tagged 키 배치 전환.
+ *
+ * tagged 배치로 기동한 인스턴스는 메뉴를 처음 다룰 때 메뉴 락 안에서 legacy 키(avail/reserved/orders/lines/mode)를
+ * tagged 키로 옮기고 지운다. 이미 tagged 키가 있으면(다른 인스턴스가 먼저 옮김) legacy 잔여분만 지운다.
+ * 관리자 API 로 전체를 한 번에 옮길 수도 있다. 두 배치 키는 슬롯이 달라 원자적으로 옮길 수 없으므로,
+ * legacy 배치 인스턴스가 남아 있는 동안(롤링 재시작 중)에는 같은 메뉴를 핫으로 두지 않는다.
+ */
+@Slf4j
+@Component
+public class InventoryKeyMigrator {
+
+    private static final String LEGACY_AVAIL_PATTERN = "inv:*:avail";
+
+    private final RedissonClient redisson;
+    private final InventoryKeys keys;
+    private final RedisLockExecutor locks;
+
+    private final Set<UUID> checked = ConcurrentHashMap.newKeySet();
+
+    public InventoryKeyMigrator(RedissonClient redisson, InventoryKeys keys, RedisLockExecutor locks) {
+        this.redisson = redisson;
+        this.keys = keys;
+        this.locks = locks;
+    }
+
+    /** 이 인스턴스에서 처음 보는 메뉴면 legacy 키를 옮긴다 (dual-read 가 꺼져 있으면 아무것도 안 함) */
+    public void ensureMigrated(UUID menuId) {
+        if (!keys.isDualRead() || checked.contains(menuId)) return;
+        locks.withMenuLock(menuId.toString(), () -> migrate(menuId));
+        checked.add(menuId);
+    }
+
+    /**
+     * 남아 있는 legacy 키를 모두 옮긴다.
+     *
+     * @return 옮긴 메뉴 수
+     */
+    public int migrateAll() {
+        if (!keys.isTagged()) return 0;
+        int moved = 0;
+        for (String key : redisson.getKeys().getKeysByPattern(LEGACY_AVAIL_PATTERN)) {
+            UUID menuId = legacyMenuId(key);
+            if (menuId == null) continue;
+            if (Boolean.TRUE.equals(locks.withMenuLock(menuId.toString(), () -> migrate(menuId)))) moved++;
+            checked.add(menuId);
+        }
+        log.info("[HOTPATH] legacy 재고 키 전환 완료: {} menus", moved);
+        return moved;
+    }
+
+    // 메뉴 락 안에서 호출. 핫패스 Lua 는 락을 잡지 않지만, tagged 인스턴스는 첫 사용 전에 여기서 기다린다
+    private boolean migrate(UUID menuId) {
+        MenuKeys from = keys.legacy(menuId);
+        MenuKeys to = keys.menu(menuId);
+        RBucket<String> legacyAvail = redisson.getBucket(from.avail(), StringCodec.INSTANCE);
+        if (!legacyAvail.isExists()) return false;
+
+        boolean copied = false;
+        if (!redisson.getBucket(to.avail(), StringCodec.INSTANCE).isExists()) {
+            copyBucket(from.reserved(), to.reserved());
+            RSet<String> orders = redisson.getSet(from.orders(), StringCodec.INSTANCE);
+            Set<String> members = orders.readAll();
+            if (!members.isEmpty()) redisson.<String>getSet(to.orders(), StringCodec.INSTANCE).addAll(members);
+            RMap<String, String> lines = redisson.getMap(from.lines(), StringCodec.INSTANCE);
+            Map<String, String> states = lines.readAllMap();
+            if (!states.isEmpty()) {
+                RMap<String, String> target = redisson.getMap(to.lines(), StringCodec.INSTANCE);
+                target.putAll(states);
+                long ttl = lines.remainTimeToLive();
+                if (ttl > 0) target.expire(Duration.ofMillis(ttl));
+            }
+            copyBucket(from.mode(), to.mode());
+            copyBucket(from.avail(), to.avail());   // avail 을 마지막에 써서 "tagged 키 있음" 판정이 완성 후에만 참이 되게
+            copied = true;
+        }
+        redisson.getKeys().delete(from.all().toArray(String[]::new));
+        log.info("[HOTPATH] legacy 재고 키 전환 menuId={} copied={}", menuId, copied);
+        return copied;
+    }
+
+    private void copyBucket(String from, String to) {
+        String v = redisson.<String>getBucket(from, StringCodec.INSTANCE).get();
+        if (v != null) redisson.<String>getBucket(to, StringCodec.INSTANCE).set(v);
+    }
+
+    private static UUID legacyMenuId(String key) {
+        if (key.contains("{")) return null;   // 이미 tagged
+        String id = key.substring("inv:".length(), key.length() - ":avail".length());
+        try {
+            return UUID.fromString(id);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
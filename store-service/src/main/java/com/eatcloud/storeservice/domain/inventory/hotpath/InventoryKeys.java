@@ -0,0 +1,134 @@
+package com.eatcloud.storeservice.domain.inventory.hotpath;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * 핫패스 Redis 키 배치.
+ *
+ * legacy: {@code inv:<menuId>:avail} 처럼 접두사만 붙인 기존 배치. 단일 노드 전용
+ *         (여러 키를 쓰는 Lua 가 Redis Cluster 에서 CROSSSLOT 으로 실패한다)
+ * tagged: {@code inv:{<p>}:<menuId>:avail} 처럼 해시 태그를 붙인다. p = menuId 해시 % partitions.
+ *         한 메뉴의 키와 그 파티션의 저널({@code inv:{<p>}:journal})이 같은 슬롯에 모여 Lua 한 번으로 다룰 수 있고,
+ *         메뉴들은 파티션 단위로 클러스터 노드에 흩어진다.
+ * partitions 를 바꾸면 키 위치가 모두 바뀌므로 운영 중에는 바꾸지 않는다.
+ *
+ * 플래시 세일 샤드 i 는 {@code ...:<menuId>:s<i>} 이고, tagged 배치에서는 파티션 (p + i) % partitions 에 둬
+ * 샤드마다 다른 슬롯(노드)에 흩어진다.
+ */
+@Component
+public class InventoryKeys {
+
+    static final String LEGACY_JOURNAL = "inv:journal";
+
+    public enum Layout { LEGACY, TAGGED }
+
+    private final Layout layout;
+    private final boolean dualRead;
+    private final int partitions;
+
+    public InventoryKeys(@Value("${inventory.hotpath.keys.layout:legacy}") String layout,
+                         @Value("${inventory.hotpath.keys.dual-read:true}") boolean dualRead,
+                         @Value("${inventory.hotpath.keys.partitions:16}") int partitions) {
+        this.layout = Layout.valueOf(layout.trim().toUpperCase(Locale.ROOT));
+        this.dualRead = dualRead;
+        this.partitions = Math.max(1, partitions);
+    }
+
+    public Layout layout() {
+        return layout;
+    }
+
+    public boolean isTagged() {
+        return layout == Layout.TAGGED;
+    }
+
+    /** tagged 배치에서 legacy 키도 읽고, 남아 있으면 옮긴다 */
+    public boolean isDualRead() {
+        return isTagged() && dualRead;
+    }
+
+    public MenuKeys menu(UUID menuId) {
+        return isTagged() ? new MenuKeys("inv:{" + partition(menuId) + "}:" + menuId) : legacy(menuId);
+    }
+
+    public MenuKeys legacy(UUID menuId) {
+        return new MenuKeys("inv:" + menuId);
+    }
+
+    /** 플래시 세일 샤드 키 */
+    public MenuKeys shard(UUID menuId, int shard) {
+        return isTagged()
+                ? new MenuKeys("inv:{" + shardPartition(menuId, shard) + "}:" + menuId + ":s" + shard)
+                : new MenuKeys("inv:" + menuId + ":s" + shard);
+    }
+
+    /** 샤드를 서로 다른 슬롯에 둘 수 있는 최대 샤드 수 (legacy 는 단일 노드라 제한 없음) */
+    public int maxShards() {
+        return isTagged() ? partitions : Integer.MAX_VALUE;
+    }
+
+    /** 이 메뉴의 저널 엔트리를 남기는 스트림 (메뉴 키와 같은 슬롯) */
+    public String journal(UUID menuId) {
+        return isTagged() ? journalOf(partition(menuId)) : LEGACY_JOURNAL;
+    }
+
+    /**
+     * 리컨실러가 읽어야 하는 모든 저널 스트림.
+     * 전환 중이면 legacy 스트림을 맨 앞에 둔다 (같은 라인의 옛 엔트리가 tagged 스트림보다 먼저 반영되게)
+     */
+    public List<String> journals() {
+        if (!isTagged()) return List.of(LEGACY_JOURNAL);
+        List<String> streams = new ArrayList<>(partitions + 1);
+        if (dualRead) streams.add(LEGACY_JOURNAL);
+        for (int p = 0; p < partitions; p++) {
+            streams.add(journalOf(p));
+        }
+        return streams;
+    }
+
+    public String shardJournal(UUID menuId, int shard) {
+        return isTagged() ? journalOf(shardPartition(menuId, shard)) : LEGACY_JOURNAL;
+    }
+
+    /** 같은 값이면 한 Lua 스크립트에 키를 함께 넣을 수 있다 (legacy 는 단일 노드라 전부 한 묶음) */
+    public int slotGroup(UUID menuId) {
+        return isTagged() ? partition(menuId) : 0;
+    }
+
+    public int shardSlotGroup(UUID menuId, int shard) {
+        return isTagged() ? shardPartition(menuId, shard) : 0;
+    }
+
+    private int partition(UUID menuId) {
+        return Math.floorMod(menuId.hashCode(), partitions);
+    }
+
+    private int shardPartition(UUID menuId, int shard) {
+        return (partition(menuId) + shard) % partitions;
+    }
+
+    private static String journalOf(int partition) {
+        return "inv:{" + partition + "}:journal";
+    }
+
+    /** 한 메뉴의 키 묶음 */
+    public record MenuKeys(String prefix) {
+        public String avail() { return prefix + ":avail"; }
+        public String reserved() { return prefix + ":reserved"; }
+        public String orders() { return prefix + ":orders"; }
+        public String lines() { return prefix + ":lines"; }
+        public String transit() { return prefix + ":transit"; }   // 샤드 간 이동 중인 수량 (moveId → qty)
+        public String moves() { return prefix + ":moves"; }       // 받은 이동 moveId (멱등)
+        public String mode() { return prefix + ":mode"; }         // Redis 우선 모드의 핫/비핫 전환 상태 (HotPathFence)
+
+        public List<String> all() {
+            return List.of(avail(), reserved(), orders(), lines(), mode());
+        }
+    }
+}
@@ -1,10 +1,16 @@
 // package: com.eatcloud.storeservice.domain.inventory.projector
 package com.eatcloud.storeservice.domain.inventory.projector;
 
+import com.eatcloud.eventcodec.EventEncoding;
+import com.eatcloud.outboxrelay.OutboxHeaders;
 import com.fasterxml.jackson.annotation.JsonFormat;
 import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.Getter; import lombok.Setter;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.Headers;
 
+import java.io.IOException;
 import java.util.UUID;
 
 @Getter @Setter
@@ -17,4 +23,21 @@ public class StockEventEnvelope {
 
     @JsonFormat(pattern = "yyyy-MM-dd'T'HH:mm:ss.SSSX")
     private String createdAt;
+
+    /** 메타데이터는 Kafka 헤더에서, payload 는 value 를 한 번만 파싱해서 채운다 */
+    public static StockEventEnvelope from(ConsumerRecord<String, byte[]> record, ObjectMapper om) throws IOException {
+        Headers h = record.headers();
+        StockEventEnvelope evt = new StockEventEnvelope();
+        evt.setId(uuidOrNull(OutboxHeaders.read(h, OutboxHeaders.EVENT_ID)));
+        evt.setEventType(OutboxHeaders.read(h, OutboxHeaders.EVENT_TYPE));
+        evt.setAggregateType(OutboxHeaders.read(h, OutboxHeaders.AGGREGATE_TYPE));
+        evt.setAggregateId(uuidOrNull(OutboxHeaders.read(h, OutboxHeaders.AGGREGATE_ID)));
+        evt.setCreatedAt(OutboxHeaders.read(h, OutboxHeaders.OCCURRED_AT));
+        evt.setPayload(EventEncoding.readTree(om, record.value())); // JSON 또는 Smile
+        return evt;
+    }
+
+    private static UUID uuidOrNull(String v) {
+        return v == null ? null : UUID.fromString(v);
+    }
 }
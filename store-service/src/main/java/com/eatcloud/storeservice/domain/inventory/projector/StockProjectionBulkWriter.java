@@ -0,0 +1,75 @@
+// package: com.eatcloud.storeservice.domain.inventory.projector
+package com.eatcloud.storeservice.domain.inventory.projector;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * 배치 프로젝션 반영용 JDBC (행 수와 상관없이 문장 수가 고정).
+ * 배열 파라미터 + unnest 로 여러 행을 한 문장에 싣는다.
+ */
+@Repository
+@RequiredArgsConstructor
+public class StockProjectionBulkWriter {
+
+    private static final String SEED_SQL = """
+            INSERT INTO stock_projection (menu_id, avail, reserved, updated_at)
+            SELECT m, 0, 0, now() FROM unnest(?::uuid[]) AS m
+            ON CONFLICT (menu_id) DO NOTHING
+            """;
+
+    // 증감은 현재 값 기준 원자적 UPDATE (read-modify-write 없음), 음수는 0 으로 클램프
+    private static final String APPLY_SQL = """
+            UPDATE stock_projection sp
+               SET avail      = GREATEST(0, sp.avail + d.da),
+                   reserved   = GREATEST(0, sp.reserved + d.dr),
+                   updated_at = now()
+              FROM unnest(?::uuid[], ?::int[], ?::int[]) AS d(menu_id, da, dr)
+             WHERE sp.menu_id = d.menu_id
+            """;
+
+    private static final String PROCESSED_SQL = """
+            INSERT INTO stock_proj_processed (event_id, processed_at)
+            SELECT e, now() FROM unnest(?::uuid[]) AS e
+            ON CONFLICT (event_id) DO NOTHING
+            RETURNING event_id
+            """;
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public void applyDeltas(Map<UUID, StockProjectorService.Delta> byMenu) {
+        if (byMenu.isEmpty()) {
+            return;
+        }
+        UUID[] menuIds = byMenu.keySet().toArray(UUID[]::new);
+        Integer[] avail = byMenu.values().stream().map(StockProjectorService.Delta::avail).toArray(Integer[]::new);
+        Integer[] reserved = byMenu.values().stream().map(StockProjectorService.Delta::reserved).toArray(Integer[]::new);
+
+        jdbcTemplate.update(SEED_SQL, ps -> ps.setArray(1, ps.getConnection().createArrayOf("uuid", menuIds)));
+        jdbcTemplate.update(APPLY_SQL, ps -> {
+            ps.setArray(1, ps.getConnection().createArrayOf("uuid", menuIds));
+            ps.setArray(2, ps.getConnection().createArrayOf("integer", avail));
+            ps.setArray(3, ps.getConnection().createArrayOf("integer", reserved));
+        });
+    }
+
+    /**
+     * 처리 이력을 먼저 남기고 이번에 새로 남긴 id 만 돌려준다 (event_id PK 가 중복 판정).
+     * 다른 트랜잭션이 같은 id 를 먼저 넣었으면 그 커밋을 기다린 뒤 빠지므로 동시에 두 번 반영되지 않는다.
+     */
+    public Set<UUID> claim(Collection<UUID> eventIds) {
+        if (eventIds.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(jdbcTemplate.query(PROCESSED_SQL,
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("uuid", eventIds.toArray())),
+                (rs, i) -> rs.getObject(1, UUID.class)));
+    }
+}
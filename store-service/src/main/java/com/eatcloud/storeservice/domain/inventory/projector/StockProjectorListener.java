@@ -1,16 +1,33 @@
 // package: com.eatcloud.storeservice.domain.inventory.projector
 package com.eatcloud.storeservice.domain.inventory.projector;
 
+import com.eatcloud.outboxrelay.KeyOrderedDispatcher;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.apache.kafka.clients.consumer.ConsumerRecord;
-import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.kafka.listener.BatchListenerFailedException;
 import org.springframework.kafka.support.Acknowledgment;
 import org.springframework.stereotype.Component;
-import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * stock-events 배치 소비 (key-ordered 병렬).
+ *
+ * 순서 보장:
+ *  - key=menuId 라 같은 메뉴 이벤트는 한 파티션/한 컨슈머에서 offset 순으로 들어온다
+ *  - menuId 레인별로 병렬 반영한다 (레인당 한 트랜잭션, 레인 안은 offset 순)
+ *  - 모든 레인이 끝난 뒤에 poll 전체 offset 을 ack 한다. 커밋 후 ack 전에 죽으면 재전달되고
+ *    처리 이력(stock_proj_processed)으로 걸러진다
+ *  - 레인 반영이 실패하면 그 레인만 레코드 단위로 다시 반영한다. 레인 안에서 실패한 레코드 뒤는 건너뛰고,
+ *    실패 레코드 중 가장 앞 offset 을 BatchListenerFailedException 으로 넘겨 그 앞까지만 커밋한다.
+ *    에러 핸들러가 그 레코드부터 재시도하고, 끝내 실패하면 stock-events.dlt 로 보낸다
+ *    (그 뒤에서 이미 반영된 다른 레인 레코드는 재전달 시 stock_proj_processed 로 걸러진다)
+ *  - 파싱 실패 레코드가 있으면 그 앞까지만 반영하고 그 레코드를 실패 위치로 넘긴다
+ */
 @Slf4j
 @Component
 @RequiredArgsConstructor
@@ -18,43 +35,69 @@ public class StockProjectorListener {
 
     private final ObjectMapper om;
     private final StockProjectorService projector;
-
-    @Value("${inventory.topic:stock-events}")
-    private String stockTopic;
+    private final KeyOrderedDispatcher projectorDispatcher;
 
     @KafkaListener(
             topics = "${inventory.topic:stock-events}",
             containerFactory = "stockStringKafkaListenerContainerFactory"
     )
-    @Transactional
-    public void onMessage(ConsumerRecord<String, String> record, Acknowledgment ack) {
-        String raw = record.value();
-        log.info("[Projector] RAW key={} value={}", record.key(), raw);
-
-        try {
-            if (raw == null || raw.isBlank()) {
-                ack.acknowledge();
-                return;
+    public void onMessages(List<ConsumerRecord<String, byte[]>> records, Acknowledgment ack) {
+        List<Indexed> events = new ArrayList<>(records.size());
+        int parseFailedAt = -1;
+        Exception parseFailure = null;
+        for (int i = 0; i < records.size(); i++) {
+            ConsumerRecord<String, byte[]> record = records.get(i);
+            byte[] raw = record.value();
+            if (raw == null || raw.length == 0) {
+                continue;
             }
-
-            // 🔹 JsonSerializer 때문에 따옴표 + escape 붙는 경우 대비
-            if (raw.startsWith("\"") && raw.endsWith("\"")) {
-                raw = raw.substring(1, raw.length() - 1)  // 양쪽 따옴표 제거
-                        .replace("\\\"", "\"")           // 이스케이프된 따옴표 복원
-                        .replace("\\\\", "\\");          // 이스케이프된 역슬래시 복원
+            try {
+                events.add(new Indexed(i, StockEventEnvelope.from(record, om)));
+            } catch (Exception e) {
+                log.error("[Projector] Parse failed (will retry/DLT): offset={} bytes={} error={}", record.offset(), raw.length, e.getMessage());
+                // 앞 레코드를 먼저 반영한 뒤 이 레코드부터 재시도/DLT 로 넘긴다 (바로 던지면 앞 레코드가 커밋만 되고 유실)
+                parseFailedAt = i;
+                parseFailure = e;
+                break;
             }
+        }
 
-            // 🔹 역직렬화 시도
-            StockEventEnvelope evt = om.readValue(raw, StockEventEnvelope.class);
-            log.info("[Projector] Parsed eventType={} aggregateId={}", evt.getEventType(), evt.getAggregateId());
-
-            projector.apply(evt);
+        var lanes = projectorDispatcher.dispatch(events, item -> String.valueOf(item.evt().getAggregateId()),
+                rows -> projector.applyBatch(rows.stream().map(Indexed::evt).toList()));
 
-            ack.acknowledge();
-        } catch (Exception e) {
-            log.error("[Projector] Consume failed: raw={} error={}", raw, e.getMessage(), e);
-            // ack을 호출하면 offset은 넘기고, throw 하면 retry/DLT로 감
-            ack.acknowledge();
+        int lowestFailed = Integer.MAX_VALUE;
+        Exception failure = null;
+        for (var lane : lanes) {
+            if (!lane.failed()) {
+                continue;
+            }
+            log.warn("[Projector] lane apply failed → per-record fallback size={} error={}",
+                    lane.items().size(), lane.failure().toString());
+            for (Indexed item : lane.items()) {
+                try {
+                    projector.apply(item.evt());
+                } catch (Exception ex) {
+                    log.error("[Projector] Consume failed (will retry/DLT): evtId={} error={}", item.evt().getId(), ex.getMessage(), ex);
+                    if (item.index() < lowestFailed) {
+                        lowestFailed = item.index();
+                        failure = ex;
+                    }
+                    break; // 같은 메뉴의 뒤 레코드는 순서를 위해 보류
+                }
+            }
+        }
+        if (failure != null) {
+            // 실패 레코드 앞까지만 커밋하고 그 레코드부터 재시도/DLT
+            throw new BatchListenerFailedException("stock-event apply fail", failure, lowestFailed);
+        }
+        if (parseFailure != null) {
+            // 앞 레코드는 모두 반영됨 → 파싱 실패 레코드부터 재시도/DLT
+            throw new BatchListenerFailedException("stock-event parse fail", parseFailure, parseFailedAt);
         }
+        ack.acknowledge();
+    }
+
+    /** poll 안에서의 위치(= offset 순서)와 이벤트 */
+    private record Indexed(int index, StockEventEnvelope evt) {
     }
 }
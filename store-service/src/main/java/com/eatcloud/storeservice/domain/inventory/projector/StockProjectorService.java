@@ -8,6 +8,9 @@ import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @Slf4j
@@ -17,6 +20,7 @@ public class StockProjectorService {
 
     private final StockProjectionRepository projectionRepo;
     private final StockProjProcessedRepository processedRepo;
+    private final StockProjectionBulkWriter bulkWriter;
 
     @Transactional
     public void apply(StockEventEnvelope evt) {
@@ -25,7 +29,7 @@ public class StockProjectorService {
             return;
         }
         if (processedRepo.existsById(evt.getId())) {
-            // 멱등
+            // 멱등 (동시에 같은 이벤트를 반영하면 event_id PK 충돌로 한쪽이 롤백된다)
             return;
         }
 
@@ -51,40 +55,15 @@ public class StockProjectorService {
         );
 
         String type = evt.getEventType();
-
-        // qty / delta 유연 매핑
-        int qty = extractQty(p);         // reserved/committed/released/returned/insufficient
-        int delta = extractDelta(p);     // adjusted
-
-        switch (type) {
-            case "stock.reserved" -> {
-                view.setAvail(view.getAvail() - qty);
-                view.setReserved(view.getReserved() + qty);
-            }
-            case "stock.committed" -> {
-                // 예약분 확정: avail은 이미 감소된 상태, reserved만 감소
-                view.setReserved(view.getReserved() - qty);
-            }
-            case "stock.released", "stock.returned", "stock.canceled" -> {
-                // 예약 취소/반납: avail +, reserved -
-                view.setAvail(view.getAvail() + qty);
-                view.setReserved(view.getReserved() - qty);
-            }
-            case "stock.adjusted" -> {
-                // 관리자 가감(입고/차감). delta는 ±값
-                view.setAvail(view.getAvail() + delta);
-            }
-            case "stock.insufficient" -> {
-                // 수량 변화 없음(상태 알림용)
-                log.debug("[Projector] insufficient event applied (no-op) menuId={} reqQty={}", menuId, qty);
-            }
-            default -> {
-                log.warn("[Projector] unknown type={}, evtId={} -> skip", type, evt.getId());
-                processedRepo.save(StockProjProcessed.builder()
-                        .eventId(evt.getId()).processedAt(LocalDateTime.now()).build());
-                return;
-            }
+        Delta d = deltaOf(type, p);
+        if (d == null) {
+            log.warn("[Projector] unknown type={}, evtId={} -> skip", type, evt.getId());
+            processedRepo.save(StockProjProcessed.builder()
+                    .eventId(evt.getId()).processedAt(LocalDateTime.now()).build());
+            return;
         }
+        view.setAvail(view.getAvail() + d.avail());
+        view.setReserved(view.getReserved() + d.reserved());
 
         // 음수 방지(보수적 클램프)
         if (view.getAvail() < 0) view.setAvail(0);
@@ -98,6 +77,71 @@ public class StockProjectorService {
                 menuId, type, view.getAvail(), view.getReserved());
     }
 
+    /**
+     * poll 한 번 분량을 한 트랜잭션으로 반영한다.
+     *  1) 처리 이력을 INSERT ... ON CONFLICT (event_id) DO NOTHING RETURNING 한 번으로 먼저 남기고
+     *     새로 남긴 id 만 반영한다 (배치 안 중복 id 도 제거, 같은 트랜잭션이라 실패하면 함께 롤백)
+     *  2) menuId 별로 avail/reserved 증감을 메모리에서 합산한다
+     *  3) stock_projection 은 unnest 배열로 seed INSERT ... ON CONFLICT DO NOTHING + 증감 UPDATE 한 번
+     *
+     * 같은 menuId 이벤트는 같은 파티션(key=menuId)이라 한 컨슈머만 쓰므로 합산 순서가 바뀌지 않는다.
+     * 증감은 교환 법칙이 성립하고 음수 클램프는 배치 끝에 한 번만 적용한다.
+     */
+    @Transactional
+    public int applyBatch(List<StockEventEnvelope> events) {
+        Map<UUID, StockEventEnvelope> byId = new LinkedHashMap<>();
+        for (StockEventEnvelope evt : events) {
+            if (evt != null && evt.getId() != null) {
+                byId.putIfAbsent(evt.getId(), evt);
+            }
+        }
+        if (byId.isEmpty()) {
+            return 0;
+        }
+
+        byId.keySet().retainAll(bulkWriter.claim(byId.keySet()));
+
+        Map<UUID, Delta> byMenu = new LinkedHashMap<>();
+        for (StockEventEnvelope evt : byId.values()) {
+            UUID menuId = evt.getAggregateId();
+            Delta d = deltaOf(evt.getEventType(), evt.getPayload());
+            if (menuId == null || d == null) {
+                // 처리 이력만 남겨 재처리 방지
+                log.warn("[Projector] skip: menuId={} type={} evtId={}", menuId, evt.getEventType(), evt.getId());
+                continue;
+            }
+            byMenu.merge(menuId, d, Delta::plus);
+        }
+
+        bulkWriter.applyDeltas(byMenu);
+
+        log.info("Projection batch applied: events={} new={} menus={}", events.size(), byId.size(), byMenu.size());
+        return byId.size();
+    }
+
+    /** 이벤트 타입별 avail/reserved 증감. 모르는 타입이면 null */
+    private Delta deltaOf(String type, JsonNode p) {
+        int qty = extractQty(p);         // reserved/committed/released/returned/insufficient
+        return switch (type == null ? "" : type) {
+            case "stock.reserved" -> new Delta(-qty, qty);
+            // 예약분 확정: avail은 이미 감소된 상태, reserved만 감소
+            case "stock.committed" -> new Delta(0, -qty);
+            // 예약 취소/반납: avail +, reserved -
+            case "stock.released", "stock.returned", "stock.canceled" -> new Delta(qty, -qty);
+            // 관리자 가감(입고/차감). delta는 ±값
+            case "stock.adjusted" -> new Delta(extractDelta(p), 0);
+            // 수량 변화 없음(상태 알림용)
+            case "stock.insufficient" -> new Delta(0, 0);
+            default -> null;
+        };
+    }
+
+    record Delta(int avail, int reserved) {
+        Delta plus(Delta o) {
+            return new Delta(avail + o.avail, reserved + o.reserved);
+        }
+    }
+
     /** qty는 이벤트 종류에 따라 키가 다를 수 있어 관대하게 추출 */
     private int extractQty(JsonNode p) {
         if (p == null) return 0;
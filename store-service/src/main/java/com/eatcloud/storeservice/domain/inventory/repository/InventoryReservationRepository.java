@@ -6,6 +6,7 @@ import org.springframework.data.domain.PageRequest;
 import org.springframework.data.jpa.repository.JpaRepository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -14,5 +15,7 @@ public interface InventoryReservationRepository extends JpaRepository<InventoryR
 
     Optional<InventoryReservation> findByOrderLineId(UUID orderLineId);
 
+    List<InventoryReservation> findByOrderLineIdIn(Collection<UUID> orderLineIds);
+
     List<InventoryReservation> findByStatusAndExpiresAtBefore(String status, LocalDateTime time, PageRequest pageRequest);
 }
@@ -3,8 +3,10 @@ import com.eatcloud.storeservice.domain.inventory.StockEvents;
 import com.eatcloud.storeservice.domain.outbox.service.OutboxAppender;
 
 import com.eatcloud.storeservice.domain.inventory.entity.InventoryReservation;
+import com.eatcloud.storeservice.domain.inventory.hot.HotKeyDecider;
 import com.eatcloud.storeservice.domain.inventory.repository.InventoryReservationRepository;
 import com.eatcloud.storeservice.domain.inventory.repository.InventoryStockRepository;
+import com.eatcloud.storeservice.domain.inventory.service.InventoryService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.redisson.api.RLock;
@@ -16,8 +18,10 @@ import org.springframework.stereotype.Component;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
+import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
 import java.util.concurrent.TimeUnit;
 
@@ -29,6 +33,8 @@ public class InventoryTtlScheduler {
     private final InventoryReservationRepository resRepo;
     private final InventoryStockRepository stockRepo;
     private final RedissonClient redisson;
+    private final HotKeyDecider hotKeyDecider;
+    private final InventoryService inventoryService;
 
     // ✨ OutboxAppender 주입
     private final OutboxAppender outbox;
@@ -55,15 +61,18 @@ public class InventoryTtlScheduler {
 
         LocalDateTime now = LocalDateTime.now();
         int processed = 0;
+        // Redis 우선 모드의 핫 메뉴는 취소가 저널로 늦게 반영돼 같은 row 가 다시 조회될 수 있다
+        Set<UUID> seen = new HashSet<>();
 
         try {
             while (processed < batchSize) {
                 List<InventoryReservation> list = resRepo.findByStatusAndExpiresAtBefore(
                         "PENDING", now, PageRequest.of(0, Math.min(200, batchSize - processed))
                 );
-                if (list.isEmpty()) break;
+                List<InventoryReservation> fresh = list.stream().filter(r -> seen.add(r.getOrderLineId())).toList();
+                if (fresh.isEmpty()) break;
 
-                for (InventoryReservation r : list) {
+                for (InventoryReservation r : fresh) {
                     try {
                         handleOneExpired(r);
                         processed++;
@@ -84,11 +93,16 @@ public class InventoryTtlScheduler {
 
     /**
      * 개별 만료 예약 처리:
-     * - (핫 메뉴 가정) RLock(menuId)
-     * - 트랜잭션 내에서: PENDING -> CANCELED 멱등 전이 + 재고 복구(CAS)
+     * - 핫 메뉴: 메뉴 락 없이 Lua 취소 경로(InventoryService.cancel)로 위임 (Redis 재고도 함께 복구)
+     * - 그 외: RLock(menuId) 후 트랜잭션 내에서 PENDING -> CANCELED 멱등 전이 + 재고 복구(CAS)
      */
     protected void handleOneExpired(InventoryReservation r) {
         UUID menuId = r.getMenuId();
+        if (hotKeyDecider.isHot(menuId)) {
+            inventoryService.cancel(r.getOrderLineId(), "TTL_EXPIRED");
+            return;
+        }
+
         String lockKey = "lock:menu:" + menuId;
         RLock lock = redisson.getLock(lockKey);
 
@@ -2,6 +2,9 @@
 
 package com.eatcloud.storeservice.domain.inventory.service;
 
+import com.eatcloud.storeservice.domain.inventory.hotpath.FlashSaleRegistry;
+import com.eatcloud.storeservice.domain.inventory.hotpath.FlashSaleService;
+import com.eatcloud.storeservice.domain.inventory.hotpath.InventoryKeys;
 import com.eatcloud.storeservice.domain.inventory.repository.InventoryStockRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -18,13 +21,21 @@ public class InventoryQueryService {
 
     private final InventoryStockRepository stockRepo;
     private final RedissonClient redisson;
+    private final InventoryKeys inventoryKeys;
+    private final FlashSaleRegistry flashSales;
+    private final FlashSaleService flashSale;
 
     public StockView getStock(UUID menuId) {
-        String availKey = "inv:" + menuId + ":avail";
-        String reservedKey = "inv:" + menuId + ":reserved";
+        // 플래시 세일 메뉴: 메인 키 + 샤드 합계 (이동 중 수량 포함)
+        if (flashSales.shards(menuId) > 0) {
+            var total = flashSale.total(menuId);
+            return new StockView(total.available(), total.reserved());
+        }
+
+        InventoryKeys.MenuKeys keys = inventoryKeys.menu(menuId);
 
-        var availBucket = redisson.getBucket(availKey, StringCodec.INSTANCE);
-        var reservedBucket = redisson.getBucket(reservedKey, StringCodec.INSTANCE);
+        var availBucket = redisson.getBucket(keys.avail(), StringCodec.INSTANCE);
+        var reservedBucket = redisson.getBucket(keys.reserved(), StringCodec.INSTANCE);
 
         String availStr = (String) availBucket.get();
         String reservedStr = (String) reservedBucket.get();
@@ -34,6 +45,16 @@ public class InventoryQueryService {
             return new StockView(Integer.parseInt(availStr), Integer.parseInt(reservedStr));
         }
 
+        // 키 배치 전환 중: 아직 안 옮긴 legacy 키
+        if (inventoryKeys.isDualRead()) {
+            InventoryKeys.MenuKeys legacy = inventoryKeys.legacy(menuId);
+            String legacyAvail = (String) redisson.getBucket(legacy.avail(), StringCodec.INSTANCE).get();
+            String legacyReserved = (String) redisson.getBucket(legacy.reserved(), StringCodec.INSTANCE).get();
+            if (legacyAvail != null && legacyReserved != null) {
+                return new StockView(Integer.parseInt(legacyAvail), Integer.parseInt(legacyReserved));
+            }
+        }
+
         // Redis에 없으면 DB 조회
         var row = stockRepo.findById(menuId)
                 .orElseThrow(() -> new IllegalArgumentException("NOT_FOUND"));
@@ -1,6 +1,7 @@
 // InventoryService.java
 package com.eatcloud.storeservice.domain.inventory.service;
 
+import java.util.List;
 import java.util.UUID;
 
 public interface InventoryService {
@@ -14,4 +15,15 @@ public interface InventoryService {
     void adjust(UUID menuId, int delta); // 관리자 증감 (+/-)
 
     void cancelAfterConfirm(UUID orderLineId, String reason);
+
+    /**
+     * 한 주문의 모든 라인을 all-or-nothing 예약.
+     * @return 재고가 부족한 메뉴 목록 (비어 있으면 전부 예약됨)
+     */
+    List<UUID> reserveBatch(UUID orderId, List<ReserveLine> lines);
+
+    void confirmBatch(List<UUID> orderLineIds);
+
+    // 확정 전이면 예약 해제, 확정 후면 재고 반환 (cancelAfterConfirm 과 같은 규칙)
+    void cancelBatch(List<UUID> orderLineIds, String reason);
 }
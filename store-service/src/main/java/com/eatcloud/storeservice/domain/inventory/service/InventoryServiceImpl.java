@@ -3,21 +3,25 @@ package com.eatcloud.storeservice.domain.inventory.service;
 import com.eatcloud.storeservice.domain.inventory.StockEvents;
 import com.eatcloud.storeservice.domain.inventory.entity.InventoryReservation;
 import com.eatcloud.storeservice.domain.inventory.hot.HotKeyDecider;
+import com.eatcloud.storeservice.domain.inventory.hot.HotMenuDetector;
+import com.eatcloud.storeservice.domain.inventory.hotpath.HotPathFence;
+import com.eatcloud.storeservice.domain.inventory.hotpath.HotPathFencedException;
 import com.eatcloud.storeservice.domain.inventory.hotpath.HotPathLuaService;
+import com.eatcloud.storeservice.domain.inventory.hotpath.HotPathLuaService.LineTransition;
+import com.eatcloud.storeservice.domain.inventory.hotpath.HotPathReconciler;
 import com.eatcloud.storeservice.domain.inventory.repository.InventoryReservationRepository;
 import com.eatcloud.storeservice.domain.inventory.repository.InventoryStockRepository;
 import com.eatcloud.storeservice.domain.outbox.service.OutboxAppender;
 import com.eatcloud.storeservice.support.lock.RedisLockExecutor;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.redisson.api.RScript;
-import org.redisson.api.RedissonClient;
-import org.redisson.client.codec.StringCodec;
+import org.redisson.client.RedisException;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.*;
+import java.util.stream.Collectors;
 
 @Slf4j
 @Service
@@ -31,40 +35,21 @@ public class InventoryServiceImpl implements InventoryService {
 
     // 🔥 Phase B: 핫키 전용 경로
     private final HotKeyDecider hotKeyDecider;
+    private final HotMenuDetector hotMenuDetector;
     private final HotPathLuaService hotPath;
-    private final RedissonClient redisson;
+    private final HotPathReconciler reconciler;
+    private final HotPathFence fence;
 
     // ✅ 이벤트소싱 저장 서비스
     private final StockEventService stockEventService;
 
     private static final String AGG_TYPE = "INVENTORY_ITEM";
-
-    /** 단일 키를 INCRBY로 증감하되, 음수로 내려가면 롤백 후 -1 반환 */
-    private static final String LUA_INCR_SAFELY =
-            "local k=KEYS[1]; " +
-                    "local d=tonumber(ARGV[1]); " +
-                    "local v=redis.call('INCRBY', k, d); " +
-                    "if v < 0 then " +
-                    "  redis.call('INCRBY', k, -d); " +
-                    "  return -1 " +
-                    "end " +
-                    "return v";
-
-    /** 취소: reserved -= qty, avail += qty 를 한 번에 */
-    private static final String LUA_CANCEL_SWAP =
-            "local a=KEYS[1]; local r=KEYS[2]; " +
-                    "local q=tonumber(ARGV[1]); " +
-                    "local rv=redis.call('INCRBY', r, -q); " +
-                    "if rv < 0 then " +
-                    "  redis.call('INCRBY', r, q); " +
-                    "  return -1 " +
-                    "end " +
-                    "redis.call('INCRBY', a, q); " +
-                    "return rv";
+    private static final long JOURNAL_DRAIN_WAIT_MS = 1000;
 
     @Override
     @Transactional
     public void reserve(UUID orderId, UUID orderLineId, UUID menuId, int qty) {
+        hotMenuDetector.recordReserve(menuId);
         if (hotKeyDecider.isHot(menuId)) {
             log.debug("[HOT] menuId={} flagged as hot, trying Lua path...", menuId);
             try {
@@ -87,13 +72,19 @@ public class InventoryServiceImpl implements InventoryService {
                                 "qty", qty, "occurredAt", LocalDateTime.now(), "eventVersion", 1),
                         Map.of("correlationId", orderId.toString()));
                 return;
-            } catch (Exception e) {
+            } catch (RedisException e) {
+                // Redis 우선 모드면 Redis 가 원장이라, 저널이 덜 반영된 DB 로 예약하면 초과 판매가 된다
+                if (hotPath.isRedisFirst()) throw e;
                 log.warn("[HOT] Lua path failed ({}). Fallback Phase A", e.getMessage());
+            } catch (HotPathFencedException e) {
+                // 다른 인스턴스가 이미 강등을 끝냈다 (로컬 캐시만 늦음) → 비핫키 경로로. 전환 중이면 실패
+                if (!e.isCold()) throw e;
             }
         }
 
         // === 비핫키 경로 ===
         locks.withMenuLock(menuId.toString(), () -> {
+            fence.checkCold(List.of(menuId));
             if (resRepo.findByOrderLineId(orderLineId).isPresent()) return null;
 
             int updated = stockRepo.reserve(menuId, qty);
@@ -129,22 +120,19 @@ public class InventoryServiceImpl implements InventoryService {
     @Override
     @Transactional
     public void confirm(UUID orderLineId) {
-        InventoryReservation r = resRepo.findByOrderLineId(orderLineId)
-                .orElseThrow(() -> new IllegalArgumentException("NO_RESERVATION"));
+        InventoryReservation r = findReservation(orderLineId);
         if (!"PENDING".equals(r.getStatus())) return;
 
-        locks.withMenuLock(r.getMenuId().toString(), () -> {
-            int u = stockRepo.consume(r.getMenuId(), r.getQty());
-            if (u == 0) throw new IllegalStateException("RESERVED_UNDERFLOW");
-
-            r.setStatus("CONFIRMED");
-            resRepo.save(r);
+        // 핫키: Lua 로 라인 전이 (메뉴 락 없음). 이미 전이된 라인이면 아무것도 하지 않는다
+        String prev = hotTransition(LineTransition.CONFIRM, r, null);
+        if (prev != null) {
+            if (LineTransition.CONFIRM.from().equals(prev)) applyConfirm(r, hotPath.isRedisFirst());
+            return;
+        }
 
-            stockEventService.recordOnly(r.getMenuId(), r.getOrderId(), r.getOrderLineId(), "stock.committed", r.getQty(), null);
-            outbox.append(StockEvents.COMMITTED, AGG_TYPE, r.getMenuId(),
-                    Map.of("menuId", r.getMenuId(), "orderId", r.getOrderId(), "orderLineId", r.getOrderLineId(),
-                            "qty", r.getQty(), "occurredAt", LocalDateTime.now(), "eventVersion", 1),
-                    Map.of("correlationId", r.getOrderId().toString()));
+        locks.withMenuLock(r.getMenuId().toString(), () -> {
+            fence.checkCold(List.of(r.getMenuId()));
+            applyConfirm(r, false);
             return null;
         });
     }
@@ -152,22 +140,18 @@ public class InventoryServiceImpl implements InventoryService {
     @Override
     @Transactional
     public void cancel(UUID orderLineId, String reason) {
-        InventoryReservation r = resRepo.findByOrderLineId(orderLineId)
-                .orElseThrow(() -> new IllegalArgumentException("NO_RESERVATION"));
+        InventoryReservation r = findReservation(orderLineId);
         if (!"PENDING".equals(r.getStatus())) return;
 
-        locks.withMenuLock(r.getMenuId().toString(), () -> {
-            r.setStatus("CANCELED");
-            r.setReason(reason);
-            resRepo.save(r);
-
-            stockRepo.release(r.getMenuId(), r.getQty());
+        String prev = hotTransition(LineTransition.CANCEL, r, reason);
+        if (prev != null) {
+            if (LineTransition.CANCEL.from().equals(prev)) applyCancel(r, reason, hotPath.isRedisFirst());
+            return;
+        }
 
-            stockEventService.recordOnly(r.getMenuId(), r.getOrderId(), r.getOrderLineId(), "stock.released", r.getQty(), reason);
-            outbox.append(StockEvents.RELEASED, AGG_TYPE, r.getMenuId(),
-                    Map.of("menuId", r.getMenuId(), "orderId", r.getOrderId(), "orderLineId", r.getOrderLineId(),
-                            "qty", r.getQty(), "reason", reason, "occurredAt", LocalDateTime.now(), "eventVersion", 1),
-                    Map.of("correlationId", r.getOrderId().toString()));
+        locks.withMenuLock(r.getMenuId().toString(), () -> {
+            fence.checkCold(List.of(r.getMenuId()));
+            applyCancel(r, reason, false);
             return null;
         });
     }
@@ -194,26 +178,302 @@ public class InventoryServiceImpl implements InventoryService {
     @Override
     @Transactional
     public void cancelAfterConfirm(UUID orderLineId, String reason) {
-        var r = resRepo.findByOrderLineId(orderLineId)
-                .orElseThrow(() -> new IllegalArgumentException("NO_RESERVATION"));
+        var r = findReservation(orderLineId);
         if ("REFUNDED".equals(r.getStatus()) || "CANCELED_AFTER_CONFIRM".equals(r.getStatus())) return;
+
+        // 핫키: Redis 라인 상태 기준으로 반품 (Redis 우선 모드면 DB 가 아직 PENDING 이어도 확정됐을 수 있다)
+        if ("PENDING".equals(r.getStatus()) || "CONFIRMED".equals(r.getStatus())) {
+            String prev = hotTransition(LineTransition.RETURN, r, reason);
+            if (prev != null) {
+                if (LineTransition.RETURN.from().equals(prev)) applyReturn(r, reason, hotPath.isRedisFirst());
+                else if (HotPathLuaService.PENDING.equals(prev)) cancel(orderLineId, reason);
+                return;
+            }
+        }
         if (!"CONFIRMED".equals(r.getStatus())) { cancel(orderLineId, reason); return; }
 
         locks.withMenuLock(r.getMenuId().toString(), () -> {
+            fence.checkCold(List.of(r.getMenuId()));
+            applyReturn(r, reason, false);
+            return null;
+        });
+    }
+
+    /**
+     * 한 주문의 라인들을 all-or-nothing 예약.
+     * - 비핫키: 메뉴 락을 정렬 순서로 모두 잡고, 같은 순서로 DB CAS (한 트랜잭션)
+     * - 핫키: Lua 한 번으로 모든 핫 메뉴 검사·차감
+     * 어느 한 메뉴라도 부족하면 이미 반영한 수량을 되돌리고 부족한 메뉴를 반환한다.
+     */
+    @Override
+    @Transactional
+    public List<UUID> reserveBatch(UUID orderId, List<ReserveLine> lines) {
+        // 이미 예약된 라인은 제외 (멱등)
+        Set<UUID> done = resRepo.findByOrderLineIdIn(lines.stream().map(ReserveLine::orderLineId).toList())
+                .stream().map(InventoryReservation::getOrderLineId).collect(Collectors.toSet());
+        List<ReserveLine> todo = lines.stream().filter(l -> !done.contains(l.orderLineId())).toList();
+        if (todo.isEmpty()) return List.of();
+        todo.forEach(l -> hotMenuDetector.recordReserve(l.menuId()));
+
+        Map<Boolean, List<ReserveLine>> byHot = todo.stream()
+                .collect(Collectors.partitioningBy(l -> hotKeyDecider.isHot(l.menuId())));
+        List<ReserveLine> hot = byHot.get(true);
+        List<ReserveLine> cold = byHot.get(false);
+
+        // === 비핫키 경로 ===
+        Map<UUID, Integer> coldQty = qtyByMenu(cold);
+        List<UUID> shortMenus = cold.isEmpty() ? List.of()
+                : locks.withMenuLocks(menuKeys(coldQty), () -> reserveColdInOrder(coldQty));
+
+        // === 핫키 경로 ===
+        if (shortMenus.isEmpty() && !hot.isEmpty()) {
+            try {
+                shortMenus = hotPath.reserveBatchViaLua(orderId, hot);
+            } catch (RedisException e) {
+                // 이번 호출이 차감한 라인은 reserveBatchViaLua 가 되돌렸다 (이전 호출이 예약한 라인은 Redis 우선 모드면 DB 에 아직 없을 수 있다)
+                if (hotPath.isRedisFirst()) throw e;   // 비핫키 경로 폴백 금지 (reserve 참고)
+                log.warn("[HOT] batch Lua path failed ({}). Fallback Phase A", e.getMessage());
+                shortMenus = reserveHotAsCold(orderId, hot);
+            } catch (HotPathFencedException e) {
+                // 앞 묶음은 이미 되돌려졌다. 이미 강등된 메뉴면 핫 라인 전체를 비핫키 경로로 (남은 핫 메뉴는 checkCold 가 거절)
+                if (!e.isCold()) throw e;
+                shortMenus = reserveHotAsCold(orderId, hot);
+            }
+            if (!shortMenus.isEmpty()) {
+                coldQty.forEach(stockRepo::release);
+            }
+        }
+
+        if (!shortMenus.isEmpty()) {
+            Set<UUID> shortSet = new HashSet<>(shortMenus);
+            todo.stream().filter(l -> shortSet.contains(l.menuId()))
+                    .forEach(l -> appendInsufficient(orderId, l));
+            return shortMenus;
+        }
+
+        saveReservations(orderId, cold);
+        todo.forEach(l -> appendReserved(orderId, l));
+        return List.of();
+    }
+
+    @Override
+    @Transactional
+    public void confirmBatch(List<UUID> orderLineIds) {
+        List<InventoryReservation> found = findReservations(orderLineIds);
+        if (found.size() < orderLineIds.size()) {
+            log.warn("[INV] confirmBatch: reservation missing. requested={} found={}", orderLineIds.size(), found.size());
+        }
+        List<InventoryReservation> pending = found.stream()
+                .filter(r -> "PENDING".equals(r.getStatus()))
+                .sorted(Comparator.comparing(InventoryReservation::getMenuId))
+                .toList();
+
+        // 핫키 라인은 Lua 로 먼저 처리하고, 나머지만 메뉴 락을 잡는다
+        List<InventoryReservation> cold = new ArrayList<>();
+        for (InventoryReservation r : pending) {
+            String prev = hotTransition(LineTransition.CONFIRM, r, null);
+            if (prev == null) cold.add(r);
+            else if (LineTransition.CONFIRM.from().equals(prev)) applyConfirm(r, hotPath.isRedisFirst());
+        }
+        if (cold.isEmpty()) return;
+
+        locks.withMenuLocks(cold.stream().map(r -> r.getMenuId().toString()).toList(), () -> {
+            fence.checkCold(cold.stream().map(InventoryReservation::getMenuId).toList());
+            cold.forEach(r -> applyConfirm(r, false));
+            return null;
+        });
+    }
+
+    @Override
+    @Transactional
+    public void cancelBatch(List<UUID> orderLineIds, String reason) {
+        List<InventoryReservation> open = findReservations(orderLineIds).stream()
+                .filter(r -> "PENDING".equals(r.getStatus()) || "CONFIRMED".equals(r.getStatus()))
+                .sorted(Comparator.comparing(InventoryReservation::getMenuId))
+                .toList();
+
+        List<InventoryReservation> cold = new ArrayList<>();
+        for (InventoryReservation r : open) {
+            LineTransition t = "CONFIRMED".equals(r.getStatus()) ? LineTransition.RETURN : LineTransition.CANCEL;
+            String prev = hotTransition(t, r, reason);
+            if (t == LineTransition.CANCEL && HotPathLuaService.CONFIRMED.equals(prev)) {
+                // Redis 우선 모드: 확정이 아직 DB 에 반영되지 않은 라인은 반품으로
+                t = LineTransition.RETURN;
+                prev = hotTransition(t, r, reason);
+            }
+            if (prev == null) cold.add(r);
+            else if (t.from().equals(prev)) applyCancelOrReturn(t, r, reason, hotPath.isRedisFirst());
+        }
+        if (cold.isEmpty()) return;
+
+        locks.withMenuLocks(cold.stream().map(r -> r.getMenuId().toString()).toList(), () -> {
+            fence.checkCold(cold.stream().map(InventoryReservation::getMenuId).toList());
+            for (InventoryReservation r : cold) {
+                LineTransition t = "CONFIRMED".equals(r.getStatus()) ? LineTransition.RETURN : LineTransition.CANCEL;
+                applyCancelOrReturn(t, r, reason, false);
+            }
+            return null;
+        });
+    }
+
+    // 핫 메뉴면 Lua 로 라인을 전이하고 호출 전 상태를 돌려준다. 핫이 아니거나 Lua 가 실패하면 null (메뉴 락 경로로)
+    // Redis 우선 모드에서는 Redis 오류·전환 중을 그대로 던진다 (DB 가 뒤처져 있어 락 경로로 처리할 수 없음)
+    private String hotTransition(LineTransition t, InventoryReservation r, String reason) {
+        if (!hotKeyDecider.isHot(r.getMenuId())) return null;
+        try {
+            return hotPath.transitionViaLua(t, r, reason);
+        } catch (RedisException e) {
+            if (hotPath.isRedisFirst()) throw e;
+            log.warn("[HOT] {} Lua path failed ({}). Fallback Phase A", t, e.getMessage());
+            return null;
+        } catch (HotPathFencedException e) {
+            if (!e.isCold()) throw e;
+            return null;   // 이미 강등됨: 저널이 모두 반영된 DB 로 처리
+        }
+    }
+
+    // journaled: Redis 우선 모드의 핫 메뉴라 DB 재고·상태는 저널로 반영된다. 이벤트/Outbox 는 항상 바로 남긴다
+    private void applyConfirm(InventoryReservation r, boolean journaled) {
+        if (!journaled) {
+            int u = stockRepo.consume(r.getMenuId(), r.getQty());
+            if (u == 0) throw new IllegalStateException("RESERVED_UNDERFLOW");
+
+            r.setStatus("CONFIRMED");
+            resRepo.save(r);
+        }
+
+        stockEventService.recordOnly(r.getMenuId(), r.getOrderId(), r.getOrderLineId(), "stock.committed", r.getQty(), null);
+        outbox.append(StockEvents.COMMITTED, AGG_TYPE, r.getMenuId(),
+                Map.of("menuId", r.getMenuId(), "orderId", r.getOrderId(), "orderLineId", r.getOrderLineId(),
+                        "qty", r.getQty(), "occurredAt", LocalDateTime.now(), "eventVersion", 1),
+                Map.of("correlationId", r.getOrderId().toString()));
+    }
+
+    private void applyCancel(InventoryReservation r, String reason, boolean journaled) {
+        if (!journaled) {
+            r.setStatus("CANCELED");
+            r.setReason(reason);
+            resRepo.save(r);
+
+            stockRepo.release(r.getMenuId(), r.getQty());
+        }
+
+        stockEventService.recordOnly(r.getMenuId(), r.getOrderId(), r.getOrderLineId(), "stock.released", r.getQty(), reason);
+        outbox.append(StockEvents.RELEASED, AGG_TYPE, r.getMenuId(),
+                Map.of("menuId", r.getMenuId(), "orderId", r.getOrderId(), "orderLineId", r.getOrderLineId(),
+                        "qty", r.getQty(), "reason", reason, "occurredAt", LocalDateTime.now(), "eventVersion", 1),
+                Map.of("correlationId", r.getOrderId().toString()));
+    }
+
+    private void applyReturn(InventoryReservation r, String reason, boolean journaled) {
+        if (!journaled) {
             int u = stockRepo.adjust(r.getMenuId(), +r.getQty());
             if (u == 0) throw new IllegalStateException("ADJUST_FAILED_AFTER_CONFIRM");
 
             r.setStatus("REFUNDED");
             r.setReason(reason);
             resRepo.save(r);
+        }
 
-            stockEventService.recordOnly(r.getMenuId(), r.getOrderId(), r.getOrderLineId(), "stock.returned", r.getQty(), reason);
-            outbox.append("stock.returned", AGG_TYPE, r.getMenuId(),
-                    Map.of("menuId", r.getMenuId(), "orderId", r.getOrderId(), "orderLineId", r.getOrderLineId(),
-                            "qty", r.getQty(), "reason", reason, "occurredAt", LocalDateTime.now(), "eventVersion", 1),
-                    Map.of("correlationId", r.getOrderId().toString()));
-            return null;
-        });
+        stockEventService.recordOnly(r.getMenuId(), r.getOrderId(), r.getOrderLineId(), StockEvents.RETURNED, r.getQty(), reason);
+        outbox.append(StockEvents.RETURNED, AGG_TYPE, r.getMenuId(),
+                Map.of("menuId", r.getMenuId(), "orderId", r.getOrderId(), "orderLineId", r.getOrderLineId(),
+                        "qty", r.getQty(), "reason", reason, "occurredAt", LocalDateTime.now(), "eventVersion", 1),
+                Map.of("correlationId", r.getOrderId().toString()));
+    }
+
+    private void applyCancelOrReturn(LineTransition t, InventoryReservation r, String reason, boolean journaled) {
+        if (t == LineTransition.RETURN) applyReturn(r, reason, journaled);
+        else applyCancel(r, reason, journaled);
+    }
+
+    // Redis 우선 모드에서는 핫 메뉴 예약 row 가 저널 반영 후에 생기므로, 없으면 반영을 한 번 당긴 뒤 다시 찾는다
+    private InventoryReservation findReservation(UUID orderLineId) {
+        return resRepo.findByOrderLineId(orderLineId)
+                .or(() -> {
+                    if (!reconciler.isEnabled()) return Optional.empty();
+                    reconciler.drainNow(JOURNAL_DRAIN_WAIT_MS);
+                    return resRepo.findByOrderLineId(orderLineId);
+                })
+                .orElseThrow(() -> new IllegalArgumentException("NO_RESERVATION"));
+    }
+
+    private List<InventoryReservation> findReservations(List<UUID> orderLineIds) {
+        List<InventoryReservation> found = resRepo.findByOrderLineIdIn(orderLineIds);
+        if (found.size() < orderLineIds.size() && reconciler.isEnabled()) {
+            reconciler.drainNow(JOURNAL_DRAIN_WAIT_MS);
+            found = resRepo.findByOrderLineIdIn(orderLineIds);
+        }
+        return found;
+    }
+
+    // 메뉴 락 안에서: Redis 우선 모드면 Redis 가 핫으로 보는 메뉴는 DB 로 건드리지 않는다
+    private List<UUID> reserveColdInOrder(Map<UUID, Integer> qtyByMenu) {
+        fence.checkCold(qtyByMenu.keySet());
+        return reserveInOrder(qtyByMenu);
+    }
+
+    // 핫 라인을 비핫키 경로로 예약 (Lua 실패 폴백 또는 이미 강등된 메뉴)
+    private List<UUID> reserveHotAsCold(UUID orderId, List<ReserveLine> hot) {
+        Map<UUID, Integer> hotQty = qtyByMenu(hot);
+        List<UUID> shortMenus = locks.withMenuLocks(menuKeys(hotQty), () -> reserveColdInOrder(hotQty));
+        if (shortMenus.isEmpty()) saveReservations(orderId, hot);
+        return shortMenus;
+    }
+
+    /** 메뉴 순서대로 CAS 차감. 하나라도 실패하면 앞서 차감한 메뉴를 되돌리고 그 메뉴를 반환 */
+    private List<UUID> reserveInOrder(Map<UUID, Integer> qtyByMenu) {
+        List<Map.Entry<UUID, Integer>> applied = new ArrayList<>();
+        for (Map.Entry<UUID, Integer> e : qtyByMenu.entrySet()) {
+            if (stockRepo.reserve(e.getKey(), e.getValue()) == 0) {
+                applied.forEach(a -> stockRepo.release(a.getKey(), a.getValue()));
+                return List.of(e.getKey());
+            }
+            applied.add(e);
+        }
+        return List.of();
+    }
+
+    // 같은 메뉴가 여러 라인에 있으면 합산, 메뉴 ID 순 정렬
+    private static Map<UUID, Integer> qtyByMenu(List<ReserveLine> lines) {
+        Map<UUID, Integer> qty = new TreeMap<>();
+        lines.forEach(l -> qty.merge(l.menuId(), l.qty(), Integer::sum));
+        return qty;
+    }
+
+    private static List<String> menuKeys(Map<UUID, Integer> qtyByMenu) {
+        return qtyByMenu.keySet().stream().map(UUID::toString).toList();
+    }
+
+    private void saveReservations(UUID orderId, List<ReserveLine> lines) {
+        for (ReserveLine l : lines) {
+            resRepo.save(InventoryReservation.builder()
+                    .reservationId(UUID.randomUUID())
+                    .menuId(l.menuId())
+                    .orderId(orderId)
+                    .orderLineId(l.orderLineId())
+                    .qty(l.qty())
+                    .status("PENDING")
+                    .expiresAt(LocalDateTime.now().plusMinutes(10))
+                    .createdAt(LocalDateTime.now())
+                    .build());
+        }
+    }
+
+    private void appendReserved(UUID orderId, ReserveLine l) {
+        stockEventService.recordOnly(l.menuId(), orderId, l.orderLineId(), "stock.reserved", l.qty(), null);
+        outbox.append(StockEvents.RESERVED, AGG_TYPE, l.menuId(),
+                Map.of("menuId", l.menuId(), "orderId", orderId, "orderLineId", l.orderLineId(),
+                        "qty", l.qty(), "occurredAt", LocalDateTime.now(), "eventVersion", 1),
+                Map.of("correlationId", orderId.toString()));
+    }
+
+    private void appendInsufficient(UUID orderId, ReserveLine l) {
+        stockEventService.recordOnly(l.menuId(), orderId, l.orderLineId(), "stock.insufficient", l.qty(), "OUT_OF_STOCK");
+        outbox.append(StockEvents.INSUFFICIENT, AGG_TYPE, l.menuId(),
+                Map.of("menuId", l.menuId(), "orderId", orderId, "orderLineId", l.orderLineId(),
+                        "requestedQty", l.qty(), "occurredAt", LocalDateTime.now(), "eventVersion", 1),
+                Map.of("correlationId", orderId.toString(), "reason", "OUT_OF_STOCK"));
     }
 
     public static class InsufficientStockException extends RuntimeException {}
@@ -0,0 +1,6 @@
+package com.eatcloud.storeservice.domain.inventory.service;
+
+import java.util.UUID;
+
+/** 일괄 예약의 주문 라인 하나 */
+public record ReserveLine(UUID orderLineId, UUID menuId, int qty) {}
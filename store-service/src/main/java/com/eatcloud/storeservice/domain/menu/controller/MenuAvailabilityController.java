@@ -0,0 +1,30 @@
+package com.eatcloud.storeservice.domain.menu.controller;
+
+import com.eatcloud.storeservice.domain.menu.dto.MenuAvailabilityRequest;
+import com.eatcloud.storeservice.domain.menu.dto.MenuAvailabilityResponse;
+import com.eatcloud.storeservice.domain.menu.service.MenuService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/v1/stores/menus")
+@Tag(name = "5-2. MenuController")
+public class MenuAvailabilityController {
+
+	private final MenuService menuService;
+
+	@Operation(summary = "메뉴 가격/판매 여부/재고 상태 일괄 조회 (주문 검증용)")
+	@PostMapping("/availability")
+	public List<MenuAvailabilityResponse> getAvailability(@Valid @RequestBody MenuAvailabilityRequest request) {
+		return menuService.getAvailability(request.getMenuIds());
+	}
+}
@@ -0,0 +1,18 @@
+package com.eatcloud.storeservice.domain.menu.dto;
+
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.util.List;
+import java.util.UUID;
+
+@Getter @Setter
+@NoArgsConstructor
+public class MenuAvailabilityRequest {
+    @NotEmpty
+    @Size(max = 100)
+    private List<UUID> menuIds;
+}
@@ -0,0 +1,27 @@
+package com.eatcloud.storeservice.domain.menu.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+/**
+ * 주문 시점 장바구니 검증용 메뉴 요약.
+ * stockStatus: UNLIMITED / IN_STOCK / OUT_OF_STOCK / UNKNOWN(재고 행 없음)
+ */
+@Getter
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class MenuAvailabilityResponse {
+    private UUID menuId;
+    private UUID storeId;
+    private String menuName;
+    private BigDecimal price;
+    private Boolean isAvailable;
+    private String stockStatus;
+    private Integer availableQty;
+}
@@ -4,9 +4,10 @@ package com.eatcloud.storeservice.domain.menu.repository;
 import com.eatcloud.autotime.repository.SoftDeleteRepository;
 import com.eatcloud.storeservice.domain.menu.entity.Menu;
 import com.eatcloud.storeservice.domain.store.entity.Store;
-import io.lettuce.core.dynamic.annotation.Param;
+import org.springframework.data.repository.query.Param;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -19,6 +20,10 @@ public interface MenuRepository extends SoftDeleteRepository<Menu, UUID> {
     List<Menu> findAllByStore(Store store);
     Optional<Menu> findByIdAndStore(UUID id, Store store);
 
+    // 가용성 일괄 조회용: 매장을 함께 읽어 메뉴마다 매장 SELECT 가 나가지 않게 한다
+    @Query("SELECT m FROM Menu m JOIN FETCH m.store WHERE m.id IN :ids")
+    List<Menu> findAllWithStoreByIdIn(@Param("ids") Collection<UUID> ids);
+
     @Query("SELECT DISTINCT m.store FROM Menu m WHERE m.menuCategoryCode = :code AND m.isAvailable = true")
     List<Store> findDistinctStoresByMenuCategoryCode(@Param("code") String code);
 
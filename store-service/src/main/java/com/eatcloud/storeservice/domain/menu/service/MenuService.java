@@ -1,5 +1,8 @@
 package com.eatcloud.storeservice.domain.menu.service;
 
+import com.eatcloud.storeservice.domain.inventory.entity.InventoryStock;
+import com.eatcloud.storeservice.domain.inventory.repository.InventoryStockRepository;
+import com.eatcloud.storeservice.domain.menu.dto.MenuAvailabilityResponse;
 import com.eatcloud.storeservice.domain.menu.entity.Menu;
 import com.eatcloud.storeservice.domain.menu.exception.MenuErrorCode;
 import com.eatcloud.storeservice.domain.menu.exception.MenuException;
@@ -11,7 +14,10 @@ import com.eatcloud.storeservice.domain.store.repository.StoreRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 
 @Service
@@ -19,11 +25,14 @@ public class MenuService {
 
     private final MenuRepository menuRepository;
     private final StoreRepository storeRepository;
+    private final InventoryStockRepository inventoryStockRepository;
 
     @Autowired
-    public MenuService(MenuRepository menuRepository, StoreRepository storeRepository) {
+    public MenuService(MenuRepository menuRepository, StoreRepository storeRepository,
+                       InventoryStockRepository inventoryStockRepository) {
         this.menuRepository = menuRepository;
         this.storeRepository = storeRepository;
+        this.inventoryStockRepository = inventoryStockRepository;
     }
 
     public List<Menu> getMenusByStore(UUID storeId) {
@@ -40,4 +49,41 @@ public class MenuService {
         return menuRepository.findByIdAndStore(menuId, store)
                 .orElseThrow(() -> new MenuException(MenuErrorCode.MENU_NOT_FOUND));
     }
+
+    /**
+     * 메뉴(매장 fetch join)/재고를 각각 IN 조회 한 번씩으로 묶어 가져온다.
+     * 존재하지 않는(또는 삭제된) 메뉴와 삭제된 매장의 메뉴는 결과에서 빠지므로 호출 측에서 누락 여부를 확인한다.
+     */
+    public List<MenuAvailabilityResponse> getAvailability(List<UUID> menuIds) {
+        List<Menu> menus = menuRepository.findAllWithStoreByIdIn(menuIds);
+        Map<UUID, InventoryStock> stocks = inventoryStockRepository.findAllById(menuIds).stream()
+                .collect(Collectors.toMap(InventoryStock::getMenuId, Function.identity()));
+
+        return menus.stream()
+                .map(menu -> toAvailability(menu, stocks.get(menu.getId())))
+                .collect(Collectors.toList());
+    }
+
+    private MenuAvailabilityResponse toAvailability(Menu menu, InventoryStock stock) {
+        String stockStatus;
+        Integer availableQty = null;
+        if (stock == null) {
+            stockStatus = Boolean.TRUE.equals(menu.getIsUnlimited()) ? "UNLIMITED" : "UNKNOWN";
+        } else if (stock.isUnlimited()) {
+            stockStatus = "UNLIMITED";
+        } else {
+            availableQty = stock.getAvailableQty();
+            stockStatus = availableQty > 0 ? "IN_STOCK" : "OUT_OF_STOCK";
+        }
+
+        return MenuAvailabilityResponse.builder()
+                .menuId(menu.getId())
+                .storeId(menu.getStore().getStoreId())
+                .menuName(menu.getMenuName())
+                .price(menu.getPrice())
+                .isAvailable(menu.getIsAvailable())
+                .stockStatus(stockStatus)
+                .availableQty(availableQty)
+                .build();
+    }
 }
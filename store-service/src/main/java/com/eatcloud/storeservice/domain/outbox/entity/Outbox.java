@@ -6,6 +6,7 @@ import jakarta.persistence.*;
 import lombok.*;
 import org.hibernate.annotations.Type;
 import java.time.LocalDateTime;
+import java.time.OffsetDateTime;
 import java.util.UUID;
 
 @Entity
@@ -54,6 +55,13 @@ public class Outbox {
     @Column(name = "published_at")
     private LocalDateTime publishedAt;
 
+    // 릴레이 lease: 소유 인스턴스와 만료 시각 (OutboxRelay 가 JDBC 로 직접 갱신)
+    @Column(name = "claimed_by", length = 100)
+    private String claimedBy;
+
+    @Column(name = "claim_expires_at")
+    private OffsetDateTime claimExpiresAt;
+
     // 레거시: 점진 폐기 예정
     @Builder.Default
     private boolean sent = false;
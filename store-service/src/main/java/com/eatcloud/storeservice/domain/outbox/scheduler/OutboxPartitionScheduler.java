@@ -0,0 +1,35 @@
+package com.eatcloud.storeservice.domain.outbox.scheduler;
+
+import com.eatcloud.outboxrelay.DailyPartitionMaintainer;
+import com.eatcloud.outboxrelay.ExpiredRowCleaner;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * p_outbox 일 단위 파티션 선생성 + 만료 파티션 drop, stock_proj_processed 만료 행 정리.
+ * 기동 직후 한 번, 이후 inventory.outbox.partition.interval-ms 주기로 실행한다.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OutboxPartitionScheduler {
+
+    private final DailyPartitionMaintainer stockPartitionMaintainer;
+    private final ExpiredRowCleaner stockProcessedEventCleaner;
+
+    @Scheduled(fixedDelayString = "${inventory.outbox.partition.interval-ms:3600000}")
+    public void maintain() {
+        try {
+            stockPartitionMaintainer.runOnce();
+        } catch (Exception e) {
+            log.error("❌ partition maintenance failed err={}", e.toString(), e);
+        }
+        try {
+            stockProcessedEventCleaner.runOnce();
+        } catch (Exception e) {
+            log.error("❌ processed-event cleanup failed err={}", e.toString(), e);
+        }
+    }
+}
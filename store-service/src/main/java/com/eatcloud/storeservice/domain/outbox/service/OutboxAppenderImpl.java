@@ -1,5 +1,6 @@
 package com.eatcloud.storeservice.domain.outbox.service;
 
+import com.eatcloud.outboxrelay.OutboxEventRegistry;
 import com.eatcloud.storeservice.domain.outbox.entity.Outbox;
 import com.eatcloud.storeservice.domain.outbox.repository.OutboxRepository;
 import com.fasterxml.jackson.databind.JsonNode;
@@ -18,11 +19,14 @@ public class OutboxAppenderImpl implements OutboxAppender {
 
     private final OutboxRepository repo;
     private final ObjectMapper om;
+    private final OutboxEventRegistry stockOutboxEventRegistry;
 
     @Override
     @Transactional
     public void append(String eventType, String aggregateType, UUID aggregateId,
                        Map<String, ?> payloadMap, Map<String, ?> headersMap) {
+        // 릴레이는 payload 를 그대로 보내므로 등록된 타입만 기록한다
+        stockOutboxEventRegistry.require(eventType, payloadMap);
         JsonNode payload = om.valueToTree(payloadMap);
         JsonNode headers = headersMap != null ? om.valueToTree(headersMap) : null;
 
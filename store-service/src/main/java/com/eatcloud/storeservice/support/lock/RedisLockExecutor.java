@@ -1,11 +1,16 @@
 package com.eatcloud.storeservice.support.lock;
 
+import com.eatcloud.locktelemetry.LockContentionTracker;
 import lombok.RequiredArgsConstructor;
 import org.redisson.api.RLock;
 import org.redisson.api.RedissonClient;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
 
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.TreeSet;
 import java.util.concurrent.TimeUnit;
 import java.util.function.Supplier;
 
@@ -14,6 +19,7 @@ import java.util.function.Supplier;
 public class RedisLockExecutor {
 
     private final RedissonClient redisson;
+    private final LockContentionTracker telemetry;
 
     @Value("${inventory.lock.wait-ms:300}")
     private long waitMs;
@@ -21,20 +27,69 @@ public class RedisLockExecutor {
     private long leaseMs;
 
     public <T> T withMenuLock(String menuKey, Supplier<T> body) {
-        RLock lock = redisson.getLock("lock:menu:" + menuKey);
-        boolean locked = false;
+        String name = "lock:menu:" + menuKey;
+        RLock lock = redisson.getLock(name);
+        long lockedAt = acquire(lock, name);
         try {
-            locked = lock.tryLock(waitMs, leaseMs, TimeUnit.MILLISECONDS);
-            if (!locked) throw new LockTimeoutException("LOCK_TIMEOUT");
             return body.get();
+        } finally {
+            release(lock, name, lockedAt);
+        }
+    }
+
+    /**
+     * 여러 메뉴 락을 정렬된 순서로 모두 잡은 뒤 body 실행.
+     * 모든 호출이 같은 순서로 잡으므로 서로 다른 주문이 겹치는 메뉴를 잡아도 교착되지 않는다.
+     */
+    public <T> T withMenuLocks(Collection<String> menuKeys, Supplier<T> body) {
+        Deque<Held> held = new ArrayDeque<>();
+        try {
+            for (String menuKey : new TreeSet<>(menuKeys)) {
+                String name = "lock:menu:" + menuKey;
+                RLock lock = redisson.getLock(name);
+                held.push(new Held(lock, name, acquire(lock, name)));
+            }
+            return body.get();
+        } finally {
+            while (!held.isEmpty()) {
+                Held h = held.pop();
+                release(h.lock(), h.name(), h.lockedAt());
+            }
+        }
+    }
+
+    /** @return 획득 시각 (System.nanoTime) */
+    private long acquire(RLock lock, String name) {
+        long start = System.nanoTime();
+        try {
+            if (!lock.tryLock(waitMs, leaseMs, TimeUnit.MILLISECONDS)) {
+                telemetry.failed(name, System.nanoTime() - start, "timeout");
+                throw new LockTimeoutException("LOCK_TIMEOUT");
+            }
         } catch (InterruptedException e) {
             Thread.currentThread().interrupt();
+            telemetry.failed(name, System.nanoTime() - start, "interrupted");
             throw new LockTimeoutException("INTERRUPTED", e);
-        } finally {
-            if (locked && lock.isHeldByCurrentThread()) lock.unlock();
+        } catch (LockTimeoutException e) {
+            throw e;
+        } catch (RuntimeException e) {
+            telemetry.failed(name, System.nanoTime() - start, "error");
+            throw e;
         }
+        long lockedAt = System.nanoTime();
+        telemetry.acquired(name, lockedAt - start);
+        return lockedAt;
     }
 
+    // lease(leaseMs)가 작업보다 먼저 끝났으면 이미 락을 잃은 상태 → lease 만료로 기록
+    private void release(RLock lock, String name, long lockedAt) {
+        boolean stillHeld = lock.isHeldByCurrentThread();
+        if (stillHeld) lock.unlock();
+        telemetry.released(name, System.nanoTime() - lockedAt, stillHeld);
+    }
+
+    private record Held(RLock lock, String name, long lockedAt) {}
+
     public static class LockTimeoutException extends RuntimeException {
         public LockTimeoutException(String m) { super(m); }
         public LockTimeoutException(String m, Throwable t) { super(m, t); }
@@ -4,12 +4,16 @@ package com.eatcloud.storeservice.domain.inventory.hotpath;
 import com.eatcloud.storeservice.domain.inventory.entity.InventoryReservation;
 import com.eatcloud.storeservice.domain.inventory.repository.InventoryReservationRepository;
 import com.eatcloud.storeservice.domain.inventory.repository.InventoryStockRepository;
+import com.eatcloud.storeservice.domain.inventory.service.ReserveLine;
 import org.junit.jupiter.api.Test;
 import org.mockito.Mockito;
 import org.redisson.api.RScript;
 import org.redisson.api.RedissonClient;
+import org.redisson.client.RedisException;
 import org.redisson.client.codec.StringCodec;
+import org.springframework.test.util.ReflectionTestUtils;
 
+import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
 
@@ -23,6 +27,10 @@ class HotPathLuaServiceUnitTest {
     RScript script = mock(RScript.class);
     InventoryStockRepository stockRepo = mock(InventoryStockRepository.class);
     InventoryReservationRepository resRepo = mock(InventoryReservationRepository.class);
+    InventoryKeys inventoryKeys = new InventoryKeys("legacy", true, 16);
+    InventoryKeyMigrator keyMigrator = mock(InventoryKeyMigrator.class);
+    FlashSaleRegistry flashSales = mock(FlashSaleRegistry.class);
+    FlashSaleService flashSale = mock(FlashSaleService.class);
 
     HotPathLuaService sut;
 
@@ -32,7 +40,7 @@ class HotPathLuaServiceUnitTest {
 
     HotPathLuaServiceUnitTest() {
         when(redisson.getScript(StringCodec.INSTANCE)).thenReturn(script);
-        sut = new HotPathLuaService(redisson, stockRepo, resRepo);
+        sut = new HotPathLuaService(redisson, stockRepo, resRepo, inventoryKeys, keyMigrator, flashSales, flashSale);
     }
 
     @Test
@@ -50,6 +58,35 @@ class HotPathLuaServiceUnitTest {
                 r.getOrderLineId().equals(lineId) && r.getQty() == 2 && r.getStatus().equals("PENDING")));
     }
 
+    @Test
+    void reserve_redis_first_journals_in_lua_and_skips_db() {
+        ReflectionTestUtils.setField(sut, "redisFirst", true);
+        when(script.eval(any(), anyString(), any(), anyList(), any(), any(), any(), any()))
+                .thenReturn(1L);
+
+        boolean ok = sut.reserveViaLua(orderId, lineId, menuId, 2);
+
+        assertTrue(ok);
+        verify(script).eval(any(), anyString(), any(),
+                Mockito.argThat((List<Object> keys) -> keys.size() == 5 && InventoryKeys.LEGACY_JOURNAL.equals(keys.get(3))
+                        && keys.get(4).equals("inv:" + menuId + ":mode")),
+                any(), any(), any(), any());
+        verifyNoInteractions(stockRepo, resRepo);
+    }
+
+    @Test
+    void reserve_redis_first_switching_menu_is_fenced() {
+        ReflectionTestUtils.setField(sut, "redisFirst", true);
+        when(script.eval(any(), anyString(), any(), anyList(), any(), any(), any(), any()))
+                .thenReturn(-2L); // mode = SWITCHING
+
+        HotPathFencedException e = assertThrows(HotPathFencedException.class,
+                () -> sut.reserveViaLua(orderId, lineId, menuId, 2));
+
+        assertFalse(e.isCold());
+        verifyNoInteractions(stockRepo, resRepo);
+    }
+
     @Test
     void reserve_insufficient_returns_false() {
         when(script.eval(any(), anyString(), any(), anyList(), any(), any(), any(), any()))
@@ -73,4 +110,133 @@ class HotPathLuaServiceUnitTest {
         // rollback lua 호출(두 번째 eval) 검증
         verify(script, times(2)).eval(any(), anyString(), any(), anyList(), any(), any());
     }
+
+    @Test
+    void reserve_flash_sale_uses_home_shard_and_retries_after_steal() {
+        when(flashSales.activeShards(menuId)).thenReturn(4);
+        int home = FlashSaleService.homeShard(lineId, 4);
+        when(script.eval(any(), anyString(), any(), anyList(), any(), any(), any(), any()))
+                .thenReturn(0L, 1L); // 홈 샤드 부족 → 이웃에서 가져온 뒤 성공
+        when(flashSale.steal(menuId, home, 4, 2)).thenReturn(true);
+        when(stockRepo.reserve(menuId, 2)).thenReturn(1);
+        when(resRepo.findByOrderLineId(lineId)).thenReturn(Optional.empty());
+
+        boolean ok = sut.reserveViaLua(orderId, lineId, menuId, 2);
+
+        assertTrue(ok);
+        verify(script, times(2)).eval(any(), anyString(), any(),
+                Mockito.argThat((List<Object> keys) -> keys.get(0).equals("inv:" + menuId + ":s" + home + ":avail")),
+                any(), any(), any(), any());
+        verify(stockRepo).reserve(menuId, 2);
+    }
+
+    @Test
+    void transition_returns_previous_line_state_and_passes_db_status_as_default() {
+        InventoryReservation r = InventoryReservation.builder()
+                .menuId(menuId).orderId(orderId).orderLineId(lineId).qty(2).status("CONFIRMED").build();
+        when(script.eval(any(), anyString(), any(), anyList(), any(Object[].class)))
+                .thenReturn(HotPathLuaService.CONFIRMED);
+
+        String prev = sut.transitionViaLua(HotPathLuaService.LineTransition.RETURN, r, "CUSTOMER_CANCEL");
+
+        assertEquals(HotPathLuaService.LineTransition.RETURN.from(), prev);
+        verify(script).eval(any(), anyString(), any(),
+                Mockito.argThat((List<Object> keys) -> keys.size() == 4 && keys.get(2).equals("inv:" + menuId + ":lines")),
+                any(Object[].class));
+        verifyNoInteractions(stockRepo, resRepo);
+    }
+
+    @Test
+    void reserveBatch_success_reserves_each_menu_once_and_persists_lines() {
+        UUID lineA = UUID.randomUUID();
+        UUID lineB = UUID.randomUUID();
+        UUID lineC = UUID.randomUUID();
+        UUID otherMenu = UUID.randomUUID();
+        List<ReserveLine> lines = List.of(
+                new ReserveLine(lineA, menuId, 1),
+                new ReserveLine(lineB, otherMenu, 2),
+                new ReserveLine(lineC, menuId, 3));
+        when(script.eval(any(), anyString(), any(), anyList(), any(Object[].class)))
+                .thenReturn(List.of(1L, 0L, 1L, 2L)); // 모든 라인 신규 예약
+        when(stockRepo.reserve(any(), anyInt())).thenReturn(1);
+        when(resRepo.findByOrderLineId(any())).thenReturn(Optional.empty());
+
+        List<UUID> insufficient = sut.reserveBatchViaLua(orderId, lines);
+
+        assertTrue(insufficient.isEmpty());
+        verify(script, times(1)).eval(any(), anyString(), any(), anyList(), any(Object[].class));
+        verify(stockRepo).reserve(menuId, 4);     // 같은 메뉴 라인은 합산
+        verify(stockRepo).reserve(otherMenu, 2);
+        verify(resRepo, times(3)).save(any(InventoryReservation.class));
+    }
+
+    @Test
+    void reserveBatch_tagged_layout_runs_one_script_per_slot_and_keeps_keys_in_slot() {
+        InventoryKeys tagged = new InventoryKeys("tagged", false, 16);
+        sut = new HotPathLuaService(redisson, stockRepo, resRepo, tagged, keyMigrator, flashSales, flashSale);
+        UUID otherMenu = UUID.randomUUID();
+        while (tagged.slotGroup(otherMenu) == tagged.slotGroup(menuId)) otherMenu = UUID.randomUUID();
+        List<ReserveLine> lines = List.of(
+                new ReserveLine(UUID.randomUUID(), menuId, 1),
+                new ReserveLine(UUID.randomUUID(), otherMenu, 2));
+        when(script.eval(any(), anyString(), any(), anyList(), any(Object[].class)))
+                .thenReturn(List.of(1L, 0L));
+        when(stockRepo.reserve(any(), anyInt())).thenReturn(1);
+        when(resRepo.findByOrderLineId(any())).thenReturn(Optional.empty());
+
+        List<UUID> insufficient = sut.reserveBatchViaLua(orderId, lines);
+
+        assertTrue(insufficient.isEmpty());
+        // 묶음마다 한 메뉴의 키 3개, 모두 같은 해시 태그
+        verify(script, times(2)).eval(any(), anyString(), any(),
+                Mockito.argThat((List<Object> keys) -> keys.size() == 3
+                        && keys.stream().map(k -> k.toString().substring(0, k.toString().indexOf('}') + 1)).distinct().count() == 1),
+                any(Object[].class));
+    }
+
+    @Test
+    void reserveBatch_insufficient_returns_short_menu_and_skips_db() {
+        UUID otherMenu = UUID.randomUUID();
+        List<ReserveLine> lines = List.of(
+                new ReserveLine(UUID.randomUUID(), menuId, 1),
+                new ReserveLine(UUID.randomUUID(), otherMenu, 2));
+        // Lua 의 메뉴 인덱스는 메뉴 ID 정렬 순서 (1-based)
+        UUID second = menuId.compareTo(otherMenu) < 0 ? otherMenu : menuId;
+        when(script.eval(any(), anyString(), any(), anyList(), any(Object[].class)))
+                .thenReturn(List.of(0L, 2L));
+
+        List<UUID> insufficient = sut.reserveBatchViaLua(orderId, lines);
+
+        assertEquals(List.of(second), insufficient);
+        verifyNoInteractions(stockRepo);
+    }
+
+    @Test
+    void reserveBatch_redis_error_rolls_back_only_lines_reserved_by_this_call() {
+        InventoryKeys tagged = new InventoryKeys("tagged", false, 16);
+        sut = new HotPathLuaService(redisson, stockRepo, resRepo, tagged, keyMigrator, flashSales, flashSale);
+        UUID otherMenu = UUID.randomUUID();
+        while (tagged.slotGroup(otherMenu) == tagged.slotGroup(menuId)) otherMenu = UUID.randomUUID();
+        // 묶음은 슬롯 순서로 실행된다: 앞 묶음 라인은 새로 차감되고, 뒤 묶음에서 Redis 오류
+        boolean menuFirst = tagged.slotGroup(menuId) < tagged.slotGroup(otherMenu);
+        ReserveLine first = new ReserveLine(UUID.randomUUID(), menuFirst ? menuId : otherMenu, 1);
+        ReserveLine second = new ReserveLine(UUID.randomUUID(), menuFirst ? otherMenu : menuId, 2);
+        when(script.eval(any(), argThat((String s) -> s.contains("SISMEMBER")), any(), anyList(), any(Object[].class)))
+                .thenReturn(List.of(1L, 0L))
+                .thenThrow(new RedisException("connection reset"));
+
+        assertThrows(RedisException.class, () -> sut.reserveBatchViaLua(orderId, List.of(first, second)));
+
+        // 롤백은 앞 묶음의 라인 하나만 (뒤 묶음 라인은 이전 호출이 예약했을 수 있어 건드리지 않는다)
+        List<List<Object>> rollbacks = mockingDetails(script).getInvocations().stream()
+                .filter(i -> i.getMethod().getName().equals("eval") && i.getArgument(1).toString().contains("SREM"))
+                .map(i -> List.of(i.getArguments()))
+                .toList();
+        assertEquals(1, rollbacks.size());
+        List<Object> rollback = rollbacks.get(0);
+        assertTrue(((List<?>) rollback.get(3)).get(0).toString().contains(first.menuId().toString()));
+        assertTrue(rollback.contains(first.orderLineId().toString()));
+        assertFalse(rollback.contains(second.orderLineId().toString()));
+        verifyNoInteractions(stockRepo, resRepo);
+    }
 }
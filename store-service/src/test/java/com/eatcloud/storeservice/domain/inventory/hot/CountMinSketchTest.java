@@ -0,0 +1,61 @@
+package com.eatcloud.storeservice.domain.inventory.hot;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CountMinSketchTest {
+
+    @Test
+    void estimate_never_undercounts_even_when_narrow() {
+        CountMinSketch sketch = new CountMinSketch(16);
+        List<UUID> keys = new ArrayList<>();
+        for (int i = 0; i < 500; i++) {
+            UUID key = UUID.randomUUID();
+            keys.add(key);
+            sketch.add(key, i + 1);
+        }
+
+        for (int i = 0; i < keys.size(); i++) {
+            assertTrue(sketch.estimate(keys.get(i)) >= i + 1);
+        }
+    }
+
+    @Test
+    void estimate_is_exact_for_few_keys_in_wide_sketch() {
+        CountMinSketch sketch = new CountMinSketch(1024);
+        UUID hot = UUID.randomUUID();
+        UUID cold = UUID.randomUUID();
+
+        sketch.add(hot, 40);
+        sketch.add(hot, 2);
+        sketch.add(cold, 1);
+
+        assertEquals(42, sketch.estimate(hot));
+        assertEquals(1, sketch.estimate(cold));
+        assertEquals(0, sketch.estimate(UUID.randomUUID()));
+    }
+
+    @Test
+    void concurrent_adds_are_not_lost() throws Exception {
+        CountMinSketch sketch = new CountMinSketch(256);
+        UUID key = UUID.randomUUID();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        for (int t = 0; t < 8; t++) {
+            pool.submit(() -> {
+                for (int i = 0; i < 10_000; i++) sketch.add(key, 1);
+            });
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(80_000, sketch.estimate(key));
+    }
+}
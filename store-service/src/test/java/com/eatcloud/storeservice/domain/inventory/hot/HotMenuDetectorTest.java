@@ -0,0 +1,120 @@
+package com.eatcloud.storeservice.domain.inventory.hot;
+
+import com.eatcloud.storeservice.domain.inventory.hotpath.HotPathFence;
+import com.eatcloud.storeservice.domain.inventory.hotpath.HotPathLuaService;
+import com.eatcloud.storeservice.domain.inventory.hotpath.HotPathReconciler;
+import com.eatcloud.storeservice.domain.inventory.repository.InventoryStockRepository;
+import com.eatcloud.storeservice.support.lock.RedisLockExecutor;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * window 10초 = slice 5초 × 2, 승격 임계치 2 rps(= window 안 20건) / 락 대기 100ms/s(= 1000ms), 강등 비율 0.5.
+ */
+class HotMenuDetectorTest {
+
+    RedisHotKeyDecider decider = mock(RedisHotKeyDecider.class);
+    RedisLockExecutor locks = mock(RedisLockExecutor.class);
+    InventoryStockRepository stockRepo = mock(InventoryStockRepository.class);
+    HotPathLuaService hotPath = mock(HotPathLuaService.class);
+    HotPathReconciler reconciler = mock(HotPathReconciler.class);
+    HotPathFence fence = mock(HotPathFence.class);
+    SimpleMeterRegistry meters = new SimpleMeterRegistry();
+
+    UUID menuId = UUID.randomUUID();
+
+    HotMenuDetector detector(boolean enabled) {
+        return new HotMenuDetector(decider, locks, stockRepo, hotPath, reconciler, fence, meters,
+                enabled, 10_000, 5_000, 2, 100, 0.5, 120_000, 1024, 100);
+    }
+
+    @Test
+    void promotes_when_reserve_rate_crosses_threshold() {
+        HotMenuDetector sut = detector(true);
+        reserve(sut, 20);
+
+        sut.evaluate();
+
+        verify(decider).promote(eq(menuId), any());
+    }
+
+    @Test
+    void promotes_on_menu_lock_wait_alone() {
+        HotMenuDetector sut = detector(true);
+        sut.onLockWait("lock:menu:" + menuId, TimeUnit.MILLISECONDS.toNanos(1_000));
+        sut.onLockWait("lock:order:" + menuId, TimeUnit.MILLISECONDS.toNanos(60_000));   // 메뉴 락이 아니면 무시
+
+        sut.evaluate();
+
+        verify(decider, times(1)).promote(any(), any());
+        verify(decider).promote(eq(menuId), any());
+    }
+
+    @Test
+    void below_threshold_is_not_promoted_and_drops_out_of_candidates() {
+        HotMenuDetector sut = detector(true);
+        reserve(sut, 9);
+
+        sut.evaluate();
+
+        verify(decider, never()).promote(any(), any());
+        assertEquals(List.of(), sut.snapshot(10).get("candidates"));
+    }
+
+    @Test
+    void hot_menu_is_touched_above_demote_ratio_and_left_to_cool_below_it() {
+        HotMenuDetector sut = detector(true);
+        when(decider.isHot(menuId)).thenReturn(true);
+
+        reserve(sut, 10);            // 1 rps: 승격 임계치의 절반 → 아직 뜨거움
+        sut.evaluate();
+        verify(decider, times(1)).touch(menuId);
+        verify(decider, never()).promote(any(), any());
+
+        sut.evaluate();              // 같은 건수가 아직 window 안 (slice 2개)
+        verify(decider, times(2)).touch(menuId);
+
+        sut.evaluate();              // 첫 slice 가 밀려남 → 0 rps
+        verify(decider, times(2)).touch(menuId);
+        assertEquals(List.of(), sut.snapshot(10).get("candidates"));
+    }
+
+    @Test
+    void cooled_menus_are_demoted_and_counted() {
+        HotMenuDetector sut = detector(true);
+        when(decider.demoteCooled(eq(120_000L), any())).thenReturn(List.of(menuId));
+
+        sut.evaluate();
+
+        assertEquals(1.0, meters.get("inventory.hot.demotions").counter().count());
+        verify(reconciler).drainNow(anyLong());
+        verify(locks, never()).withMenuLock(anyString(), any());   // 울타리 비활성 → 전환 없음
+    }
+
+    @Test
+    void disabled_detector_ignores_traffic() {
+        HotMenuDetector sut = detector(false);
+        reserve(sut, 100);
+
+        sut.evaluate();
+
+        verify(decider, never()).promote(any(), any());
+        verify(decider, never()).demoteCooled(anyLong(), any());
+        Map<String, Object> view = sut.snapshot(10);
+        assertEquals(false, view.get("enabled"));
+        assertEquals(List.of(), view.get("candidates"));
+    }
+
+    void reserve(HotMenuDetector sut, int n) {
+        for (int i = 0; i < n; i++) sut.recordReserve(menuId);
+    }
+}
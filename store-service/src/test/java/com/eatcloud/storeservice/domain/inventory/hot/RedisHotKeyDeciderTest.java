@@ -0,0 +1,123 @@
+package com.eatcloud.storeservice.domain.inventory.hot;
+
+import org.junit.jupiter.api.Test;
+import org.redisson.api.RMap;
+import org.redisson.api.RSet;
+import org.redisson.api.RTopic;
+import org.redisson.api.RedissonClient;
+import org.redisson.client.codec.StringCodec;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class RedisHotKeyDeciderTest {
+
+    RedissonClient redisson = mock(RedissonClient.class);
+    @SuppressWarnings("unchecked")
+    RSet<String> hotSet = mock(RSet.class);
+    @SuppressWarnings("unchecked")
+    RMap<String, String> autoMap = mock(RMap.class);
+    RTopic topic = mock(RTopic.class);
+
+    RedisHotKeyDecider sut;
+
+    UUID menuId = UUID.randomUUID();
+
+    RedisHotKeyDeciderTest() {
+        doReturn(hotSet).when(redisson).getSet(RedisHotKeyDecider.HOT_SET, StringCodec.INSTANCE);
+        doReturn(autoMap).when(redisson).getMap(RedisHotKeyDecider.AUTO_MAP, StringCodec.INSTANCE);
+        when(redisson.getTopic(RedisHotKeyDecider.EVENTS_TOPIC, StringCodec.INSTANCE)).thenReturn(topic);
+        sut = new RedisHotKeyDecider(redisson);
+    }
+
+    @Test
+    void promote_seeds_then_publishes_once() {
+        when(autoMap.fastPutIfAbsent(eq(menuId.toString()), anyString())).thenReturn(true);
+        List<String> seeded = new ArrayList<>();
+
+        assertTrue(sut.promote(menuId, () -> seeded.add("seed")));
+
+        assertEquals(List.of("seed"), seeded);
+        assertTrue(sut.isHot(menuId));
+        verify(hotSet).add(menuId.toString());
+        verify(topic).publish("ON:" + menuId);
+
+        // 이미 핫이면 Redis 를 다시 타지 않는다
+        assertFalse(sut.promote(menuId, () -> seeded.add("again")));
+        verify(autoMap, times(1)).fastPutIfAbsent(anyString(), anyString());
+    }
+
+    @Test
+    void promote_loses_race_to_other_instance_without_seeding() {
+        when(autoMap.fastPutIfAbsent(eq(menuId.toString()), anyString())).thenReturn(false);
+
+        assertFalse(sut.promote(menuId, () -> fail("다른 인스턴스가 먼저 승격했으면 시드하지 않는다")));
+
+        assertFalse(sut.isHot(menuId));
+        verify(hotSet, never()).add(anyString());
+        verify(topic, never()).publish(any());
+    }
+
+    @Test
+    void failed_seed_releases_auto_claim() {
+        when(autoMap.fastPutIfAbsent(eq(menuId.toString()), anyString())).thenReturn(true);
+
+        assertThrows(IllegalStateException.class,
+                () -> sut.promote(menuId, () -> { throw new IllegalStateException("NO_STOCK_ROW"); }));
+
+        verify(autoMap).fastRemove(menuId.toString());
+        assertFalse(sut.isHot(menuId));
+        verify(topic, never()).publish(any());
+    }
+
+    @Test
+    void demote_cooled_only_demotes_entries_past_cool_down_that_were_not_touched_meanwhile() {
+        UUID cooled = UUID.randomUUID();
+        UUID touchedMeanwhile = UUID.randomUUID();
+        UUID stillHot = UUID.randomUUID();
+        String old = Long.toString(System.currentTimeMillis() - 300_000);
+        when(autoMap.readAllMap()).thenReturn(Map.of(
+                cooled.toString(), old,
+                touchedMeanwhile.toString(), old,
+                stillHot.toString(), Long.toString(System.currentTimeMillis())));
+        when(autoMap.remove(cooled.toString(), old)).thenReturn(true);
+        when(autoMap.remove(touchedMeanwhile.toString(), old)).thenReturn(false);
+        List<UUID> fencedFirst = new ArrayList<>();
+
+        List<UUID> demoted = sut.demoteCooled(120_000, fencedFirst::add);
+
+        assertEquals(List.of(cooled), demoted);
+        assertEquals(List.of(cooled), fencedFirst);
+        verify(hotSet).remove(cooled.toString());
+        verify(topic).publish("OFF:" + cooled);
+        verify(autoMap, never()).remove(eq(stillHot.toString()), anyString());
+        verify(hotSet, never()).remove(touchedMeanwhile.toString());
+    }
+
+    @Test
+    void touch_only_refreshes_auto_promoted_entries() {
+        sut.touch(menuId);
+
+        verify(autoMap).replace(eq(menuId.toString()), anyString());
+        verify(autoMap, never()).put(anyString(), anyString());
+    }
+
+    @Test
+    void resync_replaces_local_cache_with_shared_set() {
+        UUID stale = UUID.randomUUID();
+        when(autoMap.fastPutIfAbsent(anyString(), anyString())).thenReturn(true);
+        sut.promote(stale, () -> { });
+        when(hotSet.readAll()).thenReturn(Set.of(menuId.toString(), "not-a-uuid"));
+
+        sut.resync();
+
+        assertEquals(Set.of(menuId), sut.hotMenus());
+    }
+}
@@ -0,0 +1,150 @@
+package com.eatcloud.storeservice.domain.inventory.hotpath;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.redisson.api.PendingEntry;
+import org.redisson.api.RLock;
+import org.redisson.api.RStream;
+import org.redisson.api.RedissonClient;
+import org.redisson.api.StreamMessageId;
+import org.redisson.api.stream.PendingListArgs;
+import org.redisson.api.stream.StreamAddArgs;
+import org.redisson.client.RedisException;
+import org.redisson.client.codec.StringCodec;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class HotPathReconcilerTest {
+
+    static final String JOURNAL = InventoryKeys.LEGACY_JOURNAL;
+
+    RedissonClient redisson = mock(RedissonClient.class);
+    RLock lock = mock(RLock.class);
+    @SuppressWarnings("unchecked")
+    RStream<String, String> journal = mock(RStream.class);
+    @SuppressWarnings("unchecked")
+    RStream<String, String> dead = mock(RStream.class);
+    HotPathJournalWriter writer = mock(HotPathJournalWriter.class);
+    TransactionTemplate tx = mock(TransactionTemplate.class);
+    @SuppressWarnings("unchecked")
+    KafkaTemplate<String, Object> kafka = mock(KafkaTemplate.class);
+    HotPathLuaService hotPath = mock(HotPathLuaService.class);
+    HotPathFence fence = mock(HotPathFence.class);
+    SimpleMeterRegistry meters = new SimpleMeterRegistry();
+
+    HotPathReconciler sut;
+
+    UUID menuId = UUID.randomUUID();
+    UUID orderId = UUID.randomUUID();
+    UUID lineId = UUID.randomUUID();
+    StreamMessageId entryId = new StreamMessageId(1_700_000_000_000L, 0);
+
+    @SuppressWarnings("unchecked")
+    HotPathReconcilerTest() throws Exception {
+        when(redisson.getLock(anyString())).thenReturn(lock);
+        when(lock.tryLock(anyLong(), any())).thenReturn(true);
+        when(lock.isHeldByCurrentThread()).thenReturn(true);
+        doReturn(journal).when(redisson).getStream(eq(JOURNAL), eq(StringCodec.INSTANCE));
+        doReturn(dead).when(redisson).getStream(eq(JOURNAL + HotPathReconciler.DEAD_SUFFIX), eq(StringCodec.INSTANCE));
+        doAnswer(inv -> {
+            inv.<Consumer<TransactionStatus>>getArgument(0).accept(null);
+            return null;
+        }).when(tx).executeWithoutResult(any());
+
+        PendingEntry pending = mock(PendingEntry.class);
+        when(pending.getLastTimeDelivered()).thenReturn(5L);
+        when(journal.listPending(any(PendingListArgs.class))).thenReturn(List.of(pending));
+
+        sut = new HotPathReconciler(redisson, new InventoryKeys("legacy", true, 16), writer, tx, kafka,
+                hotPath, fence, meters, true, 500, 20, 10, 5);
+    }
+
+    @Test
+    void dead_lettered_pending_reserve_is_voided_in_redis_not_fenced() {
+        journalHolds("RESERVE");
+        when(writer.insertReserved(anyList(), anyInt())).thenThrow(new DataIntegrityViolationException("fk"));
+        when(hotPath.voidOrphanedReserve(menuId, lineId, 2)).thenReturn(HotPathLuaService.PENDING);
+
+        sut.drainNow(0);
+
+        verify(hotPath).voidOrphanedReserve(menuId, lineId, 2);
+        verify(fence, never()).fence(any());
+        verify(dead).add(any(StreamAddArgs.class));
+        verify(journal).ack(HotPathReconciler.GROUP, entryId);
+        assertEquals(1.0, meters.counter("inventory.hotpath.journal.compensated", "action", "void").count());
+    }
+
+    @Test
+    void dead_lettered_reserve_already_confirmed_in_redis_fences_menu() {
+        journalHolds("RESERVE");
+        when(writer.insertReserved(anyList(), anyInt())).thenThrow(new DataIntegrityViolationException("fk"));
+        when(hotPath.voidOrphanedReserve(menuId, lineId, 2)).thenReturn(HotPathLuaService.CONFIRMED);
+
+        sut.drainNow(0);
+
+        verify(fence).fence(menuId);
+        verify(dead).add(any(StreamAddArgs.class));
+    }
+
+    @Test
+    void dead_lettered_confirm_fences_menu_without_touching_the_line() {
+        journalHolds("CONFIRM");
+        when(writer.transition(anyMap(), anyString(), anyString())).thenThrow(new DataIntegrityViolationException("check"));
+
+        sut.drainNow(0);
+
+        verify(hotPath, never()).voidOrphanedReserve(any(), any(), anyInt());
+        verify(fence).fence(menuId);
+        verify(dead).add(any(StreamAddArgs.class));
+        verify(journal).ack(HotPathReconciler.GROUP, entryId);
+    }
+
+    @Test
+    void transient_failure_is_neither_compensated_nor_dead_lettered() {
+        journalHolds("RESERVE");
+        when(writer.insertReserved(anyList(), anyInt())).thenThrow(new DataAccessResourceFailureException("down"));
+
+        sut.drainNow(0);
+
+        verifyNoInteractions(hotPath, fence, dead);
+        verify(journal, never()).ack(anyString(), any(StreamMessageId[].class));
+    }
+
+    @Test
+    void failed_compensation_leaves_entry_pending_for_next_run() {
+        journalHolds("RESERVE");
+        when(writer.insertReserved(anyList(), anyInt())).thenThrow(new DataIntegrityViolationException("fk"));
+        when(hotPath.voidOrphanedReserve(menuId, lineId, 2)).thenThrow(new RedisException("timeout"));
+
+        sut.drainNow(0);
+
+        verifyNoInteractions(dead);
+        verify(journal, never()).ack(anyString(), any(StreamMessageId[].class));
+    }
+
+    // pending 조회 때 엔트리 하나, 그 뒤로는 비어 있음
+    private void journalHolds(String op) {
+        Map<String, String> fields = new LinkedHashMap<>();
+        fields.put("op", op);
+        fields.put("menuId", menuId.toString());
+        fields.put("orderId", orderId.toString());
+        fields.put("orderLineId", lineId.toString());
+        fields.put("qty", "2");
+        when(journal.readGroup(eq(HotPathReconciler.GROUP), eq(HotPathReconciler.CONSUMER), any()))
+                .thenReturn(Map.of(entryId, fields))
+                .thenReturn(Map.of());
+    }
+}
@@ -0,0 +1,102 @@
+package com.eatcloud.storeservice.domain.inventory.projector;
+
+import com.eatcloud.outboxrelay.KeyOrderedDispatcher;
+import com.eatcloud.outboxrelay.OutboxHeaders;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.apache.kafka.common.header.internals.RecordHeaders;
+import org.apache.kafka.common.record.TimestampType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.kafka.listener.BatchListenerFailedException;
+import org.springframework.kafka.support.Acknowledgment;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class StockProjectorListenerTest {
+
+    StockProjectorService projector = mock(StockProjectorService.class);
+    KeyOrderedDispatcher dispatcher = new KeyOrderedDispatcher("projector-test", 1);
+    Acknowledgment ack = mock(Acknowledgment.class);
+
+    StockProjectorListener sut = new StockProjectorListener(new ObjectMapper(), projector, dispatcher);
+
+    UUID menuId = UUID.randomUUID();
+
+    @AfterEach
+    void tearDown() {
+        dispatcher.close();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void malformed_record_in_middle_applies_earlier_records_before_failing() {
+        List<ConsumerRecord<String, byte[]>> records = List.of(
+                record(0, UUID.randomUUID().toString()),
+                record(1, UUID.randomUUID().toString()),
+                record(2, "not-a-uuid"),
+                record(3, UUID.randomUUID().toString()));
+
+        BatchListenerFailedException ex = assertThrows(BatchListenerFailedException.class,
+                () -> sut.onMessages(records, ack));
+        assertEquals(2, ex.getIndex());
+
+        ArgumentCaptor<List<StockEventEnvelope>> applied = ArgumentCaptor.forClass(List.class);
+        verify(projector).applyBatch(applied.capture());
+        assertEquals(List.of(idOf(records.get(0)), idOf(records.get(1))),
+                applied.getValue().stream().map(StockEventEnvelope::getId).toList());
+        verifyNoInteractions(ack);
+    }
+
+    @Test
+    void lane_failure_before_malformed_record_reports_lowest_index() {
+        List<ConsumerRecord<String, byte[]>> records = List.of(
+                record(0, UUID.randomUUID().toString()),
+                record(1, UUID.randomUUID().toString()),
+                record(2, "not-a-uuid"));
+        UUID failing = idOf(records.get(1));
+        doThrow(new IllegalStateException("batch")).when(projector).applyBatch(anyList());
+        doThrow(new IllegalStateException("row")).when(projector).apply(argThat(e -> failing.equals(e.getId())));
+
+        BatchListenerFailedException ex = assertThrows(BatchListenerFailedException.class,
+                () -> sut.onMessages(records, ack));
+        assertEquals(1, ex.getIndex());
+        verify(projector, times(2)).apply(any());
+        verifyNoInteractions(ack);
+    }
+
+    @Test
+    void valid_batch_is_applied_and_acked() {
+        List<ConsumerRecord<String, byte[]>> records = List.of(
+                record(0, UUID.randomUUID().toString()),
+                record(1, UUID.randomUUID().toString()));
+
+        sut.onMessages(records, ack);
+
+        verify(projector).applyBatch(argThat(list -> list.size() == 2));
+        verify(ack).acknowledge();
+    }
+
+    private static UUID idOf(ConsumerRecord<String, byte[]> record) {
+        return UUID.fromString(OutboxHeaders.read(record.headers(), OutboxHeaders.EVENT_ID));
+    }
+
+    private ConsumerRecord<String, byte[]> record(long offset, String eventId) {
+        RecordHeaders headers = new RecordHeaders();
+        headers.add(OutboxHeaders.EVENT_ID, eventId.getBytes(StandardCharsets.UTF_8));
+        headers.add(OutboxHeaders.EVENT_TYPE, "stock.reserved".getBytes(StandardCharsets.UTF_8));
+        headers.add(OutboxHeaders.AGGREGATE_TYPE, "INVENTORY_ITEM".getBytes(StandardCharsets.UTF_8));
+        headers.add(OutboxHeaders.AGGREGATE_ID, menuId.toString().getBytes(StandardCharsets.UTF_8));
+        byte[] payload = ("{\"orderId\":\"" + UUID.randomUUID() + "\",\"qty\":1}").getBytes(StandardCharsets.UTF_8);
+        return new ConsumerRecord<>("stock-events", 0, offset, 1_000L + offset, TimestampType.CREATE_TIME, 0,
+                payload.length, menuId.toString(), payload, headers, Optional.empty());
+    }
+}